@@ -1 +1,3 @@
-CREATE DATABASE kexplorer;
\ No newline at end of file
+CREATE DATABASE kexplorer;
+\c kexplorer
+CREATE EXTENSION IF NOT EXISTS postgis;
@@ -2,8 +2,10 @@ package com.kirunaexplorer.app;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class KirunaExplorerApplication {
 
 	public static void main(String[] args) {
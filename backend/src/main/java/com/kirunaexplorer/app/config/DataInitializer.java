@@ -7,6 +7,8 @@ import com.kirunaexplorer.app.model.*;
 import com.kirunaexplorer.app.repository.*;
 import com.kirunaexplorer.app.service.DocumentService;
 import com.kirunaexplorer.app.service.FileService;
+import com.kirunaexplorer.app.storage.BlobStore;
+import com.kirunaexplorer.app.storage.StoredBlob;
 import jakarta.transaction.Transactional;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.io.ClassPathResource;
@@ -18,6 +20,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -35,6 +38,7 @@ public class DataInitializer implements CommandLineRunner {
     private final FileRepository fileRepository;
     private final DocumentService documentService;
     private final UserRepository userRepository;
+    private final BlobStore blobStore;
 
     public DataInitializer(
         DocumentRepository documentRepository,
@@ -44,7 +48,8 @@ public class DataInitializer implements CommandLineRunner {
         DocumentScaleRepository documentScaleRepository,
         FileRepository fileRepository,
         DocumentService documentService,
-        UserRepository userRepository
+        UserRepository userRepository,
+        BlobStore blobStore
     ) {
         this.documentRepository = documentRepository;
         this.geoReferenceRepository = geoReferenceRepository;
@@ -54,6 +59,7 @@ public class DataInitializer implements CommandLineRunner {
         this.fileRepository = fileRepository;
         this.documentService = documentService;
         this.userRepository = userRepository;
+        this.blobStore = blobStore;
     }
 
     @Override
@@ -235,15 +241,18 @@ public class DataInitializer implements CommandLineRunner {
     private void storeResource(Long documentId, String fileName, String extension) throws IOException {
         // Load the file from the resources folder
         ClassPathResource resource = new ClassPathResource("documentFiles/" + fileName + "." + extension);
-        byte[] content = resource.getInputStream().readAllBytes();
+        StoredBlob blob;
+        try (InputStream content = resource.getInputStream()) {
+            blob = blobStore.store(content);
+        }
 
         // Create a DocumentFile
         DocumentFile documentFile = new DocumentFile();
         documentFile.setDocument(documentRepository.findById(documentId).orElseThrow());
         documentFile.setName(fileName);
         documentFile.setExtension(extension);
-        documentFile.setSize((long) content.length);
-        documentFile.setContent(content);
+        documentFile.setSize(blob.size());
+        documentFile.setContentHash(blob.hash());
 
         // Save the DocumentFile
         fileRepository.save(documentFile);
@@ -0,0 +1,32 @@
+package com.kirunaexplorer.app.config;
+
+import com.kirunaexplorer.app.service.DocumentLinkService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Creates the indexes of the link table once Hibernate has created it, removing the duplicate links
+ * the unique one would reject, then fills the connection counters of the documents
+ */
+@Component
+public class LinkSchemaInitializer implements CommandLineRunner {
+    private final DataSource dataSource;
+    private final DocumentLinkService documentLinkService;
+
+    public LinkSchemaInitializer(DataSource dataSource, DocumentLinkService documentLinkService) {
+        this.dataSource = dataSource;
+        this.documentLinkService = documentLinkService;
+    }
+
+    @Override
+    public void run(String... args) {
+        new ResourceDatabasePopulator(new ClassPathResource("db/links.sql")).execute(dataSource);
+
+        // Counters of the documents stored before the column existed, or changed by removed duplicates
+        documentLinkService.repairConnectionCounts();
+    }
+}
@@ -47,12 +47,19 @@ public class RouteConfig {
                         .requestMatchers(GET, "/api/v1/documents").permitAll()
                         .requestMatchers(GET, "/api/v1/documents/search").permitAll()
                         .requestMatchers(GET, "/api/v1/documents/search-map").permitAll()
+                        .requestMatchers(GET, "/api/v1/documents/map/clusters").permitAll()
+                        .requestMatchers(GET, "/api/v1/tiles/**").permitAll()
                         .requestMatchers(GET, "/api/v1/documents/{id}/files").permitAll()
                         .requestMatchers(GET, "/api/v1/documents/area/{areaName}").permitAll()
 
                         // Links (public GET)
                         .requestMatchers(GET, "/api/v1/links").permitAll()
                         .requestMatchers(GET, "/api/v1/links/{linkId}").permitAll()
+                        .requestMatchers(GET, "/api/v1/links/components").permitAll()
+                        .requestMatchers(GET, "/api/v1/documents/{id}/links/neighbourhood").permitAll()
+                        .requestMatchers(GET, "/api/v1/documents/{id}/links/path/{targetId}").permitAll()
+                        .requestMatchers(GET, "/api/v1/documents/{id}/links/component").permitAll()
+                        .requestMatchers(GET, "/api/v1/documents/{id}/lineage").permitAll()
 
                         // Stakeholders (public GET)
                         .requestMatchers(GET, "/api/v1/stakeholders").permitAll()
@@ -60,6 +67,8 @@ public class RouteConfig {
                         // Files
                         .requestMatchers(GET, "/api/v1/files/{fileId}").permitAll()  // Download files is public
                         .requestMatchers(POST, "/api/v1/documents/{id}/files").permitAll()
+                        .requestMatchers(POST, "/api/v1/documents/{id}/uploads").permitAll()
+                        .requestMatchers("/api/v1/uploads/**").permitAll()  // Chunked uploads, same access as the single request upload
                         .requestMatchers(DELETE, "/api/v1/files/{fileId}").authenticated()
 
                         // Document Types
@@ -68,6 +77,9 @@ public class RouteConfig {
                         // Scales
                         .requestMatchers(GET, "/api/v1/scales").permitAll()
 
+                        // Suggestions
+                        .requestMatchers(GET, "/api/v1/suggest").permitAll()
+
                         // Geolocation
                         .requestMatchers(GET, "/api/v1/areas/{id}").permitAll()
                         .requestMatchers(GET, "/api/v1/areas").permitAll()
@@ -76,6 +88,7 @@ public class RouteConfig {
                         // Protected endpoints (URBAN_PLANNER)
                         .requestMatchers(POST, "/api/v1/documents/{id}/links").authenticated()
                         .requestMatchers(PUT, "/api/v1/documents/{id}/links").authenticated()
+                        .requestMatchers(POST, "/api/v1/links/import").authenticated()
                         .requestMatchers(POST, "/api/v1/documents").authenticated()
                         .requestMatchers(PUT, "/api/v1/documents").authenticated()
                         .requestMatchers(POST, "/api/v1/stakeholders").authenticated()
@@ -0,0 +1,28 @@
+package com.kirunaexplorer.app.config;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Creates the full-text search column, its GIN index and the query function once Hibernate has created
+ * the document table, along with the indexes of the suggestions and of the keyset pagination.
+ * The column is generated by PostgreSQL, so it is kept up to date on every write.
+ */
+@Component
+public class SearchSchemaInitializer implements CommandLineRunner {
+    private final DataSource dataSource;
+
+    public SearchSchemaInitializer(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void run(String... args) {
+        // The function body is kept free of semicolons, so the script splits on them like the others
+        new ResourceDatabasePopulator(new ClassPathResource("db/search.sql")).execute(dataSource);
+    }
+}
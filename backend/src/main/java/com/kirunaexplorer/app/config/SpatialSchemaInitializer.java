@@ -0,0 +1,87 @@
+package com.kirunaexplorer.app.config;
+
+import com.kirunaexplorer.app.model.Area;
+import com.kirunaexplorer.app.repository.AreaRepository;
+import com.kirunaexplorer.app.util.GeometrySimplifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Completes the spatial schema once Hibernate has created the geometry columns:
+ * creates the GiST indexes and fills the geometry and the simplified geometries of the rows
+ * stored before the columns existed.
+ */
+@Slf4j
+@Component
+public class SpatialSchemaInitializer implements CommandLineRunner {
+    private static final int BATCH_SIZE = 100;
+
+    private final DataSource dataSource;
+    private final AreaRepository areaRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public SpatialSchemaInitializer(DataSource dataSource, AreaRepository areaRepository, TransactionTemplate transactionTemplate) {
+        this.dataSource = dataSource;
+        this.areaRepository = areaRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        // Indexes, and points that can be filled in SQL
+        new ResourceDatabasePopulator(new ClassPathResource("db/spatial.sql")).execute(dataSource);
+
+        // Area coordinates are JSON in the client format, they are converted in Java
+        long lastId = 0;
+        int filled = 0;
+        List<Long> ids;
+        while (!(ids = areaRepository.findIdsWithoutGeom(lastId, PageRequest.of(0, BATCH_SIZE))).isEmpty()) {
+            List<Long> batch = ids;
+            filled += transactionTemplate.execute(status -> {
+                int count = 0;
+                for (Area area : areaRepository.findAllById(batch)) {
+                    area.setGeom(area.getGeometry().toMultiPolygon());
+                    if (area.getGeom() != null) {
+                        count++;
+                    } else {
+                        log.warn("Area {} has no valid polygon", area.getId());
+                    }
+                }
+                return count;
+            });
+            lastId = ids.get(ids.size() - 1);
+        }
+        if (filled > 0) {
+            log.info("Filled the geometry of {} areas", filled);
+        }
+
+        // Areas without any valid polygon have no simplification, they are checked again on every startup
+        lastId = 0;
+        int simplified = 0;
+        while (!(ids = areaRepository.findIdsWithoutSimplifications(lastId, PageRequest.of(0, BATCH_SIZE))).isEmpty()) {
+            List<Long> batch = ids;
+            simplified += transactionTemplate.execute(status -> {
+                int count = 0;
+                for (Area area : areaRepository.findAllById(batch)) {
+                    area.getSimplifications().addAll(GeometrySimplifier.simplify(area.getGeometry()));
+                    if (!area.getSimplifications().isEmpty()) {
+                        count++;
+                    }
+                }
+                return count;
+            });
+            lastId = ids.get(ids.size() - 1);
+        }
+        if (simplified > 0) {
+            log.info("Simplified the geometry of {} areas", simplified);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.kirunaexplorer.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "storage")
+public class StorageProperties {
+    private String type = "local";
+    private boolean migrateLegacyContent = true;
+    private Local local = new Local();
+    private Uploads uploads = new Uploads();
+    private Blobs blobs = new Blobs();
+    private Tiles tiles = new Tiles();
+
+    @Data
+    public static class Local {
+        private String root = "./data/blobs";
+    }
+
+    @Data
+    public static class Uploads {
+        private String dir = "./data/uploads";
+        private DataSize chunkSize = DataSize.ofMegabytes(8);
+        private DataSize maxFileSize = DataSize.ofGigabytes(1);
+        private Duration expiry = Duration.ofHours(24);
+    }
+
+    @Data
+    public static class Blobs {
+        private Duration gcInterval = Duration.ofHours(1);
+        private Duration gcGracePeriod = Duration.ofHours(24);
+    }
+
+    @Data
+    public static class Tiles {
+        private String dir = "./data/tiles";
+    }
+}
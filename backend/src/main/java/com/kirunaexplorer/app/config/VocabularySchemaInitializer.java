@@ -0,0 +1,26 @@
+package com.kirunaexplorer.app.config;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Creates the unique index of the scales once Hibernate has created their table, removing the duplicate
+ * scales it would reject
+ */
+@Component
+public class VocabularySchemaInitializer implements CommandLineRunner {
+    private final DataSource dataSource;
+
+    public VocabularySchemaInitializer(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void run(String... args) {
+        new ResourceDatabasePopulator(new ClassPathResource("db/vocabulary.sql")).execute(dataSource);
+    }
+}
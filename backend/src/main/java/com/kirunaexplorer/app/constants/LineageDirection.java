@@ -0,0 +1,7 @@
+package com.kirunaexplorer.app.constants;
+
+public enum LineageDirection {
+    DOWNSTREAM,
+    UPSTREAM,
+    BOTH
+}
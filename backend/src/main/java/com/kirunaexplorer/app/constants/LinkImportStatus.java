@@ -0,0 +1,8 @@
+package com.kirunaexplorer.app.constants;
+
+public enum LinkImportStatus {
+    CREATED,
+    DUPLICATE,
+    DOCUMENT_NOT_FOUND,
+    SELF_LINK
+}
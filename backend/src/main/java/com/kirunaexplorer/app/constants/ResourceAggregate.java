@@ -0,0 +1,12 @@
+package com.kirunaexplorer.app.constants;
+
+/**
+ * Groups of resources sharing a version counter, used to build ETags
+ */
+public enum ResourceAggregate {
+    DOCUMENT,
+    DOCUMENT_LINK,
+    DOCUMENT_SNAPSHOT,
+    AREA,
+    POINT_COORDINATES
+}
@@ -0,0 +1,6 @@
+package com.kirunaexplorer.app.constants;
+
+public enum SearchSort {
+    DEFAULT,
+    RELEVANCE
+}
@@ -0,0 +1,8 @@
+package com.kirunaexplorer.app.constants;
+
+public enum SuggestField {
+    TITLE,
+    STAKEHOLDER,
+    TYPE,
+    SCALE
+}
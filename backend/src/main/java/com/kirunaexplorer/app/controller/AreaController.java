@@ -1,11 +1,16 @@
 package com.kirunaexplorer.app.controller;
 
+import com.kirunaexplorer.app.constants.ResourceAggregate;
 import com.kirunaexplorer.app.dto.request.AreaRequestDTO;
 import com.kirunaexplorer.app.dto.response.AreaBriefResponseDTO;
 import com.kirunaexplorer.app.dto.response.AreaResponseDTO;
+import com.kirunaexplorer.app.filter.ConditionalGet;
 import com.kirunaexplorer.app.service.AreaService;
 import com.kirunaexplorer.app.validation.groups.area.PostArea;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.groups.Default;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -30,19 +35,28 @@ public class AreaController {
      * @return List of AreaBriefResponseDTO
      */
     @GetMapping
+    @ConditionalGet(ResourceAggregate.AREA)
     public ResponseEntity<List<AreaBriefResponseDTO>> getAllAreas() {
         return ResponseEntity.ok(areaService.getAllAreas());
     }
 
     /**
-     * Endpoint to get an area by id
+     * Endpoint to get an area by id.
+     * With a zoom level or a tolerance a simplified version of the geometry is returned.
      *
-     * @param id Area id
+     * @param id        Area id
+     * @param zoom      Map zoom level
+     * @param tolerance Maximum simplification tolerance in degrees
      * @return AreaResponseDTO
      */
     @GetMapping("/{id}")
-    public ResponseEntity<AreaResponseDTO> getAreaById(@PathVariable Long id) {
-        return ResponseEntity.ok(areaService.getAreaById(id));
+    @ConditionalGet(ResourceAggregate.AREA)
+    public ResponseEntity<AreaResponseDTO> getAreaById(
+        @PathVariable Long id,
+        @RequestParam(value = "zoom", required = false) @Min(0) @Max(24) Integer zoom,
+        @RequestParam(value = "tolerance", required = false) @PositiveOrZero Double tolerance
+    ) {
+        return ResponseEntity.ok(areaService.getAreaById(id, zoom, tolerance));
     }
 
 
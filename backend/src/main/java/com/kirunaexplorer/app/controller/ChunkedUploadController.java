@@ -0,0 +1,104 @@
+package com.kirunaexplorer.app.controller;
+
+import com.kirunaexplorer.app.dto.request.UploadCompleteRequestDTO;
+import com.kirunaexplorer.app.dto.request.UploadInitRequestDTO;
+import com.kirunaexplorer.app.dto.response.UploadSessionResponseDTO;
+import com.kirunaexplorer.app.exception.FileReadException;
+import com.kirunaexplorer.app.service.ChunkedUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/v1")
+public class ChunkedUploadController {
+    private final ChunkedUploadService chunkedUploadService;
+
+    public ChunkedUploadController(ChunkedUploadService chunkedUploadService) {
+        this.chunkedUploadService = chunkedUploadService;
+    }
+
+    /**
+     * Start a chunked upload of a file for a document
+     *
+     * @param id      Document id
+     * @param request UploadInitRequestDTO
+     * @return ResponseEntity<UploadSessionResponseDTO>
+     */
+    @PostMapping("/documents/{id}/uploads")
+    public ResponseEntity<UploadSessionResponseDTO> initiateUpload(
+        @PathVariable Long id,
+        @RequestBody @Valid UploadInitRequestDTO request
+    ) {
+        UploadSessionResponseDTO upload = chunkedUploadService.initiate(id, request);
+        URI location = URI.create("/api/v1/uploads/" + upload.uploadId());
+        return ResponseEntity.created(location).body(upload);
+    }
+
+    /**
+     * Get the state of a chunked upload
+     *
+     * @param uploadId Upload id
+     * @return ResponseEntity<UploadSessionResponseDTO>
+     */
+    @GetMapping("/uploads/{uploadId}")
+    public ResponseEntity<UploadSessionResponseDTO> getUpload(@PathVariable String uploadId) {
+        return ResponseEntity.ok(chunkedUploadService.getUpload(uploadId));
+    }
+
+    /**
+     * Send a chunk of a chunked upload, the body is the raw content of the chunk
+     *
+     * @param uploadId Upload id
+     * @param index    Chunk index, starting from 0
+     * @param request  HttpServletRequest
+     * @return ResponseEntity<UploadSessionResponseDTO>
+     */
+    @PutMapping(value = "/uploads/{uploadId}/chunks/{index}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<UploadSessionResponseDTO> uploadChunk(
+        @PathVariable String uploadId,
+        @PathVariable int index,
+        HttpServletRequest request
+    ) {
+        try (InputStream content = request.getInputStream()) {
+            return ResponseEntity.ok(chunkedUploadService.appendChunk(uploadId, index, content));
+        } catch (IOException e) {
+            throw new FileReadException("Error reading chunk " + index, e);
+        }
+    }
+
+    /**
+     * Complete a chunked upload and attach the file to the document
+     *
+     * @param uploadId Upload id
+     * @param request  UploadCompleteRequestDTO
+     * @return ResponseEntity<Void>
+     */
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ResponseEntity<Void> completeUpload(
+        @PathVariable String uploadId,
+        @RequestBody @Valid UploadCompleteRequestDTO request
+    ) {
+        Long fileId = chunkedUploadService.complete(uploadId, request);
+        URI location = URI.create("/api/v1/files/" + fileId);
+        return ResponseEntity.created(location).build();
+    }
+
+    /**
+     * Abort a chunked upload
+     *
+     * @param uploadId Upload id
+     * @return ResponseEntity<Void>
+     */
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<Void> abortUpload(@PathVariable String uploadId) {
+        chunkedUploadService.abort(uploadId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,13 +1,20 @@
 package com.kirunaexplorer.app.controller;
 
+import com.kirunaexplorer.app.constants.ResourceAggregate;
+import com.kirunaexplorer.app.dto.request.BoundingBoxDTO;
 import com.kirunaexplorer.app.dto.request.DocumentRequestDTO;
+import com.kirunaexplorer.app.dto.response.DocumentBriefCursorPageResponseDTO;
 import com.kirunaexplorer.app.dto.response.DocumentBriefPageResponseDTO;
 import com.kirunaexplorer.app.dto.response.DocumentBriefResponseDTO;
+import com.kirunaexplorer.app.dto.response.DocumentClusterResponseDTO;
 import com.kirunaexplorer.app.dto.response.DocumentDiagramResponseDTO;
 import com.kirunaexplorer.app.dto.response.DocumentResponseDTO;
+import com.kirunaexplorer.app.filter.ConditionalGet;
+import com.kirunaexplorer.app.service.DocumentClusterService;
 import com.kirunaexplorer.app.service.DocumentService;
 import com.kirunaexplorer.app.validation.groups.document.PostDocument;
 import com.kirunaexplorer.app.validation.groups.document.PutDocument;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.groups.Default;
@@ -23,9 +30,11 @@ import java.util.List;
 @RequestMapping("/api/v1/documents")
 public class DocumentController {
     private final DocumentService documentService;
+    private final DocumentClusterService documentClusterService;
 
-    public DocumentController(DocumentService documentService) {
+    public DocumentController(DocumentService documentService, DocumentClusterService documentClusterService) {
         this.documentService = documentService;
+        this.documentClusterService = documentClusterService;
     }
 
     /**
@@ -39,6 +48,19 @@ public class DocumentController {
         return ResponseEntity.ok(documentService.getDocumentsByPageNumber(pageNo));
     }
 
+    /**
+     * Endpoint to get all documents in brief format with keyset pagination, latest first
+     *
+     * @param cursor Token returned with the previous page, empty for the first page
+     * @param count  Whether to count all the documents
+     * @return DocumentBriefCursorPageResponseDTO
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<DocumentBriefCursorPageResponseDTO> getDocumentsByCursor(@RequestParam String cursor,
+                                                                                   @RequestParam(required = false, defaultValue = "false") boolean count) {
+        return ResponseEntity.ok(documentService.getDocumentsByCursor(cursor, count));
+    }
+
     /**
      * Endpoint to get a document by id
      *
@@ -46,22 +68,48 @@ public class DocumentController {
      * @return DocumentResponseDTO
      */
     @GetMapping("/{id}")
+    @ConditionalGet({ResourceAggregate.DOCUMENT, ResourceAggregate.DOCUMENT_LINK})
     public ResponseEntity<DocumentResponseDTO> getDocumentById(@PathVariable Long id) {
         return ResponseEntity.ok(documentService.getDocumentById(id));
     }
 
     /**
      * Endpoint to get documents for the map view based on a filter.
+     * With a bounding box only the documents located in it are returned, closest to its center first.
      *
      * @param filter Filter criteria for documents (all, area-only, point-only, no-geolocation)
+     * @param bbox   Viewport as minLon,minLat,maxLon,maxLat
+     * @param zoom   Map zoom level
      * @return List of DocumentBriefResponseDTO
      */
     @GetMapping("/map")
+    @ConditionalGet({ResourceAggregate.DOCUMENT_SNAPSHOT, ResourceAggregate.AREA, ResourceAggregate.POINT_COORDINATES})
     public ResponseEntity<List<DocumentBriefResponseDTO>> getDocumentsForMap(
         @RequestParam(value = "filter", required = false, defaultValue = "all")
-        @Pattern(regexp = "^(all|area-only|point-only|no-geolocation)$", message = "Invalid filter value") String filter
+        @Pattern(regexp = "^(all|area-only|point-only|no-geolocation)$", message = "Invalid filter value") String filter,
+        @RequestParam(value = "bbox", required = false) String bbox,
+        @RequestParam(value = "zoom", required = false) @Min(0) @Max(24) Integer zoom
     ) {
-        return ResponseEntity.ok(documentService.getDocumentsForMap(filter));
+        if (bbox == null) {
+            return ResponseEntity.ok(documentService.getDocumentsForMap(filter));
+        }
+        return ResponseEntity.ok(documentService.getDocumentsForMap(filter, BoundingBoxDTO.parse(bbox), zoom));
+    }
+
+    /**
+     * Endpoint to get the clusters of the documents located in a viewport, for a zoom level
+     *
+     * @param bbox Viewport as minLon,minLat,maxLon,maxLat
+     * @param zoom Map zoom level
+     * @return List of DocumentClusterResponseDTO
+     */
+    @GetMapping("/map/clusters")
+    @ConditionalGet(ResourceAggregate.DOCUMENT)
+    public ResponseEntity<List<DocumentClusterResponseDTO>> getDocumentClusters(
+        @RequestParam("bbox") String bbox,
+        @RequestParam("zoom") @Min(0) @Max(24) int zoom
+    ) {
+        return ResponseEntity.ok(documentClusterService.getClusters(BoundingBoxDTO.parse(bbox), zoom));
     }
 
     /**
@@ -105,8 +153,23 @@ public class DocumentController {
                                                           @RequestParam(required = false) String type,
                                                           @RequestParam(required = false) List<String> stakeholderNames,
                                                           @RequestParam(required = false) String scale,
-                                                          @RequestParam(value = "pageNo", required = false, defaultValue = "0") @Min(0) int pageNo) {
-        return documentService.searchDocuments(keyword, type, stakeholderNames, scale, pageNo);
+                                                          @RequestParam(required = false) Integer year,
+                                                          @RequestParam(value = "pageNo", required = false, defaultValue = "0") @Min(0) int pageNo,
+                                                          @RequestParam(required = false) String sort,
+                                                          @RequestParam(required = false, defaultValue = "false") boolean facets) {
+        return documentService.searchDocuments(keyword, type, stakeholderNames, scale, year, pageNo, sort, facets);
+    }
+
+    @GetMapping(value = "/search", params = "cursor")
+    public DocumentBriefCursorPageResponseDTO searchDocumentsByCursor(@RequestParam(required = false) String keyword,
+                                                                      @RequestParam(required = false) String type,
+                                                                      @RequestParam(required = false) List<String> stakeholderNames,
+                                                                      @RequestParam(required = false) String scale,
+                                                                      @RequestParam(required = false) Integer year,
+                                                                      @RequestParam(required = false) String sort,
+                                                                      @RequestParam String cursor,
+                                                                      @RequestParam(required = false, defaultValue = "false") boolean count) {
+        return documentService.searchDocumentsByCursor(keyword, type, stakeholderNames, scale, year, sort, cursor, count);
     }
 
     @GetMapping("/area/{areaName}")
@@ -120,6 +183,7 @@ public class DocumentController {
      * @return List of DocumentBriefLinksResponseDTO
      */
     @GetMapping("/diagram")
+    @ConditionalGet(ResourceAggregate.DOCUMENT_SNAPSHOT)
     public ResponseEntity<List<DocumentDiagramResponseDTO>> getDocumentsForDiagram() {
         return ResponseEntity.ok(documentService.getDocumentsForDiagram());
     }
@@ -0,0 +1,103 @@
+package com.kirunaexplorer.app.controller;
+
+import com.kirunaexplorer.app.dto.response.DocumentComponentResponseDTO;
+import com.kirunaexplorer.app.dto.response.DocumentLineageResponseDTO;
+import com.kirunaexplorer.app.dto.response.DocumentNeighbourResponseDTO;
+import com.kirunaexplorer.app.dto.response.DocumentPathResponseDTO;
+import com.kirunaexplorer.app.service.DocumentGraphService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1")
+public class DocumentGraphController {
+
+    private final DocumentGraphService documentGraphService;
+
+    public DocumentGraphController(DocumentGraphService documentGraphService) {
+        this.documentGraphService = documentGraphService;
+    }
+
+    /**
+     * Endpoint to get the documents within a number of links from a document
+     *
+     * @param id    Document id
+     * @param depth Maximum number of links
+     * @param types Link types to follow, all of them if missing
+     * @return ResponseEntity<List < DocumentNeighbourResponseDTO>>
+     */
+    @GetMapping("/documents/{id}/links/neighbourhood")
+    public ResponseEntity<List<DocumentNeighbourResponseDTO>> getNeighbourhood(
+        @PathVariable Long id,
+        @RequestParam(value = "depth", required = false, defaultValue = "2") @Min(1) @Max(10) int depth,
+        @RequestParam(value = "types", required = false) List<String> types
+    ) {
+        return ResponseEntity.ok(documentGraphService.getNeighbourhood(id, depth, types));
+    }
+
+    /**
+     * Endpoint to get a connection with the fewest links between two documents
+     *
+     * @param id       Id of the first document
+     * @param targetId Id of the last document
+     * @param types    Link types to follow, all of them if missing
+     * @return ResponseEntity<DocumentPathResponseDTO>
+     */
+    @GetMapping("/documents/{id}/links/path/{targetId}")
+    public ResponseEntity<DocumentPathResponseDTO> getShortestPath(
+        @PathVariable Long id,
+        @PathVariable Long targetId,
+        @RequestParam(value = "types", required = false) List<String> types
+    ) {
+        return ResponseEntity.ok(documentGraphService.getShortestPath(id, targetId, types));
+    }
+
+    /**
+     * Endpoint to get the documents connected to a document
+     *
+     * @param id    Document id
+     * @param types Link types to follow, all of them if missing
+     * @return ResponseEntity<DocumentComponentResponseDTO>
+     */
+    @GetMapping("/documents/{id}/links/component")
+    public ResponseEntity<DocumentComponentResponseDTO> getComponent(
+        @PathVariable Long id,
+        @RequestParam(value = "types", required = false) List<String> types
+    ) {
+        return ResponseEntity.ok(documentGraphService.getComponent(id, types));
+    }
+
+    /**
+     * Endpoint to get the chain of documents linked to a document
+     *
+     * @param id        Document id
+     * @param depth     Maximum number of links
+     * @param types     Link types to follow, all of them if missing
+     * @param direction "downstream" for later documents, the default, "upstream" for earlier ones, "both" for any
+     * @return ResponseEntity<List < DocumentLineageResponseDTO>>
+     */
+    @GetMapping("/documents/{id}/lineage")
+    public ResponseEntity<List<DocumentLineageResponseDTO>> getLineage(
+        @PathVariable Long id,
+        @RequestParam(value = "depth", required = false, defaultValue = "5") @Min(1) @Max(10) int depth,
+        @RequestParam(value = "types", required = false) List<String> types,
+        @RequestParam(value = "direction", required = false) String direction
+    ) {
+        return ResponseEntity.ok(documentGraphService.getLineage(id, depth, types, direction));
+    }
+
+    /**
+     * Endpoint to get the groups of documents connected by links
+     *
+     * @param types Link types to follow, all of them if missing
+     * @return ResponseEntity<List < DocumentComponentResponseDTO>>
+     */
+    @GetMapping("/links/components")
+    public ResponseEntity<List<DocumentComponentResponseDTO>> getComponents(@RequestParam(value = "types", required = false) List<String> types) {
+        return ResponseEntity.ok(documentGraphService.getComponents(types));
+    }
+}
@@ -1,11 +1,14 @@
 package com.kirunaexplorer.app.controller;
 
 import com.kirunaexplorer.app.dto.request.LinkDocumentsRequestDTO;
+import com.kirunaexplorer.app.dto.request.LinkImportRequestDTO;
 import com.kirunaexplorer.app.dto.response.DocumentBriefLinksResponseDTO;
 import com.kirunaexplorer.app.dto.response.LinkDocumentsResponseDTO;
+import com.kirunaexplorer.app.dto.response.LinkImportResponseDTO;
 import com.kirunaexplorer.app.service.DocumentLinkService;
 import com.kirunaexplorer.app.validation.groups.link.PostLink;
 import com.kirunaexplorer.app.validation.groups.link.PutLink;
+import jakarta.validation.Valid;
 import jakarta.validation.groups.Default;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -30,7 +33,7 @@ public class DocumentLinkController {
      *
      * @param id      Document id
      * @param request LinkDocumentsRequestDTO
-     * @return ResponseEntity<Void>
+     * @return ResponseEntity<Void>, 201 when the link is created and 200 when the same link already exists
      */
     @PostMapping("/documents/{id}/links")
     public ResponseEntity<Void> linkDocuments(@PathVariable Long id, @RequestBody @Validated({Default.class, PostLink.class}) LinkDocumentsRequestDTO request) {
@@ -39,9 +42,23 @@ public class DocumentLinkController {
             .path("/{id}")
             .buildAndExpand(response.linkId())
             .toUri();
+        if (!response.created()) {
+            return ResponseEntity.ok().location(location).build();
+        }
         return ResponseEntity.created(location).build();
     }
 
+    /**
+     * Endpoint to import many links at once
+     *
+     * @param request LinkImportRequestDTO
+     * @return ResponseEntity<LinkImportResponseDTO> with the outcome of each row
+     */
+    @PostMapping("/links/import")
+    public ResponseEntity<LinkImportResponseDTO> importLinks(@RequestBody @Valid LinkImportRequestDTO request) {
+        return ResponseEntity.ok(documentLinkService.importLinks(request));
+    }
+
     /**
      * Endpoint to update a document link
      *
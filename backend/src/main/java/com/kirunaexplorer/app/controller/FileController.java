@@ -3,16 +3,33 @@ package com.kirunaexplorer.app.controller;
 import com.kirunaexplorer.app.dto.request.FileUploadRequestDTO;
 import com.kirunaexplorer.app.dto.response.FileSnippetResponseDTO;
 import com.kirunaexplorer.app.service.FileService;
+import com.kirunaexplorer.app.storage.FileContent;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
-import org.springframework.http.ResponseEntity;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1")
 public class FileController {
+    // Request attributes of the Tomcat sendfile support
+    static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Below this size copying through the response buffer is cheaper than sendfile, same threshold as Tomcat
+    static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
     private final FileService fileService;
 
     public FileController(FileService fileService) {
@@ -37,14 +54,48 @@ public class FileController {
     }
 
     /**
-     * Download a file
+     * Download a file.
+     * The content is streamed, and a single Range is answered with 206 Partial Content.
+     * Files kept on disk are handed to the container with sendfile when it supports it,
+     * otherwise Spring streams the resource and handles the Range.
+     * A conditional request answered without a body returns null, the status is already set on the response.
      *
-     * @param fileId File id
-     * @return ResponseEntity<byte [ ]>
+     * @param fileId   File id
+     * @param range    Range header, if any
+     * @param request  HttpServletRequest
+     * @param response HttpServletResponse
+     * @return ResponseEntity<Resource>, or null if the request is not modified
      */
     @GetMapping("/files/{fileId}")
-    public ResponseEntity<byte[]> downloadFile(@PathVariable Long fileId) {
-        return ResponseEntity.ok().body(fileService.getFile(fileId));
+    public ResponseEntity<Resource> downloadFile(
+        @PathVariable Long fileId,
+        @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        FileContent file = fileService.getFile(fileId);
+        String filename = file.name() + "." + file.extension();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM));
+        headers.setContentDisposition(ContentDisposition.inline().filename(filename, StandardCharsets.UTF_8).build());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (file.contentHash() != null) {
+            // The content of a file never changes, its hash is a strong validator
+            String etag = "\"" + file.contentHash() + "\"";
+            // Checked before sendfile, the container would otherwise write the file after a 304 or 412
+            if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+                return null;
+            }
+            headers.setETag(etag);
+        }
+
+        ResponseEntity<Resource> sendfile = sendfile(file, range, headers, request);
+        if (sendfile != null) {
+            return sendfile;
+        }
+        // The converters set the Content-Length of the body they write, a whole file or the requested ranges
+        return ResponseEntity.ok().headers(headers).body(file.resource());
     }
 
     /**
@@ -69,4 +120,52 @@ public class FileController {
     public ResponseEntity<List<FileSnippetResponseDTO>> getFilesSnippet(@PathVariable Long id) {
         return ResponseEntity.ok().body(fileService.getFilesSnippet(id));
     }
+
+    /**
+     * Ask the container to write the file with sendfile, bypassing the JVM heap.
+     * Not used for HEAD, the container writes the file whatever the method.
+     *
+     * @param file    FileContent
+     * @param range   Range header, if any
+     * @param headers Response headers
+     * @param request HttpServletRequest
+     * @return ResponseEntity<Resource> without body, or null if sendfile cannot be used
+     */
+    private ResponseEntity<Resource> sendfile(FileContent file, String range, HttpHeaders headers, HttpServletRequest request) {
+        Resource resource = file.resource();
+        if (!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED)) || HttpMethod.HEAD.matches(request.getMethod())
+            || !resource.isFile() || file.size() < SENDFILE_MIN_SIZE) {
+            return null;
+        }
+
+        long start = 0;
+        long count = file.size();
+        HttpStatus status = HttpStatus.OK;
+        if (range != null) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                // Multipart ranges and invalid ranges are left to Spring
+                if (ranges.size() != 1) {
+                    return null;
+                }
+                ResourceRegion region = ranges.get(0).toResourceRegion(resource);
+                start = region.getPosition();
+                count = region.getCount();
+                status = HttpStatus.PARTIAL_CONTENT;
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + count - 1) + "/" + file.size());
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        try {
+            request.setAttribute(SENDFILE_FILENAME, resource.getFile().getAbsolutePath());
+        } catch (IOException e) {
+            return null;
+        }
+        request.setAttribute(SENDFILE_START, start);
+        request.setAttribute(SENDFILE_END, start + count);
+        headers.setContentLength(count);
+        return ResponseEntity.status(status).headers(headers).build();
+    }
 }
@@ -1,7 +1,9 @@
 package com.kirunaexplorer.app.controller;
 
+import com.kirunaexplorer.app.constants.ResourceAggregate;
 import com.kirunaexplorer.app.dto.request.PointCoordinatesRequestDTO;
 import com.kirunaexplorer.app.dto.response.PointCoordinatesResponseDTO;
+import com.kirunaexplorer.app.filter.ConditionalGet;
 import com.kirunaexplorer.app.service.PointCoordinatesService;
 import com.kirunaexplorer.app.validation.groups.point_coordinates.PostPointCoordinates;
 import org.springframework.http.ResponseEntity;
@@ -27,6 +29,7 @@ public class PointCoordinatesController {
      * @return List of PointCoordinatesResponseDTO
      */
     @GetMapping
+    @ConditionalGet(ResourceAggregate.POINT_COORDINATES)
     public ResponseEntity<List<PointCoordinatesResponseDTO>> getAllPoints() {
         return ResponseEntity.ok(pointCoordinatesService.getAllPoints());
     }
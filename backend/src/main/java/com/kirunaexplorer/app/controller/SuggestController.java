@@ -0,0 +1,35 @@
+package com.kirunaexplorer.app.controller;
+
+import com.kirunaexplorer.app.service.SuggestService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/suggest")
+public class SuggestController {
+    private final SuggestService suggestService;
+
+    public SuggestController(SuggestService suggestService) {
+        this.suggestService = suggestService;
+    }
+
+    /**
+     * Suggest values of a document field for the text typed so far
+     *
+     * @param field Field name: title, stakeholder, type or scale
+     * @param q     Text typed so far
+     * @param limit Maximum number of suggestions
+     * @return List of values, best first
+     */
+    @GetMapping
+    public ResponseEntity<List<String>> suggest(@RequestParam String field,
+                                                @RequestParam(required = false) String q,
+                                                @RequestParam(required = false, defaultValue = "" + SuggestService.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(suggestService.suggest(field, q, limit));
+    }
+}
@@ -0,0 +1,39 @@
+package com.kirunaexplorer.app.controller;
+
+import com.kirunaexplorer.app.constants.ResourceAggregate;
+import com.kirunaexplorer.app.filter.ConditionalGet;
+import com.kirunaexplorer.app.service.VectorTileService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/tiles")
+public class VectorTileController {
+    public static final MediaType MAPBOX_VECTOR_TILE = MediaType.parseMediaType("application/vnd.mapbox-vector-tile");
+
+    private final VectorTileService vectorTileService;
+
+    public VectorTileController(VectorTileService vectorTileService) {
+        this.vectorTileService = vectorTileService;
+    }
+
+    /**
+     * Endpoint to get a Mapbox Vector Tile with the areas and the documents located by a point
+     *
+     * @param z Zoom level
+     * @param x Tile column
+     * @param y Tile row
+     * @return Tile content
+     */
+    @GetMapping("/{z}/{x}/{y}.mvt")
+    @ConditionalGet({ResourceAggregate.DOCUMENT, ResourceAggregate.AREA, ResourceAggregate.POINT_COORDINATES})
+    public ResponseEntity<byte[]> getTile(@PathVariable int z, @PathVariable int x, @PathVariable int y) {
+        return ResponseEntity.ok()
+            .contentType(MAPBOX_VECTOR_TILE)
+            .body(vectorTileService.getTile(z, x, y));
+    }
+}
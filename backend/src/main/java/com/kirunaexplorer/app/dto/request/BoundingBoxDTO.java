@@ -0,0 +1,72 @@
+package com.kirunaexplorer.app.dto.request;
+
+import com.kirunaexplorer.app.exception.InvalidQueryParameterException;
+
+/**
+ * Map viewport in WGS 84 degrees
+ */
+public record BoundingBoxDTO(
+    double minLon,
+    double minLat,
+    double maxLon,
+    double maxLat
+) {
+    // Size of a map tile in pixels, used to convert pixels to degrees
+    private static final int TILE_SIZE = 256;
+
+    /**
+     * Parse a bounding box in the format minLon,minLat,maxLon,maxLat
+     *
+     * @param bbox Bounding box
+     * @return BoundingBoxDTO
+     */
+    public static BoundingBoxDTO parse(String bbox) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new InvalidQueryParameterException("bbox must be minLon,minLat,maxLon,maxLat");
+        }
+        double[] values = new double[4];
+        for (int i = 0; i < 4; i++) {
+            try {
+                values[i] = Double.parseDouble(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new InvalidQueryParameterException("bbox must be minLon,minLat,maxLon,maxLat");
+            }
+            if (!Double.isFinite(values[i])) {
+                throw new InvalidQueryParameterException("bbox must contain finite numbers");
+            }
+        }
+        if (values[0] < -180 || values[2] > 180 || values[1] < -90 || values[3] > 90) {
+            throw new InvalidQueryParameterException("bbox must be within -180,-90,180,90");
+        }
+        if (values[0] > values[2] || values[1] > values[3]) {
+            throw new InvalidQueryParameterException("bbox minimum must not be greater than its maximum");
+        }
+        return new BoundingBoxDTO(values[0], values[1], values[2], values[3]);
+    }
+
+    /**
+     * Grow the bounding box by a margin in screen pixels, so features drawn across the edge of the viewport are included
+     *
+     * @param pixels Margin in pixels
+     * @param zoom   Map zoom level
+     * @return BoundingBoxDTO
+     */
+    public BoundingBoxDTO expand(int pixels, int zoom) {
+        double degrees = pixels * 360.0 / (TILE_SIZE * Math.pow(2, zoom));
+        return new BoundingBoxDTO(
+            Math.max(-180, minLon - degrees),
+            Math.max(-90, minLat - degrees),
+            Math.min(180, maxLon + degrees),
+            Math.min(90, maxLat + degrees)
+        );
+    }
+
+    public double centerLon() {
+        return (minLon + maxLon) / 2;
+    }
+
+    public double centerLat() {
+        return (minLat + maxLat) / 2;
+    }
+}
@@ -83,7 +83,8 @@ public record DocumentRequestDTO(
             null,
             new HashSet<>(),
             null,
-            new HashSet<>()
+            new HashSet<>(),
+            0
         );
     }
 
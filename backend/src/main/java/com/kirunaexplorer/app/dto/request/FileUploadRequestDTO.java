@@ -3,32 +3,36 @@ package com.kirunaexplorer.app.dto.request;
 import com.kirunaexplorer.app.exception.FileReadException;
 import com.kirunaexplorer.app.model.Document;
 import com.kirunaexplorer.app.model.DocumentFile;
+import com.kirunaexplorer.app.storage.BlobStore;
+import com.kirunaexplorer.app.storage.StoredBlob;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 public record FileUploadRequestDTO(
     @NotNull
     List<MultipartFile> files
 ) {
-    public List<DocumentFile> toDocumentFiles(Document document) {
+    public List<DocumentFile> toDocumentFiles(Document document, BlobStore blobStore) {
         return files.stream()
             .map(file -> {
                 String originalFilename = file.getOriginalFilename();
                 String name = originalFilename != null ? originalFilename.substring(0, originalFilename.lastIndexOf('.')) : "";
                 String extension = originalFilename != null ? originalFilename.substring(originalFilename.lastIndexOf('.') + 1) : "";
-                Long size = file.getSize();
-                byte[] content;
-                try {
-                    content = file.getBytes();
+
+                // Stream the content to the blob store instead of loading it in memory
+                StoredBlob blob;
+                try (InputStream content = file.getInputStream()) {
+                    blob = blobStore.store(content);
                 } catch (IOException e) {
                     throw new FileReadException("Error reading file content", e);
                 }
 
-                return new DocumentFile(null, document, name, extension, size, content);
+                return new DocumentFile(null, document, name, extension, blob.size(), blob.hash());
             })
             .toList();
     }
-}
\ No newline at end of file
+}
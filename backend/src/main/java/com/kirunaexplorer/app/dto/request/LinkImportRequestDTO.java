@@ -0,0 +1,27 @@
+package com.kirunaexplorer.app.dto.request;
+
+import com.kirunaexplorer.app.constants.DocumentLinkType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record LinkImportRequestDTO(
+    @NotEmpty
+    @Size(max = 5000)
+    List<@Valid @NotNull Link> links
+) {
+    public record Link(
+        @NotNull
+        Long documentId,
+
+        @NotNull
+        Long linkedDocumentId,
+
+        @NotNull(message = "{link.type.invalid}")
+        DocumentLinkType type
+    ) {
+    }
+}
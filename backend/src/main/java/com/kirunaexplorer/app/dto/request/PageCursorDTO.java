@@ -0,0 +1,92 @@
+package com.kirunaexplorer.app.dto.request;
+
+import com.kirunaexplorer.app.exception.InvalidQueryParameterException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position after the last document of a page, for keyset pagination.
+ * Clients receive it as an opaque token and send it back unchanged to get the next page.
+ *
+ * @param order Order the position refers to
+ * @param key   Sort key of the last document: its creation time or its rank, empty when ordered by id only
+ * @param id    Id of the last document, breaking ties between equal keys
+ */
+public record PageCursorDTO(
+    Order order,
+    String key,
+    long id
+) {
+    public enum Order {
+        CREATED_AT,
+        ID,
+        RELEVANCE
+    }
+
+    public static PageCursorDTO afterCreatedAt(LocalDateTime createdAt, long id) {
+        return new PageCursorDTO(Order.CREATED_AT, createdAt.toString(), id);
+    }
+
+    public static PageCursorDTO afterId(long id) {
+        return new PageCursorDTO(Order.ID, "", id);
+    }
+
+    public static PageCursorDTO afterRank(float rank, long id) {
+        return new PageCursorDTO(Order.RELEVANCE, Float.toString(rank), id);
+    }
+
+    /**
+     * Parse a token sent by a client
+     *
+     * @param token    Token, empty for the first page
+     * @param expected Order of the request the token is sent with
+     * @return PageCursorDTO, null for the first page
+     */
+    public static PageCursorDTO parse(String token, Order expected) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        PageCursorDTO cursor;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 3);
+            if (parts.length != 3) {
+                throw new InvalidQueryParameterException("Invalid cursor");
+            }
+            cursor = new PageCursorDTO(Order.valueOf(parts[0]), parts[2], Long.parseLong(parts[1]));
+            // Check the key can be read back
+            switch (cursor.order()) {
+                case CREATED_AT -> cursor.createdAt();
+                case RELEVANCE -> cursor.rank();
+                case ID -> {
+                }
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidQueryParameterException("Invalid cursor");
+        }
+        if (cursor.order() != expected) {
+            throw new InvalidQueryParameterException("Cursor does not match the sort order");
+        }
+        return cursor;
+    }
+
+    /**
+     * Encode the cursor as an opaque, URL safe token
+     *
+     * @return token
+     */
+    public String encode() {
+        String value = order.name() + "|" + id + "|" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime createdAt() {
+        return LocalDateTime.parse(key);
+    }
+
+    public float rank() {
+        return Float.parseFloat(key);
+    }
+}
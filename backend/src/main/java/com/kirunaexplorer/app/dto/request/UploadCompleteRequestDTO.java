@@ -0,0 +1,11 @@
+package com.kirunaexplorer.app.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+public record UploadCompleteRequestDTO(
+    @NotNull(message = "sha256 must be not null")
+    @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "sha256 must be an hex encoded SHA-256 hash")
+    String sha256
+) {
+}
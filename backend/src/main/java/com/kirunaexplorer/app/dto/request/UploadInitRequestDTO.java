@@ -0,0 +1,37 @@
+package com.kirunaexplorer.app.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+public record UploadInitRequestDTO(
+    @NotBlank(message = "fileName must be not blank")
+    @Size(max = 255, message = "Invalid fileName size")
+    String fileName,
+
+    @NotNull(message = "size must be not null")
+    @Positive(message = "size must be positive")
+    Long size
+) {
+
+    /**
+     * Get the name of the file without extension
+     *
+     * @return name
+     */
+    public String name() {
+        int dot = fileName.lastIndexOf('.');
+        return dot >= 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    /**
+     * Get the extension of the file
+     *
+     * @return extension, empty if the file has none
+     */
+    public String extension() {
+        int dot = fileName.lastIndexOf('.');
+        return dot >= 0 ? fileName.substring(dot + 1) : "";
+    }
+}
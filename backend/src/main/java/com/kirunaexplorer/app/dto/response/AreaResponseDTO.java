@@ -3,6 +3,8 @@ package com.kirunaexplorer.app.dto.response;
 import com.kirunaexplorer.app.dto.inout.CoordinatesDTO;
 import com.kirunaexplorer.app.dto.inout.GeometryDTO;
 import com.kirunaexplorer.app.model.Coordinates;
+import com.kirunaexplorer.app.util.PackedGeometry;
+import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.util.List;
 
@@ -10,6 +12,7 @@ public record AreaResponseDTO(
     Long id,
     String name,
     CoordinatesDTO centroid,
-    GeometryDTO geometry
+    @Schema(implementation = GeometryDTO.class)
+    PackedGeometry geometry
 ) {
 }
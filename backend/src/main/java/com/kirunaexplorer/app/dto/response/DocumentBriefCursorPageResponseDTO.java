@@ -0,0 +1,20 @@
+package com.kirunaexplorer.app.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page of documents read with keyset pagination
+ *
+ * @param documentSnippets Documents of the page
+ * @param nextCursor       Token to get the next page, null on the last page
+ * @param totalCount       Number of documents of all the pages, null unless requested
+ * @param highlights       Matches of the search keyword by document id
+ */
+public record DocumentBriefCursorPageResponseDTO(
+    List<DocumentBriefResponseDTO> documentSnippets,
+    String nextCursor,
+    Long totalCount,
+    Map<Long, SearchHighlightDTO> highlights
+) {
+}
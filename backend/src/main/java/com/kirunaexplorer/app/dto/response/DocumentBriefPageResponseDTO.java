@@ -4,21 +4,30 @@ import com.kirunaexplorer.app.model.Document;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
+import java.util.Map;
 
 public record DocumentBriefPageResponseDTO(
     int totalPages,
     int currentPage,
     int totalItems,
-    List<DocumentBriefResponseDTO> documentSnippets
+    List<DocumentBriefResponseDTO> documentSnippets,
+    Map<Long, SearchHighlightDTO> highlights,
+    SearchFacetsDTO facets
 ) {
     public static DocumentBriefPageResponseDTO from(Page<Document> pagedResult) {
+        return from(pagedResult, Map.of(), null);
+    }
+
+    public static DocumentBriefPageResponseDTO from(Page<Document> pagedResult, Map<Long, SearchHighlightDTO> highlights, SearchFacetsDTO facets) {
         return new DocumentBriefPageResponseDTO(
             pagedResult.getTotalPages(),
             pagedResult.getNumber(),
             pagedResult.getNumberOfElements(),
             pagedResult.stream()
                 .map(Document::toDocumentBriefResponseDTO)
-                .toList()
+                .toList(),
+            highlights,
+            facets
         );
     }
 }
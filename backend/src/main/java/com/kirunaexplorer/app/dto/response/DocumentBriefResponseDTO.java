@@ -9,6 +9,7 @@ public record DocumentBriefResponseDTO(
     String scale,
     String issuanceDate,
     String type,
-    GeoReferenceDTO geolocation
+    GeoReferenceDTO geolocation,
+    int nrConnections
 ) {
 }
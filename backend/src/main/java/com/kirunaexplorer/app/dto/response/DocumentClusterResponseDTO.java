@@ -0,0 +1,12 @@
+package com.kirunaexplorer.app.dto.response;
+
+import java.util.List;
+
+public record DocumentClusterResponseDTO(
+    int count,
+    double latitude,
+    double longitude,
+    String type,
+    List<Long> documentIds
+) {
+}
@@ -0,0 +1,9 @@
+package com.kirunaexplorer.app.dto.response;
+
+import java.util.List;
+
+public record DocumentComponentResponseDTO(
+    int size,
+    List<Long> documentIds
+) {
+}
@@ -0,0 +1,18 @@
+package com.kirunaexplorer.app.dto.response;
+
+import com.kirunaexplorer.app.constants.DocumentLinkType;
+
+/**
+ * Document reached by a lineage query
+ *
+ * @param depth    Number of links from the first document
+ * @param parentId Document it was reached from, on a shortest chain
+ * @param linkType Type of the link from the parent
+ */
+public record DocumentLineageResponseDTO(
+    DocumentBriefResponseDTO document,
+    int depth,
+    Long parentId,
+    DocumentLinkType linkType
+) {
+}
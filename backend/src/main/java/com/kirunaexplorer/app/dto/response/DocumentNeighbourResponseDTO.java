@@ -0,0 +1,7 @@
+package com.kirunaexplorer.app.dto.response;
+
+public record DocumentNeighbourResponseDTO(
+    DocumentBriefResponseDTO document,
+    int distance
+) {
+}
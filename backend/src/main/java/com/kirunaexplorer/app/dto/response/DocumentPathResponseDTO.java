@@ -0,0 +1,14 @@
+package com.kirunaexplorer.app.dto.response;
+
+import com.kirunaexplorer.app.constants.DocumentLinkType;
+
+import java.util.List;
+
+/**
+ * Documents of a path in order, linkTypes[i] is the type of the link between documents[i] and documents[i + 1]
+ */
+public record DocumentPathResponseDTO(
+    List<DocumentBriefResponseDTO> documents,
+    List<DocumentLinkType> linkTypes
+) {
+}
@@ -1,4 +1,4 @@
 package com.kirunaexplorer.app.dto.response;
 
-public record LinkDocumentsResponseDTO(Long linkId) {
+public record LinkDocumentsResponseDTO(Long linkId, boolean created) {
 }
@@ -0,0 +1,25 @@
+package com.kirunaexplorer.app.dto.response;
+
+import com.kirunaexplorer.app.constants.LinkImportStatus;
+
+import java.util.List;
+
+public record LinkImportResponseDTO(
+    int created,
+    int duplicates,
+    int rejected,
+    List<Result> results
+) {
+    /**
+     * Outcome of a row of the import
+     *
+     * @param row    Index of the row in the request
+     * @param linkId Id of the created or already existing link, null if the row was rejected
+     */
+    public record Result(
+        int row,
+        Long linkId,
+        LinkImportStatus status
+    ) {
+    }
+}
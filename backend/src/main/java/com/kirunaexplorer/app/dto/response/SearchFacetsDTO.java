@@ -0,0 +1,15 @@
+package com.kirunaexplorer.app.dto.response;
+
+import java.util.Map;
+
+/**
+ * Number of documents matching a search for each value of the filters, most frequent first.
+ * The count of a value is the number of results selecting it would give, keeping the other filters.
+ */
+public record SearchFacetsDTO(
+    Map<String, Long> types,
+    Map<String, Long> scales,
+    Map<String, Long> stakeholders,
+    Map<Integer, Long> years
+) {
+}
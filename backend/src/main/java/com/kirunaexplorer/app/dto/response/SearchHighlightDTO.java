@@ -0,0 +1,11 @@
+package com.kirunaexplorer.app.dto.response;
+
+/**
+ * Title and description of a document found by a search, with the matching words in <mark> tags.
+ * The description is cut to the fragments around the matches.
+ */
+public record SearchHighlightDTO(
+    String title,
+    String description
+) {
+}
@@ -0,0 +1,15 @@
+package com.kirunaexplorer.app.dto.response;
+
+import java.time.LocalDateTime;
+
+public record UploadSessionResponseDTO(
+    String uploadId,
+    Long documentId,
+    String fileName,
+    long size,
+    long chunkSize,
+    int nextChunk,
+    long receivedBytes,
+    LocalDateTime expiresAt
+) {
+}
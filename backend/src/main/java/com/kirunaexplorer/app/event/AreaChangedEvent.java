@@ -0,0 +1,11 @@
+package com.kirunaexplorer.app.event;
+
+/**
+ * Published when an area is created
+ *
+ * @param areaId id of the changed area
+ */
+public record AreaChangedEvent(
+    Long areaId
+) {
+}
@@ -0,0 +1,11 @@
+package com.kirunaexplorer.app.event;
+
+/**
+ * Published when a document is created or updated
+ *
+ * @param documentId id of the changed document
+ */
+public record DocumentChangedEvent(
+    Long documentId
+) {
+}
@@ -0,0 +1,11 @@
+package com.kirunaexplorer.app.event;
+
+/**
+ * Published when a file is attached to or removed from a document
+ *
+ * @param documentId id of the document owning the file
+ */
+public record DocumentFileChangedEvent(
+    Long documentId
+) {
+}
@@ -0,0 +1,11 @@
+package com.kirunaexplorer.app.event;
+
+/**
+ * Published when a link between two documents is created, updated or deleted
+ *
+ * @param linkId id of the changed link, null when many links changed at once
+ */
+public record DocumentLinkChangedEvent(
+    Long linkId
+) {
+}
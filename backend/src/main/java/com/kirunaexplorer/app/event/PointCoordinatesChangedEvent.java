@@ -0,0 +1,11 @@
+package com.kirunaexplorer.app.event;
+
+/**
+ * Published when a point is created
+ *
+ * @param pointId id of the changed point
+ */
+public record PointCoordinatesChangedEvent(
+    Long pointId
+) {
+}
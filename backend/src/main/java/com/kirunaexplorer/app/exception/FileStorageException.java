@@ -0,0 +1,11 @@
+package com.kirunaexplorer.app.exception;
+
+public class FileStorageException extends RuntimeException {
+    public FileStorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public FileStorageException(String message) {
+        super(message);
+    }
+}
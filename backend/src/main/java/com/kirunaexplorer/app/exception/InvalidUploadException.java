@@ -0,0 +1,7 @@
+package com.kirunaexplorer.app.exception;
+
+public class InvalidUploadException extends RuntimeException {
+    public InvalidUploadException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.kirunaexplorer.app.filter;
+
+import com.kirunaexplorer.app.constants.ResourceAggregate;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET endpoint whose response only depends on the given aggregates.
+ * The response gets an ETag built from their versions, and requests carrying a
+ * matching If-None-Match header are answered with 304 without invoking the endpoint.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+    ResourceAggregate[] value();
+}
@@ -0,0 +1,53 @@
+package com.kirunaexplorer.app.filter;
+
+import com.kirunaexplorer.app.constants.ResourceAggregate;
+import com.kirunaexplorer.app.service.ResourceVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+    private final ResourceVersionService resourceVersionService;
+
+    public ConditionalGetInterceptor(ResourceVersionService resourceVersionService) {
+        this.resourceVersionService = resourceVersionService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        ConditionalGet conditionalGet = handlerMethod.getMethodAnnotation(ConditionalGet.class);
+        if (conditionalGet == null) {
+            return true;
+        }
+
+        // The ETag is computed before the endpoint reads any data, so it can never be newer than the body
+        String etag = buildETag(conditionalGet.value());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+
+        // Sets the ETag header, and the 304 status when If-None-Match matches
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+
+    /**
+     * Build a strong ETag from the versions of the given aggregates
+     *
+     * @param aggregates ResourceAggregate list
+     * @return ETag value
+     */
+    String buildETag(ResourceAggregate[] aggregates) {
+        StringBuilder etag = new StringBuilder("\"").append(Long.toHexString(resourceVersionService.getEpoch()));
+        for (ResourceAggregate aggregate : aggregates) {
+            etag.append('-').append(Long.toHexString(resourceVersionService.getVersion(aggregate)));
+        }
+        return etag.append('"').toString();
+    }
+}
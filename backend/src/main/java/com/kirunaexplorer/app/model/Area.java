@@ -3,17 +3,23 @@ package com.kirunaexplorer.app.model;
 import com.kirunaexplorer.app.dto.inout.AreaBriefDTO;
 import com.kirunaexplorer.app.dto.response.AreaBriefResponseDTO;
 import com.kirunaexplorer.app.dto.response.AreaResponseDTO;
+import com.kirunaexplorer.app.util.GeometryConverter;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.locationtech.jts.geom.MultiPolygon;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
+@BatchSize(size = 64)
 @Table(name = "AREA")
 public class Area {
 
@@ -30,6 +36,30 @@ public class Area {
     @Basic(fetch = FetchType.EAGER)
     private Geometry geometry;
 
+    // Geometry derived from the coordinates, used by the spatial queries
+    @Column(name = "geom", columnDefinition = "geometry(MultiPolygon," + GeometryConverter.SRID + ")")
+    @JsonIgnore
+    private MultiPolygon geom;
+
+    // Simplified versions of the geometry for the lower zoom levels, coarsest first
+    @ElementCollection
+    @CollectionTable(name = "AREA_SIMPLIFICATION", joinColumns = @JoinColumn(name = "area_id"))
+    @OrderBy("tolerance DESC")
+    @JsonIgnore
+    private List<AreaSimplification> simplifications = new ArrayList<>();
+
+    public Area(Long id, String name, Coordinates centroid, Geometry geometry) {
+        this.id = id;
+        this.name = name;
+        this.centroid = centroid;
+        this.geometry = geometry;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateGeom() {
+        geom = geometry != null ? geometry.toMultiPolygon() : null;
+    }
 
     /**
      * Convert Area to AreaBriefResponseDTO
@@ -46,7 +76,17 @@ public class Area {
      * @return AreaResponseDTO
      */
     public AreaResponseDTO toAreaResponseDTO() {
-        return new AreaResponseDTO(id, name, centroid.toCoordinatesDTO(), geometry.toGeometryDTO());
+        return new AreaResponseDTO(id, name, centroid.toCoordinatesDTO(), geometry.toPackedGeometry());
+    }
+
+    /**
+     * Convert Area to AreaResponseDTO, with a simplified version of its geometry
+     *
+     * @param simplification Simplified geometry
+     * @return AreaResponseDTO
+     */
+    public AreaResponseDTO toAreaResponseDTO(AreaSimplification simplification) {
+        return new AreaResponseDTO(id, name, centroid.toCoordinatesDTO(), simplification.toGeometry().toPackedGeometry());
     }
 
     public AreaBriefDTO toAreaBriefDTO() {
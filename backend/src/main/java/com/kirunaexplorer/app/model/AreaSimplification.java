@@ -0,0 +1,39 @@
+package com.kirunaexplorer.app.model;
+
+import com.kirunaexplorer.app.constants.GeometryType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Simplified version of the geometry of an area, in the same coordinates format sent by the client
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AreaSimplification {
+
+    // Maximum distance in degrees between the simplified and the original boundary
+    private double tolerance;
+
+    private GeometryType type;
+
+    @Column(columnDefinition = "text")
+    private String coordinates;
+
+    private int vertices;
+
+    /**
+     * Get the simplified geometry
+     *
+     * @return Geometry
+     */
+    public Geometry toGeometry() {
+        return new Geometry(type, coordinates);
+    }
+}
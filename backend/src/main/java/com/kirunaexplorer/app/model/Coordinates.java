@@ -1,11 +1,13 @@
 package com.kirunaexplorer.app.model;
 
 import com.kirunaexplorer.app.dto.inout.CoordinatesDTO;
+import com.kirunaexplorer.app.util.GeometryConverter;
 import jakarta.persistence.Embeddable;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.locationtech.jts.geom.Point;
 
 @Embeddable
 @Getter
@@ -24,4 +26,13 @@ public class Coordinates {
     public CoordinatesDTO toCoordinatesDTO() {
         return new CoordinatesDTO(latitude, longitude);
     }
+
+    /**
+     * Convert Coordinates to a Point, to be stored as a PostGIS geometry
+     *
+     * @return Point, or null if a coordinate is missing
+     */
+    public Point toPoint() {
+        return GeometryConverter.toPoint(latitude, longitude);
+    }
 }
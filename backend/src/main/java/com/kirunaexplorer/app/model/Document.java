@@ -9,6 +9,8 @@ import com.kirunaexplorer.app.dto.response.DocumentDiagramResponseDTO;
 import com.kirunaexplorer.app.dto.response.DocumentResponseDTO;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -24,7 +26,24 @@ import java.util.stream.Collectors;
 //@EqualsAndHashCode(exclude = {"documentLinks"})
 @ToString(exclude = {"documentLinks"})
 @Table(name = "DOCUMENT")
+@NamedEntityGraph(
+    name = Document.BRIEF_GRAPH,
+    attributeNodes = {
+        @NamedAttributeNode("stakeholders"),
+        @NamedAttributeNode(value = "geoReference", subgraph = "geolocation")
+    },
+    subgraphs = @NamedSubgraph(name = "geolocation", attributeNodes = {
+        @NamedAttributeNode("area"),
+        @NamedAttributeNode("pointCoordinates")
+    })
+)
 public class Document {
+    /**
+     * Entity graph of everything the brief format reads: stakeholders and geolocation.
+     * Lists read with JPQL fetch it in the same query. Lists read with native queries cannot use it, and
+     * fall back on the batch sizes of the associations, which load them for many documents at a time.
+     */
+    public static final String BRIEF_GRAPH = "Document.brief";
 
     public enum DatePrecision {
         YEAR_ONLY,
@@ -41,6 +60,7 @@ public class Document {
     @Column(length = 1000)
     private String description;
     @ManyToMany
+    @BatchSize(size = 64)
     @JoinTable(
         name = "document_stakeholders",
         joinColumns = @JoinColumn(name = "document_id"),
@@ -66,6 +86,11 @@ public class Document {
     @OneToMany(mappedBy = "document", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<DocumentFile> documentFiles;
 
+    // Number of links of the document, only changed by atomic updates of DocumentRepository
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private int nrConnections;
+
 
     /**
      * Converts the Document object to a DocumentResponseDTO object.
@@ -101,7 +126,8 @@ public class Document {
             this.scale,
             parseDate(this.issuanceDate, this.datePrecision),
             this.type,
-            this.geoReference.toGeolocationDTO()
+            this.geoReference.toGeolocationDTO(),
+            this.nrConnections
         );
     }
 
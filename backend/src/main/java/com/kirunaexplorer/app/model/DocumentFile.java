@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@Table(indexes = @Index(name = "idx_document_file_content_hash", columnList = "content_hash"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,10 +28,19 @@ public class DocumentFile {
     private String extension;
     private Long size;
 
+    // SHA-256 of the content, key of the blob in the BlobStore
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // Legacy in-database content, only set on rows not yet moved to the BlobStore
     @Lob
     @Basic(fetch = FetchType.LAZY)
+    @JsonIgnore
     private byte[] content;
 
+    public DocumentFile(Long id, Document document, String name, String extension, Long size, String contentHash) {
+        this(id, document, name, extension, size, contentHash, null);
+    }
 
     public FileSnippetResponseDTO toFileSnippetResponseDTO() {
         return new FileSnippetResponseDTO(id, name, extension, size);
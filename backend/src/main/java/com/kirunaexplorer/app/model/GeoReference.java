@@ -3,6 +3,7 @@ package com.kirunaexplorer.app.model;
 import com.kirunaexplorer.app.dto.inout.GeoReferenceDTO;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.locationtech.jts.geom.Point;
 
 @Entity
@@ -12,6 +13,7 @@ import org.locationtech.jts.geom.Point;
 @AllArgsConstructor
 @EqualsAndHashCode
 @ToString
+@BatchSize(size = 64)
 @Table(name = "GEO_REFERENCE")
 public class GeoReference {
 
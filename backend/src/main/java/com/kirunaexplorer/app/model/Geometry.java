@@ -4,12 +4,14 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kirunaexplorer.app.constants.GeometryType;
-import com.kirunaexplorer.app.dto.inout.GeometryDTO;
+import com.kirunaexplorer.app.util.GeometryConverter;
+import com.kirunaexplorer.app.util.PackedGeometry;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.locationtech.jts.geom.MultiPolygon;
 
 import java.util.List;
 
@@ -19,6 +21,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Geometry {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
 
     private GeometryType type;
 
@@ -27,19 +30,28 @@ public class Geometry {
     private String coordinates;
 
     /**
-     * Convert to GeometryDTO.
+     * Convert to PackedGeometry, serialized like a GeometryDTO.
      *
-     * @return GeometryDTO
+     * @return PackedGeometry
      */
-    public GeometryDTO toGeometryDTO() {
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode coordinatesNode;
+    public PackedGeometry toPackedGeometry() {
+        return PackedGeometry.parse(type, coordinates);
+    }
+
+    /**
+     * Convert to a MultiPolygon, to be stored as a PostGIS geometry.
+     *
+     * @return MultiPolygon, or null if the coordinates do not describe any polygon
+     */
+    public MultiPolygon toMultiPolygon() {
+        if (coordinates == null) {
+            return null;
+        }
         try {
-            coordinatesNode = mapper.readTree(coordinates);
+            return GeometryConverter.toMultiPolygon(type, MAPPER.readTree(coordinates));
         } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to parse coordinates JSON", e);
+            return null;
         }
-        return new GeometryDTO(type.name(), coordinatesNode);
     }
 
 
@@ -49,9 +61,8 @@ public class Geometry {
      * @param coordinatesNode JsonNode
      */
     public void setCoordinates(JsonNode coordinatesNode) {
-        ObjectMapper mapper = new ObjectMapper();
         try {
-            this.coordinates = mapper.writeValueAsString(coordinatesNode);
+            this.coordinates = MAPPER.writeValueAsString(coordinatesNode);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Failed to convert coordinates to JSON", e);
         }
@@ -1,18 +1,21 @@
 package com.kirunaexplorer.app.model;
 
 import com.kirunaexplorer.app.dto.inout.PointCoordinatesDTO;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.kirunaexplorer.app.dto.response.PointCoordinatesResponseDTO;
+import com.kirunaexplorer.app.util.GeometryConverter;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.locationtech.jts.geom.Point;
 
 @Entity
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
+@BatchSize(size = 64)
 @Table(name = "POINT_COORDINATES")
 public class PointCoordinates {
 
@@ -25,10 +28,27 @@ public class PointCoordinates {
     @Embedded
     private Coordinates coordinates;
 
+    // Geometry derived from the coordinates, used by the spatial queries
+    @Column(name = "geom", columnDefinition = "geometry(Point," + GeometryConverter.SRID + ")")
+    @JsonIgnore
+    private Point geom;
+
+    public PointCoordinates(Long id, String name, Coordinates coordinates) {
+        this.id = id;
+        this.name = name;
+        this.coordinates = coordinates;
+    }
+
     public PointCoordinates(Long id, String name, double latitude, double longitude) {
         this(id, name, new Coordinates(latitude, longitude));
     }
 
+    @PrePersist
+    @PreUpdate
+    void updateGeom() {
+        geom = coordinates != null ? coordinates.toPoint() : null;
+    }
+
     public PointCoordinatesResponseDTO toPointCoordinatesResponseDTO() {
         return new PointCoordinatesResponseDTO(id, name, coordinates.getLatitude(), coordinates.getLongitude());
     }
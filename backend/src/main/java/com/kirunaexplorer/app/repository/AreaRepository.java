@@ -2,10 +2,14 @@ package com.kirunaexplorer.app.repository;
 
 import com.kirunaexplorer.app.model.Area;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +18,50 @@ public interface AreaRepository extends JpaRepository<Area, Long> {
 
     @Query("SELECT a FROM Area a LEFT JOIN FETCH a.geometry g LEFT JOIN FETCH a.centroid c WHERE a.name = :name")
     Optional<Area> findAreaByName(@NotNull String name);
+
+    @EntityGraph(attributePaths = "simplifications")
+    Optional<Area> findWithSimplificationsById(Long id);
+
+    @Query("SELECT a.id FROM Area a WHERE a.simplifications IS EMPTY AND a.geometry.coordinates IS NOT NULL AND a.id > :afterId ORDER BY a.id")
+    List<Long> findIdsWithoutSimplifications(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT a.id FROM Area a WHERE a.geom IS NULL AND a.geometry.coordinates IS NOT NULL AND a.id > :afterId ORDER BY a.id")
+    List<Long> findIdsWithoutGeom(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Encode a Mapbox Vector Tile with a layer of the areas and a layer of the documents located by a point.
+     * Geometries are projected to Web Mercator, simplified to the given tolerance and clipped to the tile
+     * with a small buffer, the candidates are found through the GiST indexes on the geometry columns.
+     *
+     * @param z         Zoom level
+     * @param x         Tile column
+     * @param y         Tile row
+     * @param tolerance Simplification tolerance in Web Mercator meters
+     * @return Tile content, empty if there is nothing in the tile
+     */
+    @Query(value = """
+        WITH bounds AS (
+            SELECT ST_TileEnvelope(:z, :x, :y) AS tile,
+                   ST_Transform(ST_TileEnvelope(:z, :x, :y, margin => 0.015625), 4326) AS search
+        ),
+        areas AS (
+            SELECT a.id, a.name,
+                   ST_AsMVTGeom(ST_SimplifyPreserveTopology(ST_Transform(a.geom, 3857), :tolerance), b.tile, 4096, 64, true) AS geom
+            FROM area a
+            CROSS JOIN bounds b
+            WHERE a.geom && b.search
+        ),
+        documents AS (
+            SELECT d.id, d.title, d.type,
+                   ST_AsMVTGeom(ST_Transform(p.geom, 3857), b.tile, 4096, 64, true) AS geom
+            FROM point_coordinates p
+            JOIN geo_reference gr ON gr.point_coordinates_id = p.id
+            JOIN document d ON d.id = gr.document_id
+            CROSS JOIN bounds b
+            WHERE p.geom && b.search
+        )
+        SELECT COALESCE((SELECT ST_AsMVT(areas, 'areas', 4096, 'geom', 'id') FROM areas WHERE geom IS NOT NULL), CAST('' AS bytea))
+            || COALESCE((SELECT ST_AsMVT(documents, 'documents', 4096, 'geom', 'id') FROM documents WHERE geom IS NOT NULL), CAST('' AS bytea))
+        """, nativeQuery = true)
+    byte[] encodeVectorTile(@Param("z") int z, @Param("x") int x, @Param("y") int y, @Param("tolerance") double tolerance);
 }
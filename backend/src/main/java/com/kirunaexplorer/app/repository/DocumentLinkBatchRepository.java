@@ -0,0 +1,40 @@
+package com.kirunaexplorer.app.repository;
+
+import com.kirunaexplorer.app.constants.DocumentLinkType;
+
+import java.util.List;
+
+/**
+ * Link writes that go around the entity manager, for imports of many links at once
+ */
+public interface DocumentLinkBatchRepository {
+    /**
+     * Link to insert, with document id lower than linked document id as stored by DocumentLink
+     */
+    record NewLink(long documentId, long linkedDocumentId, DocumentLinkType type) {
+    }
+
+    /**
+     * Id of a link and whether it was just inserted
+     */
+    record StoredLink(long id, boolean created) {
+    }
+
+    /**
+     * Insert a link in a single statement, or find it if it is already stored
+     *
+     * @param link Link to insert
+     * @return StoredLink
+     */
+    StoredLink insertOrGet(NewLink link);
+
+    /**
+     * Insert links with one statement per batch, skipping the ones already stored.
+     * The inserted links are the ones the statement returns, so a link committed meanwhile by another
+     * transaction is reported as existing.
+     *
+     * @param links Distinct links to insert
+     * @return Whether each link was inserted, false if it already existed
+     */
+    boolean[] insertIgnoringDuplicates(List<NewLink> links);
+}
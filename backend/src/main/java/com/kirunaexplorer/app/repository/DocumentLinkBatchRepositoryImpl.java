@@ -0,0 +1,75 @@
+package com.kirunaexplorer.app.repository;
+
+import com.kirunaexplorer.app.constants.DocumentLinkType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class DocumentLinkBatchRepositoryImpl implements DocumentLinkBatchRepository {
+    private static final int BATCH_SIZE = 500;
+    // The unique index on the link columns makes concurrent imports of the same link insert it once
+    private static final String INSERT = "INSERT INTO document_link (document_id, linked_document_id, type, created_at) " +
+        "VALUES (?, ?, ?, ?) ON CONFLICT (document_id, linked_document_id, type) DO NOTHING";
+
+    // The select cannot see a row inserted by the same statement, so at most one of the two returns a row
+    private static final String INSERT_OR_GET = "WITH inserted AS (" + INSERT + " RETURNING id) " +
+        "SELECT id, true AS created FROM inserted " +
+        "UNION ALL " +
+        "SELECT id, false AS created FROM document_link WHERE document_id = ? AND linked_document_id = ? AND type = ?";
+    // Only the rows this statement inserted are returned, not the ones skipped for a link already committed
+    private static final String INSERT_ALL = "INSERT INTO document_link (document_id, linked_document_id, type, created_at) " +
+        "SELECT l.document_id, l.linked_document_id, l.type, ? " +
+        "FROM unnest(CAST(? AS bigint[]), CAST(? AS bigint[]), CAST(? AS varchar[])) AS l(document_id, linked_document_id, type) " +
+        "ON CONFLICT (document_id, linked_document_id, type) DO NOTHING " +
+        "RETURNING document_id, linked_document_id, type";
+    private static final String GET = "SELECT id FROM document_link WHERE document_id = ? AND linked_document_id = ? AND type = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DocumentLinkBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public StoredLink insertOrGet(NewLink link) {
+        List<StoredLink> links = jdbcTemplate.query(INSERT_OR_GET,
+            (row, rowNum) -> new StoredLink(row.getLong("id"), row.getBoolean("created")),
+            link.documentId(), link.linkedDocumentId(), link.type().name(), Timestamp.valueOf(LocalDateTime.now()),
+            link.documentId(), link.linkedDocumentId(), link.type().name());
+        if (!links.isEmpty()) {
+            return links.get(0);
+        }
+        // Inserted by a transaction committed after the statement started, it is visible to a new one
+        Long id = jdbcTemplate.queryForObject(GET, Long.class, link.documentId(), link.linkedDocumentId(), link.type().name());
+        return new StoredLink(id, false);
+    }
+
+    @Override
+    public boolean[] insertIgnoringDuplicates(List<NewLink> links) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Set<NewLink> inserted = new HashSet<>();
+        for (int from = 0; from < links.size(); from += BATCH_SIZE) {
+            List<NewLink> batch = links.subList(from, Math.min(from + BATCH_SIZE, links.size()));
+            inserted.addAll(jdbcTemplate.query(INSERT_ALL, statement -> {
+                statement.setTimestamp(1, now);
+                statement.setArray(2, statement.getConnection().createArrayOf("bigint",
+                    batch.stream().map(NewLink::documentId).toArray()));
+                statement.setArray(3, statement.getConnection().createArrayOf("bigint",
+                    batch.stream().map(NewLink::linkedDocumentId).toArray()));
+                statement.setArray(4, statement.getConnection().createArrayOf("varchar",
+                    batch.stream().map(link -> link.type().name()).toArray()));
+            }, (row, rowNum) -> new NewLink(row.getLong("document_id"), row.getLong("linked_document_id"),
+                DocumentLinkType.valueOf(row.getString("type")))));
+        }
+
+        boolean[] created = new boolean[links.size()];
+        for (int i = 0; i < links.size(); i++) {
+            created[i] = inserted.contains(links.get(i));
+        }
+        return created;
+    }
+}
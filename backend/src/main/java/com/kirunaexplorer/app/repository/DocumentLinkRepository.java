@@ -5,16 +5,110 @@ import com.kirunaexplorer.app.model.Document;
 import com.kirunaexplorer.app.model.DocumentLink;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface DocumentLinkRepository extends JpaRepository<DocumentLink, Long> {
-    @Query("SELECT COUNT(dl) FROM DocumentLink dl WHERE dl.document.id = :documentId OR dl.linkedDocument.id = :documentId")
-    Integer countByDocumentId(@Param("documentId") Long documentId);
+public interface DocumentLinkRepository extends JpaRepository<DocumentLink, Long>, DocumentLinkBatchRepository {
+    /**
+     * Lightweight projection of a link, carrying only the ids of the two endpoints and the link type
+     */
+    interface LinkEdge {
+        Long getId();
+
+        Long getDocumentId();
+
+        Long getLinkedDocumentId();
+
+        DocumentLinkType getType();
+    }
 
     List<DocumentLink> findByDocumentOrLinkedDocument(Document document, Document linkedDocument);
 
+    /**
+     * Find all links as edges, without loading the linked documents
+     *
+     * @return List of LinkEdge
+     */
+    @Query("SELECT dl.id AS id, dl.document.id AS documentId, dl.linkedDocument.id AS linkedDocumentId, dl.type AS type FROM DocumentLink dl")
+    List<LinkEdge> findAllEdges();
+
+    /**
+     * Block link writes until the end of the transaction, waiting for the ones in progress
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE document_link IN SHARE MODE", nativeQuery = true)
+    void lockLinks();
+
+    /**
+     * Find the links stored with one of some documents as their first document, as edges
+     *
+     * @param documentIds Ids of the first documents, the lower id of each link
+     * @return List of LinkEdge
+     */
+    @Query("SELECT dl.id AS id, dl.document.id AS documentId, dl.linkedDocument.id AS linkedDocumentId, dl.type AS type " +
+        "FROM DocumentLink dl WHERE dl.document.id IN :documentIds")
+    List<LinkEdge> findEdgesByDocumentIds(@Param("documentIds") Collection<Long> documentIds);
+
+    /**
+     * Document reached by a lineage query, with the document it was reached from
+     */
+    interface LineageStep {
+        Long getDocumentId();
+
+        Long getParentId();
+
+        String getType();
+
+        Integer getDepth();
+    }
+
+    /**
+     * Expand a lineage by one level: find the documents linked to the ones reached at the previous level
+     * and not reached before. A document linked to several of them is returned once, through the lowest
+     * parent id. Links are undirected, so each end is followed by its own join, each served by the index
+     * the end leads; the direction follows the issuance dates: downstream only reaches documents issued
+     * on or after their parent.
+     *
+     * @param frontier  Ids of the documents reached at the previous level
+     * @param visited   Ids of all the documents reached so far, the first one included
+     * @param types     Link types to follow
+     * @param direction DOWNSTREAM, UPSTREAM or BOTH
+     * @param depth     Level being expanded, returned with each step
+     * @return List of LineageStep ordered by document id
+     */
+    default List<LineageStep> findLineageLevel(Collection<Long> frontier, Collection<Long> visited, String[] types,
+                                               String direction, int depth) {
+        return findLineageLevel(frontier.toArray(Long[]::new), visited.toArray(Long[]::new), types, direction, depth);
+    }
+
+    @Query(value = """
+        SELECT DISTINCT ON (n.document_id) n.document_id AS documentId, n.parent_id AS parentId, n.type, CAST(:depth AS integer) AS depth
+        FROM (
+            SELECT dl.linked_document_id AS document_id, dl.document_id AS parent_id, CAST(dl.type AS varchar) AS type
+            FROM document_link dl
+            WHERE dl.document_id = ANY(CAST(:frontier AS bigint[])) AND dl.type = ANY(CAST(:types AS text[]))
+            UNION ALL
+            SELECT dl.document_id, dl.linked_document_id, CAST(dl.type AS varchar)
+            FROM document_link dl
+            WHERE dl.linked_document_id = ANY(CAST(:frontier AS bigint[])) AND dl.type = ANY(CAST(:types AS text[]))
+        ) n
+        JOIN document nd ON nd.id = n.document_id
+        JOIN document pd ON pd.id = n.parent_id
+        WHERE NOT n.document_id = ANY(CAST(:visited AS bigint[]))
+          AND (:direction = 'BOTH'
+            OR (:direction = 'DOWNSTREAM' AND nd.issuance_date >= pd.issuance_date)
+            OR (:direction = 'UPSTREAM' AND nd.issuance_date <= pd.issuance_date))
+        ORDER BY n.document_id, n.parent_id, n.type
+        """, nativeQuery = true)
+    List<LineageStep> findLineageLevel(@Param("frontier") Long[] frontier,
+                                       @Param("visited") Long[] visited,
+                                       @Param("types") String[] types,
+                                       @Param("direction") String direction,
+                                       @Param("depth") int depth);
+
     boolean existsByDocumentAndLinkedDocumentAndType(Document linkedDocument, Document document, @NotNull DocumentLinkType type);
 }
\ No newline at end of file
@@ -4,55 +4,413 @@ import com.kirunaexplorer.app.model.Area;
 import com.kirunaexplorer.app.model.Document;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
     /**
-     * Find all documents in pageable format ordered by created date
+     * Find all documents with stakeholders and geolocation
+     *
+     * @return List of Document
+     */
+    @Override
+    @EntityGraph(Document.BRIEF_GRAPH)
+    List<Document> findAll();
+
+    /**
+     * Find the ids of a page of documents, latest first.
+     * Only ids are paged, so the database sorts and limits the rows itself instead of Hibernate paging
+     * fetch joined rows in memory. The documents are then loaded with findAllWithStakeholdersByIdIn.
      *
      * @param pageable Pageable
-     * @return Page of Document
+     * @return Page of document ids
+     */
+    @Query(value = "SELECT d.id FROM Document d ORDER BY d.createdAt DESC, d.id DESC",
+        countQuery = "SELECT count(d) FROM Document d")
+    Page<Long> findIdsByOrderByCreatedAtDesc(Pageable pageable);
+
+    /**
+     * Find some documents with stakeholders and geolocation fetched in the same query
+     *
+     * @param ids Document ids
+     * @return List of Document, in no particular order
+     */
+    @EntityGraph(Document.BRIEF_GRAPH)
+    @Query("SELECT d FROM Document d WHERE d.id IN :ids")
+    List<Document> findAllWithStakeholdersByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find the ids of the latest created documents, first page of the keyset pagination
+     *
+     * @param limit Maximum number of documents
+     * @return List of document ids, latest first
+     */
+    @Query(value = "SELECT d.id FROM document d ORDER BY d.created_at DESC, d.id DESC LIMIT :limit", nativeQuery = true)
+    List<Long> findLatestIds(@Param("limit") int limit);
+
+    /**
+     * Find the ids of the documents created before a position, next pages of the keyset pagination.
+     * The row comparison is answered by the index on (created_at, id), so every page costs the same.
+     *
+     * @param createdAt Creation time of the last document of the previous page
+     * @param id        Id of the last document of the previous page
+     * @param limit     Maximum number of documents
+     * @return List of document ids, latest first
+     */
+    @Query(value = "SELECT d.id FROM document d WHERE (d.created_at, d.id) < (:createdAt, :id) " +
+        "ORDER BY d.created_at DESC, d.id DESC LIMIT :limit", nativeQuery = true)
+    List<Long> findLatestIdsBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, @Param("limit") int limit);
+
+    /**
+     * Find which of some documents exist
+     *
+     * @param ids Document ids
+     * @return List of the ids of the existing documents
+     */
+    @Query("SELECT d.id FROM Document d WHERE d.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Add to the connection counters of some documents
+     *
+     * @param deltas Number of links added to each document by id, negative for removed links
+     */
+    default void addConnections(Map<Long, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Long[] ids = deltas.keySet().toArray(Long[]::new);
+        updateConnections(ids, Arrays.stream(ids).map(deltas::get).toArray(Integer[]::new));
+    }
+
+    @Modifying
+    @Query(value = "UPDATE document d SET nr_connections = d.nr_connections + c.delta " +
+        "FROM unnest(CAST(:ids AS bigint[]), CAST(:deltas AS integer[])) AS c(id, delta) WHERE d.id = c.id", nativeQuery = true)
+    void updateConnections(@Param("ids") Long[] ids, @Param("deltas") Integer[] deltas);
+
+    /**
+     * Recompute the connection counters that do not match the stored links
+     *
+     * @return Number of documents repaired
+     */
+    @Modifying
+    @Query(value = "UPDATE document d SET nr_connections = COALESCE(c.connections, 0) " +
+        "FROM document d2 LEFT JOIN (" +
+        "SELECT ends.id, count(*) AS connections FROM (" +
+        "SELECT document_id AS id FROM document_link UNION ALL SELECT linked_document_id FROM document_link" +
+        ") ends GROUP BY ends.id" +
+        ") c ON c.id = d2.id " +
+        "WHERE d2.id = d.id AND d.nr_connections <> COALESCE(c.connections, 0)", nativeQuery = true)
+    int repairConnectionCounts();
+
+    /**
+     * Find all documents with stakeholders and geolocation fetched in the same query
+     *
+     * @return List of Document
+     */
+    @EntityGraph(Document.BRIEF_GRAPH)
+    @Query("SELECT d FROM Document d")
+    List<Document> findAllWithStakeholders();
+
+    /**
+     * Filterable attributes of a document, one row for each of its stakeholders
+     */
+    interface DocumentAttributes {
+        Long getDocumentId();
+
+        String getType();
+
+        String getScale();
+
+        LocalDate getIssuanceDate();
+
+        String getStakeholder();
+
+        Long getGeoReferenceId();
+
+        Long getAreaId();
+
+        Long getPointId();
+    }
+
+    /**
+     * Find the filterable attributes of every document
+     *
+     * @return List of DocumentAttributes
+     */
+    @Query("""
+        SELECT d.id AS documentId, d.type AS type, d.scale AS scale, d.issuanceDate AS issuanceDate, s.name AS stakeholder,
+               gr.documentId AS geoReferenceId, a.id AS areaId, p.id AS pointId
+        FROM Document d
+        LEFT JOIN d.stakeholders s
+        LEFT JOIN d.geoReference gr
+        LEFT JOIN gr.area a
+        LEFT JOIN gr.pointCoordinates p
+        """)
+    List<DocumentAttributes> findAllAttributes();
+
+    /**
+     * Find the filterable attributes of a document
+     *
+     * @param documentId Document id
+     * @return List of DocumentAttributes, empty if the document does not exist
+     */
+    @Query("""
+        SELECT d.id AS documentId, d.type AS type, d.scale AS scale, d.issuanceDate AS issuanceDate, s.name AS stakeholder,
+               gr.documentId AS geoReferenceId, a.id AS areaId, p.id AS pointId
+        FROM Document d
+        LEFT JOIN d.stakeholders s
+        LEFT JOIN d.geoReference gr
+        LEFT JOIN gr.area a
+        LEFT JOIN gr.pointCoordinates p
+        WHERE d.id = :documentId
+        """)
+    List<DocumentAttributes> findAttributesByDocumentId(@Param("documentId") Long documentId);
+
+    /**
+     * Full-text search filter over the title and the description, see db/search.sql.
+     * An empty keyword matches every document.
+     */
+    String SEARCH_FROM = "FROM document d CROSS JOIN document_search_query(CAST(:keyword AS text)) AS q(query) WHERE " +
+        "(q.query IS NULL OR d.search_vector @@ q.query) AND " +
+        "(CAST(:type AS text) IS NULL OR d.type = :type) AND " +
+        "(cardinality(CAST(:stakeholderNames AS text[])) = 0 OR EXISTS (SELECT 1 FROM document_stakeholders ds " +
+        "JOIN stakeholders s ON s.id = ds.stakeholder_id " +
+        "WHERE ds.document_id = d.id AND s.name = ANY(CAST(:stakeholderNames AS text[])))) AND " +
+        "(CAST(:scale AS text) IS NULL OR d.scale = :scale) AND " +
+        "(CAST(:year AS integer) IS NULL OR extract(year FROM d.issuance_date) = :year) ";
+
+    /**
+     * Rank of a document in a search, 0 without a keyword
+     */
+    String SEARCH_RANK = "COALESCE(ts_rank_cd(d.search_vector, q.query), 0)";
+
+    /**
+     * Title and description of a document with the words matching a search highlighted
+     */
+    interface SearchHighlight {
+        Long getDocumentId();
+
+        String getTitle();
+
+        String getDescription();
+    }
+
+    /**
+     * Number of documents matching a search for each value of a facet
+     */
+    interface FacetCount {
+        String getFacet();
+
+        String getValue();
+
+        Long getHits();
+    }
+
+    default List<Document> searchMap(String keyword, String type, List<String> stakeholderNames, String scale) {
+        return fullTextSearch(keyword, type, toArray(stakeholderNames), scale, null);
+    }
+
+    default Page<Document> searchDocuments(String keyword, String type, List<String> stakeholderNames, String scale, Integer year, Pageable pageable) {
+        return fullTextSearch(keyword, type, toArray(stakeholderNames), scale, year, pageable);
+    }
+
+    /**
+     * Search documents ordered by relevance, matches in the title weigh more than in the description
+     * and documents without any keyword come in id order
+     */
+    default Page<Document> searchDocumentsByRelevance(String keyword, String type, List<String> stakeholderNames, String scale, Integer year, Pageable pageable) {
+        return fullTextSearchByRelevance(keyword, type, toArray(stakeholderNames), scale, year, pageable);
+    }
+
+    /**
+     * Count the documents matching a search for each type, scale, stakeholder and issuance year
+     */
+    default List<FacetCount> countFacets(String keyword, String type, List<String> stakeholderNames, String scale, Integer year) {
+        return countSearchFacets(keyword, type, toArray(stakeholderNames), scale, year);
+    }
+
+    @Query(value = "SELECT d.* " + SEARCH_FROM + "ORDER BY d.id", nativeQuery = true)
+    List<Document> fullTextSearch(@Param("keyword") String keyword,
+                                  @Param("type") String type,
+                                  @Param("stakeholderNames") String[] stakeholderNames,
+                                  @Param("scale") String scale,
+                                  @Param("year") Integer year);
+
+    @Query(value = "SELECT d.* " + SEARCH_FROM + "ORDER BY d.id",
+        countQuery = "SELECT count(*) " + SEARCH_FROM,
+        nativeQuery = true)
+    Page<Document> fullTextSearch(@Param("keyword") String keyword,
+                                  @Param("type") String type,
+                                  @Param("stakeholderNames") String[] stakeholderNames,
+                                  @Param("scale") String scale,
+                                  @Param("year") Integer year,
+                                  Pageable pageable);
+
+    @Query(value = "SELECT d.* " + SEARCH_FROM + "ORDER BY ts_rank_cd(d.search_vector, q.query) DESC, d.id",
+        countQuery = "SELECT count(*) " + SEARCH_FROM,
+        nativeQuery = true)
+    Page<Document> fullTextSearchByRelevance(@Param("keyword") String keyword,
+                                             @Param("type") String type,
+                                             @Param("stakeholderNames") String[] stakeholderNames,
+                                             @Param("scale") String scale,
+                                             @Param("year") Integer year,
+                                             Pageable pageable);
+
+    /**
+     * Count the facets of a search in a single pass with grouping sets. Each facet is counted with the
+     * filters of the other facets only, so the counts of the values not selected stay visible for drill-down.
+     * Documents without a value for a facet are not counted for it.
+     */
+    @Query(value = "WITH matched AS (SELECT d.id, d.type, d.scale, CAST(extract(year FROM d.issuance_date) AS integer) AS year, " +
+        "(CAST(:type AS text) IS NULL OR d.type = :type) AS type_ok, " +
+        "(CAST(:scale AS text) IS NULL OR d.scale = :scale) AS scale_ok, " +
+        "(cardinality(CAST(:stakeholderNames AS text[])) = 0 OR EXISTS (SELECT 1 FROM document_stakeholders ds " +
+        "JOIN stakeholders s ON s.id = ds.stakeholder_id " +
+        "WHERE ds.document_id = d.id AND s.name = ANY(CAST(:stakeholderNames AS text[])))) AS stakeholder_ok, " +
+        "(CAST(:year AS integer) IS NULL OR extract(year FROM d.issuance_date) = :year) AS year_ok " +
+        "FROM document d CROSS JOIN document_search_query(CAST(:keyword AS text)) AS q(query) " +
+        "WHERE q.query IS NULL OR d.search_vector @@ q.query) " +
+        "SELECT CASE WHEN GROUPING(m.type) = 0 THEN 'TYPE' WHEN GROUPING(m.scale) = 0 THEN 'SCALE' " +
+        "WHEN GROUPING(s.name) = 0 THEN 'STAKEHOLDER' ELSE 'YEAR' END AS facet, " +
+        "COALESCE(m.type, m.scale, s.name, CAST(m.year AS text)) AS value, " +
+        "CASE WHEN GROUPING(m.type) = 0 THEN count(DISTINCT m.id) FILTER (WHERE m.scale_ok AND m.stakeholder_ok AND m.year_ok) " +
+        "WHEN GROUPING(m.scale) = 0 THEN count(DISTINCT m.id) FILTER (WHERE m.type_ok AND m.stakeholder_ok AND m.year_ok) " +
+        "WHEN GROUPING(s.name) = 0 THEN count(DISTINCT m.id) FILTER (WHERE m.type_ok AND m.scale_ok AND m.year_ok) " +
+        "ELSE count(DISTINCT m.id) FILTER (WHERE m.type_ok AND m.scale_ok AND m.stakeholder_ok) END AS hits " +
+        "FROM matched m LEFT JOIN document_stakeholders ds ON ds.document_id = m.id " +
+        "LEFT JOIN stakeholders s ON s.id = ds.stakeholder_id " +
+        "GROUP BY GROUPING SETS ((m.type), (m.scale), (s.name), (m.year)) " +
+        "ORDER BY hits DESC, value", nativeQuery = true)
+    List<FacetCount> countSearchFacets(@Param("keyword") String keyword,
+                                       @Param("type") String type,
+                                       @Param("stakeholderNames") String[] stakeholderNames,
+                                       @Param("scale") String scale,
+                                       @Param("year") Integer year);
+
+    /**
+     * Document found by a search, with its rank
+     */
+    interface SearchHit {
+        Long getDocumentId();
+
+        Float getRank();
+    }
+
+    /**
+     * Search documents after a position in id order, for the keyset pagination
+     */
+    default List<SearchHit> searchAfter(String keyword, String type, List<String> stakeholderNames, String scale, Integer year, long afterId, int limit) {
+        return fullTextSearchAfter(keyword, type, toArray(stakeholderNames), scale, year, afterId, limit);
+    }
+
+    /**
+     * Search documents after a position in relevance order, for the keyset pagination
+     *
+     * @param rank    Rank of the last document of the previous page, null for the first page
+     * @param afterId Id of the last document of the previous page
+     */
+    default List<SearchHit> searchByRelevanceAfter(String keyword, String type, List<String> stakeholderNames, String scale, Integer year,
+                                                   Float rank, long afterId, int limit) {
+        return fullTextSearchByRelevanceAfter(keyword, type, toArray(stakeholderNames), scale, year, rank, afterId, limit);
+    }
+
+    /**
+     * Count the documents matching a search
      */
-    @Query("SELECT d FROM Document d LEFT JOIN FETCH d.geoReference gr LEFT JOIN FETCH gr.area a LEFT JOIN FETCH gr.pointCoordinates pc")
-    Page<Document> findAllByOrderByCreatedAtDesc(Pageable pageable);
+    default long countSearch(String keyword, String type, List<String> stakeholderNames, String scale, Integer year) {
+        return fullTextSearchCount(keyword, type, toArray(stakeholderNames), scale, year);
+    }
 
-    @Query("SELECT d FROM Document d WHERE " +
-            "(:keyword IS NULL OR LOWER(d.title) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND " +
-            "(:type IS NULL OR d.type = :type) AND " +
-            "(:stakeholderNames IS NULL OR EXISTS (SELECT s FROM d.stakeholders s WHERE s.name IN :stakeholderNames)) AND " +
-            "(:scale IS NULL OR d.scale = :scale)")
-    List<Document> searchMap(@Param("keyword") String keyword,
+    @Query(value = "SELECT d.id AS documentId, " + SEARCH_RANK + " AS rank " + SEARCH_FROM +
+        "AND d.id > :afterId ORDER BY d.id LIMIT :limit", nativeQuery = true)
+    List<SearchHit> fullTextSearchAfter(@Param("keyword") String keyword,
+                                        @Param("type") String type,
+                                        @Param("stakeholderNames") String[] stakeholderNames,
+                                        @Param("scale") String scale,
+                                        @Param("year") Integer year,
+                                        @Param("afterId") long afterId,
+                                        @Param("limit") int limit);
+
+    @Query(value = "SELECT d.id AS documentId, " + SEARCH_RANK + " AS rank " + SEARCH_FROM +
+        "AND (CAST(:rank AS real) IS NULL OR " + SEARCH_RANK + " < CAST(:rank AS real) OR " +
+        "(" + SEARCH_RANK + " = CAST(:rank AS real) AND d.id > :afterId)) " +
+        "ORDER BY rank DESC, d.id LIMIT :limit", nativeQuery = true)
+    List<SearchHit> fullTextSearchByRelevanceAfter(@Param("keyword") String keyword,
+                                                   @Param("type") String type,
+                                                   @Param("stakeholderNames") String[] stakeholderNames,
+                                                   @Param("scale") String scale,
+                                                   @Param("year") Integer year,
+                                                   @Param("rank") Float rank,
+                                                   @Param("afterId") long afterId,
+                                                   @Param("limit") int limit);
+
+    @Query(value = "SELECT count(*) " + SEARCH_FROM, nativeQuery = true)
+    long fullTextSearchCount(@Param("keyword") String keyword,
                              @Param("type") String type,
-                             @Param("stakeholderNames") List<String> stakeholderNames,
-                             @Param("scale") String scale);
+                             @Param("stakeholderNames") String[] stakeholderNames,
+                             @Param("scale") String scale,
+                             @Param("year") Integer year);
 
-    @Query("SELECT d FROM Document d WHERE " +
-        "(:keyword IS NULL OR LOWER(d.title) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND " +
-        "(:type IS NULL OR d.type = :type) AND " +
-        "(:stakeholderNames IS NULL OR EXISTS (SELECT s FROM d.stakeholders s WHERE s.name IN :stakeholderNames)) AND " +
-        "(:scale IS NULL OR d.scale = :scale)")
-    Page<Document> searchDocuments(@Param("keyword") String keyword,
-                                   @Param("type") String type,
-                                   @Param("stakeholderNames") List<String> stakeholderNames,
-                                   @Param("scale") String scale,
-                                   Pageable pageable);
+    /**
+     * Highlight the words of some documents matching a keyword
+     *
+     * @param keyword Search keyword
+     * @param ids     Document ids
+     * @return List of SearchHighlight, empty if the keyword has no word
+     */
+    @Query(value = "SELECT d.id AS documentId, " +
+        "ts_headline('simple', d.title, q.query, 'StartSel=<mark>, StopSel=</mark>, HighlightAll=true') AS title, " +
+        "ts_headline('simple', coalesce(d.description, ''), q.query, 'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MinWords=5, MaxWords=20') AS description " +
+        "FROM document d CROSS JOIN document_search_query(CAST(:keyword AS text)) AS q(query) " +
+        "WHERE d.id IN (:ids) AND q.query IS NOT NULL", nativeQuery = true)
+    List<SearchHighlight> findSearchHighlights(@Param("keyword") String keyword, @Param("ids") List<Long> ids);
+
+    /**
+     * Suggest titles containing a text, or with a word close to it, using the trigram index.
+     * Titles starting with the text come first, then the closest ones.
+     *
+     * @param query   Lower-cased text typed so far
+     * @param pattern Query escaped for LIKE
+     * @param limit   Maximum number of titles
+     * @return List of titles
+     */
+    @Query(value = "SELECT d.title FROM document d " +
+        "WHERE lower(d.title) LIKE '%' || :pattern || '%' ESCAPE '\\' OR :query <% lower(d.title) " +
+        "GROUP BY d.title " +
+        "ORDER BY lower(d.title) LIKE :pattern || '%' ESCAPE '\\' DESC, word_similarity(:query, lower(d.title)) DESC, d.title " +
+        "LIMIT :limit", nativeQuery = true)
+    List<String> suggestTitles(@Param("query") String query, @Param("pattern") String pattern, @Param("limit") int limit);
 
+    private static String[] toArray(List<String> values) {
+        return values != null ? values.toArray(String[]::new) : new String[0];
+    }
 
+    @EntityGraph(Document.BRIEF_GRAPH)
     @Query("SELECT d FROM Document d WHERE d.geoReference.area = :area")
     List<Document> findByGeoReferenceArea(@Param("area") Area area);
 
+    @EntityGraph(Document.BRIEF_GRAPH)
     @Query("SELECT d FROM Document d WHERE d.geoReference.area IS NOT NULL")
     List<Document> findByGeoReferenceAreaIsNotNull();
 
+    @EntityGraph(Document.BRIEF_GRAPH)
     @Query("SELECT d FROM Document d WHERE d.geoReference.pointCoordinates IS NOT NULL")
     List<Document> findByGeoReferencePointCoordinatesIsNotNull();
 
+    @EntityGraph(Document.BRIEF_GRAPH)
     @Query("SELECT d FROM Document d WHERE d.geoReference.area IS NULL AND d.geoReference.pointCoordinates IS NULL")
     List<Document> findByGeoReferenceIsNull();
 }
@@ -2,8 +2,22 @@ package com.kirunaexplorer.app.repository;
 
 import com.kirunaexplorer.app.model.DocumentScale;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface DocumentScaleRepository extends JpaRepository<DocumentScale, Long> {
+
+    Boolean existsByScale(String scale);
+
+    @Query("SELECT s.scale FROM DocumentScale s")
+    List<String> findAllScales();
+
+    @Modifying
+    @Query(value = "INSERT INTO document_scale (scale) VALUES (:scale) ON CONFLICT (scale) DO NOTHING", nativeQuery = true)
+    void insertIfMissing(@Param("scale") String scale);
 }
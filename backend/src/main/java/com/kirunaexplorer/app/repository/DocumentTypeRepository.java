@@ -4,9 +4,21 @@ import com.kirunaexplorer.app.model.DocumentType;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface DocumentTypeRepository extends JpaRepository<DocumentType, Long> {
     Boolean existsByTypeName(@NotNull @Size(min = 2, max = 64) String attr0);
+
+    @Query("SELECT t.typeName FROM DocumentType t")
+    List<String> findAllTypeNames();
+
+    @Modifying
+    @Query(value = "INSERT INTO document_type (type_name) VALUES (:typeName) ON CONFLICT (type_name) DO NOTHING", nativeQuery = true)
+    void insertIfMissing(@Param("typeName") String typeName);
 }
@@ -1,9 +1,37 @@
 package com.kirunaexplorer.app.repository;
 
 import com.kirunaexplorer.app.model.DocumentFile;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface FileRepository extends JpaRepository<DocumentFile, Long> {
+
+    boolean existsByContentHash(String contentHash);
+
+    @Query("SELECT DISTINCT f.contentHash FROM DocumentFile f WHERE f.contentHash IN :contentHashes")
+    List<String> findReferencedContentHashes(@Param("contentHashes") Collection<String> contentHashes);
+
+    /**
+     * Lock a content hash until the end of the transaction, before deleting its blob.
+     * Waits for the transactions that are attaching a file to it.
+     */
+    @Query(value = "SELECT count(*) FROM (SELECT pg_advisory_xact_lock(hashtext(:contentHash))) l", nativeQuery = true)
+    long lockContentHash(@Param("contentHash") String contentHash);
+
+    /**
+     * Lock a content hash until the end of the transaction, before attaching a file to it.
+     * Several files can be attached at once, a blob deletion waits for all of them.
+     */
+    @Query(value = "SELECT count(*) FROM (SELECT pg_advisory_xact_lock_shared(hashtext(:contentHash))) l", nativeQuery = true)
+    long lockContentHashShared(@Param("contentHash") String contentHash);
+
+    @Query("SELECT f.id FROM DocumentFile f WHERE f.contentHash IS NULL AND f.id > :afterId ORDER BY f.id")
+    List<Long> findIdsWithLegacyContent(@Param("afterId") Long afterId, Pageable pageable);
 }
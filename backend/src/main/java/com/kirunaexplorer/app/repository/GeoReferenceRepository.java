@@ -2,9 +2,105 @@ package com.kirunaexplorer.app.repository;
 
 import com.kirunaexplorer.app.model.GeoReference;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface GeoReferenceRepository extends JpaRepository<GeoReference, Long> {
 
+    /**
+     * Position of a document on the map: its point, or the centroid of its area
+     */
+    interface DocumentMarker {
+        Long getDocumentId();
+
+        String getType();
+
+        Double getLatitude();
+
+        Double getLongitude();
+    }
+
+    /**
+     * Find the position of every document located by a point or an area
+     *
+     * @return List of DocumentMarker
+     */
+    @Query("""
+        SELECT gr.documentId AS documentId, d.type AS type,
+               COALESCE(p.coordinates.latitude, a.centroid.latitude) AS latitude,
+               COALESCE(p.coordinates.longitude, a.centroid.longitude) AS longitude
+        FROM GeoReference gr
+        JOIN gr.document d
+        LEFT JOIN gr.pointCoordinates p
+        LEFT JOIN gr.area a
+        WHERE p.id IS NOT NULL OR a.id IS NOT NULL
+        """)
+    List<DocumentMarker> findAllMarkers();
+
+    /**
+     * Find the position of a document
+     *
+     * @param documentId Document id
+     * @return DocumentMarker, empty if the document is not located by a point or an area
+     */
+    @Query("""
+        SELECT gr.documentId AS documentId, d.type AS type,
+               COALESCE(p.coordinates.latitude, a.centroid.latitude) AS latitude,
+               COALESCE(p.coordinates.longitude, a.centroid.longitude) AS longitude
+        FROM GeoReference gr
+        JOIN gr.document d
+        LEFT JOIN gr.pointCoordinates p
+        LEFT JOIN gr.area a
+        WHERE gr.documentId = :documentId AND (p.id IS NOT NULL OR a.id IS NOT NULL)
+        """)
+    Optional<DocumentMarker> findMarkerByDocumentId(@Param("documentId") Long documentId);
+
+    /**
+     * Find the documents whose point or area intersects a bounding box, closest to its center first.
+     * Both branches are answered by the GiST indexes on the geometry columns.
+     *
+     * @param minLon        Minimum longitude
+     * @param minLat        Minimum latitude
+     * @param maxLon        Maximum longitude
+     * @param maxLat        Maximum latitude
+     * @param centerLon     Longitude of the point the results are ordered by
+     * @param centerLat     Latitude of the point the results are ordered by
+     * @param includePoints Whether to include documents located by a point
+     * @param includeAreas  Whether to include documents located by an area
+     * @param limit         Maximum number of documents
+     * @return List of document ids
+     */
+    @Query(value = """
+        SELECT v.document_id FROM (
+            SELECT gr.document_id,
+                   p.geom <-> ST_SetSRID(ST_MakePoint(:centerLon, :centerLat), 4326) AS distance
+            FROM point_coordinates p
+            JOIN geo_reference gr ON gr.point_coordinates_id = p.id
+            WHERE :includePoints AND p.geom && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326)
+            UNION ALL
+            SELECT gr.document_id,
+                   a.geom <-> ST_SetSRID(ST_MakePoint(:centerLon, :centerLat), 4326) AS distance
+            FROM area a
+            JOIN geo_reference gr ON gr.area_id = a.id
+            WHERE :includeAreas AND ST_Intersects(a.geom, ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326))
+        ) v
+        ORDER BY v.distance, v.document_id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Long> findDocumentIdsInBoundingBox(
+        @Param("minLon") double minLon,
+        @Param("minLat") double minLat,
+        @Param("maxLon") double maxLon,
+        @Param("maxLat") double maxLat,
+        @Param("centerLon") double centerLon,
+        @Param("centerLat") double centerLat,
+        @Param("includePoints") boolean includePoints,
+        @Param("includeAreas") boolean includeAreas,
+        @Param("limit") int limit
+    );
 }
@@ -4,6 +4,9 @@ import com.kirunaexplorer.app.model.Stakeholder;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +16,17 @@ public interface StakeholderRepository extends JpaRepository<Stakeholder, Long>
     Boolean existsByName(@NotNull @Size(min = 2, max = 64) String name);
 
     List<Stakeholder> findByNameIn(@NotNull @Size(min = 2, max = 64) List<String> names);
+
+    @Query("SELECT s.name FROM Stakeholder s")
+    List<String> findAllNames();
+
+    /**
+     * Insert the stakeholders not stored yet with a single statement.
+     * Names stored concurrently by another transaction are skipped instead of failing on the unique constraint.
+     *
+     * @param names Stakeholder names
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stakeholders (name) SELECT unnest(CAST(:names AS varchar[])) ON CONFLICT (name) DO NOTHING", nativeQuery = true)
+    void insertMissing(@Param("names") String[] names);
 }
@@ -3,20 +3,43 @@ package com.kirunaexplorer.app.service;
 import com.kirunaexplorer.app.dto.request.AreaRequestDTO;
 import com.kirunaexplorer.app.dto.response.AreaBriefResponseDTO;
 import com.kirunaexplorer.app.dto.response.AreaResponseDTO;
+import com.kirunaexplorer.app.event.AreaChangedEvent;
 import com.kirunaexplorer.app.exception.DuplicateAreaException;
+import com.kirunaexplorer.app.exception.InvalidQueryParameterException;
 import com.kirunaexplorer.app.exception.ResourceNotFoundException;
 import com.kirunaexplorer.app.model.Area;
 import com.kirunaexplorer.app.repository.AreaRepository;
+import com.kirunaexplorer.app.util.GeometrySimplifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class AreaService {
     private final AreaRepository areaRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AreaService(AreaRepository areaRepository) {
+    // Areas cannot be modified once created, so cached responses never go stale.
+    // The least recently used area is evicted beyond the cache size, reads reorder the map so every access is synchronized
+    private final Map<Long, CachedArea> areaCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CachedArea> eldest) {
+            return size() > cacheSize;
+        }
+    });
+
+    @Value("${kiruna.areas.cache-size:1000}")
+    private int cacheSize = 1000;
+
+    public AreaService(AreaRepository areaRepository, ApplicationEventPublisher eventPublisher) {
         this.areaRepository = areaRepository;
+        this.eventPublisher = eventPublisher;
     }
 
 
@@ -44,21 +67,79 @@ public class AreaService {
         }
 
         // Save area
+        // Precompute the simplified geometries for the lower zoom levels
         Area area = areaRequest.toArea();
+        area.setSimplifications(new ArrayList<>(GeometrySimplifier.simplify(area.getGeometry())));
         area = areaRepository.save(area);
+        eventPublisher.publishEvent(new AreaChangedEvent(area.getId()));
 
         return area.getId();
     }
 
     /**
-     * Get an area by id.
+     * Get an area by id, with its full geometry.
      *
      * @param id Area id
      * @return AreaResponseDTO
      */
     public AreaResponseDTO getAreaById(Long id) {
-        return areaRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Area not found with id: " + id))
-            .toAreaResponseDTO();
+        return getAreaById(id, null, null);
+    }
+
+    /**
+     * Get an area by id, with the coarsest stored version of its geometry within a tolerance.
+     * The tolerance is either given in degrees or derived from a zoom level, without any the full geometry is returned.
+     * Geometries are parsed once and kept in their packed form, later requests are served from memory.
+     *
+     * @param id        Area id
+     * @param zoom      Map zoom level
+     * @param tolerance Maximum simplification tolerance in degrees
+     * @return AreaResponseDTO
+     */
+    public AreaResponseDTO getAreaById(Long id, Integer zoom, Double tolerance) {
+        if (zoom != null && tolerance != null) {
+            throw new InvalidQueryParameterException("Only one of zoom and tolerance can be given");
+        }
+        Double maxTolerance = zoom != null ? Double.valueOf(GeometrySimplifier.toleranceForZoom(zoom)) : tolerance;
+
+        CachedArea cached = areaCache.get(id);
+        if (cached == null) {
+            cached = CachedArea.of(areaRepository.findWithSimplificationsById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Area not found with id: " + id)));
+            areaCache.put(id, cached);
+        }
+        return cached.forTolerance(maxTolerance);
+    }
+
+    /**
+     * Responses for an area at every level of detail
+     *
+     * @param full   Response with the full geometry
+     * @param levels Responses with a simplified geometry, coarsest first
+     */
+    private record CachedArea(AreaResponseDTO full, List<Level> levels) {
+
+        private static CachedArea of(Area area) {
+            return new CachedArea(
+                area.toAreaResponseDTO(),
+                area.getSimplifications().stream()
+                    .map(simplification -> new Level(simplification.getTolerance(), area.toAreaResponseDTO(simplification)))
+                    .toList()
+            );
+        }
+
+        private AreaResponseDTO forTolerance(Double tolerance) {
+            if (tolerance != null) {
+                for (Level level : levels) {
+                    if (level.tolerance() <= tolerance) {
+                        return level.response();
+                    }
+                }
+            }
+            return full;
+        }
+    }
+
+    private record Level(double tolerance, AreaResponseDTO response) {
     }
 }
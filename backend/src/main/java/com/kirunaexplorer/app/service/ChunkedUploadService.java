@@ -0,0 +1,333 @@
+package com.kirunaexplorer.app.service;
+
+import com.kirunaexplorer.app.config.StorageProperties;
+import com.kirunaexplorer.app.dto.request.UploadCompleteRequestDTO;
+import com.kirunaexplorer.app.dto.request.UploadInitRequestDTO;
+import com.kirunaexplorer.app.dto.response.UploadSessionResponseDTO;
+import com.kirunaexplorer.app.exception.FileReadException;
+import com.kirunaexplorer.app.exception.FileStorageException;
+import com.kirunaexplorer.app.exception.InvalidUploadException;
+import com.kirunaexplorer.app.exception.ResourceNotFoundException;
+import com.kirunaexplorer.app.repository.DocumentRepository;
+import com.kirunaexplorer.app.storage.BlobStore;
+import com.kirunaexplorer.app.storage.StoredBlob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumable uploads of large files, sent as a sequence of fixed size chunks.
+ * Each chunk is streamed to a temporary file through a fixed buffer while the SHA-256
+ * of the content is updated incrementally, so the memory used by an upload does not
+ * depend on the size of the file. Once complete the file is moved to the BlobStore.
+ */
+@Slf4j
+@Service
+public class ChunkedUploadService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DocumentRepository documentRepository;
+    private final FileService fileService;
+    private final BlobStore blobStore;
+    private final Path uploadsDir;
+    private final long chunkSize;
+    private final long maxFileSize;
+    private final long expiryMillis;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * State of an upload in progress, guarded by its own monitor
+     */
+    private static final class UploadSession {
+        private final String id;
+        private final Long documentId;
+        private final String fileName;
+        private final String name;
+        private final String extension;
+        private final long size;
+        private final Path file;
+        private MessageDigest digest;
+        private long received;
+        private int nextChunk;
+        private volatile long lastActivity;
+        private boolean closed;
+
+        private UploadSession(String id, Long documentId, UploadInitRequestDTO request, Path file, MessageDigest digest) {
+            this.id = id;
+            this.documentId = documentId;
+            this.fileName = request.fileName();
+            this.name = request.name();
+            this.extension = request.extension();
+            this.size = request.size();
+            this.file = file;
+            this.digest = digest;
+            this.lastActivity = System.currentTimeMillis();
+        }
+    }
+
+    public ChunkedUploadService(
+        DocumentRepository documentRepository,
+        FileService fileService,
+        BlobStore blobStore,
+        StorageProperties storageProperties
+    ) {
+        this.documentRepository = documentRepository;
+        this.fileService = fileService;
+        this.blobStore = blobStore;
+        this.uploadsDir = Paths.get(storageProperties.getUploads().getDir()).toAbsolutePath().normalize();
+        this.chunkSize = storageProperties.getUploads().getChunkSize().toBytes();
+        this.maxFileSize = storageProperties.getUploads().getMaxFileSize().toBytes();
+        this.expiryMillis = storageProperties.getUploads().getExpiry().toMillis();
+        try {
+            Files.createDirectories(uploadsDir);
+            // Sessions live in memory, files left by a previous run cannot be resumed
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(uploadsDir, "*.part")) {
+                for (Path leftover : leftovers) {
+                    Files.deleteIfExists(leftover);
+                }
+            }
+        } catch (IOException e) {
+            throw new FileStorageException("Cannot create uploads directory " + uploadsDir, e);
+        }
+    }
+
+    /**
+     * Start a new upload for a document
+     *
+     * @param documentId Document id
+     * @param request    UploadInitRequestDTO
+     * @return UploadSessionResponseDTO
+     */
+    public UploadSessionResponseDTO initiate(Long documentId, UploadInitRequestDTO request) {
+        if (!documentRepository.existsById(documentId)) {
+            throw new ResourceNotFoundException("Document not found with ID " + documentId);
+        }
+        if (request.size() > maxFileSize) {
+            throw new InvalidUploadException("Maximum upload size of " + maxFileSize + " bytes exceeded");
+        }
+
+        String id = UUID.randomUUID().toString();
+        try {
+            Path file = Files.createFile(uploadsDir.resolve(id + ".part"));
+            UploadSession session = new UploadSession(id, documentId, request, file, MessageDigest.getInstance("SHA-256"));
+            sessions.put(id, session);
+            return toResponse(session);
+        } catch (IOException e) {
+            throw new FileStorageException("Error creating upload", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Get the state of an upload, to know where to resume from
+     *
+     * @param uploadId Upload id
+     * @return UploadSessionResponseDTO
+     */
+    public UploadSessionResponseDTO getUpload(String uploadId) {
+        UploadSession session = getSession(uploadId);
+        synchronized (session) {
+            return toResponse(session);
+        }
+    }
+
+    /**
+     * Append a chunk to an upload.
+     * Chunks must be sent in order and all but the last must be exactly chunkSize bytes long.
+     * Sending again a chunk that was already received is a no-op, so a client can safely retry.
+     * A chunk that is interrupted or has the wrong length is discarded as a whole.
+     *
+     * @param uploadId Upload id
+     * @param index    Chunk index, starting from 0
+     * @param content  Chunk content
+     * @return UploadSessionResponseDTO
+     */
+    public UploadSessionResponseDTO appendChunk(String uploadId, int index, InputStream content) {
+        UploadSession session = getSession(uploadId);
+        synchronized (session) {
+            checkOpen(session);
+            session.lastActivity = System.currentTimeMillis();
+            if (index < session.nextChunk) {
+                return toResponse(session);
+            }
+            if (index > session.nextChunk) {
+                throw new InvalidUploadException("Expected chunk " + session.nextChunk + " but received chunk " + index);
+            }
+
+            long expected = Math.min(chunkSize, session.size - session.received);
+            MessageDigest checkpoint = cloneDigest(session.digest);
+            try (FileChannel channel = FileChannel.open(session.file, StandardOpenOption.WRITE)) {
+                channel.position(session.received);
+                long written = copy(content, channel, session.digest, expected);
+                if (written != expected) {
+                    throw new InvalidUploadException("Chunk " + index + " must be " + expected + " bytes long");
+                }
+                session.received += written;
+                session.nextChunk++;
+                return toResponse(session);
+            } catch (IOException | RuntimeException e) {
+                rollback(session, checkpoint);
+                if (e instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new FileReadException("Error reading chunk " + index, e);
+            }
+        }
+    }
+
+    /**
+     * Complete an upload, verifying its checksum and attaching the file to the document
+     *
+     * @param uploadId Upload id
+     * @param request  UploadCompleteRequestDTO
+     * @return Long id of the new file
+     */
+    public Long complete(String uploadId, UploadCompleteRequestDTO request) {
+        UploadSession session = getSession(uploadId);
+        StoredBlob blob;
+        synchronized (session) {
+            checkOpen(session);
+            if (session.received != session.size) {
+                throw new InvalidUploadException("Upload incomplete, received " + session.received + " of " + session.size + " bytes");
+            }
+
+            String hash = HexFormat.of().formatHex(session.digest.digest());
+            if (!hash.equalsIgnoreCase(request.sha256())) {
+                close(session);
+                throw new InvalidUploadException("Checksum mismatch, the upload has been discarded");
+            }
+
+            session.closed = true;
+            sessions.remove(session.id);
+            blob = blobStore.importFile(session.file, hash);
+        }
+
+        return fileService.attachFile(session.documentId, session.name, session.extension, blob);
+    }
+
+    /**
+     * Abort an upload and discard the received content
+     *
+     * @param uploadId Upload id
+     */
+    public void abort(String uploadId) {
+        UploadSession session = getSession(uploadId);
+        synchronized (session) {
+            close(session);
+        }
+    }
+
+    /**
+     * Discard uploads that have not received anything for longer than the expiry
+     */
+    @Scheduled(fixedDelayString = "${storage.uploads.cleanup-interval:PT1H}")
+    public void expireUploads() {
+        long threshold = System.currentTimeMillis() - expiryMillis;
+        sessions.values().stream()
+            .filter(session -> session.lastActivity < threshold)
+            .forEach(session -> {
+                synchronized (session) {
+                    if (!session.closed && session.lastActivity < threshold) {
+                        log.info("Discarding expired upload {}", session.id);
+                        close(session);
+                    }
+                }
+            });
+    }
+
+    private UploadSession getSession(String uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null) {
+            throw new ResourceNotFoundException("Upload not found with ID " + uploadId);
+        }
+        return session;
+    }
+
+    private static void checkOpen(UploadSession session) {
+        if (session.closed) {
+            throw new ResourceNotFoundException("Upload not found with ID " + session.id);
+        }
+    }
+
+    /**
+     * Copy at most limit + 1 bytes, so an oversized chunk is detected without reading it all
+     */
+    private static long copy(InputStream in, FileChannel channel, MessageDigest digest, long limit) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        int read;
+        while (total <= limit && (read = in.read(buffer, 0, (int) Math.min(buffer.length, limit + 1 - total))) != -1) {
+            if (total + read > limit) {
+                return total + read;
+            }
+            digest.update(buffer, 0, read);
+            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+            while (byteBuffer.hasRemaining()) {
+                channel.write(byteBuffer);
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * Restore the upload to the state before the failed chunk
+     */
+    private void rollback(UploadSession session, MessageDigest checkpoint) {
+        session.digest = checkpoint;
+        try (FileChannel channel = FileChannel.open(session.file, StandardOpenOption.WRITE)) {
+            channel.truncate(session.received);
+        } catch (IOException e) {
+            log.error("Cannot restore upload {}, discarding it", session.id, e);
+            close(session);
+        }
+    }
+
+    private void close(UploadSession session) {
+        session.closed = true;
+        sessions.remove(session.id);
+        try {
+            Files.deleteIfExists(session.file);
+        } catch (IOException e) {
+            log.warn("Cannot delete upload file {}", session.file, e);
+        }
+    }
+
+    private static MessageDigest cloneDigest(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest cannot be cloned", e);
+        }
+    }
+
+    private UploadSessionResponseDTO toResponse(UploadSession session) {
+        return new UploadSessionResponseDTO(
+            session.id,
+            session.documentId,
+            session.fileName,
+            session.size,
+            chunkSize,
+            session.nextChunk,
+            session.received,
+            LocalDateTime.ofInstant(Instant.ofEpochMilli(session.lastActivity + expiryMillis), ZoneId.systemDefault())
+        );
+    }
+}
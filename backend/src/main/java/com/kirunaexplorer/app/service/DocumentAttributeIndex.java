@@ -0,0 +1,234 @@
+package com.kirunaexplorer.app.service;
+
+import com.kirunaexplorer.app.constants.FilterOptionForMap;
+import com.kirunaexplorer.app.event.DocumentChangedEvent;
+import com.kirunaexplorer.app.repository.DocumentRepository;
+import com.kirunaexplorer.app.repository.DocumentRepository.DocumentAttributes;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of the low-cardinality attributes documents are filtered by: type, scale, stakeholders,
+ * issuance year and kind of geolocation. Each attribute value has a bitmap of the ids of its documents,
+ * so a combination of filters is answered by intersecting a few bitmaps without touching the database.
+ * Document ids come from an identity column and are dense, so plain bitsets stay small.
+ * The index is built at startup and updated one document at a time after every committed change.
+ */
+@Service
+public class DocumentAttributeIndex {
+    private final DocumentRepository documentRepository;
+
+    // Guards the bitmaps, updates are serialized by the monitor of the service
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet all = new BitSet();
+    private final Map<String, BitSet> types = new HashMap<>();
+    private final Map<String, BitSet> scales = new HashMap<>();
+    private final Map<String, BitSet> stakeholders = new HashMap<>();
+    private final Map<Integer, BitSet> years = new HashMap<>();
+    private final Map<FilterOptionForMap, BitSet> geolocations = new EnumMap<>(FilterOptionForMap.class);
+    // Indexed attributes of each document, to clear its bits when it changes
+    private final Map<Integer, Attributes> documents = new HashMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * Attribute values of a document
+     *
+     * @param geolocation Kinds of geolocation among AREA_ONLY, POINT_ONLY and NO_GEOLOCATION, as matched by the map filters
+     */
+    private record Attributes(String type, String scale, Integer year, Set<String> stakeholders, Set<FilterOptionForMap> geolocation) {
+    }
+
+    public DocumentAttributeIndex(DocumentRepository documentRepository) {
+        this.documentRepository = documentRepository;
+    }
+
+    /**
+     * Find the documents matching every given filter, a null or empty filter matches every document
+     *
+     * @param type             Document type
+     * @param stakeholderNames Stakeholder names, any of them
+     * @param scale            Document scale
+     * @param year             Issuance year
+     * @param geolocation      Kind of geolocation
+     * @return Document ids in ascending order, empty if the index is not built yet
+     */
+    public Optional<List<Long>> findDocumentIds(String type, List<String> stakeholderNames, String scale, Integer year, FilterOptionForMap geolocation) {
+        if (!loaded) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        BitSet result;
+        try {
+            result = (BitSet) all.clone();
+            if (type != null) {
+                result.and(types.getOrDefault(type, new BitSet()));
+            }
+            if (scale != null) {
+                result.and(scales.getOrDefault(scale, new BitSet()));
+            }
+            if (year != null) {
+                result.and(years.getOrDefault(year, new BitSet()));
+            }
+            if (geolocation != null && geolocation != FilterOptionForMap.ALL) {
+                result.and(geolocations.getOrDefault(geolocation, new BitSet()));
+            }
+            if (stakeholderNames != null && !stakeholderNames.isEmpty()) {
+                BitSet any = new BitSet();
+                for (String name : stakeholderNames) {
+                    BitSet bitmap = stakeholders.get(name);
+                    if (bitmap != null) {
+                        any.or(bitmap);
+                    }
+                }
+                result.and(any);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> ids = new ArrayList<>(result.cardinality());
+        for (int id = result.nextSetBit(0); id >= 0; id = result.nextSetBit(id + 1)) {
+            ids.add((long) id);
+        }
+        return Optional.of(ids);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Map<Integer, Attributes> loadedDocuments = toAttributes(documentRepository.findAllAttributes());
+
+        lock.writeLock().lock();
+        try {
+            all.clear();
+            types.clear();
+            scales.clear();
+            stakeholders.clear();
+            years.clear();
+            geolocations.clear();
+            documents.clear();
+            loadedDocuments.forEach(this::add);
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reindex a changed document.
+     * Its attributes are read after the commit while holding the monitor, so the last update applied
+     * always reflects the last committed state of the document.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDocumentChanged(DocumentChangedEvent event) {
+        // Not built yet, the rebuild will see the change
+        if (!loaded) {
+            return;
+        }
+        Attributes attributes = toAttributes(documentRepository.findAttributesByDocumentId(event.documentId()))
+            .get(Math.toIntExact(event.documentId()));
+
+        lock.writeLock().lock();
+        try {
+            remove(Math.toIntExact(event.documentId()));
+            if (attributes != null) {
+                add(Math.toIntExact(event.documentId()), attributes);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(int id, Attributes attributes) {
+        documents.put(id, attributes);
+        all.set(id);
+        if (attributes.type() != null) {
+            types.computeIfAbsent(attributes.type(), key -> new BitSet()).set(id);
+        }
+        if (attributes.scale() != null) {
+            scales.computeIfAbsent(attributes.scale(), key -> new BitSet()).set(id);
+        }
+        if (attributes.year() != null) {
+            years.computeIfAbsent(attributes.year(), key -> new BitSet()).set(id);
+        }
+        for (FilterOptionForMap geolocation : attributes.geolocation()) {
+            geolocations.computeIfAbsent(geolocation, key -> new BitSet()).set(id);
+        }
+        for (String stakeholder : attributes.stakeholders()) {
+            stakeholders.computeIfAbsent(stakeholder, key -> new BitSet()).set(id);
+        }
+    }
+
+    private void remove(int id) {
+        Attributes attributes = documents.remove(id);
+        if (attributes == null) {
+            return;
+        }
+        all.clear(id);
+        clear(types, attributes.type(), id);
+        clear(scales, attributes.scale(), id);
+        clear(years, attributes.year(), id);
+        for (FilterOptionForMap geolocation : attributes.geolocation()) {
+            clear(geolocations, geolocation, id);
+        }
+        for (String stakeholder : attributes.stakeholders()) {
+            clear(stakeholders, stakeholder, id);
+        }
+    }
+
+    /**
+     * Clear the bit of a document in the bitmap of a value, dropping the bitmaps left empty
+     */
+    private static <K> void clear(Map<K, BitSet> bitmaps, K value, int id) {
+        if (value == null) {
+            return;
+        }
+        BitSet bitmap = bitmaps.get(value);
+        if (bitmap != null) {
+            bitmap.clear(id);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(value);
+            }
+        }
+    }
+
+    /**
+     * Group the rows of the documents, one for each stakeholder, by document id
+     */
+    private static Map<Integer, Attributes> toAttributes(List<DocumentAttributes> rows) {
+        Map<Integer, Attributes> attributes = new HashMap<>();
+        for (DocumentAttributes row : rows) {
+            Attributes document = attributes.computeIfAbsent(Math.toIntExact(row.getDocumentId()), id -> new Attributes(
+                row.getType(),
+                row.getScale(),
+                row.getIssuanceDate() != null ? row.getIssuanceDate().getYear() : null,
+                new HashSet<>(),
+                geolocationOf(row)
+            ));
+            if (row.getStakeholder() != null) {
+                document.stakeholders().add(row.getStakeholder());
+            }
+        }
+        return attributes;
+    }
+
+    private static Set<FilterOptionForMap> geolocationOf(DocumentAttributes row) {
+        Set<FilterOptionForMap> geolocation = EnumSet.noneOf(FilterOptionForMap.class);
+        if (row.getAreaId() != null) {
+            geolocation.add(FilterOptionForMap.AREA_ONLY);
+        }
+        if (row.getPointId() != null) {
+            geolocation.add(FilterOptionForMap.POINT_ONLY);
+        }
+        if (row.getGeoReferenceId() != null && geolocation.isEmpty()) {
+            geolocation.add(FilterOptionForMap.NO_GEOLOCATION);
+        }
+        return geolocation;
+    }
+}
@@ -0,0 +1,271 @@
+package com.kirunaexplorer.app.service;
+
+import com.kirunaexplorer.app.dto.request.BoundingBoxDTO;
+import com.kirunaexplorer.app.dto.response.DocumentClusterResponseDTO;
+import com.kirunaexplorer.app.event.DocumentChangedEvent;
+import com.kirunaexplorer.app.repository.GeoReferenceRepository;
+import com.kirunaexplorer.app.repository.GeoReferenceRepository.DocumentMarker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Groups the documents shown on the map in clusters, so the client does not receive every marker.
+ * Markers are assigned to the cells of a square grid in Web Mercator pixels, one grid for each zoom level.
+ * All the grids are kept in memory and updated one document at a time when its geolocation changes.
+ * The cells of a grid are sorted by column then row, so the cells of a viewport column are one range
+ * and a request only reads the cells in the viewport.
+ */
+@Service
+public class DocumentClusterService {
+    // Size of a map tile in pixels, used to convert coordinates to pixels
+    private static final int TILE_SIZE = 256;
+    // Latitude where the Web Mercator projection is cut
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private final GeoReferenceRepository geoReferenceRepository;
+
+    // From this zoom level on every cell is a leaf and lists its documents
+    @Value("${kiruna.map.cluster.max-zoom:16}")
+    private int maxZoom = 16;
+
+    @Value("${kiruna.map.cluster.cell-size:64}")
+    private int cellSize = 64;
+
+    // Guards the grids, updates are serialized by the monitor of the service
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Marker> markers;
+    private volatile List<NavigableMap<Long, Cell>> levels;
+
+    /**
+     * Position of a document, x and y are Web Mercator coordinates in [0, 1]
+     */
+    private record Marker(Long documentId, String type, double latitude, double longitude, double x, double y) {
+    }
+
+    /**
+     * Documents in a cell of the grid of a zoom level
+     */
+    private static final class Cell {
+        private final SortedSet<Long> documentIds = new TreeSet<>();
+        private final Map<String, Integer> types = new HashMap<>();
+        private double latitudeSum;
+        private double longitudeSum;
+
+        private void add(Marker marker) {
+            documentIds.add(marker.documentId());
+            if (marker.type() != null) {
+                types.merge(marker.type(), 1, Integer::sum);
+            }
+            latitudeSum += marker.latitude();
+            longitudeSum += marker.longitude();
+        }
+
+        private void remove(Marker marker) {
+            documentIds.remove(marker.documentId());
+            if (marker.type() != null) {
+                types.computeIfPresent(marker.type(), (type, count) -> count > 1 ? count - 1 : null);
+            }
+            latitudeSum -= marker.latitude();
+            longitudeSum -= marker.longitude();
+        }
+
+        private String dominantType() {
+            return types.entrySet().stream()
+                .max(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .map(Map.Entry::getKey)
+                .orElse(null);
+        }
+    }
+
+    public DocumentClusterService(GeoReferenceRepository geoReferenceRepository) {
+        this.geoReferenceRepository = geoReferenceRepository;
+    }
+
+    /**
+     * Get the clusters of documents in a viewport.
+     * Documents are listed for the clusters at leaf level and for the clusters of a single document.
+     *
+     * @param bbox Viewport
+     * @param zoom Map zoom level
+     * @return List of DocumentClusterResponseDTO, largest first
+     */
+    public List<DocumentClusterResponseDTO> getClusters(BoundingBoxDTO bbox, int zoom) {
+        ensureLoaded();
+
+        int level = Math.min(zoom, maxZoom);
+        boolean leaf = zoom >= maxZoom;
+        long cellsPerSide = cellsPerSide(level);
+        long minX = cellOf(mercatorX(bbox.minLon()), cellsPerSide);
+        long maxX = cellOf(mercatorX(bbox.maxLon()), cellsPerSide);
+        // Mercator y grows southwards
+        long minY = cellOf(mercatorY(bbox.maxLat()), cellsPerSide);
+        long maxY = cellOf(mercatorY(bbox.minLat()), cellsPerSide);
+
+        List<DocumentClusterResponseDTO> clusters = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            NavigableMap<Long, Cell> grid = levels.get(level);
+            Consumer<Cell> addCluster = cell -> {
+                int count = cell.documentIds.size();
+                clusters.add(new DocumentClusterResponseDTO(
+                    count,
+                    cell.latitudeSum / count,
+                    cell.longitudeSum / count,
+                    cell.dominantType(),
+                    leaf || count == 1 ? List.copyOf(cell.documentIds) : List.of()
+                ));
+            };
+            if (maxX - minX + 1 < grid.size()) {
+                // One range of rows for each column of the viewport
+                for (long x = minX; x <= maxX; x++) {
+                    grid.subMap(x * cellsPerSide + minY, true, x * cellsPerSide + maxY, true).values().forEach(addCluster);
+                }
+            } else {
+                // Fewer occupied cells than viewport columns, as when zoomed in far on a large viewport
+                for (Map.Entry<Long, Cell> entry : grid.entrySet()) {
+                    long x = entry.getKey() / cellsPerSide;
+                    long y = entry.getKey() % cellsPerSide;
+                    if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                        addCluster.accept(entry.getValue());
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        clusters.sort(Comparator.comparingInt(DocumentClusterResponseDTO::count).reversed()
+            .thenComparingDouble(DocumentClusterResponseDTO::latitude)
+            .thenComparingDouble(DocumentClusterResponseDTO::longitude));
+        return clusters;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ensureLoaded();
+    }
+
+    /**
+     * Move the marker of a changed document in every grid.
+     * The position is read after the commit while holding the monitor, so the last update applied
+     * always reflects the last committed state of the document.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDocumentChanged(DocumentChangedEvent event) {
+        // Not loaded yet, the full load will see the change
+        if (markers == null) {
+            return;
+        }
+        Marker marker = geoReferenceRepository.findMarkerByDocumentId(event.documentId())
+            .map(DocumentClusterService::toMarker)
+            .orElse(null);
+
+        lock.writeLock().lock();
+        try {
+            Marker previous = markers.remove(event.documentId());
+            if (previous != null) {
+                forEachCell(previous, cell -> cell.remove(previous), true);
+            }
+            if (marker != null) {
+                markers.put(marker.documentId(), marker);
+                forEachCell(marker, cell -> cell.add(marker), false);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Build the grids of all the zoom levels from the database, on first use
+     */
+    private void ensureLoaded() {
+        if (levels != null) {
+            return;
+        }
+        synchronized (this) {
+            if (levels != null) {
+                return;
+            }
+            Map<Long, Marker> loaded = new HashMap<>();
+            for (DocumentMarker documentMarker : geoReferenceRepository.findAllMarkers()) {
+                Marker marker = toMarker(documentMarker);
+                if (marker != null) {
+                    loaded.put(marker.documentId(), marker);
+                }
+            }
+
+            lock.writeLock().lock();
+            try {
+                markers = loaded;
+                levels = new ArrayList<>(maxZoom + 1);
+                for (int level = 0; level <= maxZoom; level++) {
+                    levels.add(new TreeMap<>());
+                }
+                loaded.values().forEach(marker -> forEachCell(marker, cell -> cell.add(marker), false));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Apply an action to the cell of a marker at every zoom level.
+     * Cells left empty by a removal are dropped.
+     */
+    private void forEachCell(Marker marker, Consumer<Cell> action, boolean removal) {
+        for (int level = 0; level <= maxZoom; level++) {
+            long cellsPerSide = cellsPerSide(level);
+            long key = cellOf(marker.x(), cellsPerSide) * cellsPerSide + cellOf(marker.y(), cellsPerSide);
+            Map<Long, Cell> grid = levels.get(level);
+            Cell cell = removal ? grid.get(key) : grid.computeIfAbsent(key, k -> new Cell());
+            if (cell == null) {
+                continue;
+            }
+            action.accept(cell);
+            if (cell.documentIds.isEmpty()) {
+                grid.remove(key);
+            }
+        }
+    }
+
+    private long cellsPerSide(int level) {
+        return Math.max(1, ((long) TILE_SIZE << level) / cellSize);
+    }
+
+    private static long cellOf(double coordinate, long cellsPerSide) {
+        return Math.min(cellsPerSide - 1, Math.max(0, (long) Math.floor(coordinate * cellsPerSide)));
+    }
+
+    private static double mercatorX(double longitude) {
+        return (longitude + 180) / 360;
+    }
+
+    private static double mercatorY(double latitude) {
+        double radians = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude)));
+        return (1 - Math.log(Math.tan(radians) + 1 / Math.cos(radians)) / Math.PI) / 2;
+    }
+
+    private static Marker toMarker(DocumentMarker documentMarker) {
+        if (documentMarker.getLatitude() == null || documentMarker.getLongitude() == null) {
+            return null;
+        }
+        double latitude = documentMarker.getLatitude();
+        double longitude = documentMarker.getLongitude();
+        return new Marker(
+            documentMarker.getDocumentId(),
+            documentMarker.getType(),
+            latitude,
+            longitude,
+            mercatorX(longitude),
+            mercatorY(latitude)
+        );
+    }
+}
@@ -0,0 +1,220 @@
+package com.kirunaexplorer.app.service;
+
+import com.kirunaexplorer.app.constants.DocumentLinkType;
+import com.kirunaexplorer.app.constants.LineageDirection;
+import com.kirunaexplorer.app.dto.response.DocumentBriefResponseDTO;
+import com.kirunaexplorer.app.dto.response.DocumentComponentResponseDTO;
+import com.kirunaexplorer.app.dto.response.DocumentLineageResponseDTO;
+import com.kirunaexplorer.app.dto.response.DocumentNeighbourResponseDTO;
+import com.kirunaexplorer.app.dto.response.DocumentPathResponseDTO;
+import com.kirunaexplorer.app.event.DocumentLinkChangedEvent;
+import com.kirunaexplorer.app.exception.InvalidQueryParameterException;
+import com.kirunaexplorer.app.exception.ResourceNotFoundException;
+import com.kirunaexplorer.app.repository.DocumentLinkRepository;
+import com.kirunaexplorer.app.repository.DocumentRepository;
+import com.kirunaexplorer.app.util.LinkGraph;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * Answers traversals of the links between documents from an in-memory graph: the documents within
+ * a number of links, the shortest connection between two documents and the connected components.
+ * The graph is rebuilt from the link endpoints at startup and after every committed link change,
+ * and swapped in whole, so readers never wait. Lineage queries, which also depend on the documents,
+ * run in the database instead.
+ */
+@Service
+public class DocumentGraphService {
+    private static final String ERROR_MESSAGE_NOT_FOUND = "Document not found with ID ";
+
+    private final DocumentRepository documentRepository;
+    private final DocumentLinkRepository documentLinkRepository;
+    private final DocumentSnapshotService documentSnapshotService;
+
+    private volatile LinkGraph graph = LinkGraph.empty();
+
+    public DocumentGraphService(DocumentRepository documentRepository, DocumentLinkRepository documentLinkRepository,
+                                DocumentSnapshotService documentSnapshotService) {
+        this.documentRepository = documentRepository;
+        this.documentLinkRepository = documentLinkRepository;
+        this.documentSnapshotService = documentSnapshotService;
+    }
+
+    /**
+     * Get the documents within a number of links from a document
+     *
+     * @param id        Document id
+     * @param depth     Maximum number of links
+     * @param linkTypes Link types to follow, all of them if empty
+     * @return List of DocumentNeighbourResponseDTO, closest first
+     */
+    public List<DocumentNeighbourResponseDTO> getNeighbourhood(Long id, int depth, List<String> linkTypes) {
+        int mask = parseLinkTypeMask(linkTypes);
+        checkExists(id);
+
+        Map<Long, Integer> distances = graph.neighbourhood(id, depth, mask);
+        return documentSnapshotService.getBriefDocuments(List.copyOf(distances.keySet())).stream()
+            .map(document -> new DocumentNeighbourResponseDTO(document, distances.get(document.id())))
+            .toList();
+    }
+
+    /**
+     * Get a connection with the fewest links between two documents
+     *
+     * @param id        Id of the first document
+     * @param targetId  Id of the last document
+     * @param linkTypes Link types to follow, all of them if empty
+     * @return DocumentPathResponseDTO, empty if the documents are not connected
+     */
+    public DocumentPathResponseDTO getShortestPath(Long id, Long targetId, List<String> linkTypes) {
+        int mask = parseLinkTypeMask(linkTypes);
+        checkExists(id);
+        checkExists(targetId);
+
+        List<LinkGraph.Step> steps = graph.shortestPath(id, targetId, mask);
+        List<DocumentBriefResponseDTO> documents = documentSnapshotService.getBriefDocuments(
+            steps.stream().map(LinkGraph.Step::documentId).toList()
+        );
+        // A document of the path not in the snapshot yet would leave a gap
+        if (documents.size() != steps.size()) {
+            return new DocumentPathResponseDTO(List.of(), List.of());
+        }
+        return new DocumentPathResponseDTO(
+            documents,
+            steps.stream().skip(1).map(LinkGraph.Step::linkType).toList()
+        );
+    }
+
+    /**
+     * Get the documents connected to a document, at any distance
+     *
+     * @param id        Document id
+     * @param linkTypes Link types to follow, all of them if empty
+     * @return DocumentComponentResponseDTO, with the document itself
+     */
+    public DocumentComponentResponseDTO getComponent(Long id, List<String> linkTypes) {
+        int mask = parseLinkTypeMask(linkTypes);
+        checkExists(id);
+
+        List<Long> documentIds = new ArrayList<>(graph.neighbourhood(id, Integer.MAX_VALUE, mask).keySet());
+        documentIds.add(id);
+        Collections.sort(documentIds);
+        return new DocumentComponentResponseDTO(documentIds.size(), documentIds);
+    }
+
+    /**
+     * Get the groups of documents connected by links, documents without links are left out
+     *
+     * @param linkTypes Link types to follow, all of them if empty
+     * @return List of DocumentComponentResponseDTO, largest first
+     */
+    public List<DocumentComponentResponseDTO> getComponents(List<String> linkTypes) {
+        return graph.components(parseLinkTypeMask(linkTypes)).stream()
+            .map(documentIds -> new DocumentComponentResponseDTO(documentIds.size(), documentIds))
+            .toList();
+    }
+
+    /**
+     * Get the chain of documents linked to a document, as a tree of shortest chains.
+     * Unlike the other traversals it runs in the database, so it can follow the issuance dates: one query
+     * for each level, over the documents reached at the previous one and skipping any reached before,
+     * so the work is bounded by the size of the graph rather than by the number of chains.
+     *
+     * @param id        Id of the first document
+     * @param depth     Maximum number of links
+     * @param linkTypes Link types to follow, all of them if empty
+     * @param direction "downstream" for later documents, "upstream" for earlier ones, "both" for any
+     * @return List of DocumentLineageResponseDTO, closest first
+     */
+    public List<DocumentLineageResponseDTO> getLineage(Long id, int depth, List<String> linkTypes, String direction) {
+        List<DocumentLinkType> types = parseLinkTypes(linkTypes);
+        LineageDirection lineageDirection;
+        try {
+            lineageDirection = direction == null ? LineageDirection.DOWNSTREAM : LineageDirection.valueOf(direction.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQueryParameterException("Invalid direction: " + direction);
+        }
+        checkExists(id);
+
+        String[] typeNames = (types.isEmpty() ? List.of(DocumentLinkType.values()) : types).stream()
+            .map(DocumentLinkType::name)
+            .toArray(String[]::new);
+        List<DocumentLinkRepository.LineageStep> steps = new ArrayList<>();
+        Set<Long> visited = new HashSet<>(List.of(id));
+        List<Long> frontier = List.of(id);
+        for (int level = 1; level <= depth && !frontier.isEmpty(); level++) {
+            List<DocumentLinkRepository.LineageStep> reached = documentLinkRepository.findLineageLevel(
+                frontier, visited, typeNames, lineageDirection.name(), level);
+            steps.addAll(reached);
+            frontier = reached.stream().map(DocumentLinkRepository.LineageStep::getDocumentId).toList();
+            visited.addAll(frontier);
+        }
+
+        Map<Long, DocumentBriefResponseDTO> documents = new HashMap<>();
+        for (DocumentBriefResponseDTO document : documentSnapshotService.getBriefDocuments(
+            steps.stream().map(DocumentLinkRepository.LineageStep::getDocumentId).toList())) {
+            documents.put(document.id(), document);
+        }
+        return steps.stream()
+            .filter(step -> documents.containsKey(step.getDocumentId()))
+            .map(step -> new DocumentLineageResponseDTO(
+                documents.get(step.getDocumentId()),
+                step.getDepth(),
+                step.getParentId(),
+                DocumentLinkType.valueOf(step.getType())
+            ))
+            .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        graph = LinkGraph.of(documentLinkRepository.findAllEdges().stream()
+            .map(edge -> new LinkGraph.Edge(edge.getDocumentId(), edge.getLinkedDocumentId(), edge.getType()))
+            .toList());
+    }
+
+    /**
+     * Rebuild the graph once a link change is committed.
+     * Deleted links leave nothing to read back, so the whole graph is read again; only the endpoints
+     * of the links are loaded, which stays cheap next to the traversals it saves.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentLinkChanged(DocumentLinkChangedEvent event) {
+        rebuild();
+    }
+
+    private void checkExists(Long id) {
+        if (!documentRepository.existsById(id)) {
+            throw new ResourceNotFoundException(ERROR_MESSAGE_NOT_FOUND + id);
+        }
+    }
+
+    private static int parseLinkTypeMask(List<String> linkTypes) {
+        return LinkGraph.mask(parseLinkTypes(linkTypes));
+    }
+
+    /**
+     * Parse the link types of a request
+     *
+     * @param linkTypes Link type names, in any case
+     * @return List of DocumentLinkType, empty for every type
+     */
+    private static List<DocumentLinkType> parseLinkTypes(List<String> linkTypes) {
+        if (linkTypes == null) {
+            return List.of();
+        }
+        List<DocumentLinkType> types = new ArrayList<>();
+        for (String linkType : linkTypes) {
+            try {
+                types.add(DocumentLinkType.valueOf(linkType.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidQueryParameterException("Invalid link type: " + linkType);
+            }
+        }
+        return types;
+    }
+}
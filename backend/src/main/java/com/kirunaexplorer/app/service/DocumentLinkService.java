@@ -1,29 +1,40 @@
 package com.kirunaexplorer.app.service;
 
+import com.kirunaexplorer.app.constants.LinkImportStatus;
 import com.kirunaexplorer.app.dto.request.LinkDocumentsRequestDTO;
+import com.kirunaexplorer.app.dto.request.LinkImportRequestDTO;
 import com.kirunaexplorer.app.dto.response.DocumentBriefLinksResponseDTO;
 import com.kirunaexplorer.app.dto.response.LinkDocumentsResponseDTO;
+import com.kirunaexplorer.app.dto.response.LinkImportResponseDTO;
+import com.kirunaexplorer.app.event.DocumentLinkChangedEvent;
 import com.kirunaexplorer.app.exception.ResourceNotFoundException;
 import com.kirunaexplorer.app.model.Document;
 import com.kirunaexplorer.app.model.DocumentLink;
+import com.kirunaexplorer.app.repository.DocumentLinkBatchRepository.NewLink;
+import com.kirunaexplorer.app.repository.DocumentLinkBatchRepository.StoredLink;
 import com.kirunaexplorer.app.repository.DocumentLinkRepository;
 import com.kirunaexplorer.app.repository.DocumentRepository;
 import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
 
+@Slf4j
 @Service
 public class DocumentLinkService {
 
     private final DocumentRepository documentRepository;
     private final DocumentLinkRepository documentLinkRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private static final String ERROR_MESSAGE_NOT_FOUND = "Document not found with ID ";
 
-    public DocumentLinkService(DocumentRepository documentRepository, DocumentLinkRepository documentLinkRepository) {
+    public DocumentLinkService(DocumentRepository documentRepository, DocumentLinkRepository documentLinkRepository, ApplicationEventPublisher eventPublisher) {
         this.documentRepository = documentRepository;
         this.documentLinkRepository = documentLinkRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -35,34 +46,133 @@ public class DocumentLinkService {
      */
     @Transactional
     public LinkDocumentsResponseDTO linkDocuments(Long id, LinkDocumentsRequestDTO request) {
-        Document document = documentRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException(ERROR_MESSAGE_NOT_FOUND + id));
-        Document linkedDocument = documentRepository.findById(request.documentId())
-            .orElseThrow(() -> new ResourceNotFoundException(ERROR_MESSAGE_NOT_FOUND + request.documentId()));
+        Long linkedId = request.documentId();
 
         // Check if the documents are the same
-        if (document.equals(linkedDocument)) {
+        if (id.equals(linkedId)) {
             throw new IllegalArgumentException("Cannot link a document to itself");
         }
 
-        // Check if the link already exists
-        boolean linkExists = documentLinkRepository.existsByDocumentAndLinkedDocumentAndType(document, linkedDocument, request.type()) ||
-            documentLinkRepository.existsByDocumentAndLinkedDocumentAndType(linkedDocument, document, request.type());
-        if (linkExists) {
-            throw new IllegalArgumentException("Link between the documents already exists with the same type");
+        List<Long> existing = documentRepository.findExistingIds(Set.of(id, linkedId));
+        if (!existing.contains(id)) {
+            throw new ResourceNotFoundException(ERROR_MESSAGE_NOT_FOUND + id);
+        }
+        if (!existing.contains(linkedId)) {
+            throw new ResourceNotFoundException(ERROR_MESSAGE_NOT_FOUND + linkedId);
         }
 
-        // Create a new document link
-        DocumentLink documentLink = new DocumentLink();
+        // Links are stored in ascending id order, so the unique index finds an existing one in either order
+        StoredLink link = documentLinkRepository.insertOrGet(
+            new NewLink(Math.min(id, linkedId), Math.max(id, linkedId), request.type()));
+        if (link.created()) {
+            documentRepository.addConnections(Map.of(id, 1, linkedId, 1));
+            eventPublisher.publishEvent(new DocumentLinkChangedEvent(link.id()));
+        }
+        return new LinkDocumentsResponseDTO(link.id(), link.created());
+    }
 
-        // Set the other properties
-        documentLink.setDocument(document);
-        documentLink.setLinkedDocument(linkedDocument);
-        documentLink.setType(request.type());
-        documentLink.setCreatedAt(LocalDateTime.now());
+    /**
+     * Import many links at once.
+     * The documents are checked with one query, links already stored are found with another, and the
+     * new ones are inserted in batches; a bad row is reported and does not stop the others.
+     *
+     * @param request LinkImportRequestDTO
+     * @return LinkImportResponseDTO with the outcome of each row
+     */
+    @Transactional
+    public LinkImportResponseDTO importLinks(LinkImportRequestDTO request) {
+        List<LinkImportRequestDTO.Link> rows = request.links();
+        Set<Long> documentIds = new HashSet<>();
+        for (LinkImportRequestDTO.Link row : rows) {
+            documentIds.add(row.documentId());
+            documentIds.add(row.linkedDocumentId());
+        }
+        Set<Long> existingDocuments = new HashSet<>(documentRepository.findExistingIds(documentIds));
+
+        // Links in the order DocumentLink stores them, by the first row asking for each
+        NewLink[] keys = new NewLink[rows.size()];
+        Map<NewLink, Integer> firstRows = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            LinkImportRequestDTO.Link row = rows.get(i);
+            if (!row.documentId().equals(row.linkedDocumentId())
+                && existingDocuments.contains(row.documentId()) && existingDocuments.contains(row.linkedDocumentId())) {
+                keys[i] = new NewLink(Math.min(row.documentId(), row.linkedDocumentId()),
+                    Math.max(row.documentId(), row.linkedDocumentId()), row.type());
+                firstRows.putIfAbsent(keys[i], i);
+            }
+        }
+
+        Map<NewLink, Long> storedLinks = findLinkIds(firstRows.keySet());
+        List<NewLink> newLinks = firstRows.keySet().stream()
+            .filter(key -> !storedLinks.containsKey(key))
+            .toList();
+        Set<NewLink> created = new HashSet<>();
+        if (!newLinks.isEmpty()) {
+            boolean[] inserted = documentLinkRepository.insertIgnoringDuplicates(newLinks);
+            Map<Long, Integer> connections = new HashMap<>();
+            for (int i = 0; i < inserted.length; i++) {
+                if (inserted[i]) {
+                    NewLink link = newLinks.get(i);
+                    created.add(link);
+                    connections.merge(link.documentId(), 1, Integer::sum);
+                    connections.merge(link.linkedDocumentId(), 1, Integer::sum);
+                }
+            }
+            documentRepository.addConnections(connections);
+            storedLinks.putAll(findLinkIds(newLinks));
+        }
+
+        List<LinkImportResponseDTO.Result> results = new ArrayList<>(rows.size());
+        int duplicates = 0;
+        int rejected = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            LinkImportRequestDTO.Link row = rows.get(i);
+            LinkImportStatus status;
+            if (row.documentId().equals(row.linkedDocumentId())) {
+                status = LinkImportStatus.SELF_LINK;
+            } else if (keys[i] == null) {
+                status = LinkImportStatus.DOCUMENT_NOT_FOUND;
+            } else if (created.contains(keys[i]) && firstRows.get(keys[i]) == i) {
+                status = LinkImportStatus.CREATED;
+            } else {
+                status = LinkImportStatus.DUPLICATE;
+            }
+
+            if (status == LinkImportStatus.DUPLICATE) {
+                duplicates++;
+            } else if (status != LinkImportStatus.CREATED) {
+                rejected++;
+            }
+            results.add(new LinkImportResponseDTO.Result(i, keys[i] != null ? storedLinks.get(keys[i]) : null, status));
+        }
+
+        if (!created.isEmpty()) {
+            eventPublisher.publishEvent(new DocumentLinkChangedEvent(null));
+        }
+        return new LinkImportResponseDTO(created.size(), duplicates, rejected, results);
+    }
 
-        documentLink = documentLinkRepository.save(documentLink);
-        return new LinkDocumentsResponseDTO(documentLink.getId());
+    /**
+     * Find the ids of stored links
+     *
+     * @param links Links to look for
+     * @return Map of the link ids by link, without the links not stored
+     */
+    private Map<NewLink, Long> findLinkIds(Collection<NewLink> links) {
+        Map<NewLink, Long> linkIds = new HashMap<>();
+        if (links.isEmpty()) {
+            return linkIds;
+        }
+        Set<Long> documentIds = new HashSet<>();
+        links.forEach(link -> documentIds.add(link.documentId()));
+        Set<NewLink> wanted = new HashSet<>(links);
+        for (DocumentLinkRepository.LinkEdge edge : documentLinkRepository.findEdgesByDocumentIds(documentIds)) {
+            NewLink link = new NewLink(edge.getDocumentId(), edge.getLinkedDocumentId(), edge.getType());
+            if (wanted.contains(link)) {
+                linkIds.put(link, edge.getId());
+            }
+        }
+        return linkIds;
     }
 
     /**
@@ -74,10 +184,19 @@ public class DocumentLinkService {
     public void updateLink(LinkDocumentsRequestDTO request) {
         DocumentLink documentLink = documentLinkRepository.findById(request.linkId())
             .orElseThrow(() -> new ResourceNotFoundException(ERROR_MESSAGE_NOT_FOUND + request.linkId()));
+        if (documentLink.getType() == request.type()) {
+            return;
+        }
+
+        // The link keeps its stored order, so a single lookup finds the link it would duplicate
+        if (documentLinkRepository.existsByDocumentAndLinkedDocumentAndType(documentLink.getDocument(), documentLink.getLinkedDocument(), request.type())) {
+            throw new IllegalArgumentException("Link between the documents already exists with the same type");
+        }
 
         documentLink.setType(request.type());
 
         documentLinkRepository.save(documentLink);
+        eventPublisher.publishEvent(new DocumentLinkChangedEvent(documentLink.getId()));
     }
 
     /**
@@ -91,6 +210,27 @@ public class DocumentLinkService {
             .orElseThrow(() -> new ResourceNotFoundException(ERROR_MESSAGE_NOT_FOUND + linkId));
 
         documentLinkRepository.delete(documentLink);
+        documentRepository.addConnections(Map.of(documentLink.getDocument().getId(), -1, documentLink.getLinkedDocument().getId(), -1));
+        eventPublisher.publishEvent(new DocumentLinkChangedEvent(documentLink.getId()));
+    }
+
+    /**
+     * Recompute the connection counters of all documents from the stored links and fix the wrong ones.
+     * Link writes wait for it, so counters changed by a link created meanwhile are not overwritten.
+     *
+     * @return Number of documents whose counter was wrong
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${kiruna.links.connection-check-interval:PT6H}",
+        initialDelayString = "${kiruna.links.connection-check-interval:PT6H}")
+    public int repairConnectionCounts() {
+        documentLinkRepository.lockLinks();
+        int repaired = documentRepository.repairConnectionCounts();
+        if (repaired > 0) {
+            log.warn("Repaired the connection counter of {} documents", repaired);
+            eventPublisher.publishEvent(new DocumentLinkChangedEvent(null));
+        }
+        return repaired;
     }
 
     /**
@@ -12,9 +12,11 @@ import java.util.List;
 @Service
 public class DocumentScaleService {
     private final DocumentScaleRepository documentScaleRepository;
+    private final VocabularyCache vocabularyCache;
 
-    public DocumentScaleService(DocumentScaleRepository documentScaleRepository) {
+    public DocumentScaleService(DocumentScaleRepository documentScaleRepository, VocabularyCache vocabularyCache) {
         this.documentScaleRepository = documentScaleRepository;
+        this.vocabularyCache = vocabularyCache;
     }
 
     /**
@@ -37,8 +39,13 @@ public class DocumentScaleService {
      */
     @Transactional
     public Long createDocumentScale(DocumentScaleRequestDTO documentScaleRequest) {
+        if (documentScaleRepository.existsByScale(documentScaleRequest.scale())) {
+            throw new IllegalArgumentException("Document scale already exists");
+        }
+
         DocumentScale scale = documentScaleRequest.toDocumentScale();
         scale = documentScaleRepository.save(scale);
+        vocabularyCache.documentScaleAdded(scale.getScale());
         return scale.getId();
     }
 
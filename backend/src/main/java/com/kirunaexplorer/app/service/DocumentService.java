@@ -1,56 +1,81 @@
 package com.kirunaexplorer.app.service;
 
 import com.kirunaexplorer.app.constants.FilterOptionForMap;
-import com.kirunaexplorer.app.dto.inout.LinksDocumentDTO;
+import com.kirunaexplorer.app.constants.SearchSort;
+import com.kirunaexplorer.app.dto.request.BoundingBoxDTO;
 import com.kirunaexplorer.app.dto.request.DocumentRequestDTO;
+import com.kirunaexplorer.app.dto.request.PageCursorDTO;
+import com.kirunaexplorer.app.dto.response.DocumentBriefCursorPageResponseDTO;
 import com.kirunaexplorer.app.dto.response.DocumentBriefPageResponseDTO;
 import com.kirunaexplorer.app.dto.response.DocumentBriefResponseDTO;
 import com.kirunaexplorer.app.dto.response.DocumentDiagramResponseDTO;
 import com.kirunaexplorer.app.dto.response.DocumentResponseDTO;
+import com.kirunaexplorer.app.dto.response.SearchFacetsDTO;
+import com.kirunaexplorer.app.dto.response.SearchHighlightDTO;
+import com.kirunaexplorer.app.event.DocumentChangedEvent;
+import com.kirunaexplorer.app.exception.InvalidQueryParameterException;
 import com.kirunaexplorer.app.exception.ResourceNotFoundException;
 import com.kirunaexplorer.app.model.*;
 import com.kirunaexplorer.app.repository.*;
 import com.kirunaexplorer.app.util.DocumentFieldsChecker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
 public class DocumentService {
     private final DocumentRepository documentRepository;
     private final GeoReferenceRepository geoReferenceRepository;
-    private final DocumentLinkRepository documentLinkRepository;
-    private final DocumentScaleRepository documentScaleRepository;
     private final StakeholderRepository stakeholderRepository;
-    private final DocumentTypeRepository documentTypeRepository;
     private final AreaRepository areaRepository;
     private final PointCoordinatesRepository pointCoordinatesRepository;
+    private final DocumentSnapshotService documentSnapshotService;
+    private final VocabularyCache vocabularyCache;
+    private final DocumentAttributeIndex documentAttributeIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
-    private static final int PAGE_SIZE = 16;
+    // Margin around a map viewport, in pixels, so markers on its edge are not cut off
+    private static final int MAP_EDGE_MARGIN_PX = 32;
+
+    @Value("${kiruna.map.max-results:500}")
+    private int mapMaxResults = 500;
+
+    @Value("${kiruna.documents.page-size:16}")
+    private int pageSize = 16;
 
     public DocumentService(
         DocumentRepository documentRepository,
         GeoReferenceRepository geoReferenceRepository,
-        DocumentLinkRepository documentLinkRepository,
         StakeholderRepository stakeholderRepository,
-        DocumentTypeRepository documentTypeRepository,
-        DocumentScaleRepository documentScaleRepository,
         AreaRepository areaRepository,
-        PointCoordinatesRepository pointCoordinatesRepository
+        PointCoordinatesRepository pointCoordinatesRepository,
+        DocumentSnapshotService documentSnapshotService,
+        VocabularyCache vocabularyCache,
+        DocumentAttributeIndex documentAttributeIndex,
+        ApplicationEventPublisher eventPublisher
     ) {
         this.geoReferenceRepository = geoReferenceRepository;
         this.documentRepository = documentRepository;
-        this.documentLinkRepository = documentLinkRepository;
         this.stakeholderRepository = stakeholderRepository;
-        this.documentTypeRepository = documentTypeRepository;
-        this.documentScaleRepository = documentScaleRepository;
         this.areaRepository = areaRepository;
         this.pointCoordinatesRepository = pointCoordinatesRepository;
+        this.documentSnapshotService = documentSnapshotService;
+        this.vocabularyCache = vocabularyCache;
+        this.documentAttributeIndex = documentAttributeIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -72,11 +97,44 @@ public class DocumentService {
      */
     @Transactional
     public List<DocumentBriefPageResponseDTO> getDocumentsByPageNumber(int pageNo) {
-        Page<Document> pagedResult = documentRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(pageNo, PAGE_SIZE));
+        // Page the ids first, then load the documents of the page with their stakeholders in one query
+        Page<Long> ids = documentRepository.findIdsByOrderByCreatedAtDesc(PageRequest.of(pageNo, pageSize));
+        Page<Document> pagedResult = new PageImpl<>(findAllByIdInOrder(ids.getContent()), ids.getPageable(), ids.getTotalElements());
 
         return List.of(DocumentBriefPageResponseDTO.from(pagedResult));
     }
 
+    /**
+     * Get all documents in brief format, latest first, with keyset pagination.
+     * Every page costs the same whatever its depth, and the documents are only counted on request.
+     *
+     * @param cursor Token returned with the previous page, empty for the first page
+     * @param count  Whether to count all the documents
+     * @return DocumentBriefCursorPageResponseDTO
+     */
+    @Transactional
+    public DocumentBriefCursorPageResponseDTO getDocumentsByCursor(String cursor, boolean count) {
+        PageCursorDTO position = PageCursorDTO.parse(cursor, PageCursorDTO.Order.CREATED_AT);
+        // One more id tells whether there is a next page
+        List<Long> ids = position == null
+            ? documentRepository.findLatestIds(pageSize + 1)
+            : documentRepository.findLatestIdsBefore(position.createdAt(), position.id(), pageSize + 1);
+        boolean hasNext = ids.size() > pageSize;
+        List<Document> documents = findAllByIdInOrder(hasNext ? ids.subList(0, pageSize) : ids);
+
+        String nextCursor = null;
+        if (hasNext && !documents.isEmpty()) {
+            Document last = documents.get(documents.size() - 1);
+            nextCursor = PageCursorDTO.afterCreatedAt(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new DocumentBriefCursorPageResponseDTO(
+            documents.stream().map(Document::toDocumentBriefResponseDTO).toList(),
+            nextCursor,
+            count ? documentRepository.count() : null,
+            Map.of()
+        );
+    }
+
     /**
      * Get a document by id
      *
@@ -85,10 +143,9 @@ public class DocumentService {
      */
     @Transactional
     public DocumentResponseDTO getDocumentById(Long id) {
-
-        return documentRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Document not found with ID " + id))
-            .toDocumentResponseDTO(documentLinkRepository.countByDocumentId(id));
+        Document document = documentRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Document not found with ID " + id));
+        return document.toDocumentResponseDTO(document.getNrConnections());
     }
 
     /**
@@ -111,6 +168,8 @@ public class DocumentService {
 
         storeGeolocation(documentRequest, document);
 
+        eventPublisher.publishEvent(new DocumentChangedEvent(document.getId()));
+
         return document.getId();
     }
 
@@ -139,9 +198,18 @@ public class DocumentService {
             .orElseGet(() -> new GeoReference(document.getId(), document)); // Create new if not exist
 
         updateGeolocation(documentRequest, geoReference);
+
+        eventPublisher.publishEvent(new DocumentChangedEvent(document.getId()));
     }
 
     public List<DocumentBriefResponseDTO> searchMap(String keyword, String type, List<String> stakeholderNames, String scale) {
+        // Without a keyword the filters are answered by the attribute index
+        if (keyword == null || keyword.isBlank()) {
+            Optional<List<Long>> ids = documentAttributeIndex.findDocumentIds(type, stakeholderNames, scale, null, null);
+            if (ids.isPresent()) {
+                return documentSnapshotService.getBriefDocuments(ids.get());
+            }
+        }
         List<Document> documents = documentRepository.searchMap(keyword, type, stakeholderNames, scale);
         if (documents == null) {
             return Collections.emptyList();
@@ -150,12 +218,211 @@ public class DocumentService {
     }
 
     public List<DocumentBriefPageResponseDTO> searchDocuments(String keyword, String type, List<String> stakeholderNames, String scale, int pageNo) {
-        Pageable pageable = PageRequest.of(pageNo, PAGE_SIZE);
-        Page<Document> documents = documentRepository.searchDocuments(keyword, type, stakeholderNames, scale, pageable);
+        return searchDocuments(keyword, type, stakeholderNames, scale, null, pageNo, null, false);
+    }
+
+    /**
+     * Search documents by the words of their title and description, with the matches highlighted.
+     * Every word of the keyword must match, as a whole word, a stemmed word or the start of a word.
+     *
+     * @param keyword          Search keyword
+     * @param type             Document type
+     * @param stakeholderNames Stakeholder names, any of them
+     * @param scale            Document scale
+     * @param year             Issuance year
+     * @param pageNo           Page number
+     * @param sort             Sort order, "relevance" or none for the default order
+     * @param facets           Whether to count the results for each type, scale, stakeholder and year
+     * @return List of DocumentBriefPageResponseDTO
+     */
+    public List<DocumentBriefPageResponseDTO> searchDocuments(String keyword, String type, List<String> stakeholderNames, String scale,
+                                                              Integer year, int pageNo, String sort, boolean facets) {
+        SearchSort searchSort = parseSearchSort(sort);
+
+        Pageable pageable = PageRequest.of(pageNo, pageSize);
+        Page<Document> documents;
+        Optional<List<Long>> ids = keyword == null || keyword.isBlank()
+            ? documentAttributeIndex.findDocumentIds(type, stakeholderNames, scale, year, null)
+            : Optional.empty();
+        if (ids.isPresent()) {
+            // Without a keyword both orders are by id, only the documents of the page are read
+            documents = getPage(ids.get(), pageable);
+        } else if (searchSort == SearchSort.RELEVANCE) {
+            documents = documentRepository.searchDocumentsByRelevance(keyword, type, stakeholderNames, scale, year, pageable);
+        } else {
+            documents = documentRepository.searchDocuments(keyword, type, stakeholderNames, scale, year, pageable);
+        }
         if (documents == null) {
             return Collections.emptyList();
         }
-        return List.of(DocumentBriefPageResponseDTO.from(documents));
+        return List.of(DocumentBriefPageResponseDTO.from(
+            documents,
+            getSearchHighlights(keyword, documents.getContent()),
+            facets ? getSearchFacets(keyword, type, stakeholderNames, scale, year) : null
+        ));
+    }
+
+    /**
+     * Search documents with keyset pagination, in id order or by relevance.
+     * Without a keyword every document has the same rank, so both orders are by id and the filters
+     * are answered by the attribute index. The results are only counted on request.
+     *
+     * @param keyword          Search keyword
+     * @param type             Document type
+     * @param stakeholderNames Stakeholder names, any of them
+     * @param scale            Document scale
+     * @param year             Issuance year
+     * @param sort             Sort order, "relevance" or none for the default order
+     * @param cursor           Token returned with the previous page, empty for the first page
+     * @param count            Whether to count all the results
+     * @return DocumentBriefCursorPageResponseDTO
+     */
+    public DocumentBriefCursorPageResponseDTO searchDocumentsByCursor(String keyword, String type, List<String> stakeholderNames, String scale,
+                                                                      Integer year, String sort, String cursor, boolean count) {
+        boolean noKeyword = keyword == null || keyword.isBlank();
+        boolean byRelevance = parseSearchSort(sort) == SearchSort.RELEVANCE && !noKeyword;
+        PageCursorDTO position = PageCursorDTO.parse(cursor, byRelevance ? PageCursorDTO.Order.RELEVANCE : PageCursorDTO.Order.ID);
+        long afterId = position != null ? position.id() : 0;
+
+        // One more result tells whether there is a next page
+        List<SearchResult> results;
+        Long total = null;
+        Optional<List<Long>> indexed = noKeyword
+            ? documentAttributeIndex.findDocumentIds(type, stakeholderNames, scale, year, null)
+            : Optional.empty();
+        if (indexed.isPresent()) {
+            List<Long> ids = indexed.get();
+            int from = Collections.binarySearch(ids, afterId);
+            from = from >= 0 ? from + 1 : -from - 1;
+            results = ids.subList(from, Math.min(from + pageSize + 1, ids.size())).stream()
+                .map(id -> new SearchResult(id, 0))
+                .toList();
+            if (count) {
+                total = (long) ids.size();
+            }
+        } else {
+            List<DocumentRepository.SearchHit> hits = byRelevance
+                ? documentRepository.searchByRelevanceAfter(keyword, type, stakeholderNames, scale, year,
+                    position != null ? position.rank() : null, afterId, pageSize + 1)
+                : documentRepository.searchAfter(keyword, type, stakeholderNames, scale, year, afterId, pageSize + 1);
+            results = hits.stream()
+                .map(hit -> new SearchResult(hit.getDocumentId(), hit.getRank() != null ? hit.getRank() : 0))
+                .toList();
+            if (count) {
+                total = documentRepository.countSearch(keyword, type, stakeholderNames, scale, year);
+            }
+        }
+
+        String nextCursor = null;
+        if (results.size() > pageSize) {
+            results = results.subList(0, pageSize);
+            SearchResult last = results.get(pageSize - 1);
+            nextCursor = (byRelevance ? PageCursorDTO.afterRank(last.rank(), last.id()) : PageCursorDTO.afterId(last.id())).encode();
+        }
+        List<Document> documents = findAllByIdInOrder(results.stream().map(SearchResult::id).toList());
+        return new DocumentBriefCursorPageResponseDTO(
+            documents.stream().map(Document::toDocumentBriefResponseDTO).toList(),
+            nextCursor,
+            total,
+            getSearchHighlights(keyword, documents)
+        );
+    }
+
+    /**
+     * Document found by a search and its rank
+     */
+    private record SearchResult(long id, float rank) {
+    }
+
+    private static SearchSort parseSearchSort(String sort) {
+        try {
+            return sort == null ? SearchSort.DEFAULT : SearchSort.valueOf(sort.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQueryParameterException("Invalid sort: " + sort);
+        }
+    }
+
+    /**
+     * Read a page of documents among the given ids
+     *
+     * @param ids      Document ids, in page order
+     * @param pageable Pageable
+     * @return Page of Document, without the documents deleted since the ids were read
+     */
+    private Page<Document> getPage(List<Long> ids, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        List<Long> pageIds = ids.subList(from, Math.min(from + pageable.getPageSize(), ids.size()));
+        return new PageImpl<>(findAllByIdInOrder(pageIds), pageable, ids.size());
+    }
+
+    /**
+     * Read documents by id, with their stakeholders and geolocation
+     *
+     * @param ids Document ids
+     * @return List of Document in the order of the ids, without the documents deleted since the ids were read
+     */
+    private List<Document> findAllByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Document> documents = new HashMap<>();
+        for (Document document : documentRepository.findAllWithStakeholdersByIdIn(ids)) {
+            documents.put(document.getId(), document);
+        }
+        return ids.stream()
+            .map(documents::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    /**
+     * Count the results of a search for each value of the filters, with a single query
+     *
+     * @param keyword          Search keyword
+     * @param type             Document type
+     * @param stakeholderNames Stakeholder names, any of them
+     * @param scale            Document scale
+     * @param year             Issuance year
+     * @return SearchFacetsDTO
+     */
+    private SearchFacetsDTO getSearchFacets(String keyword, String type, List<String> stakeholderNames, String scale, Integer year) {
+        Map<String, Long> types = new LinkedHashMap<>();
+        Map<String, Long> scales = new LinkedHashMap<>();
+        Map<String, Long> stakeholders = new LinkedHashMap<>();
+        Map<Integer, Long> years = new LinkedHashMap<>();
+        // Counts come most frequent first
+        for (DocumentRepository.FacetCount count : documentRepository.countFacets(keyword, type, stakeholderNames, scale, year)) {
+            if (count.getValue() == null || count.getHits() == 0) {
+                continue;
+            }
+            switch (count.getFacet()) {
+                case "TYPE" -> types.put(count.getValue(), count.getHits());
+                case "SCALE" -> scales.put(count.getValue(), count.getHits());
+                case "STAKEHOLDER" -> stakeholders.put(count.getValue(), count.getHits());
+                case "YEAR" -> years.put(Integer.valueOf(count.getValue()), count.getHits());
+                default -> throw new IllegalStateException("Unknown facet " + count.getFacet());
+            }
+        }
+        return new SearchFacetsDTO(types, scales, stakeholders, years);
+    }
+
+    /**
+     * Highlight the matches of a keyword in a page of search results
+     *
+     * @param keyword   Search keyword
+     * @param documents Documents of the page
+     * @return Map of SearchHighlightDTO by document id, empty without a keyword
+     */
+    private Map<Long, SearchHighlightDTO> getSearchHighlights(String keyword, List<Document> documents) {
+        if (keyword == null || keyword.isBlank() || documents.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = documents.stream().map(Document::getId).toList();
+        Map<Long, SearchHighlightDTO> highlights = new HashMap<>();
+        for (DocumentRepository.SearchHighlight highlight : documentRepository.findSearchHighlights(keyword, ids)) {
+            highlights.put(highlight.getDocumentId(), new SearchHighlightDTO(highlight.getTitle(), highlight.getDescription()));
+        }
+        return highlights;
     }
 
     /**
@@ -166,30 +433,10 @@ public class DocumentService {
     private void storeNewStakeholdersTypeScale(DocumentRequestDTO documentRequest) {
         // Remove duplicates stakeholders
         DocumentFieldsChecker.removeStakeholderDuplicates(documentRequest);
-        // Get existing stakeholders
-        List<Stakeholder> existingStakeholders = stakeholderRepository.findAll();
-        // Get new stakeholders to add to the database
-        List<Stakeholder> newStakeholders = DocumentFieldsChecker.getNewStakeholders(documentRequest.stakeholders(), existingStakeholders);
-        // Add new stakeholders to the database
-        stakeholderRepository.saveAll(newStakeholders);
-
-        // Get existing document types
-        List<DocumentType> existingDocumentTypes = documentTypeRepository.findAll();
-        // Get new document type to add to the database
-        DocumentType newDocumentType = DocumentFieldsChecker.getNewDocumentType(documentRequest.type(), existingDocumentTypes);
-        // Add new document type to the database
-        if (newDocumentType != null) {
-            documentTypeRepository.save(newDocumentType);
-        }
-
-        // Get existing scales
-        List<DocumentScale> existingScales = documentScaleRepository.findAll();
-        // Get new scale to add to the db
-        DocumentScale newScale = DocumentFieldsChecker.getNewDocumentScale(documentRequest.scale(), existingScales);
-        // Add new scale to the db
-        if (newScale != null) {
-            documentScaleRepository.save(newScale);
-        }
+        // Add the names not stored yet, only those missing from the cache reach the database
+        vocabularyCache.ensureStakeholders(documentRequest.stakeholders());
+        vocabularyCache.ensureDocumentType(documentRequest.type());
+        vocabularyCache.ensureDocumentScale(documentRequest.scale());
     }
 
     /**
@@ -198,15 +445,7 @@ public class DocumentService {
      * @return List of DocumentDiagramResponseDTO
      */
     public List<DocumentDiagramResponseDTO> getDocumentsForDiagram() {
-        return documentRepository.findAll().stream()
-            .map(document -> {
-                List<DocumentLink> documentLinks = documentLinkRepository.findByDocumentOrLinkedDocument(document, document);
-                List<LinksDocumentDTO> linksDTOs = documentLinks.stream()
-                    .map(documentLink -> documentLink.toLinksDocumentDTO(document.getId()))
-                    .toList();
-                return document.toDocumentDiagramResponseDTO(linksDTOs);
-            })
-            .toList();
+        return documentSnapshotService.getDocumentsForDiagram();
     }
 
 
@@ -264,18 +503,38 @@ public class DocumentService {
             .toList();
     }
 
-    @Transactional
     public List<DocumentBriefResponseDTO> getDocumentsForMap(String filter) {
         FilterOptionForMap filterEnum = FilterOptionForMap.valueOf(filter.replace("-", "_").toUpperCase());
 
-        List<Document> documents = switch (filterEnum) {
-            case AREA_ONLY -> documentRepository.findByGeoReferenceAreaIsNotNull();
-            case POINT_ONLY -> documentRepository.findByGeoReferencePointCoordinatesIsNotNull();
-            case NO_GEOLOCATION -> documentRepository.findByGeoReferenceIsNull();
-            default -> documentRepository.findAll();
-        };
-        return documents.stream()
-            .map(Document::toDocumentBriefResponseDTO)
-            .toList();
+        return documentAttributeIndex.findDocumentIds(null, null, null, null, filterEnum)
+            .map(documentSnapshotService::getBriefDocuments)
+            .orElseGet(() -> documentSnapshotService.getDocumentsForMap(filterEnum));
+    }
+
+    /**
+     * Get the documents located in a map viewport, closest to its center first
+     *
+     * @param filter Filter option, documents without geolocation are never in a viewport
+     * @param bbox   Viewport
+     * @param zoom   Map zoom level, used to include features drawn across the edge of the viewport
+     * @return List of DocumentBriefResponseDTO
+     */
+    @Transactional(readOnly = true)
+    public List<DocumentBriefResponseDTO> getDocumentsForMap(String filter, BoundingBoxDTO bbox, Integer zoom) {
+        FilterOptionForMap filterEnum = FilterOptionForMap.valueOf(filter.replace("-", "_").toUpperCase());
+        if (filterEnum == FilterOptionForMap.NO_GEOLOCATION) {
+            return List.of();
+        }
+
+        BoundingBoxDTO viewport = zoom != null ? bbox.expand(MAP_EDGE_MARGIN_PX, zoom) : bbox;
+        List<Long> ids = geoReferenceRepository.findDocumentIdsInBoundingBox(
+            viewport.minLon(), viewport.minLat(), viewport.maxLon(), viewport.maxLat(),
+            bbox.centerLon(), bbox.centerLat(),
+            filterEnum != FilterOptionForMap.AREA_ONLY,
+            filterEnum != FilterOptionForMap.POINT_ONLY,
+            mapMaxResults
+        );
+
+        return documentSnapshotService.getBriefDocuments(ids);
     }
 }
\ No newline at end of file
@@ -0,0 +1,261 @@
+package com.kirunaexplorer.app.service;
+
+import com.kirunaexplorer.app.constants.FilterOptionForMap;
+import com.kirunaexplorer.app.dto.inout.LinksDocumentDTO;
+import com.kirunaexplorer.app.dto.response.DocumentBriefResponseDTO;
+import com.kirunaexplorer.app.dto.response.DocumentDiagramResponseDTO;
+import com.kirunaexplorer.app.event.DocumentChangedEvent;
+import com.kirunaexplorer.app.event.DocumentFileChangedEvent;
+import com.kirunaexplorer.app.event.DocumentLinkChangedEvent;
+import com.kirunaexplorer.app.model.Document;
+import com.kirunaexplorer.app.model.GeoReference;
+import com.kirunaexplorer.app.repository.DocumentLinkRepository;
+import com.kirunaexplorer.app.repository.DocumentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps an immutable, precomputed snapshot of the diagram and map views.
+ * Readers are served from the snapshot without touching the database; every write
+ * bumps the version and schedules a rebuild on a background thread once the
+ * writing transaction has committed.
+ */
+@Slf4j
+@Service
+public class DocumentSnapshotService {
+    private final DocumentRepository documentRepository;
+    private final DocumentLinkRepository documentLinkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor rebuildExecutor;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile DocumentSnapshot snapshot;
+
+    /**
+     * Immutable view of all documents as seen at a given version
+     *
+     * @param version Version the snapshot was built for
+     * @param diagram Documents formatted for the diagram
+     * @param map     Documents formatted for the map, for each filter option
+     * @param briefs  Documents formatted for the map, by id
+     */
+    public record DocumentSnapshot(
+        long version,
+        List<DocumentDiagramResponseDTO> diagram,
+        Map<FilterOptionForMap, List<DocumentBriefResponseDTO>> map,
+        Map<Long, DocumentBriefResponseDTO> briefs
+    ) {
+    }
+
+    @Autowired
+    public DocumentSnapshotService(
+        DocumentRepository documentRepository,
+        DocumentLinkRepository documentLinkRepository,
+        TransactionTemplate transactionTemplate
+    ) {
+        this(documentRepository, documentLinkRepository, transactionTemplate, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "document-snapshot-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    DocumentSnapshotService(
+        DocumentRepository documentRepository,
+        DocumentLinkRepository documentLinkRepository,
+        TransactionTemplate transactionTemplate,
+        Executor rebuildExecutor
+    ) {
+        this.documentRepository = documentRepository;
+        this.documentLinkRepository = documentLinkRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.rebuildExecutor = rebuildExecutor;
+    }
+
+    /**
+     * Get all documents formatted for diagram representation
+     *
+     * @return List of DocumentDiagramResponseDTO
+     */
+    public List<DocumentDiagramResponseDTO> getDocumentsForDiagram() {
+        return currentSnapshot().diagram();
+    }
+
+    /**
+     * Get the documents for the map view matching a filter
+     *
+     * @param filter Filter option
+     * @return List of DocumentBriefResponseDTO
+     */
+    public List<DocumentBriefResponseDTO> getDocumentsForMap(FilterOptionForMap filter) {
+        return currentSnapshot().map().get(filter);
+    }
+
+    /**
+     * Get the documents formatted for the map view, in the order of the given ids.
+     * Ids not in the snapshot yet are skipped.
+     *
+     * @param ids Document ids
+     * @return List of DocumentBriefResponseDTO
+     */
+    public List<DocumentBriefResponseDTO> getBriefDocuments(List<Long> ids) {
+        Map<Long, DocumentBriefResponseDTO> briefs = currentSnapshot().briefs();
+        return ids.stream()
+            .map(briefs::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    /**
+     * Get the version of the latest write seen by the snapshot
+     *
+     * @return version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Get the version of the snapshot currently served to readers
+     *
+     * @return version, or -1 if no snapshot has been built yet
+     */
+    public long getSnapshotVersion() {
+        DocumentSnapshot current = snapshot;
+        return current != null ? current.version() : -1;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentLinkChanged(DocumentLinkChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentFileChanged(DocumentFileChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (rebuildExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Bump the version and rebuild the snapshot in the background
+     */
+    private void scheduleRebuild() {
+        long target = version.incrementAndGet();
+        rebuildExecutor.execute(() -> {
+            // A newer write is already queued, let that one do the work
+            if (target < version.get()) {
+                return;
+            }
+            try {
+                publish(transactionTemplate.execute(status -> buildSnapshot(target)));
+            } catch (RuntimeException e) {
+                log.error("Failed to rebuild document snapshot for version {}", target, e);
+            }
+        });
+    }
+
+    /**
+     * Get the current snapshot, building it on the caller thread if none has been built yet
+     *
+     * @return DocumentSnapshot
+     */
+    private DocumentSnapshot currentSnapshot() {
+        DocumentSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                long target = version.get();
+                snapshot = transactionTemplate.execute(status -> buildSnapshot(target));
+            }
+            return snapshot;
+        }
+    }
+
+    private synchronized void publish(DocumentSnapshot built) {
+        if (built != null && (snapshot == null || built.version() >= snapshot.version())) {
+            snapshot = built;
+        }
+    }
+
+    /**
+     * Build a snapshot from the database.
+     * Documents and links are loaded with one query each and joined in memory,
+     * so the number of queries does not depend on the number of documents.
+     *
+     * @param target Version the snapshot is built for
+     * @return DocumentSnapshot
+     */
+    private DocumentSnapshot buildSnapshot(long target) {
+        List<Document> documents = documentRepository.findAllWithStakeholders();
+
+        // Build the adjacency list of each document from the undirected links
+        Map<Long, List<LinksDocumentDTO>> adjacency = new HashMap<>();
+        for (DocumentLinkRepository.LinkEdge edge : documentLinkRepository.findAllEdges()) {
+            adjacency.computeIfAbsent(edge.getDocumentId(), id -> new ArrayList<>())
+                .add(new LinksDocumentDTO(edge.getLinkedDocumentId(), edge.getType()));
+            adjacency.computeIfAbsent(edge.getLinkedDocumentId(), id -> new ArrayList<>())
+                .add(new LinksDocumentDTO(edge.getDocumentId(), edge.getType()));
+        }
+
+        List<DocumentDiagramResponseDTO> diagram = documents.stream()
+            .map(document -> document.toDocumentDiagramResponseDTO(
+                List.copyOf(adjacency.getOrDefault(document.getId(), List.of()))
+            ))
+            .toList();
+
+        Map<Long, DocumentBriefResponseDTO> briefs = new HashMap<>();
+        for (Document document : documents) {
+            briefs.put(document.getId(), document.toDocumentBriefResponseDTO());
+        }
+
+        // Split the documents by kind of geolocation, one list for each filter option
+        Map<FilterOptionForMap, List<DocumentBriefResponseDTO>> map = new EnumMap<>(FilterOptionForMap.class);
+        for (FilterOptionForMap filter : FilterOptionForMap.values()) {
+            map.put(filter, documents.stream()
+                .filter(document -> matches(document.getGeoReference(), filter))
+                .map(document -> briefs.get(document.getId()))
+                .toList());
+        }
+
+        return new DocumentSnapshot(target, diagram, Collections.unmodifiableMap(map), Collections.unmodifiableMap(briefs));
+    }
+
+    private static boolean matches(GeoReference geoReference, FilterOptionForMap filter) {
+        return switch (filter) {
+            case AREA_ONLY -> geoReference != null && geoReference.getArea() != null;
+            case POINT_ONLY -> geoReference != null && geoReference.getPointCoordinates() != null;
+            case NO_GEOLOCATION -> geoReference != null && geoReference.getArea() == null && geoReference.getPointCoordinates() == null;
+            case ALL -> true;
+        };
+    }
+}
@@ -12,9 +12,11 @@ import java.util.List;
 @Service
 public class DocumentTypeService {
     private final DocumentTypeRepository documentTypeRepository;
+    private final VocabularyCache vocabularyCache;
 
-    public DocumentTypeService(DocumentTypeRepository documentTypeRepository) {
+    public DocumentTypeService(DocumentTypeRepository documentTypeRepository, VocabularyCache vocabularyCache) {
         this.documentTypeRepository = documentTypeRepository;
+        this.vocabularyCache = vocabularyCache;
     }
 
     /**
@@ -44,6 +46,7 @@ public class DocumentTypeService {
 
         DocumentType type = documentTypeRequest.toDocumentType();
         type = documentTypeRepository.save(type);
+        vocabularyCache.documentTypeAdded(type.getTypeName());
 
         return type.getId();
     }
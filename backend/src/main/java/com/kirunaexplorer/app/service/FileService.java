@@ -2,11 +2,19 @@ package com.kirunaexplorer.app.service;
 
 import com.kirunaexplorer.app.dto.request.FileUploadRequestDTO;
 import com.kirunaexplorer.app.dto.response.FileSnippetResponseDTO;
+import com.kirunaexplorer.app.event.DocumentFileChangedEvent;
 import com.kirunaexplorer.app.exception.ResourceNotFoundException;
 import com.kirunaexplorer.app.model.Document;
 import com.kirunaexplorer.app.model.DocumentFile;
 import com.kirunaexplorer.app.repository.DocumentRepository;
 import com.kirunaexplorer.app.repository.FileRepository;
+import com.kirunaexplorer.app.storage.BlobGarbageCollector;
+import com.kirunaexplorer.app.storage.BlobStore;
+import com.kirunaexplorer.app.storage.FileContent;
+import com.kirunaexplorer.app.storage.StoredBlob;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,10 +25,17 @@ import java.util.Set;
 public class FileService {
     private final FileRepository fileRepository;
     private final DocumentRepository documentRepository;
+    private final BlobStore blobStore;
+    private final BlobGarbageCollector blobGarbageCollector;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public FileService(FileRepository fileRepository, DocumentRepository documentRepository) {
+    public FileService(FileRepository fileRepository, DocumentRepository documentRepository, BlobStore blobStore,
+                       BlobGarbageCollector blobGarbageCollector, ApplicationEventPublisher eventPublisher) {
         this.fileRepository = fileRepository;
         this.documentRepository = documentRepository;
+        this.blobStore = blobStore;
+        this.blobGarbageCollector = blobGarbageCollector;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -37,26 +52,56 @@ public class FileService {
             .orElseThrow(() -> new ResourceNotFoundException("Document not found with ID " + documentId));
 
         // Transform the request to DocumentFile
-        List<DocumentFile> files = request.toDocumentFiles(document);
+        List<DocumentFile> files = request.toDocumentFiles(document, blobStore);
+        files.forEach(file -> blobGarbageCollector.retain(file.getContentHash()));
 
         // Save the files
         files = fileRepository.saveAll(files);
+        eventPublisher.publishEvent(new DocumentFileChangedEvent(documentId));
 
         return files.get(0).getId();
     }
 
+    /**
+     * Attach content already in the blob store to a document
+     *
+     * @param documentId Document id
+     * @param name       File name, without extension
+     * @param extension  File extension
+     * @param blob       StoredBlob with the content
+     * @return Long
+     */
+    @Transactional
+    public Long attachFile(Long documentId, String name, String extension, StoredBlob blob) {
+        // Get the document
+        Document document = documentRepository.findById(documentId)
+            .orElseThrow(() -> new ResourceNotFoundException("Document not found with ID " + documentId));
+
+        // Save the file
+        blobGarbageCollector.retain(blob.hash());
+        DocumentFile file = fileRepository.save(new DocumentFile(null, document, name, extension, blob.size(), blob.hash()));
+        eventPublisher.publishEvent(new DocumentFileChangedEvent(documentId));
+
+        return file.getId();
+    }
 
     /**
      * Get a file
      *
      * @param fileId File id
-     * @return byte[]
+     * @return FileContent
      */
     @Transactional
-    public byte[] getFile(Long fileId) {
-        return fileRepository.findById(fileId)
-            .map(DocumentFile::getContent)
+    public FileContent getFile(Long fileId) {
+        DocumentFile file = fileRepository.findById(fileId)
             .orElseThrow(() -> new ResourceNotFoundException("File not found with ID " + fileId));
+
+        // Rows not yet migrated still keep their content in the database
+        Resource resource = file.getContentHash() == null
+            ? new ByteArrayResource(file.getContent())
+            : blobStore.load(file.getContentHash());
+
+        return new FileContent(file.getName(), file.getExtension(), file.getSize(), file.getContentHash(), resource);
     }
 
     /**
@@ -77,6 +122,9 @@ public class FileService {
 
         // Delete the file
         fileRepository.delete(file);
+        eventPublisher.publishEvent(new DocumentFileChangedEvent(document.getId()));
+
+        // Identical uploads share the blob, BlobGarbageCollector deletes it once no file refers to it
     }
 
     /**
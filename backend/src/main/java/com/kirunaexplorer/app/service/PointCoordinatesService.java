@@ -2,9 +2,11 @@ package com.kirunaexplorer.app.service;
 
 import com.kirunaexplorer.app.dto.request.PointCoordinatesRequestDTO;
 import com.kirunaexplorer.app.dto.response.PointCoordinatesResponseDTO;
+import com.kirunaexplorer.app.event.PointCoordinatesChangedEvent;
 import com.kirunaexplorer.app.exception.DuplicatePointException;
 import com.kirunaexplorer.app.model.PointCoordinates;
 import com.kirunaexplorer.app.repository.PointCoordinatesRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -12,9 +14,11 @@ import java.util.List;
 @Service
 public class PointCoordinatesService {
     private final PointCoordinatesRepository pointCoordinatesRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public PointCoordinatesService(PointCoordinatesRepository pointCoordinatesRepository) {
+    public PointCoordinatesService(PointCoordinatesRepository pointCoordinatesRepository, ApplicationEventPublisher eventPublisher) {
         this.pointCoordinatesRepository = pointCoordinatesRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -38,6 +42,7 @@ public class PointCoordinatesService {
         // Save point
         PointCoordinates point = pointCoordinatesRequestDTO.toPointCoordinates();
         point = pointCoordinatesRepository.save(point);
+        eventPublisher.publishEvent(new PointCoordinatesChangedEvent(point.getId()));
 
         return point.getId();
     }
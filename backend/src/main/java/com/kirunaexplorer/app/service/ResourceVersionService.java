@@ -0,0 +1,77 @@
+package com.kirunaexplorer.app.service;
+
+import com.kirunaexplorer.app.constants.ResourceAggregate;
+import com.kirunaexplorer.app.event.AreaChangedEvent;
+import com.kirunaexplorer.app.event.DocumentChangedEvent;
+import com.kirunaexplorer.app.event.DocumentLinkChangedEvent;
+import com.kirunaexplorer.app.event.PointCoordinatesChangedEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a version counter for each resource aggregate.
+ * Counters are bumped only after the writing transaction has committed, so a version
+ * is never observed before the data it stands for is visible to readers.
+ */
+@Service
+public class ResourceVersionService {
+    private final DocumentSnapshotService documentSnapshotService;
+
+    // Distinguishes versions handed out by different runs of the application
+    private final long epoch = System.currentTimeMillis();
+    private final Map<ResourceAggregate, AtomicLong> versions = new EnumMap<>(ResourceAggregate.class);
+
+    public ResourceVersionService(DocumentSnapshotService documentSnapshotService) {
+        this.documentSnapshotService = documentSnapshotService;
+        for (ResourceAggregate aggregate : ResourceAggregate.values()) {
+            versions.put(aggregate, new AtomicLong());
+        }
+    }
+
+    /**
+     * Get the epoch of the running application
+     *
+     * @return epoch
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Get the current version of an aggregate
+     *
+     * @param aggregate ResourceAggregate
+     * @return version
+     */
+    public long getVersion(ResourceAggregate aggregate) {
+        if (aggregate == ResourceAggregate.DOCUMENT_SNAPSHOT) {
+            // The snapshot is rebuilt asynchronously, only the published one counts
+            return documentSnapshotService.getSnapshotVersion();
+        }
+        return versions.get(aggregate).get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        versions.get(ResourceAggregate.DOCUMENT).incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentLinkChanged(DocumentLinkChangedEvent event) {
+        versions.get(ResourceAggregate.DOCUMENT_LINK).incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAreaChanged(AreaChangedEvent event) {
+        versions.get(ResourceAggregate.AREA).incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPointCoordinatesChanged(PointCoordinatesChangedEvent event) {
+        versions.get(ResourceAggregate.POINT_COORDINATES).incrementAndGet();
+    }
+}
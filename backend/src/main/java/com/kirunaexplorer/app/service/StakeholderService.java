@@ -13,9 +13,11 @@ import java.util.List;
 @Service
 public class StakeholderService {
     private final StakeholderRepository stakeholderRepository;
+    private final VocabularyCache vocabularyCache;
 
-    public StakeholderService(StakeholderRepository stakeholderRepository) {
+    public StakeholderService(StakeholderRepository stakeholderRepository, VocabularyCache vocabularyCache) {
         this.stakeholderRepository = stakeholderRepository;
+        this.vocabularyCache = vocabularyCache;
     }
 
     /**
@@ -45,6 +47,7 @@ public class StakeholderService {
 
         Stakeholder stakeholder = stakeholderRequest.toStakeholder();
         stakeholder = stakeholderRepository.save(stakeholder);
+        vocabularyCache.stakeholderAdded(stakeholder.getName());
 
         return stakeholder.getId();
     }
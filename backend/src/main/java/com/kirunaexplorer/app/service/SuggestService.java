@@ -0,0 +1,77 @@
+package com.kirunaexplorer.app.service;
+
+import com.kirunaexplorer.app.constants.SuggestField;
+import com.kirunaexplorer.app.exception.InvalidQueryParameterException;
+import com.kirunaexplorer.app.repository.DocumentRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Typeahead suggestions for the document form and the search bar.
+ * Stakeholders, types and scales are few and change rarely, they are matched in memory against the tries
+ * kept by VocabularyCache. Titles are matched in the database with the trigram index.
+ */
+@Service
+public class SuggestService {
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private final VocabularyCache vocabularyCache;
+    private final DocumentRepository documentRepository;
+
+    public SuggestService(VocabularyCache vocabularyCache, DocumentRepository documentRepository) {
+        this.vocabularyCache = vocabularyCache;
+        this.documentRepository = documentRepository;
+    }
+
+    /**
+     * Suggest values of a field for the text typed so far
+     *
+     * @param field Field name: title, stakeholder, type or scale
+     * @param query Text typed so far
+     * @param limit Maximum number of suggestions
+     * @return List of values, best first
+     */
+    public List<String> suggest(String field, String query, int limit) {
+        SuggestField suggestField;
+        try {
+            suggestField = SuggestField.valueOf(field.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQueryParameterException("Invalid field: " + field);
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidQueryParameterException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+
+        String trimmed = query.trim();
+        int maxDistance = maxDistance(trimmed);
+        return switch (suggestField) {
+            case TITLE -> {
+                String lowerCase = trimmed.toLowerCase(Locale.ROOT);
+                yield documentRepository.suggestTitles(lowerCase, escapeLike(lowerCase), limit);
+            }
+            case STAKEHOLDER -> vocabularyCache.suggestStakeholders(trimmed, maxDistance, limit);
+            case TYPE -> vocabularyCache.suggestDocumentTypes(trimmed, maxDistance, limit);
+            case SCALE -> vocabularyCache.suggestDocumentScales(trimmed, maxDistance, limit);
+        };
+    }
+
+    /**
+     * Number of typos tolerated, none for the first letters so short queries stay precise
+     */
+    private static int maxDistance(String query) {
+        if (query.length() < 3) {
+            return 0;
+        }
+        return query.length() < 6 ? 1 : 2;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,174 @@
+package com.kirunaexplorer.app.service;
+
+import com.kirunaexplorer.app.config.StorageProperties;
+import com.kirunaexplorer.app.event.AreaChangedEvent;
+import com.kirunaexplorer.app.event.DocumentChangedEvent;
+import com.kirunaexplorer.app.event.PointCoordinatesChangedEvent;
+import com.kirunaexplorer.app.exception.FileStorageException;
+import com.kirunaexplorer.app.exception.ResourceNotFoundException;
+import com.kirunaexplorer.app.repository.AreaRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Comparator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Serves the map as Mapbox Vector Tiles encoded by PostGIS, cached on disk.
+ * Cached tiles are grouped in generations: a change to the areas, points or documents starts
+ * a new generation, and the directories of the previous ones are deleted in the background.
+ * A tile is always stored in the generation current when its query started, so a tile encoded
+ * from data older than a change can never be served after it.
+ */
+@Slf4j
+@Service
+public class VectorTileService {
+    public static final int MAX_ZOOM = 22;
+
+    // Width of the Web Mercator projection in meters
+    private static final double WEB_MERCATOR_SIZE = 40075016.68557849;
+    private static final int TILE_EXTENT = 4096;
+
+    private final AreaRepository areaRepository;
+    private final Path tilesDir;
+    private final Executor cleanupExecutor;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public VectorTileService(AreaRepository areaRepository, StorageProperties storageProperties) {
+        this(areaRepository, storageProperties, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vector-tile-cleanup");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    VectorTileService(AreaRepository areaRepository, StorageProperties storageProperties, Executor cleanupExecutor) {
+        this.areaRepository = areaRepository;
+        this.tilesDir = Paths.get(storageProperties.getTiles().getDir()).toAbsolutePath().normalize();
+        this.cleanupExecutor = cleanupExecutor;
+        try {
+            Files.createDirectories(tilesDir);
+            // The data may have changed while the application was down
+            deleteGenerationsBefore(Long.MAX_VALUE);
+        } catch (IOException e) {
+            throw new FileStorageException("Cannot create tiles directory " + tilesDir, e);
+        }
+    }
+
+    /**
+     * Get a vector tile, encoding it on the first request
+     *
+     * @param z Zoom level
+     * @param x Tile column
+     * @param y Tile row
+     * @return Tile content, empty if there is nothing in the tile
+     */
+    public byte[] getTile(int z, int x, int y) {
+        if (z < 0 || z > MAX_ZOOM || x < 0 || y < 0 || x >= (1 << z) || y >= (1 << z)) {
+            throw new ResourceNotFoundException("Tile not found " + z + "/" + x + "/" + y);
+        }
+
+        long current = generation.get();
+        Path file = tilesDir.resolve(Long.toString(current)).resolve(z + "/" + x + "/" + y + ".mvt");
+        try {
+            return Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            // Not cached yet
+        } catch (IOException e) {
+            log.warn("Cannot read cached tile {}", file, e);
+        }
+
+        // Simplify to the size of a pixel of the tile, finer details cannot be drawn
+        double tolerance = WEB_MERCATOR_SIZE / ((double) TILE_EXTENT * (1L << z));
+        byte[] tile = areaRepository.encodeVectorTile(z, x, y, tolerance);
+        if (tile == null) {
+            tile = new byte[0];
+        }
+        store(file, tile);
+        return tile;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAreaChanged(AreaChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPointCoordinatesChanged(PointCoordinatesChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        invalidate();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (cleanupExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Start a new generation and delete the tiles of the previous ones
+     */
+    private void invalidate() {
+        long current = generation.incrementAndGet();
+        cleanupExecutor.execute(() -> {
+            try {
+                deleteGenerationsBefore(current);
+            } catch (IOException e) {
+                log.warn("Cannot delete stale tiles in {}", tilesDir, e);
+            }
+        });
+    }
+
+    /**
+     * Delete the directories of the generations older than the given one, other files are left alone
+     */
+    private void deleteGenerationsBefore(long current) throws IOException {
+        try (Stream<Path> generations = Files.list(tilesDir)) {
+            for (Path dir : generations.toList()) {
+                String name = dir.getFileName().toString();
+                if (name.chars().allMatch(Character::isDigit) && Long.parseLong(name) < current) {
+                    deleteRecursively(dir);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write a tile through a temporary file, so a concurrent reader never sees it partially written
+     */
+    private void store(Path file, byte[] tile) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "tile", ".tmp");
+            Files.write(temp, tile);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // The generation may have been deleted meanwhile, the tile is served anyway
+            log.debug("Cannot cache tile {}", file, e);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.kirunaexplorer.app.service;
+
+import com.kirunaexplorer.app.repository.DocumentScaleRepository;
+import com.kirunaexplorer.app.repository.DocumentTypeRepository;
+import com.kirunaexplorer.app.repository.StakeholderRepository;
+import com.kirunaexplorer.app.util.DocumentFieldsChecker;
+import com.kirunaexplorer.app.util.PrefixTrie;
+import com.kirunaexplorer.app.util.TransactionUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * In-memory set of the stakeholder, document type and scale names already stored, also indexed for typeahead.
+ * Document writes only touch the database for the names missing from the cache, and
+ * store them with an upsert so concurrent writers never fail on the same new name.
+ * Names are added to the cache only after the storing transaction has committed, so
+ * the cache never holds a name that is not in the database.
+ */
+@Service
+public class VocabularyCache {
+    private final StakeholderRepository stakeholderRepository;
+    private final DocumentTypeRepository documentTypeRepository;
+    private final DocumentScaleRepository documentScaleRepository;
+
+    private final Vocabulary stakeholders;
+    private final Vocabulary documentTypes;
+    private final Vocabulary documentScales;
+
+    /**
+     * Set of names lazily loaded from the database on first use, with a trie for the suggestions
+     */
+    private static final class Vocabulary {
+        private final Supplier<List<String>> loader;
+        private volatile Set<String> names;
+        private volatile PrefixTrie index;
+
+        private Vocabulary(Supplier<List<String>> loader) {
+            this.loader = loader;
+        }
+
+        private Set<String> names() {
+            Set<String> current = names;
+            if (current == null) {
+                synchronized (this) {
+                    if (names == null) {
+                        Set<String> loaded = ConcurrentHashMap.newKeySet();
+                        loaded.addAll(loader.get());
+                        PrefixTrie trie = new PrefixTrie();
+                        trie.addAll(loaded);
+                        index = trie;
+                        names = loaded;
+                    }
+                    current = names;
+                }
+            }
+            return current;
+        }
+
+        private PrefixTrie index() {
+            names();
+            return index;
+        }
+
+        private boolean contains(String name) {
+            return names().contains(name);
+        }
+
+        private void addAfterCommit(Collection<String> added) {
+            TransactionUtils.runAfterCommit(() -> {
+                names().addAll(added);
+                index.addAll(added);
+            });
+        }
+    }
+
+    public VocabularyCache(
+        StakeholderRepository stakeholderRepository,
+        DocumentTypeRepository documentTypeRepository,
+        DocumentScaleRepository documentScaleRepository
+    ) {
+        this.stakeholderRepository = stakeholderRepository;
+        this.documentTypeRepository = documentTypeRepository;
+        this.documentScaleRepository = documentScaleRepository;
+        this.stakeholders = new Vocabulary(stakeholderRepository::findAllNames);
+        this.documentTypes = new Vocabulary(documentTypeRepository::findAllTypeNames);
+        this.documentScales = new Vocabulary(documentScaleRepository::findAllScales);
+    }
+
+    /**
+     * Store the stakeholders not stored yet, with a single statement
+     *
+     * @param names Stakeholder names
+     */
+    public void ensureStakeholders(Collection<String> names) {
+        List<String> missing = names.stream()
+            .distinct()
+            .filter(name -> !stakeholders.contains(name))
+            .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        stakeholderRepository.insertMissing(missing.toArray(String[]::new));
+        stakeholders.addAfterCommit(missing);
+    }
+
+    /**
+     * Store a document type if it is not stored yet
+     *
+     * @param typeName Document type name
+     */
+    public void ensureDocumentType(String typeName) {
+        if (typeName == null || documentTypes.contains(typeName)) {
+            return;
+        }
+        documentTypeRepository.insertIfMissing(typeName);
+        documentTypes.addAfterCommit(List.of(typeName));
+    }
+
+    /**
+     * Store a scale if it is not stored yet. Ratio scales (1:n) are not stored.
+     *
+     * @param scale Scale
+     */
+    public void ensureDocumentScale(String scale) {
+        if (scale == null || DocumentFieldsChecker.isRatioScale(scale) || documentScales.contains(scale)) {
+            return;
+        }
+        documentScaleRepository.insertIfMissing(scale);
+        documentScales.addAfterCommit(List.of(scale));
+    }
+
+    /**
+     * Suggest stakeholders with a word starting with the query, tolerating typos
+     *
+     * @param query       Query typed so far
+     * @param maxDistance Maximum number of edits
+     * @param limit       Maximum number of names
+     * @return List of stakeholder names, closest first
+     */
+    public List<String> suggestStakeholders(String query, int maxDistance, int limit) {
+        return stakeholders.index().suggest(query, maxDistance, limit);
+    }
+
+    /**
+     * Suggest document types with a word starting with the query, tolerating typos
+     *
+     * @param query       Query typed so far
+     * @param maxDistance Maximum number of edits
+     * @param limit       Maximum number of names
+     * @return List of document type names, closest first
+     */
+    public List<String> suggestDocumentTypes(String query, int maxDistance, int limit) {
+        return documentTypes.index().suggest(query, maxDistance, limit);
+    }
+
+    /**
+     * Suggest scales with a word starting with the query, tolerating typos
+     *
+     * @param query       Query typed so far
+     * @param maxDistance Maximum number of edits
+     * @param limit       Maximum number of names
+     * @return List of scales, closest first
+     */
+    public List<String> suggestDocumentScales(String query, int maxDistance, int limit) {
+        return documentScales.index().suggest(query, maxDistance, limit);
+    }
+
+    /**
+     * Record a stakeholder stored by StakeholderService
+     *
+     * @param name Stakeholder name
+     */
+    public void stakeholderAdded(String name) {
+        stakeholders.addAfterCommit(List.of(name));
+    }
+
+    /**
+     * Record a document type stored by DocumentTypeService
+     *
+     * @param typeName Document type name
+     */
+    public void documentTypeAdded(String typeName) {
+        documentTypes.addAfterCommit(List.of(typeName));
+    }
+
+    /**
+     * Record a scale stored by DocumentScaleService
+     *
+     * @param scale Scale
+     */
+    public void documentScaleAdded(String scale) {
+        documentScales.addAfterCommit(List.of(scale));
+    }
+}
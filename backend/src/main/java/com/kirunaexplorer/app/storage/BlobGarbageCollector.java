@@ -0,0 +1,100 @@
+package com.kirunaexplorer.app.storage;
+
+import com.kirunaexplorer.app.config.StorageProperties;
+import com.kirunaexplorer.app.exception.FileStorageException;
+import com.kirunaexplorer.app.repository.FileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Deletes the blobs no file refers to.
+ * A blob is only deleted once it has not been stored for the grace period, so the content of an upload
+ * whose transaction has not committed yet is kept, and the content of a rolled back upload is eventually removed.
+ * Attaching a file to a blob and deleting the blob take the same lock on its hash, so a file is never
+ * committed without its content.
+ */
+@Slf4j
+@Component
+public class BlobGarbageCollector {
+    private static final int BATCH_SIZE = 500;
+
+    private final FileRepository fileRepository;
+    private final BlobStore blobStore;
+    private final TransactionTemplate transactionTemplate;
+    private final StorageProperties storageProperties;
+
+    public BlobGarbageCollector(FileRepository fileRepository, BlobStore blobStore, TransactionTemplate transactionTemplate,
+                                StorageProperties storageProperties) {
+        this.fileRepository = fileRepository;
+        this.blobStore = blobStore;
+        this.transactionTemplate = transactionTemplate;
+        this.storageProperties = storageProperties;
+    }
+
+    /**
+     * Keep a blob until the end of the current transaction, which is about to refer to it
+     *
+     * @param hash SHA-256 hash of the content
+     */
+    public void retain(String hash) {
+        fileRepository.lockContentHashShared(hash);
+        if (!blobStore.exists(hash)) {
+            throw new FileStorageException("File content was deleted while it was stored, please retry the upload");
+        }
+    }
+
+    /**
+     * Delete the blobs no file refers to and not stored for the grace period
+     *
+     * @return Number of blobs deleted
+     */
+    @Scheduled(fixedDelayString = "${storage.blobs.gc-interval:PT1H}", initialDelayString = "${storage.blobs.gc-interval:PT1H}")
+    public int collect() {
+        Instant cutoff = Instant.now().minus(storageProperties.getBlobs().getGcGracePeriod());
+        int deleted = 0;
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        try (Stream<String> hashes = blobStore.findStoredBefore(cutoff)) {
+            Iterator<String> iterator = hashes.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == BATCH_SIZE || !iterator.hasNext()) {
+                    deleted += collect(batch, cutoff);
+                    batch.clear();
+                }
+            }
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} file contents no file refers to", deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Delete the blobs of a batch no file refers to
+     */
+    private int collect(List<String> hashes, Instant cutoff) {
+        // Most blobs are in use, filter them out with one query before checking the others one by one
+        Set<String> referenced = new HashSet<>(fileRepository.findReferencedContentHashes(hashes));
+        int deleted = 0;
+        for (String hash : hashes) {
+            if (!referenced.contains(hash) && Boolean.TRUE.equals(transactionTemplate.execute(status -> delete(hash, cutoff)))) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Delete a blob if, once its hash is locked, still no file refers to it
+     */
+    private boolean delete(String hash, Instant cutoff) {
+        fileRepository.lockContentHash(hash);
+        return !fileRepository.existsByContentHash(hash) && blobStore.deleteIfStoredBefore(hash, cutoff);
+    }
+}
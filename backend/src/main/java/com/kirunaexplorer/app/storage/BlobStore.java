@@ -0,0 +1,67 @@
+package com.kirunaexplorer.app.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed storage for file contents.
+ * Blobs are identified by the SHA-256 hash of their content, so storing the same
+ * content twice keeps a single copy. Storing content that is already there refreshes its
+ * storage time, which garbage collection relies on to spare blobs an upload is about to refer to.
+ */
+public interface BlobStore {
+
+    /**
+     * Store the content read from a stream, without buffering it in memory
+     *
+     * @param content Stream to read the content from, it is not closed
+     * @return StoredBlob with the hash and size of the content
+     */
+    StoredBlob store(InputStream content);
+
+    /**
+     * Store the content of a file whose hash is already known, moving the file when possible
+     *
+     * @param file File to import, it is consumed by the store
+     * @param hash SHA-256 hash of the content
+     * @return StoredBlob with the hash and size of the content
+     */
+    StoredBlob importFile(Path file, String hash);
+
+    /**
+     * Load the content of a blob
+     *
+     * @param hash SHA-256 hash of the content
+     * @return Resource to stream the content from
+     */
+    Resource load(String hash);
+
+    /**
+     * Check a blob exists
+     *
+     * @param hash SHA-256 hash of the content
+     * @return true if the blob exists
+     */
+    boolean exists(String hash);
+
+    /**
+     * List the blobs not stored since some time
+     *
+     * @param cutoff Time the blobs were last stored before
+     * @return Stream of hashes, to be closed
+     */
+    Stream<String> findStoredBefore(Instant cutoff);
+
+    /**
+     * Delete a blob, unless it has been stored again since some time
+     *
+     * @param hash   SHA-256 hash of the content
+     * @param cutoff Time the blob must have been last stored before
+     * @return true if the blob was deleted
+     */
+    boolean deleteIfStoredBefore(String hash, Instant cutoff);
+}
@@ -0,0 +1,15 @@
+package com.kirunaexplorer.app.storage;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Java record to return the content of a file together with the metadata needed to serve it
+ */
+public record FileContent(
+    String name,
+    String extension,
+    long size,
+    String contentHash,
+    Resource resource
+) {
+}
@@ -0,0 +1,81 @@
+package com.kirunaexplorer.app.storage;
+
+import com.kirunaexplorer.app.model.DocumentFile;
+import com.kirunaexplorer.app.repository.FileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+/**
+ * Moves the content of files uploaded before the BlobStore existed out of the database.
+ * Each file is migrated in its own transaction, so at most one legacy file is held in memory
+ * and an interrupted migration simply resumes on the next start.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "storage", name = "migrate-legacy-content", havingValue = "true", matchIfMissing = true)
+public class LegacyContentMigration implements CommandLineRunner {
+    private static final int BATCH_SIZE = 50;
+
+    private final FileRepository fileRepository;
+    private final BlobStore blobStore;
+    private final BlobGarbageCollector blobGarbageCollector;
+    private final TransactionTemplate transactionTemplate;
+
+    public LegacyContentMigration(FileRepository fileRepository, BlobStore blobStore, BlobGarbageCollector blobGarbageCollector,
+                                  TransactionTemplate transactionTemplate) {
+        this.fileRepository = fileRepository;
+        this.blobStore = blobStore;
+        this.blobGarbageCollector = blobGarbageCollector;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        long lastId = 0;
+        int migrated = 0;
+        List<Long> ids;
+        while (!(ids = fileRepository.findIdsWithLegacyContent(lastId, PageRequest.of(0, BATCH_SIZE))).isEmpty()) {
+            for (Long id : ids) {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> migrate(id)))) {
+                    migrated++;
+                }
+            }
+            lastId = ids.get(ids.size() - 1);
+        }
+        if (migrated > 0) {
+            log.info("Moved the content of {} files to the blob store", migrated);
+        }
+    }
+
+    /**
+     * Copy the content of a file to the BlobStore and clear it from the row
+     *
+     * @param id File id
+     * @return true if the file was migrated
+     */
+    private boolean migrate(Long id) {
+        DocumentFile file = fileRepository.findById(id).orElse(null);
+        if (file == null || file.getContentHash() != null) {
+            return false;
+        }
+        if (file.getContent() == null) {
+            log.warn("File {} has no content to migrate", id);
+            return false;
+        }
+
+        StoredBlob blob = blobStore.store(new ByteArrayInputStream(file.getContent()));
+        blobGarbageCollector.retain(blob.hash());
+        file.setContentHash(blob.hash());
+        file.setSize(blob.size());
+        file.setContent(null);
+        fileRepository.save(file);
+        return true;
+    }
+}
@@ -0,0 +1,214 @@
+package com.kirunaexplorer.app.storage;
+
+import com.kirunaexplorer.app.config.StorageProperties;
+import com.kirunaexplorer.app.exception.FileStorageException;
+import com.kirunaexplorer.app.exception.ResourceNotFoundException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * BlobStore keeping each blob as a file named after its hash, under a two level
+ * directory fan-out (ab/cd/abcd...) to keep directories small.
+ * The last modified time of a blob is the last time it was stored.
+ */
+@Component
+@ConditionalOnProperty(prefix = "storage", name = "type", havingValue = "local", matchIfMissing = true)
+public class LocalFileSystemBlobStore implements BlobStore {
+    private static final Pattern HASH_PATTERN = Pattern.compile("^[0-9a-f]{64}$");
+
+    private final Path root;
+    private final Path tmp;
+
+    public LocalFileSystemBlobStore(StorageProperties storageProperties) {
+        this.root = Paths.get(storageProperties.getLocal().getRoot()).toAbsolutePath().normalize();
+        this.tmp = root.resolve("tmp");
+        try {
+            Files.createDirectories(tmp);
+        } catch (IOException e) {
+            throw new FileStorageException("Cannot create blob storage directory " + root, e);
+        }
+    }
+
+    @Override
+    public StoredBlob store(InputStream content) {
+        Path upload = null;
+        try {
+            upload = Files.createTempFile(tmp, "upload-", ".part");
+
+            // Hash the content while it is copied to disk
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (DigestInputStream digestStream = new DigestInputStream(content, digest)) {
+                size = Files.copy(digestStream, upload, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+
+            StoredBlob blob = new StoredBlob(hash, size);
+            moveIntoPlace(upload, hash);
+            return blob;
+        } catch (IOException e) {
+            throw new FileStorageException("Error storing file content", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        } finally {
+            deleteQuietly(upload);
+        }
+    }
+
+    @Override
+    public StoredBlob importFile(Path file, String hash) {
+        Path staged = null;
+        try {
+            StoredBlob blob = new StoredBlob(hash, Files.size(file));
+            try {
+                moveIntoPlace(file, hash);
+            } catch (AtomicMoveNotSupportedException e) {
+                // Different file system, copy next to the blobs first so the final move stays atomic
+                staged = Files.createTempFile(tmp, "import-", ".part");
+                Files.copy(file, staged, StandardCopyOption.REPLACE_EXISTING);
+                moveIntoPlace(staged, hash);
+            }
+            return blob;
+        } catch (IOException e) {
+            throw new FileStorageException("Error storing file content", e);
+        } finally {
+            deleteQuietly(staged);
+            deleteQuietly(file);
+        }
+    }
+
+    @Override
+    public Resource load(String hash) {
+        Path path = pathOf(hash);
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("File content not found with hash " + hash);
+        }
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return Files.isRegularFile(pathOf(hash));
+    }
+
+    @Override
+    public Stream<String> findStoredBefore(Instant cutoff) {
+        try {
+            return Files.walk(root, 3)
+                .filter(path -> !path.startsWith(tmp))
+                .filter(path -> HASH_PATTERN.matcher(path.getFileName().toString()).matches())
+                .filter(path -> storedBefore(path, cutoff))
+                .map(path -> path.getFileName().toString());
+        } catch (IOException e) {
+            throw new FileStorageException("Error listing file contents", e);
+        }
+    }
+
+    @Override
+    public boolean deleteIfStoredBefore(String hash, Instant cutoff) {
+        Path target = pathOf(hash);
+        Path doomed = tmp.resolve("delete-" + hash);
+        try {
+            // Take the blob out of place first: a store refreshing it before the move is seen on the
+            // moved file, a store after the move finds no blob and puts its own copy in place
+            try {
+                Files.move(target, doomed, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e) {
+                return false;
+            }
+            if (storedBefore(doomed, cutoff)) {
+                Files.delete(doomed);
+                return true;
+            }
+            // Stored again meanwhile, put it back, replacing any copy stored since as the content is the same
+            Files.move(doomed, target, StandardCopyOption.ATOMIC_MOVE);
+            return false;
+        } catch (IOException e) {
+            throw new FileStorageException("Error deleting file content with hash " + hash, e);
+        }
+    }
+
+    /**
+     * Move a fully written file to the location of its hash.
+     * If a blob with the same hash already exists the file is a duplicate and is left to be discarded,
+     * the existing blob is marked as just stored.
+     * Files from another file system cannot be moved atomically and are rejected with AtomicMoveNotSupportedException.
+     *
+     * @param file File to move
+     * @param hash SHA-256 hash of the content
+     */
+    void moveIntoPlace(Path file, String hash) throws IOException {
+        Path target = pathOf(hash);
+        if (touch(target)) {
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Stored concurrently by another upload of the same content
+            touch(target);
+        }
+    }
+
+    /**
+     * Set the last modified time of a file to now
+     *
+     * @return false if the file does not exist
+     */
+    private static boolean touch(Path path) throws IOException {
+        try {
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static boolean storedBefore(Path path, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(path).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            // Deleted meanwhile
+            return false;
+        }
+    }
+
+    /**
+     * Get the path of a blob, rejecting anything that is not a SHA-256 hash
+     *
+     * @param hash SHA-256 hash of the content
+     * @return Path
+     */
+    Path pathOf(String hash) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid content hash " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // A leftover temporary file is harmless
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.kirunaexplorer.app.storage;
+
+/**
+ * Java record to store the hash and the size of a stored blob
+ */
+public record StoredBlob(
+    String hash,
+    long size
+) {
+}
@@ -0,0 +1,139 @@
+package com.kirunaexplorer.app.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.kirunaexplorer.app.constants.GeometryType;
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geom.util.GeometryFixer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts the coordinates sent by the clients to JTS geometries in WGS 84 (SRID 4326).
+ * A position is either an object with latitude and longitude or a GeoJSON [longitude, latitude] array,
+ * a polygon is either a single ring or a list of rings where the first one is the shell.
+ */
+public final class GeometryConverter {
+    public static final int SRID = 4326;
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), SRID);
+
+    private GeometryConverter() {
+    }
+
+    /**
+     * Get the geometry factory used for all the stored geometries
+     *
+     * @return GeometryFactory
+     */
+    public static GeometryFactory geometryFactory() {
+        return GEOMETRY_FACTORY;
+    }
+
+    /**
+     * Build a point
+     *
+     * @param latitude  Latitude
+     * @param longitude Longitude
+     * @return Point, or null if a coordinate is missing
+     */
+    public static Point toPoint(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            return null;
+        }
+        return GEOMETRY_FACTORY.createPoint(new Coordinate(longitude, latitude));
+    }
+
+    /**
+     * Build a valid multipolygon from the coordinates of an area
+     *
+     * @param type        Geometry type
+     * @param coordinates Coordinates
+     * @return MultiPolygon, or null if the coordinates do not describe any polygon
+     */
+    public static MultiPolygon toMultiPolygon(GeometryType type, JsonNode coordinates) {
+        if (type == null || coordinates == null || !coordinates.isArray()) {
+            return null;
+        }
+
+        List<Polygon> polygons = new ArrayList<>();
+        if (type == GeometryType.POLYGON) {
+            addPolygon(coordinates, polygons);
+        } else {
+            coordinates.forEach(polygon -> addPolygon(polygon, polygons));
+        }
+        if (polygons.isEmpty()) {
+            return null;
+        }
+
+        // Drawn areas may self intersect, make them valid so spatial predicates do not fail
+        org.locationtech.jts.geom.Geometry fixed = GeometryFixer.fix(
+            GEOMETRY_FACTORY.createMultiPolygon(polygons.toArray(Polygon[]::new))
+        );
+        List<Polygon> parts = new ArrayList<>();
+        for (int i = 0; i < fixed.getNumGeometries(); i++) {
+            if (fixed.getGeometryN(i) instanceof Polygon polygon && !polygon.isEmpty()) {
+                parts.add(polygon);
+            }
+        }
+        return parts.isEmpty() ? null : GEOMETRY_FACTORY.createMultiPolygon(parts.toArray(Polygon[]::new));
+    }
+
+    private static void addPolygon(JsonNode polygon, List<Polygon> polygons) {
+        if (!polygon.isArray() || polygon.isEmpty()) {
+            return;
+        }
+
+        // A single ring, or a shell followed by its holes
+        List<LinearRing> rings = new ArrayList<>();
+        if (isPosition(polygon.get(0))) {
+            addRing(polygon, rings);
+        } else {
+            polygon.forEach(ring -> addRing(ring, rings));
+        }
+        if (rings.isEmpty()) {
+            return;
+        }
+        polygons.add(GEOMETRY_FACTORY.createPolygon(rings.get(0), rings.subList(1, rings.size()).toArray(LinearRing[]::new)));
+    }
+
+    private static void addRing(JsonNode ring, List<LinearRing> rings) {
+        if (!ring.isArray()) {
+            return;
+        }
+        List<Coordinate> positions = new ArrayList<>();
+        for (JsonNode position : ring) {
+            Coordinate coordinate = toCoordinate(position);
+            if (coordinate != null) {
+                positions.add(coordinate);
+            }
+        }
+        if (!positions.isEmpty() && !positions.get(0).equals2D(positions.get(positions.size() - 1))) {
+            positions.add(positions.get(0).copy());
+        }
+        // A ring needs at least three distinct positions
+        if (positions.size() < 4) {
+            return;
+        }
+        rings.add(GEOMETRY_FACTORY.createLinearRing(positions.toArray(Coordinate[]::new)));
+    }
+
+    private static boolean isPosition(JsonNode node) {
+        return node.isObject() || (node.isArray() && node.size() >= 2 && node.get(0).isNumber());
+    }
+
+    private static Coordinate toCoordinate(JsonNode position) {
+        if (position.isObject()) {
+            JsonNode latitude = position.get("latitude");
+            JsonNode longitude = position.get("longitude");
+            if (latitude == null || longitude == null || !latitude.isNumber() || !longitude.isNumber()) {
+                return null;
+            }
+            return new Coordinate(longitude.asDouble(), latitude.asDouble());
+        }
+        if (position.isArray() && position.size() >= 2 && position.get(0).isNumber() && position.get(1).isNumber()) {
+            return new Coordinate(position.get(0).asDouble(), position.get(1).asDouble());
+        }
+        return null;
+    }
+}
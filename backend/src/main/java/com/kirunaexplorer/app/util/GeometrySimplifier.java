@@ -0,0 +1,161 @@
+package com.kirunaexplorer.app.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kirunaexplorer.app.constants.GeometryType;
+import com.kirunaexplorer.app.model.AreaSimplification;
+import com.kirunaexplorer.app.model.Geometry;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputes simplified versions of the geometry of an area, one for each level of detail.
+ * Simplification is Douglas-Peucker preserving the topology, so rings never self intersect
+ * and holes stay inside their shell. The simplified coordinates are written in the same format
+ * the client used for the original geometry.
+ */
+public final class GeometrySimplifier {
+    // Zoom levels a simplified version is stored for, the tolerance is one screen pixel at that zoom
+    public static final int[] LEVEL_ZOOMS = {5, 8, 11, 14};
+
+    // Size of a map tile in pixels, used to convert pixels to degrees
+    private static final int TILE_SIZE = 256;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private GeometrySimplifier() {
+    }
+
+    /**
+     * Get the tolerance matching a zoom level, the size of a screen pixel in degrees
+     *
+     * @param zoom Map zoom level
+     * @return tolerance in degrees
+     */
+    public static double toleranceForZoom(int zoom) {
+        return 360.0 / (TILE_SIZE * Math.pow(2, zoom));
+    }
+
+    /**
+     * Simplify a geometry for every level of detail
+     *
+     * @param geometry Geometry of an area
+     * @return List of AreaSimplification, coarsest first, empty if the geometry has no valid polygon
+     */
+    public static List<AreaSimplification> simplify(Geometry geometry) {
+        MultiPolygon full = geometry != null ? geometry.toMultiPolygon() : null;
+        if (full == null) {
+            return List.of();
+        }
+        Format format = Format.of(geometry);
+
+        List<AreaSimplification> simplifications = new ArrayList<>();
+        for (int zoom : LEVEL_ZOOMS) {
+            double tolerance = toleranceForZoom(zoom);
+            org.locationtech.jts.geom.Geometry simplified = TopologyPreservingSimplifier.simplify(full, tolerance);
+            List<Polygon> polygons = new ArrayList<>();
+            for (int i = 0; i < simplified.getNumGeometries(); i++) {
+                if (simplified.getGeometryN(i) instanceof Polygon polygon && !polygon.isEmpty()) {
+                    polygons.add(polygon);
+                }
+            }
+            if (polygons.isEmpty()) {
+                continue;
+            }
+
+            GeometryType type = polygons.size() == 1 && geometry.getType() == GeometryType.POLYGON
+                ? GeometryType.POLYGON
+                : GeometryType.MULTIPOLYGON;
+            simplifications.add(new AreaSimplification(tolerance, type, format.write(type, polygons), simplified.getNumPoints()));
+        }
+        return simplifications;
+    }
+
+    /**
+     * Coordinates format used by the client for the original geometry
+     *
+     * @param objectPositions Whether positions are {latitude, longitude} objects instead of [longitude, latitude] arrays
+     * @param singleRing      Whether polygons without holes are written as a single ring instead of a list of rings
+     */
+    private record Format(boolean objectPositions, boolean singleRing) {
+
+        private static Format of(Geometry geometry) {
+            JsonNode coordinates;
+            try {
+                coordinates = MAPPER.readTree(geometry.getCoordinates());
+            } catch (JsonProcessingException e) {
+                return new Format(true, true);
+            }
+            JsonNode polygon = geometry.getType() == GeometryType.MULTIPOLYGON ? coordinates.path(0) : coordinates;
+            JsonNode first = polygon.path(0);
+            boolean singleRing = isPosition(first);
+            JsonNode position = singleRing ? first : first.path(0);
+            return new Format(!position.isArray(), singleRing);
+        }
+
+        private static boolean isPosition(JsonNode node) {
+            return node.isObject() || (node.isArray() && node.path(0).isNumber());
+        }
+
+        private String write(GeometryType type, List<Polygon> polygons) {
+            StringWriter writer = new StringWriter();
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+                if (type == GeometryType.POLYGON) {
+                    writePolygon(generator, polygons.get(0));
+                } else {
+                    generator.writeStartArray();
+                    for (Polygon polygon : polygons) {
+                        writePolygon(generator, polygon);
+                    }
+                    generator.writeEndArray();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return writer.toString();
+        }
+
+        private void writePolygon(JsonGenerator generator, Polygon polygon) throws IOException {
+            if (singleRing && polygon.getNumInteriorRing() == 0) {
+                writeRing(generator, polygon.getExteriorRing());
+                return;
+            }
+            generator.writeStartArray();
+            writeRing(generator, polygon.getExteriorRing());
+            for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+                writeRing(generator, polygon.getInteriorRingN(i));
+            }
+            generator.writeEndArray();
+        }
+
+        private void writeRing(JsonGenerator generator, LineString ring) throws IOException {
+            generator.writeStartArray();
+            for (Coordinate coordinate : ring.getCoordinates()) {
+                if (objectPositions) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("latitude", coordinate.getY());
+                    generator.writeNumberField("longitude", coordinate.getX());
+                    generator.writeEndObject();
+                } else {
+                    generator.writeStartArray();
+                    generator.writeNumber(coordinate.getX());
+                    generator.writeNumber(coordinate.getY());
+                    generator.writeEndArray();
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+}
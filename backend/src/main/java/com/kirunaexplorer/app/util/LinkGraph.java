@@ -0,0 +1,259 @@
+package com.kirunaexplorer.app.util;
+
+import com.kirunaexplorer.app.constants.DocumentLinkType;
+
+import java.util.*;
+
+/**
+ * Immutable, undirected graph of the links between documents, in compressed sparse row form.
+ * Documents with at least one link are numbered by ascending id; the links of the document at index i
+ * are the entries offsets[i] to offsets[i + 1] of targets, with their type in types. A pair of documents
+ * linked with several types has one entry for each type. Traversals only touch primitive arrays.
+ */
+public final class LinkGraph {
+    private static final LinkGraph EMPTY = new LinkGraph(new long[0], new int[]{0}, new int[0], new byte[0]);
+    private static final DocumentLinkType[] LINK_TYPES = DocumentLinkType.values();
+    // Mask matching every link type
+    public static final int ALL_TYPES = (1 << LINK_TYPES.length) - 1;
+
+    private final long[] documentIds;
+    private final int[] offsets;
+    private final int[] targets;
+    private final byte[] types;
+
+    /**
+     * Link between two documents
+     */
+    public record Edge(long documentId, long linkedDocumentId, DocumentLinkType type) {
+    }
+
+    /**
+     * Document reached by a path and the type of the link leading to it, null for the first document
+     */
+    public record Step(long documentId, DocumentLinkType linkType) {
+    }
+
+    private LinkGraph(long[] documentIds, int[] offsets, int[] targets, byte[] types) {
+        this.documentIds = documentIds;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.types = types;
+    }
+
+    public static LinkGraph empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build the graph of some links
+     *
+     * @param edges Links, in any order and direction
+     * @return LinkGraph
+     */
+    public static LinkGraph of(Collection<Edge> edges) {
+        long[] ids = edges.stream()
+            .flatMapToLong(edge -> Arrays.stream(new long[]{edge.documentId(), edge.linkedDocumentId()}))
+            .sorted()
+            .distinct()
+            .toArray();
+
+        // Count the links of each document, then place them with a cursor per document
+        int[] offsets = new int[ids.length + 1];
+        int[] froms = new int[edges.size()];
+        int[] tos = new int[edges.size()];
+        int e = 0;
+        for (Edge edge : edges) {
+            froms[e] = Arrays.binarySearch(ids, edge.documentId());
+            tos[e] = Arrays.binarySearch(ids, edge.linkedDocumentId());
+            offsets[froms[e] + 1]++;
+            offsets[tos[e] + 1]++;
+            e++;
+        }
+        for (int i = 0; i < ids.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        int[] targets = new int[offsets[ids.length]];
+        byte[] types = new byte[targets.length];
+        int[] next = Arrays.copyOf(offsets, ids.length);
+        e = 0;
+        for (Edge edge : edges) {
+            int from = froms[e];
+            int to = tos[e++];
+            byte type = (byte) edge.type().ordinal();
+            targets[next[from]] = to;
+            types[next[from]++] = type;
+            targets[next[to]] = from;
+            types[next[to]++] = type;
+        }
+        return new LinkGraph(ids, offsets, targets, types);
+    }
+
+    /**
+     * Mask matching some link types
+     *
+     * @param linkTypes Link types, null or empty for every type
+     * @return mask
+     */
+    public static int mask(Collection<DocumentLinkType> linkTypes) {
+        if (linkTypes == null || linkTypes.isEmpty()) {
+            return ALL_TYPES;
+        }
+        int mask = 0;
+        for (DocumentLinkType linkType : linkTypes) {
+            mask |= 1 << linkType.ordinal();
+        }
+        return mask;
+    }
+
+    /**
+     * Number of documents with at least one link
+     */
+    public int size() {
+        return documentIds.length;
+    }
+
+    /**
+     * Find the documents within a number of links from a document, breadth first
+     *
+     * @param documentId Document id
+     * @param maxDepth   Maximum number of links between the document and the ones found
+     * @param typeMask   Link types to follow
+     * @return Distance of each document found by id, closest first, without the document itself
+     */
+    public LinkedHashMap<Long, Integer> neighbourhood(long documentId, int maxDepth, int typeMask) {
+        LinkedHashMap<Long, Integer> distances = new LinkedHashMap<>();
+        int start = Arrays.binarySearch(documentIds, documentId);
+        if (start < 0 || maxDepth <= 0) {
+            return distances;
+        }
+
+        int[] distance = new int[documentIds.length];
+        Arrays.fill(distance, -1);
+        int[] queue = new int[documentIds.length];
+        int head = 0;
+        int tail = 0;
+        distance[start] = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int node = queue[head++];
+            if (distance[node] == maxDepth) {
+                continue;
+            }
+            for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                int target = targets[i];
+                if (distance[target] < 0 && matches(i, typeMask)) {
+                    distance[target] = distance[node] + 1;
+                    queue[tail++] = target;
+                    distances.put(documentIds[target], distance[target]);
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Find a path with the fewest links between two documents
+     *
+     * @param fromId   Id of the first document
+     * @param toId     Id of the last document
+     * @param typeMask Link types to follow
+     * @return Steps from the first document to the last one, empty if they are not connected
+     */
+    public List<Step> shortestPath(long fromId, long toId, int typeMask) {
+        if (fromId == toId) {
+            return List.of(new Step(fromId, null));
+        }
+        int from = Arrays.binarySearch(documentIds, fromId);
+        int to = Arrays.binarySearch(documentIds, toId);
+        if (from < 0 || to < 0) {
+            return List.of();
+        }
+
+        // Entry of the link each document was reached through
+        int[] parentEntry = new int[documentIds.length];
+        Arrays.fill(parentEntry, -1);
+        int[] parent = new int[documentIds.length];
+        int[] queue = new int[documentIds.length];
+        int head = 0;
+        int tail = 0;
+        boolean[] seen = new boolean[documentIds.length];
+        seen[from] = true;
+        queue[tail++] = from;
+        while (head < tail && !seen[to]) {
+            int node = queue[head++];
+            for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                int target = targets[i];
+                if (!seen[target] && matches(i, typeMask)) {
+                    seen[target] = true;
+                    parent[target] = node;
+                    parentEntry[target] = i;
+                    queue[tail++] = target;
+                }
+            }
+        }
+        if (!seen[to]) {
+            return List.of();
+        }
+
+        LinkedList<Step> path = new LinkedList<>();
+        for (int node = to; node != from; node = parent[node]) {
+            path.addFirst(new Step(documentIds[node], LINK_TYPES[types[parentEntry[node]]]));
+        }
+        path.addFirst(new Step(fromId, null));
+        return List.copyOf(path);
+    }
+
+    /**
+     * Find the connected components, documents without links of the given types are left out
+     *
+     * @param typeMask Link types to follow
+     * @return Document ids of each component in ascending order, largest component first
+     */
+    public List<List<Long>> components(int typeMask) {
+        int[] component = new int[documentIds.length];
+        Arrays.fill(component, -1);
+        int[] queue = new int[documentIds.length];
+        List<List<Long>> components = new ArrayList<>();
+        for (int start = 0; start < documentIds.length; start++) {
+            if (component[start] >= 0 || !hasLink(start, typeMask)) {
+                continue;
+            }
+            int head = 0;
+            int tail = 0;
+            component[start] = components.size();
+            queue[tail++] = start;
+            while (head < tail) {
+                int node = queue[head++];
+                for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                    if (component[targets[i]] < 0 && matches(i, typeMask)) {
+                        component[targets[i]] = components.size();
+                        queue[tail++] = targets[i];
+                    }
+                }
+            }
+            Arrays.sort(queue, 0, tail);
+            List<Long> ids = new ArrayList<>(tail);
+            for (int i = 0; i < tail; i++) {
+                ids.add(documentIds[queue[i]]);
+            }
+            components.add(ids);
+        }
+        components.sort(Comparator.comparingInt((List<Long> ids) -> ids.size()).reversed()
+            .thenComparing(ids -> ids.get(0)));
+        return components;
+    }
+
+    private boolean matches(int entry, int typeMask) {
+        return (typeMask & (1 << types[entry])) != 0;
+    }
+
+    private boolean hasLink(int node, int typeMask) {
+        for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+            if (matches(i, typeMask)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
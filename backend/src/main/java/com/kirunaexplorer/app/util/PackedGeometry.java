@@ -0,0 +1,266 @@
+package com.kirunaexplorer.app.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.kirunaexplorer.app.constants.GeometryType;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Geometry of an area parsed once into a compact form, serialized as {"type": ..., "coordinates": ...}.
+ * The coordinates are packed in a double array and the nesting of the arrays in a byte array, and are
+ * written straight to the generator without building a JsonNode tree. Integer coordinates are flagged
+ * and written back as integers, so the output matches the stored JSON read as a tree.
+ * Coordinates that are not made only of arrays and positions are kept as they are and written raw.
+ */
+public final class PackedGeometry implements JsonSerializable {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final byte START_ARRAY = 0;
+    private static final byte END_ARRAY = 1;
+    // {"latitude": ..., "longitude": ...}
+    private static final byte OBJECT_POSITION = 2;
+    // [longitude, latitude]
+    private static final byte ARRAY_POSITION = 3;
+
+    private final String type;
+    private final byte[] structure;
+    private final double[] values;
+    // Indexes of the values written as integers in the stored JSON
+    private final BitSet integers;
+    private final String raw;
+
+    private PackedGeometry(String type, byte[] structure, double[] values, BitSet integers, String raw) {
+        this.type = type;
+        this.structure = structure;
+        this.values = values;
+        this.integers = integers;
+        this.raw = raw;
+    }
+
+    /**
+     * Parse the coordinates of a geometry
+     *
+     * @param type        Geometry type
+     * @param coordinates Coordinates as a JSON string
+     * @return PackedGeometry
+     */
+    public static PackedGeometry parse(GeometryType type, String coordinates) {
+        String typeName = type != null ? type.name() : null;
+        if (coordinates == null) {
+            return new PackedGeometry(typeName, null, null, null, null);
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(coordinates)) {
+            Packer packer = new Packer();
+            if (packer.pack(parser) && parser.nextToken() == null) {
+                return new PackedGeometry(typeName, packer.structure(), packer.values(), packer.integers, null);
+            }
+        } catch (IOException e) {
+            // Not valid JSON, written as it is
+        }
+        return new PackedGeometry(typeName, null, null, null, coordinates);
+    }
+
+    /**
+     * Get the number of positions
+     *
+     * @return number of positions, 0 if the coordinates are kept raw
+     */
+    public int size() {
+        return values != null ? values.length / 2 : 0;
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", type);
+        generator.writeFieldName("coordinates");
+        writeCoordinates(generator);
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSerializer) throws IOException {
+        WritableTypeId typeId = typeSerializer.writeTypePrefix(generator, typeSerializer.typeId(this, JsonToken.START_OBJECT));
+        generator.writeStringField("type", type);
+        generator.writeFieldName("coordinates");
+        writeCoordinates(generator);
+        typeSerializer.writeTypeSuffix(generator, typeId);
+    }
+
+    private void writeCoordinates(JsonGenerator generator) throws IOException {
+        if (raw != null) {
+            generator.writeRawValue(raw);
+            return;
+        }
+        if (structure == null) {
+            generator.writeNull();
+            return;
+        }
+        int value = 0;
+        for (byte token : structure) {
+            switch (token) {
+                case START_ARRAY -> generator.writeStartArray();
+                case END_ARRAY -> generator.writeEndArray();
+                case OBJECT_POSITION -> {
+                    generator.writeStartObject();
+                    generator.writeFieldName("latitude");
+                    writeValue(generator, value);
+                    generator.writeFieldName("longitude");
+                    writeValue(generator, value + 1);
+                    generator.writeEndObject();
+                    value += 2;
+                }
+                default -> {
+                    generator.writeStartArray();
+                    writeValue(generator, value);
+                    writeValue(generator, value + 1);
+                    generator.writeEndArray();
+                    value += 2;
+                }
+            }
+        }
+    }
+
+    private void writeValue(JsonGenerator generator, int index) throws IOException {
+        if (integers.get(index)) {
+            generator.writeNumber((int) values[index]);
+        } else {
+            generator.writeNumber(values[index]);
+        }
+    }
+
+    /**
+     * Growable buffers filled while reading the coordinates
+     */
+    private static final class Packer {
+        private byte[] structure = new byte[64];
+        private int structureSize;
+        private double[] values = new double[128];
+        private int valuesSize;
+        private final BitSet integers = new BitSet();
+
+        /**
+         * Pack the coordinates read by the parser
+         *
+         * @return false if the coordinates are not an array of arrays and positions
+         */
+        private boolean pack(JsonParser parser) throws IOException {
+            return parser.nextToken() == JsonToken.START_ARRAY && packArray(parser);
+        }
+
+        /**
+         * Pack an array, with its opening bracket already read.
+         * An array of two numbers is a position, any other array holds arrays or position objects.
+         */
+        private boolean packArray(JsonParser parser) throws IOException {
+            JsonToken token = parser.nextToken();
+            if (isNumber(token, parser)) {
+                double first = parser.getDoubleValue();
+                boolean firstInteger = token == JsonToken.VALUE_NUMBER_INT;
+                token = parser.nextToken();
+                if (!isNumber(token, parser)) {
+                    return false;
+                }
+                double second = parser.getDoubleValue();
+                boolean secondInteger = token == JsonToken.VALUE_NUMBER_INT;
+                if (parser.nextToken() != JsonToken.END_ARRAY) {
+                    return false;
+                }
+                addPosition(ARRAY_POSITION, first, firstInteger, second, secondInteger);
+                return true;
+            }
+
+            addToken(START_ARRAY);
+            while (token != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    return false;
+                }
+                boolean packed = switch (token) {
+                    case START_ARRAY -> packArray(parser);
+                    case START_OBJECT -> packObjectPosition(parser);
+                    default -> false;
+                };
+                if (!packed) {
+                    return false;
+                }
+                token = parser.nextToken();
+            }
+            addToken(END_ARRAY);
+            return true;
+        }
+
+        /**
+         * Pack a {"latitude": ..., "longitude": ...} object, with the opening brace already read
+         */
+        private boolean packObjectPosition(JsonParser parser) throws IOException {
+            Double latitude = null;
+            Double longitude = null;
+            boolean latitudeInteger = false;
+            boolean longitudeInteger = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (!isNumber(token, parser)) {
+                    return false;
+                }
+                if ("latitude".equals(field) && latitude == null) {
+                    latitude = parser.getDoubleValue();
+                    latitudeInteger = token == JsonToken.VALUE_NUMBER_INT;
+                } else if ("longitude".equals(field) && longitude == null) {
+                    longitude = parser.getDoubleValue();
+                    longitudeInteger = token == JsonToken.VALUE_NUMBER_INT;
+                } else {
+                    return false;
+                }
+            }
+            if (latitude == null || longitude == null) {
+                return false;
+            }
+            addPosition(OBJECT_POSITION, latitude, latitudeInteger, longitude, longitudeInteger);
+            return true;
+        }
+
+        /**
+         * Check a token is a number that fits a double, integers beyond the int range are left raw
+         */
+        private static boolean isNumber(JsonToken token, JsonParser parser) throws IOException {
+            return token == JsonToken.VALUE_NUMBER_FLOAT
+                || token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == JsonParser.NumberType.INT;
+        }
+
+        private void addToken(byte token) {
+            if (structureSize == structure.length) {
+                structure = Arrays.copyOf(structure, structureSize * 2);
+            }
+            structure[structureSize++] = token;
+        }
+
+        private void addPosition(byte token, double first, boolean firstInteger, double second, boolean secondInteger) {
+            addToken(token);
+            if (valuesSize + 2 > values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            integers.set(valuesSize, firstInteger);
+            values[valuesSize++] = first;
+            integers.set(valuesSize, secondInteger);
+            values[valuesSize++] = second;
+        }
+
+        private byte[] structure() {
+            return Arrays.copyOf(structure, structureSize);
+        }
+
+        private double[] values() {
+            return Arrays.copyOf(values, valuesSize);
+        }
+    }
+}
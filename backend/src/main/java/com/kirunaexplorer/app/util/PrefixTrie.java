@@ -0,0 +1,177 @@
+package com.kirunaexplorer.app.util;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie over a set of names, matched case-insensitively from the start of any of their words,
+ * so "kom" suggests "Kiruna kommun". Lookups tolerate typos: a prefix of a word within a bounded
+ * edit distance of the query matches too, found by walking the trie with one Levenshtein row per node.
+ * Lookups share a read lock, names are added under the write lock.
+ */
+public final class PrefixTrie {
+    private final Node root = new Node();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        // Names with a word ending at this node
+        private final Set<String> names = new HashSet<>();
+    }
+
+    /**
+     * Match of a name, ordered by edit distance, then by whether the query starts the name, then by name
+     */
+    private record Match(String name, int distance, boolean startsName) implements Comparable<Match> {
+        @Override
+        public int compareTo(Match other) {
+            if (distance != other.distance) {
+                return Integer.compare(distance, other.distance);
+            }
+            if (startsName != other.startsName) {
+                return startsName ? -1 : 1;
+            }
+            return String.CASE_INSENSITIVE_ORDER.compare(name, other.name);
+        }
+    }
+
+    /**
+     * Add a name, indexed by each of its words and by the whole name
+     *
+     * @param name Name
+     */
+    public void add(String name) {
+        addAll(Collections.singletonList(name));
+    }
+
+    /**
+     * Add some names
+     *
+     * @param names Names
+     */
+    public void addAll(Collection<String> names) {
+        lock.writeLock().lock();
+        try {
+            for (String name : names) {
+                if (name == null || name.isBlank()) {
+                    continue;
+                }
+                String normalized = normalize(name);
+                insert(normalized, name);
+                for (int i = 1; i < normalized.length(); i++) {
+                    if (normalized.charAt(i - 1) == ' ') {
+                        insert(normalized.substring(i), name);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the names with a word starting with the query, or with a prefix of a word within the edit distance
+     *
+     * @param query       Query typed so far
+     * @param maxDistance Maximum number of edits between the query and a prefix of a word
+     * @param limit       Maximum number of names
+     * @return List of names, closest first
+     */
+    public List<String> suggest(String query, int maxDistance, int limit) {
+        String normalized = query != null ? normalize(query) : "";
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<String, Match> matches = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            search(normalized, maxDistance, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return matches.values().stream()
+            .sorted()
+            .limit(limit)
+            .map(Match::name)
+            .toList();
+    }
+
+    private void search(String normalized, int maxDistance, Map<String, Match> matches) {
+        int[] firstRow = new int[normalized.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        if (firstRow[normalized.length()] <= maxDistance) {
+            collect(root, firstRow[normalized.length()], normalized, matches);
+        } else {
+            for (Map.Entry<Character, Node> child : root.children.entrySet()) {
+                walk(child.getValue(), child.getKey(), normalized, firstRow, Integer.MAX_VALUE, maxDistance, matches);
+            }
+        }
+    }
+
+    /**
+     * Walk down from a node, computing the edit distance between the query and the prefix ending at each node.
+     * A name matches with the smallest distance of the prefixes on its path. Once no longer prefix can get
+     * closer to the query the subtree is collected as it is, or pruned if no prefix on the path matched.
+     */
+    private static void walk(Node node, char letter, String query, int[] previousRow, int best, int maxDistance, Map<String, Match> matches) {
+        int[] row = new int[previousRow.length];
+        row[0] = previousRow[0] + 1;
+        int rowMin = row[0];
+        for (int i = 1; i < row.length; i++) {
+            int substitution = previousRow[i - 1] + (query.charAt(i - 1) == letter ? 0 : 1);
+            row[i] = Math.min(substitution, Math.min(row[i - 1] + 1, previousRow[i] + 1));
+            rowMin = Math.min(rowMin, row[i]);
+        }
+
+        int distance = Math.min(best, row[row.length - 1]);
+        if (rowMin > maxDistance || rowMin >= distance) {
+            if (distance <= maxDistance) {
+                collect(node, distance, query, matches);
+            }
+            return;
+        }
+        if (distance <= maxDistance) {
+            addMatches(node, distance, query, matches);
+        }
+        for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+            walk(child.getValue(), child.getKey(), query, row, distance, maxDistance, matches);
+        }
+    }
+
+    /**
+     * Collect every name below a node, keeping the best match of each name
+     */
+    private static void collect(Node node, int distance, String query, Map<String, Match> matches) {
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            Node current = stack.pop();
+            addMatches(current, distance, query, matches);
+            current.children.values().forEach(stack::push);
+        }
+    }
+
+    private static void addMatches(Node node, int distance, String query, Map<String, Match> matches) {
+        for (String name : node.names) {
+            Match match = new Match(name, distance, normalize(name).startsWith(query));
+            matches.merge(name, match, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+        }
+    }
+
+    private void insert(String key, String name) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+        }
+        node.names.add(name);
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,5 @@
+-- Runs before Hibernate updates the schema, the geometry columns need PostGIS.
+-- The postgis/postgis image already enables it in the default database.
+CREATE EXTENSION IF NOT EXISTS postgis;
+-- Trigram index for the title suggestions, shipped with the standard contrib modules.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,18 @@
+-- Runs after Hibernate updates the schema, every statement must be idempotent.
+-- A link is stored once with document_id < linked_document_id and lineage queries follow it
+-- from either end, so each end leads an index, with the type to filter without reading the rows.
+-- The first one is unique, so a link is stored once whatever the number of concurrent writers;
+-- duplicates stored before it existed are removed first, keeping the oldest, and links stored the
+-- other way round are turned, unless the same link is also stored in order.
+DELETE FROM document_link a
+USING document_link b
+WHERE a.document_id = b.document_id AND a.linked_document_id = b.linked_document_id AND a.type = b.type AND a.id > b.id;
+DELETE FROM document_link a
+USING document_link b
+WHERE a.document_id > a.linked_document_id
+  AND b.document_id = a.linked_document_id AND b.linked_document_id = a.document_id AND b.type = a.type;
+UPDATE document_link SET document_id = linked_document_id, linked_document_id = document_id
+WHERE document_id > linked_document_id;
+DROP INDEX IF EXISTS idx_document_link_document;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_document_link ON document_link (document_id, linked_document_id, type);
+CREATE INDEX IF NOT EXISTS idx_document_link_linked_document ON document_link (linked_document_id, document_id, type);
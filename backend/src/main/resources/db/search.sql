@@ -0,0 +1,36 @@
+-- Runs after Hibernate updates the schema, every statement must be idempotent.
+
+-- Title and description stemmed in Swedish and English, plus the words as they are for names and codes.
+-- Title matches weigh more than description matches in the ranking.
+ALTER TABLE document ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('swedish', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'B') ||
+    setweight(to_tsvector('swedish', coalesce(description, '')), 'B') ||
+    setweight(to_tsvector('english', coalesce(description, '')), 'B')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_document_search_vector ON document USING GIN (search_vector);
+
+-- Query matching the documents containing every word of a keyword, or a word starting with it,
+-- in any of the configurations of the search vector. NULL if the keyword has no word.
+-- Words are split on anything that is not a letter or a digit, so the keyword cannot inject tsquery operators.
+CREATE OR REPLACE FUNCTION document_search_query(keyword text) RETURNS tsquery
+LANGUAGE sql STABLE AS $$
+    SELECT CAST(string_agg(
+        '(' || concat_ws(' | ',
+            NULLIF(CAST(to_tsquery('simple', term || ':*') AS text), ''),
+            NULLIF(CAST(to_tsquery('swedish', term || ':*') AS text), ''),
+            NULLIF(CAST(to_tsquery('english', term || ':*') AS text), '')
+        ) || ')',
+        ' & ') AS tsquery)
+    FROM regexp_split_to_table(keyword, '[^[:alnum:]]+') AS term
+    WHERE term <> ''
+$$;
+
+-- Trigram index for the title suggestions, serving both substring and fuzzy word matches.
+CREATE INDEX IF NOT EXISTS idx_document_title_trgm ON document USING GIN (lower(title) gin_trgm_ops);
+
+-- Keyset pagination of the document list, latest first.
+CREATE INDEX IF NOT EXISTS idx_document_created_at_id ON document (created_at, id);
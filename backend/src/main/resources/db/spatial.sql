@@ -0,0 +1,8 @@
+-- Runs after Hibernate updates the schema, every statement must be idempotent.
+CREATE INDEX IF NOT EXISTS idx_area_geom ON area USING GIST (geom);
+CREATE INDEX IF NOT EXISTS idx_point_coordinates_geom ON point_coordinates USING GIST (geom);
+
+-- Points stored before the geometry column existed
+UPDATE point_coordinates
+SET geom = ST_SetSRID(ST_MakePoint(longitude, latitude), 4326)
+WHERE geom IS NULL AND latitude IS NOT NULL AND longitude IS NOT NULL;
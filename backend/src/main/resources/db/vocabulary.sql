@@ -0,0 +1,7 @@
+-- Runs after Hibernate updates the schema, every statement must be idempotent.
+-- Scales are added with INSERT ... ON CONFLICT on the unique index, so concurrent writers store one row;
+-- duplicates stored before it existed are removed first, keeping the oldest.
+DELETE FROM document_scale a
+USING document_scale b
+WHERE a.scale = b.scale AND a.id > b.id;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_document_scale ON document_scale (scale);
@@ -34,7 +34,7 @@ public class DocumentLinkControllerTest {
     void testLinkDocuments() {
         Long documentId = 1L;
         LinkDocumentsRequestDTO request = new LinkDocumentsRequestDTO(DocumentLinkType.DIRECT_CONSEQUENCE, null, 2L);
-        LinkDocumentsResponseDTO responseDTO = new LinkDocumentsResponseDTO(100L);
+        LinkDocumentsResponseDTO responseDTO = new LinkDocumentsResponseDTO(100L, true);
 
         // Mock del servizio
         when(documentLinkService.linkDocuments(eq(documentId), eq(request))).thenReturn(responseDTO);
@@ -56,6 +56,23 @@ public class DocumentLinkControllerTest {
         RequestContextHolder.resetRequestAttributes();
     }
 
+    @Test
+    void testLinkDocuments_existingLink() {
+        LinkDocumentsRequestDTO request = new LinkDocumentsRequestDTO(DocumentLinkType.DIRECT_CONSEQUENCE, null, 2L);
+        when(documentLinkService.linkDocuments(1L, request)).thenReturn(new LinkDocumentsResponseDTO(100L, false));
+
+        MockHttpServletRequest mockRequest = new MockHttpServletRequest();
+        mockRequest.setRequestURI("/api/v1/documents/1/links");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(mockRequest));
+
+        ResponseEntity<Void> response = controller.linkDocuments(1L, request);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("/api/v1/documents/1/links/100", response.getHeaders().getLocation().getPath());
+
+        RequestContextHolder.resetRequestAttributes();
+    }
+
 
     @Test
     void testUpdateLink() {
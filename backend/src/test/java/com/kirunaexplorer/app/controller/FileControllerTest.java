@@ -3,24 +3,42 @@ package com.kirunaexplorer.app.controller;
 import com.kirunaexplorer.app.dto.request.FileUploadRequestDTO;
 import com.kirunaexplorer.app.dto.response.FileSnippetResponseDTO;
 import com.kirunaexplorer.app.service.FileService;
+import com.kirunaexplorer.app.storage.FileContent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 public class FileControllerTest {
+    private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
 
     @Mock
     private FileService fileService;
@@ -28,9 +46,12 @@ public class FileControllerTest {
     @InjectMocks
     private FileController fileController;
 
+    private MockMvc mockMvc;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(fileController).build();
 
         MockHttpServletRequest request = new MockHttpServletRequest();
         ServletRequestAttributes attributes = new ServletRequestAttributes(request);
@@ -56,17 +77,128 @@ public class FileControllerTest {
     @Test
     void testDownloadFile() {
         Long fileId = 1L;
-        byte[] fileContent = "file content".getBytes();
+        Resource fileContent = new ByteArrayResource("file content".getBytes());
 
-        when(fileService.getFile(fileId)).thenReturn(fileContent);
+        when(fileService.getFile(fileId)).thenReturn(new FileContent("report", "pdf", 12L, HASH, fileContent));
 
-        ResponseEntity<byte[]> response = fileController.downloadFile(fileId);
+        ResponseEntity<Resource> response = fileController.downloadFile(fileId, null, new MockHttpServletRequest(), new MockHttpServletResponse());
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(fileContent, response.getBody());
+        assertEquals(MediaType.APPLICATION_PDF, response.getHeaders().getContentType());
+        assertEquals("bytes", response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES));
+        assertEquals("\"" + HASH + "\"", response.getHeaders().getETag());
         verify(fileService).getFile(fileId);
     }
 
+    @Test
+    void testDownloadFileRangeWithSendfile(@TempDir Path dir) throws IOException {
+        Long fileId = 1L;
+        Path path = Files.write(dir.resolve(HASH), new byte[100 * 1024]);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(FileController.SENDFILE_SUPPORTED, Boolean.TRUE);
+
+        when(fileService.getFile(fileId)).thenReturn(new FileContent("map", "jpg", 100 * 1024L, HASH, new FileSystemResource(path)));
+
+        ResponseEntity<Resource> response = fileController.downloadFile(fileId, "bytes=1024-2047", request, new MockHttpServletResponse());
+
+        assertEquals(206, response.getStatusCodeValue());
+        assertNull(response.getBody());
+        assertEquals(1024L, response.getHeaders().getContentLength());
+        assertEquals("bytes 1024-2047/102400", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals(MediaType.IMAGE_JPEG, response.getHeaders().getContentType());
+        assertEquals(path.toAbsolutePath().toString(), request.getAttribute(FileController.SENDFILE_FILENAME));
+        assertEquals(1024L, request.getAttribute(FileController.SENDFILE_START));
+        assertEquals(2048L, request.getAttribute(FileController.SENDFILE_END));
+    }
+
+    @Test
+    void testDownloadFileRangeWithoutSendfile() {
+        Long fileId = 1L;
+        Resource fileContent = new ByteArrayResource("file content".getBytes());
+
+        when(fileService.getFile(fileId)).thenReturn(new FileContent("notes", "txt", 12L, null, fileContent));
+
+        // The resource is returned whole, Spring turns it into the requested region
+        ResponseEntity<Resource> response = fileController.downloadFile(fileId, "bytes=0-3", new MockHttpServletRequest(), new MockHttpServletResponse());
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(fileContent, response.getBody());
+        assertNull(response.getHeaders().getETag());
+    }
+
+    @Test
+    void testDownloadFileNotModifiedWithoutSendfile(@TempDir Path dir) throws Exception {
+        Path path = Files.write(dir.resolve(HASH), new byte[100 * 1024]);
+        when(fileService.getFile(1L)).thenReturn(new FileContent("map", "jpg", 100 * 1024L, HASH, new FileSystemResource(path)));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/files/1")
+                .requestAttr(FileController.SENDFILE_SUPPORTED, Boolean.TRUE)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "\""))
+            .andReturn();
+
+        assertEquals(0, result.getResponse().getContentAsByteArray().length);
+        assertSendfileNotUsed(result);
+    }
+
+    @Test
+    void testDownloadFileHeadWithoutSendfile(@TempDir Path dir) throws Exception {
+        Path path = Files.write(dir.resolve(HASH), new byte[100 * 1024]);
+        when(fileService.getFile(1L)).thenReturn(new FileContent("map", "jpg", 100 * 1024L, HASH, new FileSystemResource(path)));
+
+        MvcResult result = mockMvc.perform(head("/api/v1/files/1")
+                .requestAttr(FileController.SENDFILE_SUPPORTED, Boolean.TRUE))
+            .andExpect(status().isOk())
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 100 * 1024L))
+            .andReturn();
+
+        assertSendfileNotUsed(result);
+    }
+
+    @Test
+    void testDownloadFileSingleRangeBelowSendfileSize(@TempDir Path dir) throws Exception {
+        Path path = Files.writeString(dir.resolve(HASH), "0123456789abcdef");
+        when(fileService.getFile(1L)).thenReturn(new FileContent("notes", "txt", 16L, HASH, new FileSystemResource(path)));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/files/1")
+                .requestAttr(FileController.SENDFILE_SUPPORTED, Boolean.TRUE)
+                .header(HttpHeaders.RANGE, "bytes=2-5"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/16"))
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4L))
+            .andExpect(content().string("2345"))
+            .andReturn();
+
+        assertSendfileNotUsed(result);
+    }
+
+    @Test
+    void testDownloadFileMultipleRangesBelowSendfileSize(@TempDir Path dir) throws Exception {
+        Path path = Files.writeString(dir.resolve(HASH), "0123456789abcdef");
+        when(fileService.getFile(1L)).thenReturn(new FileContent("notes", "txt", 16L, HASH, new FileSystemResource(path)));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/files/1")
+                .header(HttpHeaders.RANGE, "bytes=0-1,10-11"))
+            .andExpect(status().isPartialContent())
+            .andReturn();
+
+        // The multipart body is not the whole file, its length must not be announced as such
+        MockHttpServletResponse response = result.getResponse();
+        assertTrue(response.getContentType().startsWith("multipart/byteranges"));
+        String contentLength = response.getHeader(HttpHeaders.CONTENT_LENGTH);
+        if (contentLength != null) {
+            assertEquals(response.getContentAsByteArray().length, Long.parseLong(contentLength));
+        }
+    }
+
+    private static void assertSendfileNotUsed(MvcResult result) {
+        assertNull(result.getRequest().getAttribute(FileController.SENDFILE_FILENAME));
+        assertNull(result.getRequest().getAttribute(FileController.SENDFILE_START));
+        assertNull(result.getRequest().getAttribute(FileController.SENDFILE_END));
+    }
+
     @Test
     void testDeleteFile() {
         Long fileId = 1L;
@@ -0,0 +1,86 @@
+package com.kirunaexplorer.app.filter;
+
+import com.kirunaexplorer.app.constants.ResourceAggregate;
+import com.kirunaexplorer.app.service.ResourceVersionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConditionalGetInterceptorTest {
+
+    private ResourceVersionService resourceVersionService;
+    private ConditionalGetInterceptor interceptor;
+    private HandlerMethod versionedHandler;
+    private HandlerMethod plainHandler;
+
+    static class StubController {
+        @ConditionalGet({ResourceAggregate.DOCUMENT, ResourceAggregate.DOCUMENT_LINK})
+        public String versioned() {
+            return "versioned";
+        }
+
+        public String plain() {
+            return "plain";
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        resourceVersionService = mock(ResourceVersionService.class);
+        when(resourceVersionService.getEpoch()).thenReturn(255L);
+        when(resourceVersionService.getVersion(ResourceAggregate.DOCUMENT)).thenReturn(3L);
+        when(resourceVersionService.getVersion(ResourceAggregate.DOCUMENT_LINK)).thenReturn(10L);
+        interceptor = new ConditionalGetInterceptor(resourceVersionService);
+
+        StubController controller = new StubController();
+        versionedHandler = new HandlerMethod(controller, StubController.class.getMethod("versioned"));
+        plainHandler = new HandlerMethod(controller, StubController.class.getMethod("plain"));
+    }
+
+    @Test
+    void preHandle_ShouldSetETagWhenNoIfNoneMatch() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/documents/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, versionedHandler));
+        assertEquals("\"ff-3-a\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void preHandle_ShouldReturnNotModifiedWhenETagMatches() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/documents/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"ff-3-a\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(request, response, versionedHandler));
+        assertEquals(304, response.getStatus());
+    }
+
+    @Test
+    void preHandle_ShouldProceedWhenVersionChanged() {
+        when(resourceVersionService.getVersion(ResourceAggregate.DOCUMENT_LINK)).thenReturn(11L);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/documents/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"ff-3-a\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, versionedHandler));
+        assertEquals("\"ff-3-b\"", response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void preHandle_ShouldIgnoreEndpointsWithoutAnnotation() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/documents");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, plainHandler));
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+        verifyNoInteractions(resourceVersionService);
+    }
+}
@@ -0,0 +1,36 @@
+package com.kirunaexplorer.app.repository;
+
+import com.kirunaexplorer.app.constants.DocumentLinkType;
+import com.kirunaexplorer.app.repository.DocumentLinkBatchRepository.NewLink;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DocumentLinkBatchRepositoryImplTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testInsertIgnoringDuplicatesReportsOnlyReturnedRows() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        NewLink first = new NewLink(1L, 2L, DocumentLinkType.UPDATE);
+        NewLink concurrent = new NewLink(1L, 3L, DocumentLinkType.UPDATE);
+        NewLink third = new NewLink(2L, 3L, DocumentLinkType.PREVISION);
+
+        // The second link was committed by another transaction, the insert skipped it and did not return it
+        when(jdbcTemplate.query(contains("RETURNING"), any(PreparedStatementSetter.class), any(RowMapper.class)))
+            .thenReturn(List.of(third, first));
+
+        boolean[] inserted = new DocumentLinkBatchRepositoryImpl(jdbcTemplate)
+            .insertIgnoringDuplicates(List.of(first, concurrent, third));
+
+        assertArrayEquals(new boolean[]{true, false, true}, inserted);
+        verify(jdbcTemplate).query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class));
+    }
+}
@@ -0,0 +1,67 @@
+package com.kirunaexplorer.app.repository;
+
+import com.kirunaexplorer.app.model.Area;
+import com.kirunaexplorer.app.model.Document;
+import com.kirunaexplorer.app.model.GeoReference;
+import com.kirunaexplorer.app.model.PointCoordinates;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import org.hibernate.annotations.BatchSize;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the fetch plan of the document lists against N+1 selects
+ */
+class DocumentRepositoryFetchTest {
+
+    @Test
+    void testJpqlListQueriesUseBriefGraph() {
+        for (Method method : DocumentRepository.class.getDeclaredMethods()) {
+            Query query = method.getAnnotation(Query.class);
+            if (method.isDefault() || !returnsDocuments(method) || (query != null && query.nativeQuery())) {
+                continue;
+            }
+            EntityGraph graph = method.getAnnotation(EntityGraph.class);
+            assertNotNull(graph, method.getName() + " lists documents without an entity graph");
+            assertEquals(Document.BRIEF_GRAPH, graph.value(), method.getName());
+        }
+    }
+
+    @Test
+    void testBriefGraphFetchesStakeholdersAndGeolocation() {
+        NamedEntityGraph graph = Document.class.getAnnotation(NamedEntityGraph.class);
+
+        assertEquals(Document.BRIEF_GRAPH, graph.name());
+        assertEquals(List.of("stakeholders", "geoReference"), Arrays.stream(graph.attributeNodes()).map(NamedAttributeNode::value).toList());
+        assertEquals(List.of("area", "pointCoordinates"), Arrays.stream(graph.subgraphs()[0].attributeNodes()).map(NamedAttributeNode::value).toList());
+    }
+
+    @Test
+    void testAssociationsAreBatchFetchedForNativeQueries() throws NoSuchFieldException {
+        assertNotNull(Document.class.getDeclaredField("stakeholders").getAnnotation(BatchSize.class));
+        for (Class<?> entity : List.of(GeoReference.class, Area.class, PointCoordinates.class)) {
+            assertNotNull(entity.getAnnotation(BatchSize.class), entity.getSimpleName() + " is not batch fetched");
+        }
+    }
+
+    private static boolean returnsDocuments(Method method) {
+        Type type = method.getGenericReturnType();
+        if (!(type instanceof ParameterizedType parameterized)) {
+            return false;
+        }
+        Class<?> raw = (Class<?>) parameterized.getRawType();
+        return (Collection.class.isAssignableFrom(raw) || raw.getSimpleName().equals("Page"))
+            && parameterized.getActualTypeArguments()[0] == Document.class;
+    }
+}
@@ -11,14 +11,20 @@ import com.kirunaexplorer.app.dto.request.AreaRequestDTO;
 import com.kirunaexplorer.app.dto.response.AreaBriefResponseDTO;
 import com.kirunaexplorer.app.dto.response.AreaResponseDTO;
 import com.kirunaexplorer.app.exception.DuplicateAreaException;
+import com.kirunaexplorer.app.exception.InvalidQueryParameterException;
 import com.kirunaexplorer.app.exception.ResourceNotFoundException;
 import com.kirunaexplorer.app.model.Area;
+import com.kirunaexplorer.app.model.AreaSimplification;
 import com.kirunaexplorer.app.model.Coordinates;
 import com.kirunaexplorer.app.model.Geometry;
 import com.kirunaexplorer.app.repository.AreaRepository;
+import com.kirunaexplorer.app.util.GeometrySimplifier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -36,7 +42,7 @@ public class AreaServiceTest {
     @BeforeEach
     void setUp() {
         areaRepository = Mockito.mock(AreaRepository.class);
-        areaService = new AreaService(areaRepository);
+        areaService = new AreaService(areaRepository, Mockito.mock(ApplicationEventPublisher.class));
         objectMapper = new ObjectMapper();
     }
 
@@ -75,16 +81,98 @@ public class AreaServiceTest {
         List<Coordinates> listCoordinates = new ArrayList<>();
         String coordinatesString = objectMapper.writeValueAsString(listCoordinates); // Convert list to JSON string
         Area area = new Area(1L, "Test Area", new Coordinates(null, null), new Geometry(GeometryType.POLYGON, coordinatesString));
-        when(areaRepository.findById(1L)).thenReturn(Optional.of(area));
+        when(areaRepository.findWithSimplificationsById(1L)).thenReturn(Optional.of(area));
 
         AreaResponseDTO response = areaService.getAreaById(1L);
         assertEquals(1L, response.id());
         assertEquals("Test Area", response.name());
     }
 
+    @Test
+    public void testGetAreaById_ServedFromCache() {
+        String coordinatesString = "[{\"latitude\": 67.0, \"longitude\": 20.0}]";
+        Area area = new Area(1L, "Test Area", new Coordinates(67.0, 20.0), new Geometry(GeometryType.POLYGON, coordinatesString));
+        when(areaRepository.findWithSimplificationsById(1L)).thenReturn(Optional.of(area));
+
+        AreaResponseDTO first = areaService.getAreaById(1L);
+        AreaResponseDTO second = areaService.getAreaById(1L);
+
+        assertSame(first, second);
+        assertEquals(1, second.geometry().size());
+        verify(areaRepository, times(1)).findWithSimplificationsById(1L);
+    }
+
+    @Test
+    public void testGetAreaById_EvictsLeastRecentlyUsed() {
+        ReflectionTestUtils.setField(areaService, "cacheSize", 2);
+        for (long id = 1; id <= 3; id++) {
+            Area area = new Area(id, "Area " + id, new Coordinates(67.0, 20.0), new Geometry(GeometryType.POLYGON, "[{\"latitude\": 67.0, \"longitude\": 20.0}]"));
+            when(areaRepository.findWithSimplificationsById(id)).thenReturn(Optional.of(area));
+        }
+
+        areaService.getAreaById(1L);
+        areaService.getAreaById(2L);
+        areaService.getAreaById(1L);
+        // Evicts area 2, the least recently used
+        areaService.getAreaById(3L);
+        areaService.getAreaById(1L);
+        areaService.getAreaById(2L);
+
+        verify(areaRepository, times(1)).findWithSimplificationsById(1L);
+        verify(areaRepository, times(2)).findWithSimplificationsById(2L);
+        verify(areaRepository, times(1)).findWithSimplificationsById(3L);
+    }
+
+    @Test
+    public void testCreateArea_StoresSimplifications() {
+        ArrayNode coordinatesArray = objectMapper.createArrayNode();
+        coordinatesArray.add(objectMapper.createArrayNode().add(20.0).add(67.0));
+        coordinatesArray.add(objectMapper.createArrayNode().add(21.0).add(67.0));
+        coordinatesArray.add(objectMapper.createArrayNode().add(21.0).add(68.0));
+        AreaRequestDTO areaRequest = new AreaRequestDTO(
+            new AreaBriefDTO(null, "Test Area", new CoordinatesDTO(67.5, 20.5)),
+            new GeometryDTO("Polygon", coordinatesArray)
+        );
+        when(areaRepository.existsAreaByName(anyString())).thenReturn(false);
+        when(areaRepository.save(any(Area.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        areaService.createArea(areaRequest);
+
+        ArgumentCaptor<Area> captor = ArgumentCaptor.forClass(Area.class);
+        verify(areaRepository).save(captor.capture());
+        List<AreaSimplification> simplifications = captor.getValue().getSimplifications();
+        assertEquals(GeometrySimplifier.LEVEL_ZOOMS.length, simplifications.size());
+        assertEquals(GeometrySimplifier.toleranceForZoom(GeometrySimplifier.LEVEL_ZOOMS[0]), simplifications.get(0).getTolerance());
+    }
+
+    @Test
+    public void testGetAreaById_ReturnsLevelForZoom() {
+        String full = "[{\"latitude\": 67.0, \"longitude\": 20.0}, {\"latitude\": 67.0, \"longitude\": 21.0}, {\"latitude\": 68.0, \"longitude\": 21.0}]";
+        Area area = new Area(1L, "Test Area", new Coordinates(67.5, 20.5), new Geometry(GeometryType.POLYGON, full));
+        area.getSimplifications().add(new AreaSimplification(GeometrySimplifier.toleranceForZoom(5), GeometryType.POLYGON, "[[20.0, 67.0]]", 1));
+        area.getSimplifications().add(new AreaSimplification(GeometrySimplifier.toleranceForZoom(11), GeometryType.POLYGON, "[[20.0, 67.0], [21.0, 67.0]]", 2));
+        when(areaRepository.findWithSimplificationsById(1L)).thenReturn(Optional.of(area));
+
+        assertEquals(3, areaService.getAreaById(1L).geometry().size());
+        assertEquals(1, areaService.getAreaById(1L, 4, null).geometry().size());
+        assertEquals(1, areaService.getAreaById(1L, 5, null).geometry().size());
+        assertEquals(2, areaService.getAreaById(1L, 10, null).geometry().size());
+        assertEquals(2, areaService.getAreaById(1L, 11, null).geometry().size());
+        assertEquals(3, areaService.getAreaById(1L, 12, null).geometry().size());
+        assertEquals(2, areaService.getAreaById(1L, null, 0.001).geometry().size());
+        assertEquals(3, areaService.getAreaById(1L, null, 0.0).geometry().size());
+        verify(areaRepository, times(1)).findWithSimplificationsById(1L);
+    }
+
+    @Test
+    public void testGetAreaById_ZoomAndToleranceRejected() {
+        assertThrows(InvalidQueryParameterException.class, () -> areaService.getAreaById(1L, 10, 0.001));
+        verifyNoInteractions(areaRepository);
+    }
+
     @Test
     public void testGetAreaById_NotFoundException() {
-        when(areaRepository.findById(1L)).thenReturn(Optional.empty());
+        when(areaRepository.findWithSimplificationsById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> areaService.getAreaById(1L));
     }
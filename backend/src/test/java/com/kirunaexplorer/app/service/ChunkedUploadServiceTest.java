@@ -0,0 +1,162 @@
+package com.kirunaexplorer.app.service;
+
+import com.kirunaexplorer.app.config.StorageProperties;
+import com.kirunaexplorer.app.dto.request.UploadCompleteRequestDTO;
+import com.kirunaexplorer.app.dto.request.UploadInitRequestDTO;
+import com.kirunaexplorer.app.dto.response.UploadSessionResponseDTO;
+import com.kirunaexplorer.app.exception.InvalidUploadException;
+import com.kirunaexplorer.app.exception.ResourceNotFoundException;
+import com.kirunaexplorer.app.repository.DocumentRepository;
+import com.kirunaexplorer.app.storage.LocalFileSystemBlobStore;
+import com.kirunaexplorer.app.storage.StoredBlob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ChunkedUploadServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private DocumentRepository documentRepository;
+    private FileService fileService;
+    private LocalFileSystemBlobStore blobStore;
+    private ChunkedUploadService chunkedUploadService;
+
+    @BeforeEach
+    void setUp() {
+        StorageProperties storageProperties = new StorageProperties();
+        storageProperties.getLocal().setRoot(dir.resolve("blobs").toString());
+        storageProperties.getUploads().setDir(dir.resolve("uploads").toString());
+        storageProperties.getUploads().setChunkSize(DataSize.ofBytes(4));
+
+        documentRepository = mock(DocumentRepository.class);
+        fileService = mock(FileService.class);
+        blobStore = new LocalFileSystemBlobStore(storageProperties);
+        chunkedUploadService = new ChunkedUploadService(documentRepository, fileService, blobStore, storageProperties);
+
+        when(documentRepository.existsById(1L)).thenReturn(true);
+        when(fileService.attachFile(eq(1L), any(), any(), any())).thenReturn(10L);
+    }
+
+    @Test
+    void uploadInChunksAttachesFile() throws IOException {
+        String content = "chunked upload";
+        UploadSessionResponseDTO upload = chunkedUploadService.initiate(1L, new UploadInitRequestDTO("report.final.pdf", (long) content.length()));
+        String uploadId = upload.uploadId();
+
+        assertEquals(4L, upload.chunkSize());
+        for (int i = 0; i * 4 < content.length(); i++) {
+            upload = chunkedUploadService.appendChunk(uploadId, i, chunk(content, i));
+        }
+        assertEquals(4, upload.nextChunk());
+        assertEquals(content.length(), upload.receivedBytes());
+
+        Long fileId = chunkedUploadService.complete(uploadId, new UploadCompleteRequestDTO(sha256(content)));
+
+        assertEquals(10L, fileId);
+        StoredBlob blob = new StoredBlob(sha256(content), content.length());
+        verify(fileService).attachFile(1L, "report.final", "pdf", blob);
+        assertEquals(content, blobStore.load(blob.hash()).getContentAsString(StandardCharsets.UTF_8));
+        assertThrows(ResourceNotFoundException.class, () -> chunkedUploadService.getUpload(uploadId));
+    }
+
+    @Test
+    void resendingReceivedChunkIsIgnored() {
+        String content = "abcdefgh";
+        String uploadId = chunkedUploadService.initiate(1L, new UploadInitRequestDTO("a.txt", 8L)).uploadId();
+
+        chunkedUploadService.appendChunk(uploadId, 0, chunk(content, 0));
+        UploadSessionResponseDTO upload = chunkedUploadService.appendChunk(uploadId, 0, chunk("zzzzzzzz", 0));
+
+        assertEquals(1, upload.nextChunk());
+        chunkedUploadService.appendChunk(uploadId, 1, chunk(content, 1));
+        assertEquals(10L, chunkedUploadService.complete(uploadId, new UploadCompleteRequestDTO(sha256(content))));
+    }
+
+    @Test
+    void chunkOutOfOrderIsRejected() {
+        String uploadId = chunkedUploadService.initiate(1L, new UploadInitRequestDTO("a.txt", 8L)).uploadId();
+
+        assertThrows(InvalidUploadException.class, () -> chunkedUploadService.appendChunk(uploadId, 1, chunk("abcdefgh", 1)));
+    }
+
+    @Test
+    void chunkWithWrongLengthIsDiscarded() throws IOException {
+        String content = "abcdefgh";
+        String uploadId = chunkedUploadService.initiate(1L, new UploadInitRequestDTO("a.txt", 8L)).uploadId();
+
+        assertThrows(InvalidUploadException.class, () -> chunkedUploadService.appendChunk(uploadId, 0, stream("abc")));
+        assertThrows(InvalidUploadException.class, () -> chunkedUploadService.appendChunk(uploadId, 0, stream("abcde")));
+        assertEquals(0L, chunkedUploadService.getUpload(uploadId).receivedBytes());
+        assertEquals(0L, Files.size(dir.resolve("uploads").resolve(uploadId + ".part")));
+
+        // The checksum only covers the chunks actually kept
+        chunkedUploadService.appendChunk(uploadId, 0, chunk(content, 0));
+        chunkedUploadService.appendChunk(uploadId, 1, chunk(content, 1));
+        assertEquals(10L, chunkedUploadService.complete(uploadId, new UploadCompleteRequestDTO(sha256(content))));
+    }
+
+    @Test
+    void checksumMismatchDiscardsUpload() {
+        String uploadId = chunkedUploadService.initiate(1L, new UploadInitRequestDTO("a.txt", 4L)).uploadId();
+        chunkedUploadService.appendChunk(uploadId, 0, stream("abcd"));
+
+        assertThrows(InvalidUploadException.class,
+            () -> chunkedUploadService.complete(uploadId, new UploadCompleteRequestDTO(sha256("dcba"))));
+
+        assertThrows(ResourceNotFoundException.class, () -> chunkedUploadService.getUpload(uploadId));
+        assertFalse(Files.exists(dir.resolve("uploads").resolve(uploadId + ".part")));
+        verify(fileService, never()).attachFile(any(), any(), any(), any());
+    }
+
+    @Test
+    void incompleteUploadCannotBeCompleted() {
+        String uploadId = chunkedUploadService.initiate(1L, new UploadInitRequestDTO("a.txt", 8L)).uploadId();
+        chunkedUploadService.appendChunk(uploadId, 0, stream("abcd"));
+
+        assertThrows(InvalidUploadException.class,
+            () -> chunkedUploadService.complete(uploadId, new UploadCompleteRequestDTO(sha256("abcd"))));
+        assertEquals(1, chunkedUploadService.getUpload(uploadId).nextChunk());
+    }
+
+    @Test
+    void initiateForMissingDocumentFails() {
+        assertThrows(ResourceNotFoundException.class,
+            () -> chunkedUploadService.initiate(2L, new UploadInitRequestDTO("a.txt", 8L)));
+    }
+
+    private static InputStream chunk(String content, int index) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return new ByteArrayInputStream(Arrays.copyOfRange(bytes, index * 4, Math.min(bytes.length, index * 4 + 4)));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(String content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.kirunaexplorer.app.service;
+
+import com.kirunaexplorer.app.constants.FilterOptionForMap;
+import com.kirunaexplorer.app.event.DocumentChangedEvent;
+import com.kirunaexplorer.app.repository.DocumentRepository;
+import com.kirunaexplorer.app.repository.DocumentRepository.DocumentAttributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DocumentAttributeIndexTest {
+
+    private DocumentRepository documentRepository;
+    private DocumentAttributeIndex documentAttributeIndex;
+
+    private record DocumentAttributesStub(Long documentId, String type, String scale, LocalDate issuanceDate, String stakeholder,
+                                          Long geoReferenceId, Long areaId, Long pointId) implements DocumentAttributes {
+        @Override
+        public Long getDocumentId() {
+            return documentId;
+        }
+
+        @Override
+        public String getType() {
+            return type;
+        }
+
+        @Override
+        public String getScale() {
+            return scale;
+        }
+
+        @Override
+        public LocalDate getIssuanceDate() {
+            return issuanceDate;
+        }
+
+        @Override
+        public String getStakeholder() {
+            return stakeholder;
+        }
+
+        @Override
+        public Long getGeoReferenceId() {
+            return geoReferenceId;
+        }
+
+        @Override
+        public Long getAreaId() {
+            return areaId;
+        }
+
+        @Override
+        public Long getPointId() {
+            return pointId;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        documentRepository = mock(DocumentRepository.class);
+        documentAttributeIndex = new DocumentAttributeIndex(documentRepository);
+
+        LocalDate date2014 = LocalDate.of(2014, 1, 1);
+        LocalDate date2020 = LocalDate.of(2020, 6, 1);
+        when(documentRepository.findAllAttributes()).thenReturn(List.of(
+            new DocumentAttributesStub(1L, "Design document", "1:1000", date2014, "LKAB", 1L, 10L, null),
+            new DocumentAttributesStub(1L, "Design document", "1:1000", date2014, "Kiruna kommun", 1L, 10L, null),
+            new DocumentAttributesStub(2L, "Design document", "blueprints/effects", date2020, "Residents", 2L, null, 20L),
+            new DocumentAttributesStub(3L, "Technical document", "1:1000", date2014, "Kiruna kommun", 3L, null, null),
+            new DocumentAttributesStub(4L, "Technical document", "1:1000", null, null, null, null, null)
+        ));
+    }
+
+    @Test
+    void findDocumentIds_ShouldBeEmptyBeforeRebuild() {
+        assertTrue(documentAttributeIndex.findDocumentIds(null, null, null, null, null).isEmpty());
+    }
+
+    @Test
+    void findDocumentIds_ShouldIntersectFilters() {
+        documentAttributeIndex.rebuild();
+
+        assertEquals(Optional.of(List.of(1L, 2L, 3L, 4L)), documentAttributeIndex.findDocumentIds(null, List.of(), null, null, FilterOptionForMap.ALL));
+        assertEquals(Optional.of(List.of(1L, 3L)), documentAttributeIndex.findDocumentIds(null, null, "1:1000", 2014, null));
+        assertEquals(Optional.of(List.of(3L)), documentAttributeIndex.findDocumentIds("Technical document", List.of("Kiruna kommun"), null, null, null));
+        assertEquals(Optional.of(List.of()), documentAttributeIndex.findDocumentIds("Unknown", null, null, null, null));
+    }
+
+    @Test
+    void findDocumentIds_ShouldMatchAnyStakeholder() {
+        documentAttributeIndex.rebuild();
+
+        assertEquals(Optional.of(List.of(1L, 2L)), documentAttributeIndex.findDocumentIds(null, List.of("LKAB", "Residents", "Unknown"), null, null, null));
+    }
+
+    @Test
+    void findDocumentIds_ShouldFilterByGeolocation() {
+        documentAttributeIndex.rebuild();
+
+        assertEquals(Optional.of(List.of(1L)), documentAttributeIndex.findDocumentIds(null, null, null, null, FilterOptionForMap.AREA_ONLY));
+        assertEquals(Optional.of(List.of(2L)), documentAttributeIndex.findDocumentIds(null, null, null, null, FilterOptionForMap.POINT_ONLY));
+        assertEquals(Optional.of(List.of(3L)), documentAttributeIndex.findDocumentIds(null, null, null, null, FilterOptionForMap.NO_GEOLOCATION));
+    }
+
+    @Test
+    void onDocumentChanged_ShouldReindexDocument() {
+        documentAttributeIndex.rebuild();
+        when(documentRepository.findAttributesByDocumentId(3L)).thenReturn(List.of(
+            new DocumentAttributesStub(3L, "Design document", "1:1000", LocalDate.of(2014, 1, 1), "LKAB", 3L, null, 30L)
+        ));
+        when(documentRepository.findAttributesByDocumentId(4L)).thenReturn(List.of());
+
+        documentAttributeIndex.onDocumentChanged(new DocumentChangedEvent(3L));
+        documentAttributeIndex.onDocumentChanged(new DocumentChangedEvent(4L));
+
+        assertEquals(Optional.of(List.of()), documentAttributeIndex.findDocumentIds("Technical document", null, null, null, null));
+        assertEquals(Optional.of(List.of(1L, 3L)), documentAttributeIndex.findDocumentIds("Design document", List.of("LKAB"), null, null, null));
+        assertEquals(Optional.of(List.of(2L, 3L)), documentAttributeIndex.findDocumentIds(null, null, null, null, FilterOptionForMap.POINT_ONLY));
+        assertEquals(Optional.of(List.of(1L, 2L, 3L)), documentAttributeIndex.findDocumentIds(null, null, null, null, null));
+    }
+
+    @Test
+    void onDocumentChanged_ShouldBeIgnoredBeforeRebuild() {
+        documentAttributeIndex.onDocumentChanged(new DocumentChangedEvent(1L));
+
+        verifyNoInteractions(documentRepository);
+    }
+}
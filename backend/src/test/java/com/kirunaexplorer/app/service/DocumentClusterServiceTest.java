@@ -0,0 +1,130 @@
+package com.kirunaexplorer.app.service;
+
+import com.kirunaexplorer.app.dto.request.BoundingBoxDTO;
+import com.kirunaexplorer.app.dto.response.DocumentClusterResponseDTO;
+import com.kirunaexplorer.app.event.DocumentChangedEvent;
+import com.kirunaexplorer.app.repository.GeoReferenceRepository;
+import com.kirunaexplorer.app.repository.GeoReferenceRepository.DocumentMarker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DocumentClusterServiceTest {
+
+    private static final BoundingBoxDTO KIRUNA = new BoundingBoxDTO(20.0, 67.7, 20.5, 68.0);
+
+    private GeoReferenceRepository geoReferenceRepository;
+    private DocumentClusterService documentClusterService;
+
+    private record DocumentMarkerStub(Long documentId, String type, Double latitude, Double longitude) implements DocumentMarker {
+        @Override
+        public Long getDocumentId() {
+            return documentId;
+        }
+
+        @Override
+        public String getType() {
+            return type;
+        }
+
+        @Override
+        public Double getLatitude() {
+            return latitude;
+        }
+
+        @Override
+        public Double getLongitude() {
+            return longitude;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        geoReferenceRepository = mock(GeoReferenceRepository.class);
+        documentClusterService = new DocumentClusterService(geoReferenceRepository);
+
+        when(geoReferenceRepository.findAllMarkers()).thenReturn(List.of(
+            new DocumentMarkerStub(1L, "Design document", 67.85, 20.22),
+            new DocumentMarkerStub(2L, "Design document", 67.85, 20.22),
+            new DocumentMarkerStub(3L, "Technical document", 67.80, 20.40),
+            new DocumentMarkerStub(4L, "Prescriptive document", -33.9, 18.4)
+        ));
+    }
+
+    @Test
+    void getClusters_ShouldMergeNearbyDocumentsAtLowZoom() {
+        List<DocumentClusterResponseDTO> clusters = documentClusterService.getClusters(KIRUNA, 5);
+
+        assertEquals(1, clusters.size());
+        DocumentClusterResponseDTO cluster = clusters.get(0);
+        assertEquals(3, cluster.count());
+        assertEquals("Design document", cluster.type());
+        assertEquals((67.85 + 67.85 + 67.80) / 3, cluster.latitude(), 1e-9);
+        assertTrue(cluster.documentIds().isEmpty());
+    }
+
+    @Test
+    void getClusters_ShouldListDocumentsAtLeafLevel() {
+        List<DocumentClusterResponseDTO> clusters = documentClusterService.getClusters(KIRUNA, 18);
+
+        // Documents sharing the same point stay together at every zoom level
+        assertEquals(2, clusters.size());
+        assertEquals(List.of(1L, 2L), clusters.get(0).documentIds());
+        assertEquals(List.of(3L), clusters.get(1).documentIds());
+    }
+
+    @Test
+    void getClusters_ShouldOnlyReturnCellsInViewport() {
+        List<DocumentClusterResponseDTO> clusters = documentClusterService.getClusters(new BoundingBoxDTO(18, -34, 19, -33), 10);
+
+        assertEquals(1, clusters.size());
+        assertEquals(List.of(4L), clusters.get(0).documentIds());
+    }
+
+    @Test
+    void getClusters_ShouldOnlyReadViewportColumnsWhenManyCellsAreOccupied() {
+        // A marker every 0.1 degree on a 10 x 10 grid, each in its own cell at zoom 10
+        List<DocumentMarker> grid = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                grid.add(new DocumentMarkerStub(i * 10L + j + 1, "Design document", 67.02 + j * 0.1, 20.02 + i * 0.1));
+            }
+        }
+        when(geoReferenceRepository.findAllMarkers()).thenReturn(grid);
+
+        List<DocumentClusterResponseDTO> clusters = documentClusterService.getClusters(new BoundingBoxDTO(20.36, 67.3, 20.46, 67.45), 10);
+
+        // Columns 20.32 and 20.42, rows 67.32 and 67.42
+        assertEquals(List.of(34L, 35L, 44L, 45L), clusters.stream().flatMap(cluster -> cluster.documentIds().stream()).sorted().toList());
+    }
+
+    @Test
+    void onDocumentChanged_ShouldMoveMarkerIncrementally() {
+        documentClusterService.getClusters(KIRUNA, 5);
+        when(geoReferenceRepository.findMarkerByDocumentId(3L))
+            .thenReturn(Optional.of(new DocumentMarkerStub(3L, "Technical document", -33.9, 18.4)));
+        when(geoReferenceRepository.findMarkerByDocumentId(4L)).thenReturn(Optional.empty());
+
+        documentClusterService.onDocumentChanged(new DocumentChangedEvent(3L));
+        documentClusterService.onDocumentChanged(new DocumentChangedEvent(4L));
+
+        assertEquals(2, documentClusterService.getClusters(KIRUNA, 5).get(0).count());
+        List<DocumentClusterResponseDTO> moved = documentClusterService.getClusters(new BoundingBoxDTO(18, -34, 19, -33), 10);
+        assertEquals(List.of(3L), moved.get(0).documentIds());
+        assertEquals("Technical document", moved.get(0).type());
+        verify(geoReferenceRepository, times(1)).findAllMarkers();
+    }
+
+    @Test
+    void onDocumentChanged_ShouldBeIgnoredBeforeLoading() {
+        documentClusterService.onDocumentChanged(new DocumentChangedEvent(1L));
+
+        verifyNoMoreInteractions(geoReferenceRepository);
+    }
+}
@@ -0,0 +1,174 @@
+package com.kirunaexplorer.app.service;
+
+import com.kirunaexplorer.app.constants.DocumentLinkType;
+import com.kirunaexplorer.app.dto.response.DocumentBriefResponseDTO;
+import com.kirunaexplorer.app.dto.response.DocumentComponentResponseDTO;
+import com.kirunaexplorer.app.dto.response.DocumentLineageResponseDTO;
+import com.kirunaexplorer.app.dto.response.DocumentNeighbourResponseDTO;
+import com.kirunaexplorer.app.dto.response.DocumentPathResponseDTO;
+import com.kirunaexplorer.app.event.DocumentLinkChangedEvent;
+import com.kirunaexplorer.app.exception.InvalidQueryParameterException;
+import com.kirunaexplorer.app.exception.ResourceNotFoundException;
+import com.kirunaexplorer.app.repository.DocumentLinkRepository;
+import com.kirunaexplorer.app.repository.DocumentLinkRepository.LinkEdge;
+import com.kirunaexplorer.app.repository.DocumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DocumentGraphServiceTest {
+
+    private DocumentRepository documentRepository;
+    private DocumentLinkRepository documentLinkRepository;
+    private DocumentSnapshotService documentSnapshotService;
+    private DocumentGraphService documentGraphService;
+
+    private record LinkEdgeStub(Long id, Long documentId, Long linkedDocumentId, DocumentLinkType type) implements LinkEdge {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getDocumentId() {
+            return documentId;
+        }
+
+        @Override
+        public Long getLinkedDocumentId() {
+            return linkedDocumentId;
+        }
+
+        @Override
+        public DocumentLinkType getType() {
+            return type;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        documentRepository = mock(DocumentRepository.class);
+        documentLinkRepository = mock(DocumentLinkRepository.class);
+        documentSnapshotService = mock(DocumentSnapshotService.class);
+        documentGraphService = new DocumentGraphService(documentRepository, documentLinkRepository, documentSnapshotService);
+
+        when(documentRepository.existsById(anyLong())).thenReturn(true);
+        when(documentLinkRepository.findAllEdges()).thenReturn(List.of(
+            new LinkEdgeStub(1L, 1L, 2L, DocumentLinkType.UPDATE),
+            new LinkEdgeStub(2L, 2L, 3L, DocumentLinkType.PREVISION)
+        ));
+        when(documentSnapshotService.getBriefDocuments(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(DocumentGraphServiceTest::brief).toList();
+        });
+        documentGraphService.rebuild();
+    }
+
+    @Test
+    void getNeighbourhood_ShouldReturnDocumentsWithDistance() {
+        List<DocumentNeighbourResponseDTO> result = documentGraphService.getNeighbourhood(1L, 2, null);
+
+        assertEquals(List.of(new DocumentNeighbourResponseDTO(brief(2L), 1), new DocumentNeighbourResponseDTO(brief(3L), 2)), result);
+    }
+
+    @Test
+    void getShortestPath_ShouldFilterLinkTypes() {
+        DocumentPathResponseDTO path = documentGraphService.getShortestPath(1L, 3L, null);
+        DocumentPathResponseDTO updatesOnly = documentGraphService.getShortestPath(1L, 3L, List.of("update"));
+
+        assertEquals(List.of(brief(1L), brief(2L), brief(3L)), path.documents());
+        assertEquals(List.of(DocumentLinkType.UPDATE, DocumentLinkType.PREVISION), path.linkTypes());
+        assertTrue(updatesOnly.documents().isEmpty());
+    }
+
+    @Test
+    void getComponent_ShouldIncludeDocumentItself() {
+        assertEquals(new DocumentComponentResponseDTO(3, List.of(1L, 2L, 3L)), documentGraphService.getComponent(2L, null));
+        assertEquals(new DocumentComponentResponseDTO(1, List.of(4L)), documentGraphService.getComponent(4L, null));
+    }
+
+    @Test
+    void onDocumentLinkChanged_ShouldRebuildGraph() {
+        when(documentLinkRepository.findAllEdges()).thenReturn(List.of(new LinkEdgeStub(3L, 4L, 5L, DocumentLinkType.UPDATE)));
+
+        documentGraphService.onDocumentLinkChanged(new DocumentLinkChangedEvent(3L));
+
+        assertEquals(List.of(new DocumentComponentResponseDTO(2, List.of(4L, 5L))), documentGraphService.getComponents(null));
+    }
+
+    @Test
+    void shouldRejectUnknownDocumentOrLinkType() {
+        when(documentRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> documentGraphService.getNeighbourhood(9L, 1, null));
+        assertThrows(InvalidQueryParameterException.class, () -> documentGraphService.getComponents(List.of("cites")));
+    }
+
+    @Test
+    void getLineage_ShouldExpandOneLevelAtATimeAndDefaultToDownstream() {
+        String[] types = {"PREVISION", "UPDATE"};
+        when(documentLinkRepository.findLineageLevel(eq(List.of(1L)), eq(Set.of(1L)), eq(types), eq("DOWNSTREAM"), eq(1))).thenReturn(List.of(
+            new LineageStepStub(2L, 1L, "UPDATE", 1),
+            new LineageStepStub(4L, 1L, "PREVISION", 1)
+        ));
+        when(documentLinkRepository.findLineageLevel(eq(List.of(2L, 4L)), eq(Set.of(1L, 2L, 4L)), eq(types), eq("DOWNSTREAM"), eq(2))).thenReturn(List.of(
+            new LineageStepStub(3L, 2L, "PREVISION", 2)
+        ));
+
+        List<DocumentLineageResponseDTO> result = documentGraphService.getLineage(1L, 5, List.of("prevision", "update"), null);
+
+        assertEquals(List.of(
+            new DocumentLineageResponseDTO(brief(2L), 1, 1L, DocumentLinkType.UPDATE),
+            new DocumentLineageResponseDTO(brief(4L), 1, 1L, DocumentLinkType.PREVISION),
+            new DocumentLineageResponseDTO(brief(3L), 2, 2L, DocumentLinkType.PREVISION)
+        ), result);
+        // The third level reaches nothing new, so the lineage stops there instead of running to depth 5
+        verify(documentLinkRepository, times(3)).findLineageLevel(anyCollection(), anyCollection(), any(String[].class), anyString(), anyInt());
+    }
+
+    @Test
+    void getLineage_ShouldFollowEveryTypeByDefault() {
+        when(documentLinkRepository.findLineageLevel(anyCollection(), anyCollection(), any(String[].class), anyString(), anyInt()))
+            .thenReturn(List.of(new LineageStepStub(2L, 1L, "UPDATE", 1)));
+
+        documentGraphService.getLineage(1L, 2, null, "both");
+
+        String[] types = {"DIRECT_CONSEQUENCE", "COLLATERAL_CONSEQUENCE", "PREVISION", "UPDATE"};
+        verify(documentLinkRepository).findLineageLevel(eq(List.of(1L)), anyCollection(), eq(types), eq("BOTH"), eq(1));
+        verify(documentLinkRepository).findLineageLevel(eq(List.of(2L)), anyCollection(), eq(types), eq("BOTH"), eq(2));
+        verify(documentLinkRepository, times(2)).findLineageLevel(anyCollection(), anyCollection(), any(String[].class), anyString(), anyInt());
+        assertThrows(InvalidQueryParameterException.class, () -> documentGraphService.getLineage(1L, 2, null, "sideways"));
+    }
+
+    private record LineageStepStub(Long documentId, Long parentId, String type, Integer depth) implements DocumentLinkRepository.LineageStep {
+        @Override
+        public Long getDocumentId() {
+            return documentId;
+        }
+
+        @Override
+        public Long getParentId() {
+            return parentId;
+        }
+
+        @Override
+        public String getType() {
+            return type;
+        }
+
+        @Override
+        public Integer getDepth() {
+            return depth;
+        }
+    }
+
+    private static DocumentBriefResponseDTO brief(Long id) {
+        return new DocumentBriefResponseDTO(id, "Document " + id, List.of(), "1:100", null, "Text", null, 0);
+    }
+}
@@ -1,26 +1,36 @@
 package com.kirunaexplorer.app.service;
 
 import com.kirunaexplorer.app.constants.DocumentLinkType;
+import com.kirunaexplorer.app.constants.LinkImportStatus;
 import com.kirunaexplorer.app.dto.request.LinkDocumentsRequestDTO;
+import com.kirunaexplorer.app.dto.request.LinkImportRequestDTO;
 import com.kirunaexplorer.app.dto.response.DocumentBriefLinksResponseDTO;
 import com.kirunaexplorer.app.dto.response.LinkDocumentsResponseDTO;
+import com.kirunaexplorer.app.dto.response.LinkImportResponseDTO;
+import com.kirunaexplorer.app.event.DocumentLinkChangedEvent;
 import com.kirunaexplorer.app.exception.ResourceNotFoundException;
 import com.kirunaexplorer.app.model.Document;
 import com.kirunaexplorer.app.model.DocumentLink;
 import com.kirunaexplorer.app.model.GeoReference;
 import com.kirunaexplorer.app.model.Stakeholder;
+import com.kirunaexplorer.app.repository.DocumentLinkBatchRepository.NewLink;
+import com.kirunaexplorer.app.repository.DocumentLinkBatchRepository.StoredLink;
 import com.kirunaexplorer.app.repository.DocumentLinkRepository;
 import com.kirunaexplorer.app.repository.DocumentRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -33,6 +43,9 @@ class DocumentLinkServiceTest {
     @Mock
     private DocumentLinkRepository documentLinkRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private DocumentLinkService documentLinkService;
 
@@ -47,24 +60,12 @@ class DocumentLinkServiceTest {
         private Long documentId;
         private Long linkedDocumentId;
         private LinkDocumentsRequestDTO request;
-        private Document document;
-        private Document linkedDocument;
-        private DocumentLink documentLink;
 
         @BeforeEach
         void setUp() {
             documentId = 1L;
             linkedDocumentId = 2L;
             request = new LinkDocumentsRequestDTO(DocumentLinkType.DIRECT_CONSEQUENCE, null, linkedDocumentId);
-
-            document = new Document();
-            document.setId(documentId);
-
-            linkedDocument = new Document();
-            linkedDocument.setId(linkedDocumentId);
-
-            documentLink = new DocumentLink();
-            documentLink.setId(1L);
         }
 
         /**
@@ -72,16 +73,32 @@ class DocumentLinkServiceTest {
          */
         @Test
         void testLinkDocuments_successful() {
-            when(documentRepository.findById(documentId)).thenReturn(Optional.of(document));
-            when(documentRepository.findById(linkedDocumentId)).thenReturn(Optional.of(linkedDocument));
-            when(documentLinkRepository.existsByDocumentAndLinkedDocumentAndType(document, linkedDocument, DocumentLinkType.DIRECT_CONSEQUENCE)).thenReturn(false);
-            when(documentLinkRepository.save(any(DocumentLink.class))).thenReturn(documentLink);
+            when(documentRepository.findExistingIds(Set.of(documentId, linkedDocumentId))).thenReturn(List.of(documentId, linkedDocumentId));
+            when(documentLinkRepository.insertOrGet(new NewLink(documentId, linkedDocumentId, DocumentLinkType.DIRECT_CONSEQUENCE)))
+                .thenReturn(new StoredLink(1L, true));
 
             LinkDocumentsResponseDTO response = documentLinkService.linkDocuments(documentId, request);
 
             assertNotNull(response, "The response should not be null");
             assertEquals(1L, response.linkId(), "The link ID should be 1");
-            verify(documentLinkRepository, times(1)).save(any(DocumentLink.class));
+            assertTrue(response.created());
+            verify(documentRepository).addConnections(Map.of(documentId, 1, linkedDocumentId, 1));
+            verify(eventPublisher).publishEvent(new DocumentLinkChangedEvent(1L));
+        }
+
+        /**
+         * Test the linkDocuments method stores the link in ascending id order
+         */
+        @Test
+        void testLinkDocuments_storedInAscendingOrder() {
+            request = new LinkDocumentsRequestDTO(DocumentLinkType.DIRECT_CONSEQUENCE, null, documentId);
+            when(documentRepository.findExistingIds(Set.of(documentId, linkedDocumentId))).thenReturn(List.of(documentId, linkedDocumentId));
+            when(documentLinkRepository.insertOrGet(new NewLink(documentId, linkedDocumentId, DocumentLinkType.DIRECT_CONSEQUENCE)))
+                .thenReturn(new StoredLink(1L, true));
+
+            LinkDocumentsResponseDTO response = documentLinkService.linkDocuments(linkedDocumentId, request);
+
+            assertEquals(1L, response.linkId());
         }
 
         /**
@@ -89,9 +106,11 @@ class DocumentLinkServiceTest {
          */
         @Test
         void testLinkDocuments_documentNotFoundFromPathVariable() {
-            when(documentRepository.findById(documentId)).thenReturn(Optional.empty());
+            when(documentRepository.findExistingIds(Set.of(documentId, linkedDocumentId))).thenReturn(List.of(linkedDocumentId));
 
-            assertThrows(ResourceNotFoundException.class, () -> documentLinkService.linkDocuments(documentId, request), "Expected ResourceNotFoundException when document is not found");
+            ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> documentLinkService.linkDocuments(documentId, request), "Expected ResourceNotFoundException when document is not found");
+            assertTrue(exception.getMessage().endsWith(" " + documentId));
+            verify(documentLinkRepository, never()).insertOrGet(any());
         }
 
         /**
@@ -99,9 +118,10 @@ class DocumentLinkServiceTest {
          */
         @Test
         void testLinkDocuments_documentNotFoundFromPayloadRequest() {
-            when(documentRepository.findById(linkedDocumentId)).thenReturn(Optional.empty());
+            when(documentRepository.findExistingIds(Set.of(documentId, linkedDocumentId))).thenReturn(List.of(documentId));
 
-            assertThrows(ResourceNotFoundException.class, () -> documentLinkService.linkDocuments(documentId, request), "Expected ResourceNotFoundException when document is not found");
+            ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> documentLinkService.linkDocuments(documentId, request), "Expected ResourceNotFoundException when document is not found");
+            assertTrue(exception.getMessage().endsWith(" " + linkedDocumentId));
         }
 
         /**
@@ -111,36 +131,41 @@ class DocumentLinkServiceTest {
         void testLinkDocuments_sameDocument() {
             request = new LinkDocumentsRequestDTO(DocumentLinkType.DIRECT_CONSEQUENCE, null, documentId);
 
-            when(documentRepository.findById(documentId)).thenReturn(Optional.of(document));
-
             IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> documentLinkService.linkDocuments(documentId, request), "Expected IllegalArgumentException when linking a document to itself");
             assertEquals("Cannot link a document to itself", exception.getMessage());
+            verifyNoInteractions(documentRepository, documentLinkRepository);
         }
 
         /**
-         * Test the linkDocuments method when the link already exists in one order
+         * Test the linkDocuments method returns the existing link when the same link is already stored
          */
         @Test
         void testLinkDocuments_linkAlreadyExists() {
-            when(documentRepository.findById(documentId)).thenReturn(Optional.of(document));
-            when(documentRepository.findById(linkedDocumentId)).thenReturn(Optional.of(linkedDocument));
-            when(documentLinkRepository.existsByDocumentAndLinkedDocumentAndType(document, linkedDocument, DocumentLinkType.DIRECT_CONSEQUENCE)).thenReturn(true);
+            when(documentRepository.findExistingIds(Set.of(documentId, linkedDocumentId))).thenReturn(List.of(documentId, linkedDocumentId));
+            when(documentLinkRepository.insertOrGet(new NewLink(documentId, linkedDocumentId, DocumentLinkType.DIRECT_CONSEQUENCE)))
+                .thenReturn(new StoredLink(7L, false));
 
-            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> documentLinkService.linkDocuments(documentId, request), "Expected IllegalArgumentException when link already exists");
-            assertEquals("Link between the documents already exists with the same type", exception.getMessage());
+            LinkDocumentsResponseDTO response = documentLinkService.linkDocuments(documentId, request);
+
+            assertEquals(new LinkDocumentsResponseDTO(7L, false), response);
+            verify(documentRepository, never()).addConnections(any());
+            verifyNoInteractions(eventPublisher);
         }
 
         /**
-         * Test the linkDocuments method when the link already exists in the other order
+         * Test the linkDocuments method returns the existing link when it was asked in the other order
          */
         @Test
         void testLinkDocuments_linkAlreadyExistsTheOtherOrder() {
-            when(documentRepository.findById(documentId)).thenReturn(Optional.of(document));
-            when(documentRepository.findById(linkedDocumentId)).thenReturn(Optional.of(linkedDocument));
-            when(documentLinkRepository.existsByDocumentAndLinkedDocumentAndType(linkedDocument, document, DocumentLinkType.DIRECT_CONSEQUENCE)).thenReturn(true);
+            request = new LinkDocumentsRequestDTO(DocumentLinkType.DIRECT_CONSEQUENCE, null, documentId);
+            when(documentRepository.findExistingIds(Set.of(documentId, linkedDocumentId))).thenReturn(List.of(documentId, linkedDocumentId));
+            when(documentLinkRepository.insertOrGet(new NewLink(documentId, linkedDocumentId, DocumentLinkType.DIRECT_CONSEQUENCE)))
+                .thenReturn(new StoredLink(7L, false));
 
-            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> documentLinkService.linkDocuments(documentId, request), "Expected IllegalArgumentException when link already exists in the other order");
-            assertEquals("Link between the documents already exists with the same type", exception.getMessage());
+            LinkDocumentsResponseDTO response = documentLinkService.linkDocuments(linkedDocumentId, request);
+
+            assertEquals(new LinkDocumentsResponseDTO(7L, false), response);
+            verify(documentRepository, never()).addConnections(any());
         }
     }
 
@@ -155,7 +180,7 @@ class DocumentLinkServiceTest {
             request = new LinkDocumentsRequestDTO(DocumentLinkType.DIRECT_CONSEQUENCE, 1L, 2L);
             documentLink = new DocumentLink();
             documentLink.setId(1L);
-            documentLink.setType(DocumentLinkType.DIRECT_CONSEQUENCE);
+            documentLink.setType(DocumentLinkType.COLLATERAL_CONSEQUENCE);
         }
 
         /**
@@ -180,6 +205,33 @@ class DocumentLinkServiceTest {
 
             assertThrows(ResourceNotFoundException.class, () -> documentLinkService.updateLink(request), "Expected ResourceNotFoundException when document link is not found");
         }
+
+        /**
+         * Test the updateLink method when the documents are already linked with the new type
+         */
+        @Test
+        void testUpdateLink_linkAlreadyExists() {
+            when(documentLinkRepository.findById(request.linkId())).thenReturn(Optional.of(documentLink));
+            when(documentLinkRepository.existsByDocumentAndLinkedDocumentAndType(documentLink.getDocument(), documentLink.getLinkedDocument(), DocumentLinkType.DIRECT_CONSEQUENCE)).thenReturn(true);
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> documentLinkService.updateLink(request));
+            assertEquals("Link between the documents already exists with the same type", exception.getMessage());
+            verify(documentLinkRepository, never()).save(any());
+        }
+
+        /**
+         * Test the updateLink method when the type does not change
+         */
+        @Test
+        void testUpdateLink_sameType() {
+            documentLink.setType(DocumentLinkType.DIRECT_CONSEQUENCE);
+            when(documentLinkRepository.findById(request.linkId())).thenReturn(Optional.of(documentLink));
+
+            documentLinkService.updateLink(request);
+
+            verify(documentLinkRepository, never()).save(any());
+            verifyNoInteractions(eventPublisher);
+        }
     }
 
     @Nested
@@ -193,6 +245,12 @@ class DocumentLinkServiceTest {
             linkId = 1L;
             documentLink = new DocumentLink();
             documentLink.setId(linkId);
+            Document document = new Document();
+            document.setId(1L);
+            documentLink.setDocument(document);
+            Document linkedDocument = new Document();
+            linkedDocument.setId(2L);
+            documentLink.setLinkedDocument(linkedDocument);
         }
 
         /**
@@ -205,6 +263,7 @@ class DocumentLinkServiceTest {
             documentLinkService.deleteLink(linkId);
 
             verify(documentLinkRepository, times(1)).delete(documentLink);
+            verify(documentRepository).addConnections(Map.of(1L, -1, 2L, -1));
         }
 
         /**
@@ -311,4 +370,119 @@ class DocumentLinkServiceTest {
             assertThrows(ResourceNotFoundException.class, () -> documentLinkService.getDocumentLinks(documentId), "Expected ResourceNotFoundException when document is not found");
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    class ImportLinksTests {
+
+        private record LinkEdgeStub(Long id, Long documentId, Long linkedDocumentId, DocumentLinkType type) implements DocumentLinkRepository.LinkEdge {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getDocumentId() {
+                return documentId;
+            }
+
+            @Override
+            public Long getLinkedDocumentId() {
+                return linkedDocumentId;
+            }
+
+            @Override
+            public DocumentLinkType getType() {
+                return type;
+            }
+        }
+
+        /**
+         * Test an import mixing new, stored, repeated and invalid rows
+         */
+        @Test
+        void testImportLinks_reportsEachRow() {
+            LinkImportRequestDTO request = new LinkImportRequestDTO(List.of(
+                new LinkImportRequestDTO.Link(2L, 1L, DocumentLinkType.UPDATE),
+                new LinkImportRequestDTO.Link(1L, 3L, DocumentLinkType.PREVISION),
+                new LinkImportRequestDTO.Link(1L, 2L, DocumentLinkType.UPDATE),
+                new LinkImportRequestDTO.Link(3L, 3L, DocumentLinkType.UPDATE),
+                new LinkImportRequestDTO.Link(1L, 9L, DocumentLinkType.UPDATE)
+            ));
+            NewLink update = new NewLink(1L, 2L, DocumentLinkType.UPDATE);
+            when(documentRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L, 2L, 3L));
+            // The prevision link is already stored, the update link is created by the import
+            when(documentLinkRepository.findEdgesByDocumentIds(anyCollection())).thenReturn(
+                List.of(new LinkEdgeStub(5L, 1L, 3L, DocumentLinkType.PREVISION)),
+                List.of(new LinkEdgeStub(5L, 1L, 3L, DocumentLinkType.PREVISION), new LinkEdgeStub(6L, 1L, 2L, DocumentLinkType.UPDATE))
+            );
+            when(documentLinkRepository.insertIgnoringDuplicates(List.of(update))).thenReturn(new boolean[]{true});
+
+            LinkImportResponseDTO response = documentLinkService.importLinks(request);
+
+            assertEquals(1, response.created());
+            assertEquals(2, response.duplicates());
+            assertEquals(2, response.rejected());
+            assertEquals(List.of(
+                new LinkImportResponseDTO.Result(0, 6L, LinkImportStatus.CREATED),
+                new LinkImportResponseDTO.Result(1, 5L, LinkImportStatus.DUPLICATE),
+                new LinkImportResponseDTO.Result(2, 6L, LinkImportStatus.DUPLICATE),
+                new LinkImportResponseDTO.Result(3, null, LinkImportStatus.SELF_LINK),
+                new LinkImportResponseDTO.Result(4, null, LinkImportStatus.DOCUMENT_NOT_FOUND)
+            ), response.results());
+            verify(documentRepository).addConnections(Map.of(1L, 1, 2L, 1));
+            verify(eventPublisher, times(1)).publishEvent(any(DocumentLinkChangedEvent.class));
+        }
+
+        /**
+         * Test an import with nothing new does not insert nor publish anything
+         */
+        @Test
+        void testImportLinks_nothingNew() {
+            LinkImportRequestDTO request = new LinkImportRequestDTO(List.of(
+                new LinkImportRequestDTO.Link(1L, 3L, DocumentLinkType.PREVISION)
+            ));
+            when(documentRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L, 3L));
+            when(documentLinkRepository.findEdgesByDocumentIds(anyCollection())).thenReturn(
+                List.of(new LinkEdgeStub(5L, 1L, 3L, DocumentLinkType.PREVISION))
+            );
+
+            LinkImportResponseDTO response = documentLinkService.importLinks(request);
+
+            assertEquals(0, response.created());
+            assertEquals(1, response.duplicates());
+            verify(documentLinkRepository, never()).insertIgnoringDuplicates(any());
+            verifyNoInteractions(eventPublisher);
+        }
+    }
+
+    @Nested
+    class RepairConnectionCountsTests {
+
+        /**
+         * Test the repair locks the links before recomputing the counters, and publishes the change
+         */
+        @Test
+        void testRepairConnectionCounts_repaired() {
+            when(documentRepository.repairConnectionCounts()).thenReturn(3);
+
+            assertEquals(3, documentLinkService.repairConnectionCounts());
+
+            InOrder inOrder = inOrder(documentLinkRepository, documentRepository);
+            inOrder.verify(documentLinkRepository).lockLinks();
+            inOrder.verify(documentRepository).repairConnectionCounts();
+            verify(eventPublisher).publishEvent(new DocumentLinkChangedEvent(null));
+        }
+
+        /**
+         * Test nothing is published when all the counters are right
+         */
+        @Test
+        void testRepairConnectionCounts_nothingToRepair() {
+            when(documentRepository.repairConnectionCounts()).thenReturn(0);
+
+            assertEquals(0, documentLinkService.repairConnectionCounts());
+
+            verifyNoInteractions(eventPublisher);
+        }
+    }
+}
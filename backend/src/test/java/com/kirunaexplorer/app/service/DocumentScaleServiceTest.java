@@ -14,6 +14,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -22,6 +23,9 @@ public class DocumentScaleServiceTest {
     @Mock
     private DocumentScaleRepository documentScaleRepository;
 
+    @Mock
+    private VocabularyCache vocabularyCache;
+
     @InjectMocks
     private DocumentScaleService documentScaleService;
 
@@ -67,6 +71,17 @@ public class DocumentScaleServiceTest {
         verify(documentScaleRepository, times(1)).save(any(DocumentScale.class));
     }
 
+    @Test
+    void testCreateDocumentScaleAlreadyExists() {
+        DocumentScaleRequestDTO request = new DocumentScaleRequestDTO(null, "New Scale");
+
+        when(documentScaleRepository.existsByScale("New Scale")).thenReturn(true);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> documentScaleService.createDocumentScale(request));
+        assertEquals("Document scale already exists", exception.getMessage());
+        verify(documentScaleRepository, never()).save(any());
+    }
+
     @Test
     void testCreateDocumentScaleWithException() {
         DocumentScaleRequestDTO request = new DocumentScaleRequestDTO(null, "New Scale");
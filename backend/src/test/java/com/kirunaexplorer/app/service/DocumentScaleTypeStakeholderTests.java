@@ -27,6 +27,9 @@ class DocumentScaleTypeStakeholderTests {
     @Mock
     private DocumentScaleRepository documentScaleRepository;
 
+    @Mock
+    private VocabularyCache vocabularyCache;
+
     @InjectMocks
     private DocumentTypeService documentTypeService;
 
@@ -3,7 +3,11 @@ package com.kirunaexplorer.app.service;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.kirunaexplorer.app.dto.request.PageCursorDTO;
+import com.kirunaexplorer.app.dto.response.DocumentBriefCursorPageResponseDTO;
 import com.kirunaexplorer.app.dto.response.DocumentBriefPageResponseDTO;
+import com.kirunaexplorer.app.dto.response.SearchFacetsDTO;
+import com.kirunaexplorer.app.exception.InvalidQueryParameterException;
 import com.kirunaexplorer.app.model.Document;
 import com.kirunaexplorer.app.model.GeoReference;
 import com.kirunaexplorer.app.model.Stakeholder;
@@ -25,6 +29,9 @@ class DocumentSearchTest {
     @Mock
     private DocumentRepository documentRepository;
 
+    @Mock
+    private DocumentAttributeIndex documentAttributeIndex;
+
     @Mock
     private GeoReference geoReference = new GeoReference();
 
@@ -45,7 +52,7 @@ class DocumentSearchTest {
         List<String> stakeholderNames = List.of("Stakeholder 1");
         String scale = "scale";
         List<Stakeholder> stakeholders = List.of(new Stakeholder("Stakeholder 1"));
-        Document document = new Document(1L, "example1", "description", stakeholders, type, scale, LocalDate.now(), Document.DatePrecision.FULL_DATE, "en", 10, LocalDateTime.now(), LocalDateTime.now(), null, null, null);
+        Document document = new Document(1L, "example1", "description", stakeholders, type, scale, LocalDate.now(), Document.DatePrecision.FULL_DATE, "en", 10, LocalDateTime.now(), LocalDateTime.now(), null, null, null, 0);
 
         GeoReference geoReference = new GeoReference(document, null, null);
         document.setGeoReference(geoReference);
@@ -53,7 +60,7 @@ class DocumentSearchTest {
         List<Document> documents = List.of(document);
         Pageable pageable = PageRequest.of(0, 16);
         Page<Document> documentPage = new PageImpl<>(documents, pageable, documents.size());
-        when(documentRepository.searchDocuments(keyword, type, stakeholderNames, scale, pageable)).thenReturn(documentPage);
+        when(documentRepository.searchDocuments(keyword, type, stakeholderNames, scale, null, pageable)).thenReturn(documentPage);
 
         // Execution
         List<DocumentBriefPageResponseDTO> result = documentService.searchDocuments(keyword, type, stakeholderNames, scale, 0);
@@ -62,7 +69,7 @@ class DocumentSearchTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("example1", result.get(0).documentSnippets().get(0).title());
-        verify(documentRepository, times(1)).searchDocuments(keyword, type, stakeholderNames, scale, pageable);
+        verify(documentRepository, times(1)).searchDocuments(keyword, type, stakeholderNames, scale, null, pageable);
     }
 
     // Test senza keyword e tipo (entrambi null)
@@ -72,7 +79,7 @@ class DocumentSearchTest {
         List<String> stakeholderNames = List.of("Stakeholder 1");
         String scale = "scale";
         List<Stakeholder> stakeholders = List.of(new Stakeholder("Stakeholder 1"));
-        Document document = new Document(1L, "doc1", "description", stakeholders, null, scale, LocalDate.now(), Document.DatePrecision.FULL_DATE, "en", 10, LocalDateTime.now(), LocalDateTime.now(), null, null, null);
+        Document document = new Document(1L, "doc1", "description", stakeholders, null, scale, LocalDate.now(), Document.DatePrecision.FULL_DATE, "en", 10, LocalDateTime.now(), LocalDateTime.now(), null, null, null, 0);
 
         GeoReference geoReference = new GeoReference(document, null, null);
         document.setGeoReference(geoReference);
@@ -80,7 +87,7 @@ class DocumentSearchTest {
         List<Document> documents = List.of(document);
         Pageable pageable = PageRequest.of(0, 16);
         Page<Document> documentPage = new PageImpl<>(documents, pageable, documents.size());
-        when(documentRepository.searchDocuments(null, null, stakeholderNames, scale, pageable)).thenReturn(documentPage);
+        when(documentRepository.searchDocuments(null, null, stakeholderNames, scale, null, pageable)).thenReturn(documentPage);
 
         // Execution
         List<DocumentBriefPageResponseDTO> result = documentService.searchDocuments(null, null, stakeholderNames, scale, 0);
@@ -89,7 +96,7 @@ class DocumentSearchTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("doc1", result.get(0).documentSnippets().get(0).title());
-        verify(documentRepository, times(1)).searchDocuments(null, null, stakeholderNames, scale, pageable);
+        verify(documentRepository, times(1)).searchDocuments(null, null, stakeholderNames, scale, null, pageable);
     }
 
     // Test con keyword specificato ma tipo null
@@ -100,7 +107,7 @@ class DocumentSearchTest {
         List<String> stakeholderNames = List.of("Stakeholder 1");
         String scale = "scale";
         List<Stakeholder> stakeholders = List.of(new Stakeholder("Stakeholder 1"));
-        Document document = new Document(1L, "example1", "description", stakeholders, null, scale, LocalDate.now(), Document.DatePrecision.FULL_DATE, "en", 10, LocalDateTime.now(), LocalDateTime.now(), null, null, null);
+        Document document = new Document(1L, "example1", "description", stakeholders, null, scale, LocalDate.now(), Document.DatePrecision.FULL_DATE, "en", 10, LocalDateTime.now(), LocalDateTime.now(), null, null, null, 0);
 
         GeoReference geoReference = new GeoReference(document, null, null);
         document.setGeoReference(geoReference);
@@ -108,7 +115,7 @@ class DocumentSearchTest {
         List<Document> documents = List.of(document);
         Pageable pageable = PageRequest.of(0, 16);
         Page<Document> documentPage = new PageImpl<>(documents, pageable, documents.size());
-        when(documentRepository.searchDocuments(keyword, null, stakeholderNames, scale, pageable)).thenReturn(documentPage);
+        when(documentRepository.searchDocuments(keyword, null, stakeholderNames, scale, null, pageable)).thenReturn(documentPage);
 
         // Execution
         List<DocumentBriefPageResponseDTO> result = documentService.searchDocuments(keyword, null, stakeholderNames, scale, 0);
@@ -117,7 +124,7 @@ class DocumentSearchTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("example1", result.get(0).documentSnippets().get(0).title());
-        verify(documentRepository, times(1)).searchDocuments(keyword, null, stakeholderNames, scale, pageable);
+        verify(documentRepository, times(1)).searchDocuments(keyword, null, stakeholderNames, scale, null, pageable);
     }
 
     // Test con tipo specificato ma keyword null
@@ -128,7 +135,7 @@ class DocumentSearchTest {
         List<String> stakeholderNames = List.of("Stakeholder 1");
         String scale = "scale";
         List<Stakeholder> stakeholders = List.of(new Stakeholder("Stakeholder 1"));
-        Document document = new Document(1L, "example1", "description", stakeholders, type, scale, LocalDate.now(), Document.DatePrecision.FULL_DATE, "en", 10, LocalDateTime.now(), LocalDateTime.now(), null, null, null);
+        Document document = new Document(1L, "example1", "description", stakeholders, type, scale, LocalDate.now(), Document.DatePrecision.FULL_DATE, "en", 10, LocalDateTime.now(), LocalDateTime.now(), null, null, null, 0);
 
         GeoReference geoReference = new GeoReference(document, null, null);
         document.setGeoReference(geoReference);
@@ -136,7 +143,7 @@ class DocumentSearchTest {
         List<Document> documents = List.of(document);
         Pageable pageable = PageRequest.of(0, 16);
         Page<Document> documentPage = new PageImpl<>(documents, pageable, documents.size());
-        when(documentRepository.searchDocuments(null, type, stakeholderNames, scale, pageable)).thenReturn(documentPage);
+        when(documentRepository.searchDocuments(null, type, stakeholderNames, scale, null, pageable)).thenReturn(documentPage);
 
         // Execution
         List<DocumentBriefPageResponseDTO> result = documentService.searchDocuments(null, type, stakeholderNames, scale, 0);
@@ -145,7 +152,7 @@ class DocumentSearchTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("example1", result.get(0).documentSnippets().get(0).title());
-        verify(documentRepository, times(1)).searchDocuments(null, type, stakeholderNames, scale, pageable);
+        verify(documentRepository, times(1)).searchDocuments(null, type, stakeholderNames, scale, null, pageable);
     }
 
     // Test senza risultati
@@ -156,7 +163,7 @@ class DocumentSearchTest {
         String scale = "scale";
         Pageable pageable = PageRequest.of(0, 16);
         Page<Document> emptyPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
-        when(documentRepository.searchDocuments("nonexistent", "txt", stakeholderNames, scale, pageable)).thenReturn(emptyPage);
+        when(documentRepository.searchDocuments("nonexistent", "txt", stakeholderNames, scale, null, pageable)).thenReturn(emptyPage);
 
         // Execution
         List<DocumentBriefPageResponseDTO> result = documentService.searchDocuments("nonexistent", "txt", stakeholderNames, scale, 0);
@@ -164,7 +171,7 @@ class DocumentSearchTest {
         // Verification
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(documentRepository, times(1)).searchDocuments("nonexistent", "txt", stakeholderNames, scale, pageable);
+        verify(documentRepository, times(1)).searchDocuments("nonexistent", "txt", stakeholderNames, scale, null, pageable);
     }
 
     // Test con documenti nulli nel repository
@@ -177,7 +184,7 @@ class DocumentSearchTest {
         String scale = "scale";
         Pageable pageable = PageRequest.of(0, 16);
 
-        when(documentRepository.searchDocuments(keyword, type, stakeholderNames, scale, pageable)).thenReturn(null);
+        when(documentRepository.searchDocuments(keyword, type, stakeholderNames, scale, null, pageable)).thenReturn(null);
 
         // Execution
         List<DocumentBriefPageResponseDTO> result = documentService.searchDocuments(keyword, type, stakeholderNames, scale, 0);
@@ -185,7 +192,7 @@ class DocumentSearchTest {
         // Verification
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(documentRepository, times(1)).searchDocuments(keyword, type, stakeholderNames, scale, pageable);
+        verify(documentRepository, times(1)).searchDocuments(keyword, type, stakeholderNames, scale, null, pageable);
     }
 
     // Test con un solo documento
@@ -197,7 +204,7 @@ class DocumentSearchTest {
         List<String> stakeholderNames = List.of("stakeholder1");
         String scale = "scale";
         List<Stakeholder> stakeholders = List.of(new Stakeholder("stakeholder1"));
-        Document document = new Document(1L, "doc1", "description", stakeholders, type, scale, LocalDate.now(), Document.DatePrecision.FULL_DATE, "en", 10, LocalDateTime.now(), LocalDateTime.now(), null, null, null);
+        Document document = new Document(1L, "doc1", "description", stakeholders, type, scale, LocalDate.now(), Document.DatePrecision.FULL_DATE, "en", 10, LocalDateTime.now(), LocalDateTime.now(), null, null, null, 0);
 
         GeoReference geoReference = new GeoReference(document, null, null);
         document.setGeoReference(geoReference);
@@ -205,7 +212,7 @@ class DocumentSearchTest {
         List<Document> documents = List.of(document);
         Pageable pageable = PageRequest.of(0, 16);
         Page<Document> documentPage = new PageImpl<>(documents, pageable, documents.size());
-        when(documentRepository.searchDocuments(keyword, type, stakeholderNames, scale, pageable)).thenReturn(documentPage);
+        when(documentRepository.searchDocuments(keyword, type, stakeholderNames, scale, null, pageable)).thenReturn(documentPage);
 
         // Execution
         List<DocumentBriefPageResponseDTO> result = documentService.searchDocuments(keyword, type, stakeholderNames, scale, 0);
@@ -214,7 +221,7 @@ class DocumentSearchTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("doc1", result.get(0).documentSnippets().get(0).title());
-        verify(documentRepository, times(1)).searchDocuments(keyword, type, stakeholderNames, scale, pageable);
+        verify(documentRepository, times(1)).searchDocuments(keyword, type, stakeholderNames, scale, null, pageable);
     }
 
     // Test con keyword vuoto e tipo vuoto
@@ -224,7 +231,7 @@ class DocumentSearchTest {
         List<String> stakeholderNames = List.of("Stakeholder 1");
         String scale = "scale";
         List<Stakeholder> stakeholders = List.of(new Stakeholder("Stakeholder 1"));
-        Document document = new Document(1L, "doc1", "description", stakeholders, null, scale, LocalDate.now(), Document.DatePrecision.FULL_DATE, "en", 10, LocalDateTime.now(), LocalDateTime.now(), null, null, null);
+        Document document = new Document(1L, "doc1", "description", stakeholders, null, scale, LocalDate.now(), Document.DatePrecision.FULL_DATE, "en", 10, LocalDateTime.now(), LocalDateTime.now(), null, null, null, 0);
 
         GeoReference geoReference = new GeoReference(document, null, null);
         document.setGeoReference(geoReference);
@@ -232,7 +239,7 @@ class DocumentSearchTest {
         List<Document> documents = List.of(document);
         Pageable pageable = PageRequest.of(0, 16);
         Page<Document> documentPage = new PageImpl<>(documents, pageable, documents.size());
-        when(documentRepository.searchDocuments("", "", stakeholderNames, scale, pageable)).thenReturn(documentPage);
+        when(documentRepository.searchDocuments("", "", stakeholderNames, scale, null, pageable)).thenReturn(documentPage);
 
         // Execution
         List<DocumentBriefPageResponseDTO> result = documentService.searchDocuments("", "", stakeholderNames, scale, 0);
@@ -241,7 +248,7 @@ class DocumentSearchTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("doc1", result.get(0).documentSnippets().get(0).title());
-        verify(documentRepository, times(1)).searchDocuments("", "", stakeholderNames, scale, pageable);
+        verify(documentRepository, times(1)).searchDocuments("", "", stakeholderNames, scale, null, pageable);
     }
 
     // Test con keyword lunga e tipo specifico
@@ -253,7 +260,7 @@ class DocumentSearchTest {
         List<String> stakeholderNames = List.of("stakeholder1");
         String scale = "scale";
         List<Stakeholder> stakeholders = List.of(new Stakeholder("stakeholder1"));
-        Document document = new Document(1L, longKeyword, "description", stakeholders, type, scale, LocalDate.now(), Document.DatePrecision.FULL_DATE, "en", 10, LocalDateTime.now(), LocalDateTime.now(), null, null, null);
+        Document document = new Document(1L, longKeyword, "description", stakeholders, type, scale, LocalDate.now(), Document.DatePrecision.FULL_DATE, "en", 10, LocalDateTime.now(), LocalDateTime.now(), null, null, null, 0);
 
         GeoReference geoReference = new GeoReference(document, null, null);
         document.setGeoReference(geoReference);
@@ -261,7 +268,7 @@ class DocumentSearchTest {
         List<Document> documents = List.of(document);
         Pageable pageable = PageRequest.of(0, 16);
         Page<Document> documentPage = new PageImpl<>(documents, pageable, documents.size());
-        when(documentRepository.searchDocuments(longKeyword, type, stakeholderNames, scale, pageable)).thenReturn(documentPage);
+        when(documentRepository.searchDocuments(longKeyword, type, stakeholderNames, scale, null, pageable)).thenReturn(documentPage);
 
         // Execution
         List<DocumentBriefPageResponseDTO> result = documentService.searchDocuments(longKeyword, type, stakeholderNames, scale, 0);
@@ -270,6 +277,204 @@ class DocumentSearchTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(longKeyword, result.get(0).documentSnippets().get(0).title());
-        verify(documentRepository, times(1)).searchDocuments(longKeyword, type, stakeholderNames, scale, pageable);
+        verify(documentRepository, times(1)).searchDocuments(longKeyword, type, stakeholderNames, scale, null, pageable);
+    }
+
+    @Test
+    void testSearchDocuments_relevanceSortWithHighlights() {
+        // Setup
+        String keyword = "kiruna";
+        List<Stakeholder> stakeholders = List.of(new Stakeholder("Stakeholder 1"));
+        Document document = new Document(1L, "Kiruna relocation", "Plan for Kiruna", stakeholders, null, "scale", LocalDate.now(), Document.DatePrecision.FULL_DATE, "en", 10, LocalDateTime.now(), LocalDateTime.now(), null, null, null, 0);
+        document.setGeoReference(new GeoReference(document, null, null));
+
+        Pageable pageable = PageRequest.of(0, 16);
+        Page<Document> documentPage = new PageImpl<>(List.of(document), pageable, 1);
+        when(documentRepository.searchDocumentsByRelevance(keyword, null, null, null, null, pageable)).thenReturn(documentPage);
+        when(documentRepository.findSearchHighlights(keyword, List.of(1L))).thenReturn(List.of(
+            new SearchHighlightStub(1L, "<mark>Kiruna</mark> relocation", "Plan for <mark>Kiruna</mark>")
+        ));
+
+        // Execution
+        List<DocumentBriefPageResponseDTO> result = documentService.searchDocuments(keyword, null, null, null, null, 0, "relevance", false);
+
+        // Verification
+        assertEquals("Kiruna relocation", result.get(0).documentSnippets().get(0).title());
+        assertEquals("<mark>Kiruna</mark> relocation", result.get(0).highlights().get(1L).title());
+        assertEquals("Plan for <mark>Kiruna</mark>", result.get(0).highlights().get(1L).description());
+        verify(documentRepository, never()).searchDocuments(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testSearchDocuments_noHighlightsWithoutKeyword() {
+        // Setup
+        Pageable pageable = PageRequest.of(0, 16);
+        when(documentRepository.searchDocuments(" ", null, null, null, null, pageable)).thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+        // Execution
+        List<DocumentBriefPageResponseDTO> result = documentService.searchDocuments(" ", null, null, null, null, 0, null, false);
+
+        // Verification
+        assertTrue(result.get(0).highlights().isEmpty());
+        assertNull(result.get(0).facets());
+        verify(documentRepository, never()).findSearchHighlights(any(), any());
+        verify(documentRepository, never()).countFacets(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testSearchDocuments_withFacets() {
+        // Setup
+        List<String> stakeholderNames = List.of("LKAB");
+        Pageable pageable = PageRequest.of(0, 16);
+        when(documentRepository.searchDocuments(null, "Design document", stakeholderNames, null, 2014, pageable))
+            .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+        when(documentRepository.countFacets(null, "Design document", stakeholderNames, null, 2014)).thenReturn(List.of(
+            new FacetCountStub("STAKEHOLDER", "LKAB", 4L),
+            new FacetCountStub("TYPE", "Design document", 3L),
+            new FacetCountStub("YEAR", "2014", 3L),
+            new FacetCountStub("TYPE", "Technical document", 1L),
+            new FacetCountStub("SCALE", null, 2L),
+            new FacetCountStub("STAKEHOLDER", "Residents", 0L)
+        ));
+
+        // Execution
+        List<DocumentBriefPageResponseDTO> result = documentService.searchDocuments(null, "Design document", stakeholderNames, null, 2014, 0, null, true);
+
+        // Verification
+        SearchFacetsDTO facets = result.get(0).facets();
+        assertEquals(List.of("Design document", "Technical document"), List.copyOf(facets.types().keySet()));
+        assertEquals(1L, facets.types().get("Technical document"));
+        assertEquals(Map.of("LKAB", 4L), facets.stakeholders());
+        assertEquals(Map.of(2014, 3L), facets.years());
+        assertTrue(facets.scales().isEmpty());
+    }
+
+    @Test
+    void testSearchDocuments_invalidSort() {
+        assertThrows(InvalidQueryParameterException.class,
+            () -> documentService.searchDocuments("kiruna", null, null, null, null, 0, "newest", false));
+
+        verifyNoInteractions(documentRepository);
+    }
+
+    @Test
+    void testSearchDocuments_withoutKeywordUsesAttributeIndex() {
+        // Setup
+        List<String> stakeholderNames = List.of("LKAB");
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            ids.add(id);
+        }
+        when(documentAttributeIndex.findDocumentIds("Design document", stakeholderNames, null, null, null)).thenReturn(Optional.of(ids));
+        when(documentRepository.findAllWithStakeholdersByIdIn(List.of(17L, 18L, 19L, 20L))).thenReturn(List.of(
+            indexedDocument(19L), indexedDocument(17L), indexedDocument(20L), indexedDocument(18L)
+        ));
+
+        // Execution
+        List<DocumentBriefPageResponseDTO> result = documentService.searchDocuments(null, "Design document", stakeholderNames, null, null, 1, "relevance", false);
+
+        // Verification
+        DocumentBriefPageResponseDTO page = result.get(0);
+        assertEquals(2, page.totalPages());
+        assertEquals(1, page.currentPage());
+        assertEquals(List.of(17L, 18L, 19L, 20L), page.documentSnippets().stream().map(snippet -> snippet.id()).toList());
+        verify(documentRepository, never()).searchDocuments(any(), any(), any(), any(), any(), any());
+        verify(documentRepository, never()).searchDocumentsByRelevance(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testSearchDocumentsByCursor_relevanceReturnsNextCursor() {
+        // Setup
+        String keyword = "kiruna";
+        List<DocumentRepository.SearchHit> hits = new ArrayList<>();
+        for (long id = 1; id <= 17; id++) {
+            hits.add(new SearchHitStub(id, 1.0f / id));
+        }
+        PageCursorDTO cursor = PageCursorDTO.afterRank(2.0f, 9L);
+        when(documentRepository.searchByRelevanceAfter(keyword, null, null, null, null, 2.0f, 9L, 17)).thenReturn(hits);
+        List<Document> documents = new ArrayList<>();
+        for (long id = 16; id >= 1; id--) {
+            documents.add(indexedDocument(id));
+        }
+        when(documentRepository.findAllWithStakeholdersByIdIn(hits.subList(0, 16).stream().map(DocumentRepository.SearchHit::getDocumentId).toList())).thenReturn(documents);
+        when(documentRepository.countSearch(keyword, null, null, null, null)).thenReturn(40L);
+
+        // Execution
+        DocumentBriefCursorPageResponseDTO result = documentService.searchDocumentsByCursor(keyword, null, null, null, null, "relevance", cursor.encode(), true);
+
+        // Verification
+        assertEquals(16, result.documentSnippets().size());
+        assertEquals(1L, result.documentSnippets().get(0).id());
+        assertEquals(PageCursorDTO.afterRank(1.0f / 16, 16L), PageCursorDTO.parse(result.nextCursor(), PageCursorDTO.Order.RELEVANCE));
+        assertEquals(40L, result.totalCount());
+    }
+
+    @Test
+    void testSearchDocumentsByCursor_withoutKeywordUsesAttributeIndex() {
+        // Setup
+        when(documentAttributeIndex.findDocumentIds("Design document", null, null, null, null)).thenReturn(Optional.of(List.of(3L, 8L, 12L)));
+        when(documentRepository.findAllWithStakeholdersByIdIn(List.of(8L, 12L))).thenReturn(List.of(indexedDocument(12L), indexedDocument(8L)));
+
+        // Execution
+        DocumentBriefCursorPageResponseDTO result = documentService.searchDocumentsByCursor(null, "Design document", null, null, null, "relevance",
+            PageCursorDTO.afterId(5L).encode(), false);
+
+        // Verification
+        assertEquals(List.of(8L, 12L), result.documentSnippets().stream().map(snippet -> snippet.id()).toList());
+        assertNull(result.nextCursor());
+        assertNull(result.totalCount());
+        verify(documentRepository, never()).searchAfter(any(), any(), any(), any(), any(), anyLong(), anyInt());
+    }
+
+    private static Document indexedDocument(Long id) {
+        Document document = new Document(id, "doc" + id, "description", List.of(new Stakeholder("LKAB")), "Design document", "scale", LocalDate.now(), Document.DatePrecision.FULL_DATE, "en", 10, LocalDateTime.now(), LocalDateTime.now(), null, null, null, 0);
+        document.setGeoReference(new GeoReference(document, null, null));
+        return document;
+    }
+
+    private record SearchHitStub(Long documentId, Float rank) implements DocumentRepository.SearchHit {
+        @Override
+        public Long getDocumentId() {
+            return documentId;
+        }
+
+        @Override
+        public Float getRank() {
+            return rank;
+        }
+    }
+
+    private record FacetCountStub(String facet, String value, Long hits) implements DocumentRepository.FacetCount {
+        @Override
+        public String getFacet() {
+            return facet;
+        }
+
+        @Override
+        public String getValue() {
+            return value;
+        }
+
+        @Override
+        public Long getHits() {
+            return hits;
+        }
+    }
+
+    private record SearchHighlightStub(Long documentId, String title, String description) implements DocumentRepository.SearchHighlight {
+        @Override
+        public Long getDocumentId() {
+            return documentId;
+        }
+
+        @Override
+        public String getTitle() {
+            return title;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
     }
 }
@@ -1,13 +1,18 @@
 package com.kirunaexplorer.app.service;
 
+import com.kirunaexplorer.app.constants.FilterOptionForMap;
+import com.kirunaexplorer.app.dto.request.BoundingBoxDTO;
 import com.kirunaexplorer.app.dto.request.DocumentRequestDTO;
+import com.kirunaexplorer.app.dto.request.PageCursorDTO;
+import com.kirunaexplorer.app.dto.response.DocumentBriefCursorPageResponseDTO;
+import com.kirunaexplorer.app.dto.response.DocumentBriefPageResponseDTO;
 import com.kirunaexplorer.app.dto.response.DocumentBriefResponseDTO;
+import com.kirunaexplorer.app.dto.response.DocumentDiagramResponseDTO;
 import com.kirunaexplorer.app.dto.response.DocumentResponseDTO;
 import com.kirunaexplorer.app.dto.inout.GeoReferenceDTO;
 import com.kirunaexplorer.app.exception.ResourceNotFoundException;
 import com.kirunaexplorer.app.model.Document;
 import com.kirunaexplorer.app.model.Stakeholder;
-import com.kirunaexplorer.app.repository.DocumentLinkRepository;
 import com.kirunaexplorer.app.repository.DocumentRepository;
 import com.kirunaexplorer.app.repository.GeoReferenceRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,8 +20,13 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,7 +45,16 @@ class DocumentServiceTest {
     private GeoReferenceRepository geoReferenceRepository;
 
     @Mock
-    private DocumentLinkRepository documentLinkRepository;
+    private DocumentSnapshotService documentSnapshotService;
+
+    @Mock
+    private VocabularyCache vocabularyCache;
+
+    @Mock
+    private DocumentAttributeIndex documentAttributeIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @BeforeEach
     void setUp() {
@@ -45,7 +64,7 @@ class DocumentServiceTest {
     @Test
     void getAllDocuments_ShouldReturnListOfDocumentBriefResponseDTO() {
         Document mockDocument = mock(Document.class);
-        DocumentBriefResponseDTO briefResponseDTO = new DocumentBriefResponseDTO(1L, "Sample Title", null, "1:100", null, "", null);
+        DocumentBriefResponseDTO briefResponseDTO = new DocumentBriefResponseDTO(1L, "Sample Title", null, "1:100", null, "", null, 0);
 
         when(documentRepository.findAll()).thenReturn(List.of(mockDocument));
         when(mockDocument.toDocumentBriefResponseDTO()).thenReturn(briefResponseDTO);
@@ -58,6 +77,64 @@ class DocumentServiceTest {
         verify(documentRepository, times(1)).findAll();
     }
 
+    @Test
+    void getDocumentsByPageNumber_ShouldPageIdsThenLoadDocuments() {
+        Document first = mock(Document.class);
+        Document second = mock(Document.class);
+        when(first.getId()).thenReturn(7L);
+        when(second.getId()).thenReturn(5L);
+        when(first.toDocumentBriefResponseDTO()).thenReturn(new DocumentBriefResponseDTO(7L, "Latest", null, "1:100", null, "", null, 0));
+        when(second.toDocumentBriefResponseDTO()).thenReturn(new DocumentBriefResponseDTO(5L, "Older", null, "1:100", null, "", null, 0));
+        PageRequest pageRequest = PageRequest.of(1, 16);
+        when(documentRepository.findIdsByOrderByCreatedAtDesc(pageRequest)).thenReturn(new PageImpl<>(List.of(7L, 5L), pageRequest, 18));
+        when(documentRepository.findAllWithStakeholdersByIdIn(List.of(7L, 5L))).thenReturn(List.of(second, first));
+
+        List<DocumentBriefPageResponseDTO> result = documentService.getDocumentsByPageNumber(1);
+
+        assertEquals(2, result.get(0).totalPages());
+        assertEquals(1, result.get(0).currentPage());
+        assertEquals(List.of(7L, 5L), result.get(0).documentSnippets().stream().map(DocumentBriefResponseDTO::id).toList());
+    }
+
+    @Test
+    void getDocumentsByCursor_ShouldSeekAfterCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 11, 20, 10, 0);
+        List<Long> ids = new ArrayList<>();
+        List<Document> documents = new ArrayList<>();
+        for (long id = 30; id > 13; id--) {
+            Document mockDocument = mock(Document.class);
+            when(mockDocument.getId()).thenReturn(id);
+            when(mockDocument.getCreatedAt()).thenReturn(createdAt.minusMinutes(30 - id));
+            ids.add(id);
+            documents.add(mockDocument);
+        }
+        String cursor = PageCursorDTO.afterCreatedAt(createdAt.plusMinutes(1), 31L).encode();
+        when(documentRepository.findLatestIdsBefore(createdAt.plusMinutes(1), 31L, 17)).thenReturn(ids);
+        when(documentRepository.findAllWithStakeholdersByIdIn(ids.subList(0, 16))).thenReturn(documents.subList(0, 16));
+
+        DocumentBriefCursorPageResponseDTO result = documentService.getDocumentsByCursor(cursor, false);
+
+        assertEquals(16, result.documentSnippets().size());
+        assertEquals(PageCursorDTO.afterCreatedAt(createdAt.minusMinutes(15), 15L), PageCursorDTO.parse(result.nextCursor(), PageCursorDTO.Order.CREATED_AT));
+        assertNull(result.totalCount());
+        verify(documentRepository, never()).count();
+    }
+
+    @Test
+    void getDocumentsByCursor_LastPageShouldHaveNoNextCursor() {
+        Document mockDocument = mock(Document.class);
+        when(mockDocument.getId()).thenReturn(4L);
+        when(documentRepository.findLatestIds(17)).thenReturn(List.of(4L));
+        when(documentRepository.findAllWithStakeholdersByIdIn(List.of(4L))).thenReturn(List.of(mockDocument));
+        when(documentRepository.count()).thenReturn(1L);
+
+        DocumentBriefCursorPageResponseDTO result = documentService.getDocumentsByCursor("", true);
+
+        assertEquals(1, result.documentSnippets().size());
+        assertNull(result.nextCursor());
+        assertEquals(1L, result.totalCount());
+    }
+
     @Test
     void getDocumentById_ShouldReturnDocumentResponseDTO() {
         Document mockDocument = mock(Document.class);
@@ -65,7 +142,7 @@ class DocumentServiceTest {
         String issuanceDate = "2023-01-01";
 
         when(documentRepository.findById(1L)).thenReturn(Optional.of(mockDocument));
-        when(documentLinkRepository.countByDocumentId(1L)).thenReturn(5);
+        when(mockDocument.getNrConnections()).thenReturn(5);
         when(mockDocument.getId()).thenReturn(1L);
         when(mockDocument.getTitle()).thenReturn("Sample Title");
         when(mockDocument.getStakeholders()).thenReturn(List.of(new Stakeholder("Stakeholder A"), new Stakeholder("Stakeholder B")));
@@ -98,7 +175,6 @@ class DocumentServiceTest {
         assertNotNull(result);
         assertEquals(expectedResponse, result);
         verify(documentRepository, times(1)).findById(1L);
-        verify(documentLinkRepository, times(1)).countByDocumentId(1L);
     }
 
     @Test
@@ -163,4 +239,85 @@ class DocumentServiceTest {
         verify(documentRepository, times(1)).findById(1L);
         verify(documentRepository, never()).save(any());
     }
+
+    @Test
+    void getDocumentsForDiagram_ShouldReturnSnapshot() {
+        List<DocumentDiagramResponseDTO> diagram = List.of(
+            new DocumentDiagramResponseDTO(1L, "Sample Title", List.of(), "Text", "2004", "Design document", List.of())
+        );
+        when(documentSnapshotService.getDocumentsForDiagram()).thenReturn(diagram);
+
+        List<DocumentDiagramResponseDTO> result = documentService.getDocumentsForDiagram();
+
+        assertEquals(diagram, result);
+        verifyNoInteractions(documentRepository);
+    }
+
+    @Test
+    void getDocumentsForMap_ShouldUseAttributeIndexOnceBuilt() {
+        List<DocumentBriefResponseDTO> documents = List.of(
+            new DocumentBriefResponseDTO(2L, "Sample Title", null, "1:100", null, "", null, 0)
+        );
+        when(documentAttributeIndex.findDocumentIds(null, null, null, null, FilterOptionForMap.AREA_ONLY)).thenReturn(Optional.of(List.of(2L)));
+        when(documentSnapshotService.getBriefDocuments(List.of(2L))).thenReturn(documents);
+
+        List<DocumentBriefResponseDTO> result = documentService.getDocumentsForMap("area-only");
+
+        assertEquals(documents, result);
+        verify(documentSnapshotService, never()).getDocumentsForMap(any());
+    }
+
+    @Test
+    void searchMap_WithoutKeywordShouldUseAttributeIndex() {
+        List<DocumentBriefResponseDTO> documents = List.of(
+            new DocumentBriefResponseDTO(3L, "Sample Title", List.of("LKAB"), "1:100", null, "", null, 0)
+        );
+        when(documentAttributeIndex.findDocumentIds(null, List.of("LKAB"), "1:100", null, null)).thenReturn(Optional.of(List.of(3L)));
+        when(documentSnapshotService.getBriefDocuments(List.of(3L))).thenReturn(documents);
+
+        List<DocumentBriefResponseDTO> result = documentService.searchMap(" ", null, List.of("LKAB"), "1:100");
+
+        assertEquals(documents, result);
+        verifyNoInteractions(documentRepository);
+    }
+
+    @Test
+    void getDocumentsForMap_ShouldReturnSnapshotForFilter() {
+        List<DocumentBriefResponseDTO> documents = List.of(
+            new DocumentBriefResponseDTO(1L, "Sample Title", null, "1:100", null, "", null, 0)
+        );
+        when(documentSnapshotService.getDocumentsForMap(FilterOptionForMap.POINT_ONLY)).thenReturn(documents);
+
+        List<DocumentBriefResponseDTO> result = documentService.getDocumentsForMap("point-only");
+
+        assertEquals(documents, result);
+        verifyNoInteractions(documentRepository);
+    }
+
+    @Test
+    void getDocumentsForMapInViewport_ShouldQueryBoundingBoxWithMargin() {
+        BoundingBoxDTO bbox = new BoundingBoxDTO(20.0, 67.8, 20.4, 67.9);
+        List<DocumentBriefResponseDTO> documents = List.of(
+            new DocumentBriefResponseDTO(3L, "Sample Title", null, "1:100", null, "", null, 0)
+        );
+        when(geoReferenceRepository.findDocumentIdsInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(),
+            anyDouble(), anyDouble(), anyBoolean(), anyBoolean(), anyInt())).thenReturn(List.of(3L));
+        when(documentSnapshotService.getBriefDocuments(List.of(3L))).thenReturn(documents);
+
+        List<DocumentBriefResponseDTO> result = documentService.getDocumentsForMap("area-only", bbox, 10);
+
+        // 32 pixels at zoom 10 are 32 * 360 / (256 * 1024) degrees
+        double margin = 32 * 360.0 / (256 * 1024);
+        assertEquals(documents, result);
+        verify(geoReferenceRepository).findDocumentIdsInBoundingBox(20.0 - margin, 67.8 - margin, 20.4 + margin, 67.9 + margin,
+            20.2, 67.85, false, true, 500);
+    }
+
+    @Test
+    void getDocumentsForMapInViewport_ShouldBeEmptyWithoutGeolocation() {
+        List<DocumentBriefResponseDTO> result = documentService.getDocumentsForMap("no-geolocation", new BoundingBoxDTO(20.0, 67.8, 20.4, 67.9), null);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(geoReferenceRepository);
+    }
 }
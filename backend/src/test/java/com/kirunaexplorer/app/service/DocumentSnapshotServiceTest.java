@@ -0,0 +1,218 @@
+package com.kirunaexplorer.app.service;
+
+import com.kirunaexplorer.app.constants.DocumentLinkType;
+import com.kirunaexplorer.app.constants.FilterOptionForMap;
+import com.kirunaexplorer.app.dto.inout.LinksDocumentDTO;
+import com.kirunaexplorer.app.dto.response.DocumentBriefResponseDTO;
+import com.kirunaexplorer.app.dto.response.DocumentDiagramResponseDTO;
+import com.kirunaexplorer.app.event.DocumentChangedEvent;
+import com.kirunaexplorer.app.event.DocumentLinkChangedEvent;
+import com.kirunaexplorer.app.model.Document;
+import com.kirunaexplorer.app.model.GeoReference;
+import com.kirunaexplorer.app.model.PointCoordinates;
+import com.kirunaexplorer.app.model.Stakeholder;
+import com.kirunaexplorer.app.repository.DocumentLinkRepository;
+import com.kirunaexplorer.app.repository.DocumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DocumentSnapshotServiceTest {
+
+    private DocumentRepository documentRepository;
+    private DocumentLinkRepository documentLinkRepository;
+    private TransactionTemplate transactionTemplate;
+    private DocumentSnapshotService documentSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        documentRepository = mock(DocumentRepository.class);
+        documentLinkRepository = mock(DocumentLinkRepository.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        // Rebuild on the calling thread so that the tests are deterministic
+        documentSnapshotService = new DocumentSnapshotService(documentRepository, documentLinkRepository, transactionTemplate, Runnable::run);
+    }
+
+    @Test
+    void getDocumentsForDiagram_ShouldServeFromSnapshotAfterFirstLoad() {
+        when(documentRepository.findAllWithStakeholders()).thenReturn(List.of(diagramDocument(1L)));
+        when(documentLinkRepository.findAllEdges()).thenReturn(List.of());
+
+        documentSnapshotService.getDocumentsForDiagram();
+        documentSnapshotService.getDocumentsForDiagram();
+        documentSnapshotService.getDocumentsForMap(FilterOptionForMap.ALL);
+
+        verify(documentRepository, times(1)).findAllWithStakeholders();
+        verify(documentLinkRepository, times(1)).findAllEdges();
+    }
+
+    @Test
+    void onDocumentChanged_ShouldRebuildSnapshot() {
+        when(documentRepository.findAllWithStakeholders()).thenReturn(List.of(diagramDocument(1L)));
+        when(documentLinkRepository.findAllEdges()).thenReturn(List.of());
+        assertEquals(1, documentSnapshotService.getDocumentsForDiagram().size());
+
+        when(documentRepository.findAllWithStakeholders()).thenReturn(List.of(diagramDocument(1L), diagramDocument(2L)));
+        documentSnapshotService.onDocumentChanged(new DocumentChangedEvent(2L));
+
+        assertEquals(2, documentSnapshotService.getDocumentsForDiagram().size());
+        assertEquals(1, documentSnapshotService.getVersion());
+    }
+
+    @Test
+    void onDocumentLinkChanged_ShouldRebuildSnapshot() {
+        when(documentRepository.findAllWithStakeholders()).thenReturn(List.of(diagramDocument(1L), diagramDocument(2L)));
+        when(documentLinkRepository.findAllEdges()).thenReturn(List.of());
+        assertTrue(documentSnapshotService.getDocumentsForDiagram().get(0).links().isEmpty());
+
+        when(documentLinkRepository.findAllEdges()).thenReturn(List.of(linkEdge(1L, 1L, 2L, DocumentLinkType.UPDATE)));
+        documentSnapshotService.onDocumentLinkChanged(new DocumentLinkChangedEvent(1L));
+
+        assertEquals(List.of(new LinksDocumentDTO(2L, DocumentLinkType.UPDATE)), documentSnapshotService.getDocumentsForDiagram().get(0).links());
+    }
+
+    @Test
+    void getDocumentsForMap_ShouldSplitDocumentsByGeolocation() {
+        Document withPoint = diagramDocument(1L);
+        withPoint.setGeoReference(new GeoReference(withPoint, null, new PointCoordinates(1L, null, 67.85, 20.22)));
+        Document withoutGeolocation = diagramDocument(2L);
+        withoutGeolocation.setGeoReference(new GeoReference(withoutGeolocation, null, null));
+
+        when(documentRepository.findAllWithStakeholders()).thenReturn(List.of(withPoint, withoutGeolocation));
+        when(documentLinkRepository.findAllEdges()).thenReturn(List.of());
+
+        List<DocumentBriefResponseDTO> points = documentSnapshotService.getDocumentsForMap(FilterOptionForMap.POINT_ONLY);
+        List<DocumentBriefResponseDTO> noGeolocation = documentSnapshotService.getDocumentsForMap(FilterOptionForMap.NO_GEOLOCATION);
+
+        assertEquals(List.of(1L), points.stream().map(DocumentBriefResponseDTO::id).toList());
+        assertEquals(List.of(2L), noGeolocation.stream().map(DocumentBriefResponseDTO::id).toList());
+        assertTrue(documentSnapshotService.getDocumentsForMap(FilterOptionForMap.AREA_ONLY).isEmpty());
+        assertEquals(2, documentSnapshotService.getDocumentsForMap(FilterOptionForMap.ALL).size());
+    }
+
+    @Test
+    void getBriefDocuments_ShouldKeepOrderAndSkipUnknownIds() {
+        when(documentRepository.findAllWithStakeholders()).thenReturn(List.of(diagramDocument(1L), diagramDocument(2L)));
+        when(documentLinkRepository.findAllEdges()).thenReturn(List.of());
+
+        List<DocumentBriefResponseDTO> result = documentSnapshotService.getBriefDocuments(List.of(2L, 3L, 1L));
+
+        assertEquals(List.of(2L, 1L), result.stream().map(DocumentBriefResponseDTO::id).toList());
+    }
+
+    @Test
+    void getBriefDocuments_ShouldCarryConnectionCounters() {
+        Document linked = diagramDocument(1L);
+        linked.setNrConnections(2);
+        when(documentRepository.findAllWithStakeholders()).thenReturn(List.of(linked, diagramDocument(2L)));
+        when(documentLinkRepository.findAllEdges()).thenReturn(List.of());
+
+        List<DocumentBriefResponseDTO> result = documentSnapshotService.getBriefDocuments(List.of(1L, 2L));
+
+        assertEquals(List.of(2, 0), result.stream().map(DocumentBriefResponseDTO::nrConnections).toList());
+    }
+
+    @Test
+    void getDocumentsForDiagram_ShouldBuildLinksForBothEndpoints() {
+        Document first = diagramDocument(1L);
+        Document second = diagramDocument(2L);
+        Document third = diagramDocument(3L);
+
+        when(documentRepository.findAllWithStakeholders()).thenReturn(List.of(first, second, third));
+        when(documentLinkRepository.findAllEdges()).thenReturn(List.of(
+            linkEdge(10L, 1L, 2L, DocumentLinkType.DIRECT_CONSEQUENCE),
+            linkEdge(11L, 1L, 3L, DocumentLinkType.UPDATE)
+        ));
+
+        List<DocumentDiagramResponseDTO> result = documentSnapshotService.getDocumentsForDiagram();
+
+        assertEquals(3, result.size());
+        assertEquals(List.of(
+            new LinksDocumentDTO(2L, DocumentLinkType.DIRECT_CONSEQUENCE),
+            new LinksDocumentDTO(3L, DocumentLinkType.UPDATE)
+        ), result.get(0).links());
+        assertEquals(List.of(new LinksDocumentDTO(1L, DocumentLinkType.DIRECT_CONSEQUENCE)), result.get(1).links());
+        assertEquals(List.of(new LinksDocumentDTO(1L, DocumentLinkType.UPDATE)), result.get(2).links());
+    }
+
+    @Test
+    void getDocumentsForDiagram_ShouldIssueConstantNumberOfQueries() {
+        for (int size : new int[]{5, 500}) {
+            clearInvocations(documentRepository, documentLinkRepository);
+            documentSnapshotService = new DocumentSnapshotService(documentRepository, documentLinkRepository, transactionTemplate, Runnable::run);
+
+            List<Document> documents = new ArrayList<>();
+            List<DocumentLinkRepository.LinkEdge> edges = new ArrayList<>();
+            for (long id = 1; id <= size; id++) {
+                documents.add(diagramDocument(id));
+                if (id > 1) {
+                    edges.add(linkEdge(id, id - 1, id, DocumentLinkType.PREVISION));
+                }
+            }
+            when(documentRepository.findAllWithStakeholders()).thenReturn(documents);
+            when(documentLinkRepository.findAllEdges()).thenReturn(edges);
+
+            List<DocumentDiagramResponseDTO> result = documentSnapshotService.getDocumentsForDiagram();
+
+            assertEquals(size, result.size());
+            verify(documentRepository, times(1)).findAllWithStakeholders();
+            verify(documentLinkRepository, times(1)).findAllEdges();
+            verifyNoMoreInteractions(documentRepository, documentLinkRepository);
+        }
+    }
+
+    private static Document diagramDocument(Long id) {
+        Document document = new Document();
+        document.setId(id);
+        document.setTitle("Document " + id);
+        document.setStakeholders(List.of(new Stakeholder("Stakeholder A")));
+        document.setScale("Text");
+        document.setIssuanceDate(LocalDate.of(2004, 1, 1));
+        document.setDatePrecision(Document.DatePrecision.YEAR_ONLY);
+        document.setType("Design document");
+        document.setGeoReference(new GeoReference(document, null, null));
+        return document;
+    }
+
+    private static DocumentLinkRepository.LinkEdge linkEdge(Long id, Long documentId, Long linkedDocumentId, DocumentLinkType type) {
+        return new LinkEdgeStub(id, documentId, linkedDocumentId, type);
+    }
+
+    private record LinkEdgeStub(
+        Long id,
+        Long documentId,
+        Long linkedDocumentId,
+        DocumentLinkType type
+    ) implements DocumentLinkRepository.LinkEdge {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getDocumentId() {
+            return documentId;
+        }
+
+        @Override
+        public Long getLinkedDocumentId() {
+            return linkedDocumentId;
+        }
+
+        @Override
+        public DocumentLinkType getType() {
+            return type;
+        }
+    }
+}
@@ -23,7 +23,7 @@ class DocumentTypeServiceTest {
     @BeforeEach
     void setUp() {
         documentTypeRepository = mock(DocumentTypeRepository.class);
-        documentTypeService = new DocumentTypeService(documentTypeRepository);
+        documentTypeService = new DocumentTypeService(documentTypeRepository, mock(VocabularyCache.class));
     }
 
     @Test
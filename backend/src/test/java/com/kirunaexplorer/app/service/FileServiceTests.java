@@ -7,12 +7,20 @@ import com.kirunaexplorer.app.model.Document;
 import com.kirunaexplorer.app.model.DocumentFile;
 import com.kirunaexplorer.app.repository.DocumentRepository;
 import com.kirunaexplorer.app.repository.FileRepository;
+import com.kirunaexplorer.app.storage.BlobGarbageCollector;
+import com.kirunaexplorer.app.storage.BlobStore;
+import com.kirunaexplorer.app.storage.FileContent;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
 
 import java.util.*;
 
@@ -20,6 +28,7 @@ import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class FileServiceTests {
+    private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
 
     @Mock
     private FileRepository fileRepository;
@@ -27,6 +36,15 @@ class FileServiceTests {
     @Mock
     private DocumentRepository documentRepository;
 
+    @Mock
+    private BlobStore blobStore;
+
+    @Mock
+    private BlobGarbageCollector blobGarbageCollector;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private FileService fileService;
 
@@ -38,8 +56,8 @@ class FileServiceTests {
         document.setId(documentId);
 
         FileUploadRequestDTO request = mock(FileUploadRequestDTO.class);
-        DocumentFile file = new DocumentFile(null, document, "file1", "txt", 1024L, new byte[]{});
-        when(request.toDocumentFiles(document)).thenReturn(List.of(file));
+        DocumentFile file = new DocumentFile(null, document, "file1", "txt", 1024L, HASH);
+        when(request.toDocumentFiles(document, blobStore)).thenReturn(List.of(file));
 
         when(documentRepository.findById(documentId)).thenReturn(Optional.of(document));
         when(fileRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
@@ -47,6 +65,7 @@ class FileServiceTests {
         Long result = fileService.storeFiles(documentId, request);
 
         Assertions.assertEquals(file.getId(), result);
+        verify(blobGarbageCollector).retain(HASH);
         verify(fileRepository).saveAll(anyList());
     }
 
@@ -66,17 +85,34 @@ class FileServiceTests {
     @Test
     void shouldReturnFileContentSuccessfully() {
         Long fileId = 1L;
-        byte[] content = new byte[]{1, 2, 3};
+        Resource content = new ByteArrayResource(new byte[]{1, 2, 3});
 
-        DocumentFile file = new DocumentFile(fileId, null, "file1", "txt", 1024L, content);
+        DocumentFile file = new DocumentFile(fileId, null, "file1", "txt", 3L, HASH);
         when(fileRepository.findById(fileId)).thenReturn(Optional.of(file));
+        when(blobStore.load(HASH)).thenReturn(content);
 
-        byte[] result = fileService.getFile(fileId);
+        FileContent result = fileService.getFile(fileId);
 
-        Assertions.assertArrayEquals(content, result);
+        Assertions.assertSame(content, result.resource());
+        Assertions.assertEquals(3L, result.size());
+        Assertions.assertEquals(HASH, result.contentHash());
         verify(fileRepository).findById(fileId);
     }
 
+    @Test
+    void shouldReturnLegacyFileContentFromDatabase() throws IOException {
+        Long fileId = 1L;
+        byte[] content = new byte[]{1, 2, 3};
+
+        DocumentFile file = new DocumentFile(fileId, null, "file1", "txt", 3L, null, content);
+        when(fileRepository.findById(fileId)).thenReturn(Optional.of(file));
+
+        FileContent result = fileService.getFile(fileId);
+
+        Assertions.assertArrayEquals(content, result.resource().getContentAsByteArray());
+        verify(blobStore, never()).load(any());
+    }
+
     @Test
     void shouldThrowExceptionWhenFileNotFound() {
         Long fileId = 1L;
@@ -91,7 +127,7 @@ class FileServiceTests {
     void shouldDeleteFileSuccessfully() {
         Long fileId = 1L;
         Document document = new Document();
-        DocumentFile file = new DocumentFile(fileId, document, "file1", "txt", 1024L, new byte[]{});
+        DocumentFile file = new DocumentFile(fileId, document, "file1", "txt", 1024L, HASH);
         document.setDocumentFiles(new HashSet<>(Set.of(file)));  // Usa un HashSet per permettere la modifica
 
         when(fileRepository.findById(fileId)).thenReturn(Optional.of(file));
@@ -102,6 +138,8 @@ class FileServiceTests {
 
         verify(fileRepository).delete(file);
         verify(documentRepository).save(document);
+        // The content may be shared or about to be shared, it is left to the garbage collector
+        verifyNoInteractions(blobStore, blobGarbageCollector);
         Assertions.assertTrue(document.getDocumentFiles().isEmpty());
     }
 
@@ -122,8 +160,8 @@ class FileServiceTests {
     void shouldReturnFilesSnippetSuccessfully() {
         Long documentId = 1L;
         Document document = new Document();
-        DocumentFile file1 = new DocumentFile(1L, document, "file1", "txt", 1024L, new byte[]{});
-        DocumentFile file2 = new DocumentFile(2L, document, "file2", "pdf", 2048L, new byte[]{});
+        DocumentFile file1 = new DocumentFile(1L, document, "file1", "txt", 1024L, HASH);
+        DocumentFile file2 = new DocumentFile(2L, document, "file2", "pdf", 2048L, HASH);
         document.setDocumentFiles(Set.of(file1, file2));
 
         when(documentRepository.findById(documentId)).thenReturn(Optional.of(document));
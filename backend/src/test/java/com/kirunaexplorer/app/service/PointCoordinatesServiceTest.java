@@ -10,6 +10,7 @@ import com.kirunaexplorer.app.repository.PointCoordinatesRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
@@ -27,7 +28,7 @@ public class PointCoordinatesServiceTest {
     @BeforeEach
     void setUp() {
         pointCoordinatesRepository = Mockito.mock(PointCoordinatesRepository.class);
-        pointCoordinatesService = new PointCoordinatesService(pointCoordinatesRepository);
+        pointCoordinatesService = new PointCoordinatesService(pointCoordinatesRepository, Mockito.mock(ApplicationEventPublisher.class));
     }
 
     @Test
@@ -22,6 +22,9 @@ public class StakeholderServiceTest {
     @Mock
     private StakeholderRepository stakeholderRepository;
 
+    @Mock
+    private VocabularyCache vocabularyCache;
+
     @InjectMocks
     private StakeholderService stakeholderService;
 
@@ -0,0 +1,62 @@
+package com.kirunaexplorer.app.service;
+
+import com.kirunaexplorer.app.exception.InvalidQueryParameterException;
+import com.kirunaexplorer.app.repository.DocumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SuggestServiceTest {
+
+    @Mock
+    private VocabularyCache vocabularyCache;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @InjectMocks
+    private SuggestService suggestService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void suggest_ShouldMatchTitlesWithEscapedPattern() {
+        when(documentRepository.suggestTitles("50%_plan", "50\\%\\_plan", 5)).thenReturn(List.of("50%_Plan"));
+
+        assertEquals(List.of("50%_Plan"), suggestService.suggest("title", " 50%_Plan ", 5));
+    }
+
+    @Test
+    void suggest_ShouldTolerateMoreTyposForLongerQueries() {
+        when(vocabularyCache.suggestStakeholders("lk", 0, 10)).thenReturn(List.of("LKAB"));
+        when(vocabularyCache.suggestDocumentTypes("design", 2, 10)).thenReturn(List.of("Design document"));
+        when(vocabularyCache.suggestDocumentScales("blue", 1, 10)).thenReturn(List.of("blueprints/effects"));
+
+        assertEquals(List.of("LKAB"), suggestService.suggest("stakeholder", "lk", 10));
+        assertEquals(List.of("Design document"), suggestService.suggest("type", "design", 10));
+        assertEquals(List.of("blueprints/effects"), suggestService.suggest("SCALE", "blue", 10));
+    }
+
+    @Test
+    void suggest_ShouldReturnNothingForBlankQuery() {
+        assertTrue(suggestService.suggest("title", "  ", 10).isEmpty());
+        verifyNoInteractions(documentRepository, vocabularyCache);
+    }
+
+    @Test
+    void suggest_ShouldRejectInvalidFieldAndLimit() {
+        assertThrows(InvalidQueryParameterException.class, () -> suggestService.suggest("description", "kiruna", 10));
+        assertThrows(InvalidQueryParameterException.class, () -> suggestService.suggest("title", "kiruna", 0));
+        assertThrows(InvalidQueryParameterException.class, () -> suggestService.suggest("title", "kiruna", SuggestService.MAX_LIMIT + 1));
+    }
+}
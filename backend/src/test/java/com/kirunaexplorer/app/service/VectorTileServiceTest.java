@@ -0,0 +1,92 @@
+package com.kirunaexplorer.app.service;
+
+import com.kirunaexplorer.app.config.StorageProperties;
+import com.kirunaexplorer.app.event.AreaChangedEvent;
+import com.kirunaexplorer.app.exception.ResourceNotFoundException;
+import com.kirunaexplorer.app.repository.AreaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class VectorTileServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private AreaRepository areaRepository;
+    private VectorTileService vectorTileService;
+
+    @BeforeEach
+    void setUp() {
+        StorageProperties storageProperties = new StorageProperties();
+        storageProperties.getTiles().setDir(dir.toString());
+
+        areaRepository = mock(AreaRepository.class);
+        vectorTileService = new VectorTileService(areaRepository, storageProperties, Runnable::run);
+    }
+
+    @Test
+    void getTile_ShouldBeServedFromDiskAfterFirstRequest() {
+        when(areaRepository.encodeVectorTile(eq(10), eq(562), eq(250), anyDouble())).thenReturn(new byte[]{1, 2, 3});
+
+        assertArrayEquals(new byte[]{1, 2, 3}, vectorTileService.getTile(10, 562, 250));
+        assertArrayEquals(new byte[]{1, 2, 3}, vectorTileService.getTile(10, 562, 250));
+
+        verify(areaRepository, times(1)).encodeVectorTile(eq(10), eq(562), eq(250), anyDouble());
+        assertTrue(Files.exists(dir.resolve("0/10/562/250.mvt")));
+    }
+
+    @Test
+    void getTile_ShouldSimplifyToPixelSize() {
+        when(areaRepository.encodeVectorTile(eq(0), eq(0), eq(0), anyDouble())).thenReturn(null);
+
+        assertArrayEquals(new byte[0], vectorTileService.getTile(0, 0, 0));
+
+        verify(areaRepository).encodeVectorTile(0, 0, 0, 40075016.68557849 / 4096);
+    }
+
+    @Test
+    void onAreaChanged_ShouldInvalidateCachedTiles() {
+        when(areaRepository.encodeVectorTile(eq(10), eq(562), eq(250), anyDouble()))
+            .thenReturn(new byte[]{1})
+            .thenReturn(new byte[]{2});
+        vectorTileService.getTile(10, 562, 250);
+
+        vectorTileService.onAreaChanged(new AreaChangedEvent(1L));
+
+        assertArrayEquals(new byte[]{2}, vectorTileService.getTile(10, 562, 250));
+        assertFalse(Files.exists(dir.resolve("0")));
+        assertTrue(Files.exists(dir.resolve("1/10/562/250.mvt")));
+    }
+
+    @Test
+    void getTile_ShouldRejectCoordinatesOutsideZoomLevel() {
+        assertThrows(ResourceNotFoundException.class, () -> vectorTileService.getTile(2, 4, 0));
+        assertThrows(ResourceNotFoundException.class, () -> vectorTileService.getTile(23, 0, 0));
+        assertThrows(ResourceNotFoundException.class, () -> vectorTileService.getTile(1, 0, -1));
+        verifyNoInteractions(areaRepository);
+    }
+
+    @Test
+    void constructor_ShouldDropTilesOfPreviousRun() throws IOException {
+        Files.createDirectories(dir.resolve("3/0/0"));
+        Files.write(dir.resolve("3/0/0/0.mvt"), new byte[]{9});
+        Files.writeString(dir.resolve("README"), "keep");
+
+        StorageProperties storageProperties = new StorageProperties();
+        storageProperties.getTiles().setDir(dir.toString());
+        new VectorTileService(areaRepository, storageProperties, Runnable::run);
+
+        assertFalse(Files.exists(dir.resolve("3")));
+        assertTrue(Files.exists(dir.resolve("README")));
+    }
+}
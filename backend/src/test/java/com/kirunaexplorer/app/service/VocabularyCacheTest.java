@@ -0,0 +1,98 @@
+package com.kirunaexplorer.app.service;
+
+import com.kirunaexplorer.app.repository.DocumentScaleRepository;
+import com.kirunaexplorer.app.repository.DocumentTypeRepository;
+import com.kirunaexplorer.app.repository.StakeholderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class VocabularyCacheTest {
+
+    private StakeholderRepository stakeholderRepository;
+    private DocumentTypeRepository documentTypeRepository;
+    private DocumentScaleRepository documentScaleRepository;
+    private VocabularyCache vocabularyCache;
+
+    @BeforeEach
+    void setUp() {
+        stakeholderRepository = mock(StakeholderRepository.class);
+        documentTypeRepository = mock(DocumentTypeRepository.class);
+        documentScaleRepository = mock(DocumentScaleRepository.class);
+        vocabularyCache = new VocabularyCache(stakeholderRepository, documentTypeRepository, documentScaleRepository);
+
+        when(stakeholderRepository.findAllNames()).thenReturn(List.of("LKAB", "Kiruna kommun"));
+        when(documentTypeRepository.findAllTypeNames()).thenReturn(List.of("Design document"));
+        when(documentScaleRepository.findAllScales()).thenReturn(List.of("blueprints/effects"));
+    }
+
+    @Test
+    void onlyMissingStakeholdersAreInserted() {
+        vocabularyCache.ensureStakeholders(List.of("LKAB", "Residents", "Residents"));
+
+        verify(stakeholderRepository).insertMissing(new String[]{"Residents"});
+    }
+
+    @Test
+    void knownNamesDoNotTouchTheDatabase() {
+        vocabularyCache.ensureStakeholders(List.of("LKAB", "Kiruna kommun"));
+        vocabularyCache.ensureDocumentType("Design document");
+        vocabularyCache.ensureDocumentScale("blueprints/effects");
+
+        verify(stakeholderRepository, never()).insertMissing(any());
+        verify(documentTypeRepository, never()).insertIfMissing(any());
+        verify(documentScaleRepository, never()).insertIfMissing(any());
+    }
+
+    @Test
+    void vocabularyIsLoadedOnce() {
+        vocabularyCache.ensureStakeholders(List.of("Residents"));
+        vocabularyCache.ensureStakeholders(List.of("Residents"));
+        vocabularyCache.ensureStakeholders(List.of("LKAB"));
+
+        verify(stakeholderRepository, times(1)).findAllNames();
+        verify(stakeholderRepository, times(1)).insertMissing(new String[]{"Residents"});
+    }
+
+    @Test
+    void newTypeAndScaleAreInserted() {
+        vocabularyCache.ensureDocumentType("Technical document");
+        vocabularyCache.ensureDocumentScale("Text");
+
+        verify(documentTypeRepository).insertIfMissing("Technical document");
+        verify(documentScaleRepository).insertIfMissing("Text");
+    }
+
+    @Test
+    void ratioScalesAreNotStored() {
+        vocabularyCache.ensureDocumentScale("1:10000");
+
+        verify(documentScaleRepository, never()).insertIfMissing(any());
+        verify(documentScaleRepository, never()).findAllScales();
+    }
+
+    @Test
+    void namesStoredByServicesAreCached() {
+        vocabularyCache.stakeholderAdded("Residents");
+        vocabularyCache.documentTypeAdded("Technical document");
+
+        vocabularyCache.ensureStakeholders(List.of("Residents"));
+        vocabularyCache.ensureDocumentType("Technical document");
+
+        verify(stakeholderRepository, never()).insertMissing(any());
+        verify(documentTypeRepository, never()).insertIfMissing(any());
+    }
+
+    @Test
+    void storedStakeholdersAreSuggested() {
+        vocabularyCache.ensureStakeholders(List.of("Kiruna residents"));
+
+        assertEquals(List.of("Kiruna kommun", "Kiruna residents"), vocabularyCache.suggestStakeholders("kir", 1, 10));
+        assertEquals(List.of("Kiruna residents"), vocabularyCache.suggestStakeholders("res", 1, 10));
+    }
+}
@@ -0,0 +1,83 @@
+package com.kirunaexplorer.app.storage;
+
+import com.kirunaexplorer.app.config.StorageProperties;
+import com.kirunaexplorer.app.exception.FileStorageException;
+import com.kirunaexplorer.app.repository.FileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class BlobGarbageCollectorTest {
+    private static final String USED = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+    private static final String UNUSED = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private static final String ATTACHED = "2c26b46b68ffc68ff99b453c1d30413413422d706483bfa0f98a5e886266e7ae";
+
+    private FileRepository fileRepository;
+    private BlobStore blobStore;
+    private BlobGarbageCollector blobGarbageCollector;
+
+    @BeforeEach
+    void setUp() {
+        fileRepository = mock(FileRepository.class);
+        blobStore = mock(BlobStore.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        blobGarbageCollector = new BlobGarbageCollector(fileRepository, blobStore, transactionTemplate, new StorageProperties());
+    }
+
+    @Test
+    void collect_ShouldDeleteOnlyUnreferencedBlobs() {
+        when(blobStore.findStoredBefore(any())).thenReturn(Stream.of(USED, UNUSED, ATTACHED));
+        when(fileRepository.findReferencedContentHashes(anyCollection())).thenReturn(List.of(USED));
+        // Attached to a file after the batch was checked
+        when(fileRepository.existsByContentHash(ATTACHED)).thenReturn(true);
+        when(blobStore.deleteIfStoredBefore(eq(UNUSED), any())).thenReturn(true);
+
+        assertEquals(1, blobGarbageCollector.collect());
+
+        InOrder inOrder = inOrder(fileRepository, blobStore);
+        inOrder.verify(fileRepository).lockContentHash(UNUSED);
+        inOrder.verify(fileRepository).existsByContentHash(UNUSED);
+        inOrder.verify(blobStore).deleteIfStoredBefore(eq(UNUSED), any());
+        verify(fileRepository, never()).lockContentHash(USED);
+        verify(blobStore, never()).deleteIfStoredBefore(eq(ATTACHED), any());
+    }
+
+    @Test
+    void collect_ShouldDoNothingWithoutOldBlobs() {
+        when(blobStore.findStoredBefore(any())).thenReturn(Stream.empty());
+
+        assertEquals(0, blobGarbageCollector.collect());
+
+        verifyNoInteractions(fileRepository);
+    }
+
+    @Test
+    void retain_ShouldLockTheHashAndCheckTheBlob() {
+        when(blobStore.exists(USED)).thenReturn(true);
+
+        blobGarbageCollector.retain(USED);
+
+        InOrder inOrder = inOrder(fileRepository, blobStore);
+        inOrder.verify(fileRepository).lockContentHashShared(USED);
+        inOrder.verify(blobStore).exists(USED);
+    }
+
+    @Test
+    void retain_ShouldFailWhenTheBlobWasDeleted() {
+        when(blobStore.exists(USED)).thenReturn(false);
+
+        assertThrows(FileStorageException.class, () -> blobGarbageCollector.retain(USED));
+    }
+}
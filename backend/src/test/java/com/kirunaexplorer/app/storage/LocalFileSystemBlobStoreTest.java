@@ -0,0 +1,110 @@
+package com.kirunaexplorer.app.storage;
+
+import com.kirunaexplorer.app.config.StorageProperties;
+import com.kirunaexplorer.app.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalFileSystemBlobStoreTest {
+    // SHA-256 of "test"
+    private static final String TEST_HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @TempDir
+    Path root;
+
+    private LocalFileSystemBlobStore blobStore;
+
+    @BeforeEach
+    void setUp() {
+        StorageProperties storageProperties = new StorageProperties();
+        storageProperties.getLocal().setRoot(root.toString());
+        blobStore = new LocalFileSystemBlobStore(storageProperties);
+    }
+
+    @Test
+    void storeKeysContentBySha256() throws IOException {
+        StoredBlob blob = blobStore.store(stream("test"));
+
+        assertEquals(TEST_HASH, blob.hash());
+        assertEquals(4L, blob.size());
+        assertEquals("test", blobStore.load(TEST_HASH).getContentAsString(StandardCharsets.UTF_8));
+        assertTrue(Files.isRegularFile(root.resolve("9f").resolve("86").resolve(TEST_HASH)));
+    }
+
+    @Test
+    void storeDeduplicatesIdenticalContent() throws IOException {
+        StoredBlob first = blobStore.store(stream("test"));
+        StoredBlob second = blobStore.store(stream("test"));
+
+        assertEquals(first, second);
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void storeRefreshesExistingBlob() throws IOException {
+        blobStore.store(stream("test"));
+        Path blob = root.resolve("9f").resolve("86").resolve(TEST_HASH);
+        Files.setLastModifiedTime(blob, FileTime.from(Instant.now().minus(2, ChronoUnit.DAYS)));
+
+        blobStore.store(stream("test"));
+
+        assertTrue(Files.getLastModifiedTime(blob).toInstant().isAfter(Instant.now().minus(1, ChronoUnit.HOURS)));
+    }
+
+    @Test
+    void findStoredBeforeListsOnlyOldBlobs() throws IOException {
+        blobStore.store(stream("test"));
+        StoredBlob recent = blobStore.store(stream("recent"));
+        Files.setLastModifiedTime(root.resolve("9f").resolve("86").resolve(TEST_HASH), FileTime.from(Instant.now().minus(2, ChronoUnit.DAYS)));
+
+        try (Stream<String> hashes = blobStore.findStoredBefore(Instant.now().minus(1, ChronoUnit.DAYS))) {
+            assertEquals(List.of(TEST_HASH), hashes.toList());
+        }
+        assertTrue(blobStore.exists(recent.hash()));
+    }
+
+    @Test
+    void deleteIfStoredBeforeRemovesOldBlob() throws IOException {
+        blobStore.store(stream("test"));
+        Files.setLastModifiedTime(root.resolve("9f").resolve("86").resolve(TEST_HASH), FileTime.from(Instant.now().minus(2, ChronoUnit.DAYS)));
+
+        assertTrue(blobStore.deleteIfStoredBefore(TEST_HASH, Instant.now().minus(1, ChronoUnit.DAYS)));
+
+        assertFalse(blobStore.exists(TEST_HASH));
+        assertThrows(ResourceNotFoundException.class, () -> blobStore.load(TEST_HASH));
+    }
+
+    @Test
+    void deleteIfStoredBeforeKeepsRecentBlob() {
+        blobStore.store(stream("test"));
+
+        assertFalse(blobStore.deleteIfStoredBefore(TEST_HASH, Instant.now().minus(1, ChronoUnit.DAYS)));
+
+        assertTrue(blobStore.exists(TEST_HASH));
+    }
+
+    @Test
+    void loadRejectsInvalidHash() {
+        assertThrows(IllegalArgumentException.class, () -> blobStore.load("../../etc/passwd"));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,82 @@
+package com.kirunaexplorer.app.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kirunaexplorer.app.constants.GeometryType;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeometryConverterTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void pointUsesLongitudeAsX() {
+        Point point = GeometryConverter.toPoint(67.85, 20.22);
+
+        assertEquals(20.22, point.getX());
+        assertEquals(67.85, point.getY());
+        assertEquals(4326, point.getSRID());
+        assertNull(GeometryConverter.toPoint(null, 20.22));
+    }
+
+    @Test
+    void polygonFromLatitudeLongitudeObjects() throws Exception {
+        JsonNode coordinates = mapper.readTree("""
+            [{"latitude": 67.0, "longitude": 20.0}, {"latitude": 67.0, "longitude": 21.0},
+             {"latitude": 68.0, "longitude": 21.0}, {"latitude": 68.0, "longitude": 20.0}]
+            """);
+
+        MultiPolygon multiPolygon = GeometryConverter.toMultiPolygon(GeometryType.POLYGON, coordinates);
+
+        assertEquals(1, multiPolygon.getNumGeometries());
+        assertEquals(1.0, multiPolygon.getArea(), 1e-9);
+        assertTrue(multiPolygon.isValid());
+        assertEquals(4326, multiPolygon.getSRID());
+        assertTrue(multiPolygon.getEnvelopeInternal().contains(20.5, 67.5));
+    }
+
+    @Test
+    void polygonFromGeoJsonRings() throws Exception {
+        JsonNode coordinates = mapper.readTree("""
+            [[[20.0, 67.0], [24.0, 67.0], [24.0, 71.0], [20.0, 71.0], [20.0, 67.0]],
+             [[21.0, 68.0], [22.0, 68.0], [22.0, 69.0], [21.0, 69.0], [21.0, 68.0]]]
+            """);
+
+        MultiPolygon multiPolygon = GeometryConverter.toMultiPolygon(GeometryType.POLYGON, coordinates);
+
+        assertEquals(15.0, multiPolygon.getArea(), 1e-9);
+    }
+
+    @Test
+    void multiPolygonFromListOfRings() throws Exception {
+        JsonNode coordinates = mapper.readTree("""
+            [[{"latitude": 67.0, "longitude": 20.0}, {"latitude": 67.0, "longitude": 21.0}, {"latitude": 68.0, "longitude": 21.0}],
+             [{"latitude": 69.0, "longitude": 22.0}, {"latitude": 69.0, "longitude": 23.0}, {"latitude": 70.0, "longitude": 23.0}]]
+            """);
+
+        MultiPolygon multiPolygon = GeometryConverter.toMultiPolygon(GeometryType.MULTIPOLYGON, coordinates);
+
+        assertEquals(2, multiPolygon.getNumGeometries());
+        assertEquals(1.0, multiPolygon.getArea(), 1e-9);
+    }
+
+    @Test
+    void selfIntersectingPolygonIsMadeValid() throws Exception {
+        JsonNode coordinates = mapper.readTree("[[20.0, 67.0], [21.0, 68.0], [21.0, 67.0], [20.0, 68.0]]");
+
+        MultiPolygon multiPolygon = GeometryConverter.toMultiPolygon(GeometryType.POLYGON, coordinates);
+
+        assertTrue(multiPolygon.isValid());
+        assertEquals(2, multiPolygon.getNumGeometries());
+    }
+
+    @Test
+    void degenerateCoordinatesGiveNoGeometry() throws Exception {
+        assertNull(GeometryConverter.toMultiPolygon(GeometryType.POLYGON, mapper.readTree("[[20.0, 67.0], [21.0, 68.0]]")));
+        assertNull(GeometryConverter.toMultiPolygon(GeometryType.POLYGON, mapper.readTree("{}")));
+        assertNull(GeometryConverter.toMultiPolygon(null, mapper.readTree("[]")));
+    }
+}
@@ -0,0 +1,77 @@
+package com.kirunaexplorer.app.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kirunaexplorer.app.constants.GeometryType;
+import com.kirunaexplorer.app.model.AreaSimplification;
+import com.kirunaexplorer.app.model.Geometry;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.MultiPolygon;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeometrySimplifierTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void detailedBoundaryLosesVerticesAtLowZoom() throws Exception {
+        Geometry geometry = new Geometry(GeometryType.POLYGON, circle(1000, true));
+
+        List<AreaSimplification> simplifications = GeometrySimplifier.simplify(geometry);
+
+        assertEquals(GeometrySimplifier.LEVEL_ZOOMS.length, simplifications.size());
+        for (int i = 1; i < simplifications.size(); i++) {
+            assertTrue(simplifications.get(i - 1).getTolerance() > simplifications.get(i).getTolerance());
+            assertTrue(simplifications.get(i - 1).getVertices() <= simplifications.get(i).getVertices());
+        }
+        AreaSimplification coarsest = simplifications.get(0);
+        assertTrue(coarsest.getVertices() < 100);
+
+        // Still a valid polygon in the client format
+        assertEquals(GeometryType.POLYGON, coarsest.getType());
+        JsonNode coordinates = mapper.readTree(coarsest.getCoordinates());
+        assertTrue(coordinates.get(0).has("latitude"));
+        MultiPolygon multiPolygon = coarsest.toGeometry().toMultiPolygon();
+        assertTrue(multiPolygon.isValid());
+        assertEquals(Math.PI * 0.25, multiPolygon.getArea(), 0.1);
+    }
+
+    @Test
+    void geoJsonRingsAreWrittenBackAsRings() throws Exception {
+        String coordinates = """
+            [[[20.0, 67.0], [21.0, 67.0], [21.0, 68.0], [20.0, 68.0], [20.0, 67.0]],
+             [[20.4, 67.4], [20.6, 67.4], [20.6, 67.6], [20.4, 67.6], [20.4, 67.4]]]
+            """;
+
+        AreaSimplification finest = GeometrySimplifier.simplify(new Geometry(GeometryType.POLYGON, coordinates)).get(3);
+
+        JsonNode written = mapper.readTree(finest.getCoordinates());
+        assertEquals(2, written.size());
+        assertTrue(written.get(0).get(0).isArray());
+        assertEquals(10, finest.getVertices());
+    }
+
+    @Test
+    void invalidGeometryHasNoSimplification() {
+        assertTrue(GeometrySimplifier.simplify(new Geometry(GeometryType.POLYGON, "[]")).isEmpty());
+        assertTrue(GeometrySimplifier.simplify(null).isEmpty());
+    }
+
+    private static String circle(int vertices, boolean objectPositions) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            double longitude = 20.5 + 0.5 * Math.cos(angle);
+            double latitude = 67.5 + 0.5 * Math.sin(angle);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(objectPositions
+                ? "{\"latitude\": " + latitude + ", \"longitude\": " + longitude + "}"
+                : "[" + longitude + ", " + latitude + "]");
+        }
+        return json.append(']').toString();
+    }
+}
@@ -0,0 +1,76 @@
+package com.kirunaexplorer.app.util;
+
+import com.kirunaexplorer.app.constants.DocumentLinkType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.kirunaexplorer.app.constants.DocumentLinkType.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LinkGraphTest {
+
+    private LinkGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        // 1 - 2 - 3 - 4 with a shortcut 1 - 4 by update, and 10 - 11 apart
+        graph = LinkGraph.of(List.of(
+            new LinkGraph.Edge(2, 1, DIRECT_CONSEQUENCE),
+            new LinkGraph.Edge(2, 3, PREVISION),
+            new LinkGraph.Edge(3, 4, DIRECT_CONSEQUENCE),
+            new LinkGraph.Edge(1, 4, UPDATE),
+            new LinkGraph.Edge(2, 3, UPDATE),
+            new LinkGraph.Edge(10, 11, COLLATERAL_CONSEQUENCE)
+        ));
+    }
+
+    @Test
+    void neighbourhood_ShouldFindDocumentsWithinDepth() {
+        assertEquals(Map.of(2L, 1, 4L, 1), graph.neighbourhood(1, 1, LinkGraph.ALL_TYPES));
+        assertEquals(Map.of(2L, 1, 4L, 1, 3L, 2), graph.neighbourhood(1, 2, LinkGraph.ALL_TYPES));
+        assertTrue(graph.neighbourhood(5, 2, LinkGraph.ALL_TYPES).isEmpty());
+    }
+
+    @Test
+    void neighbourhood_ShouldOnlyFollowGivenTypes() {
+        int mask = LinkGraph.mask(Set.of(DIRECT_CONSEQUENCE, PREVISION));
+
+        assertEquals(Map.of(2L, 1, 3L, 2, 4L, 3), graph.neighbourhood(1, 5, mask));
+    }
+
+    @Test
+    void shortestPath_ShouldReturnFewestLinks() {
+        assertEquals(List.of(
+            new LinkGraph.Step(2, null),
+            new LinkGraph.Step(1, DIRECT_CONSEQUENCE),
+            new LinkGraph.Step(4, UPDATE)
+        ), graph.shortestPath(2, 4, LinkGraph.ALL_TYPES));
+
+        List<LinkGraph.Step> withoutUpdates = graph.shortestPath(2, 4, LinkGraph.mask(List.of(DIRECT_CONSEQUENCE, PREVISION)));
+        assertEquals(List.of(2L, 3L, 4L), withoutUpdates.stream().map(LinkGraph.Step::documentId).toList());
+        assertEquals(PREVISION, withoutUpdates.get(1).linkType());
+    }
+
+    @Test
+    void shortestPath_ShouldBeEmptyBetweenUnconnectedDocuments() {
+        assertTrue(graph.shortestPath(1, 10, LinkGraph.ALL_TYPES).isEmpty());
+        assertTrue(graph.shortestPath(1, 4, LinkGraph.mask(List.of(COLLATERAL_CONSEQUENCE))).isEmpty());
+    }
+
+    @Test
+    void components_ShouldGroupConnectedDocumentsLargestFirst() {
+        assertEquals(List.of(List.of(1L, 2L, 3L, 4L), List.of(10L, 11L)), graph.components(LinkGraph.ALL_TYPES));
+        assertEquals(List.of(List.of(1L, 4L), List.of(2L, 3L)), graph.components(LinkGraph.mask(List.of(DocumentLinkType.UPDATE))));
+    }
+
+    @Test
+    void empty_ShouldHaveNoDocuments() {
+        assertEquals(0, LinkGraph.empty().size());
+        assertTrue(LinkGraph.empty().components(LinkGraph.ALL_TYPES).isEmpty());
+    }
+}
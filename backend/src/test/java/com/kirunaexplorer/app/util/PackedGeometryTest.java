@@ -0,0 +1,76 @@
+package com.kirunaexplorer.app.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kirunaexplorer.app.constants.GeometryType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedGeometryTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void polygonOfLatitudeLongitudeObjectsIsWrittenBack() throws Exception {
+        String coordinates = """
+            [{"longitude": 20.0, "latitude": 67.0}, {"latitude": 67.0, "longitude": 21.5},
+             {"latitude": 68.25, "longitude": 21.0}]
+            """;
+
+        PackedGeometry geometry = PackedGeometry.parse(GeometryType.POLYGON, coordinates);
+
+        assertEquals(3, geometry.size());
+        assertEquals(expected("POLYGON", coordinates), write(geometry));
+    }
+
+    @Test
+    void multipolygonOfGeoJsonPositionsIsWrittenBack() throws Exception {
+        String coordinates = """
+            [[[[20.0, 67.0], [21.0, 67.0], [21.0, 68.0], [20.0, 67.0]],
+              [[20.2, 67.2], [20.4, 67.2], [20.4, 67.4], [20.2, 67.2]]],
+             [[[22.0, 67.0], [23.0, 67.0], [23.0, 68.0], [22.0, 67.0]]]]
+            """;
+
+        PackedGeometry geometry = PackedGeometry.parse(GeometryType.MULTIPOLYGON, coordinates);
+
+        assertEquals(12, geometry.size());
+        assertEquals(expected("MULTIPOLYGON", coordinates), write(geometry));
+    }
+
+    @Test
+    void unexpectedCoordinatesAreWrittenRaw() throws Exception {
+        String coordinates = "[[20.0, 67.0, 350.0], {\"latitude\": 67.0, \"longitude\": 20.0, \"name\": \"a\"}]";
+
+        PackedGeometry geometry = PackedGeometry.parse(GeometryType.POLYGON, coordinates);
+
+        assertEquals(0, geometry.size());
+        assertEquals(expected("POLYGON", coordinates), write(geometry));
+    }
+
+    @Test
+    void integerCoordinatesAreWrittenAsIntegers() throws Exception {
+        String coordinates = """
+            [[[20, 67.5], [21, 67], [21.25, 68]], [{"latitude": 67, "longitude": 20.5}]]
+            """;
+
+        assertEquals(mapper.writeValueAsString(expected("POLYGON", coordinates)),
+            mapper.writeValueAsString(PackedGeometry.parse(GeometryType.POLYGON, coordinates)));
+    }
+
+    @Test
+    void missingCoordinatesAreWrittenAsNull() throws Exception {
+        JsonNode json = write(PackedGeometry.parse(GeometryType.POLYGON, null));
+
+        assertTrue(json.get("coordinates").isNull());
+    }
+
+    private JsonNode write(PackedGeometry geometry) throws Exception {
+        return mapper.readTree(mapper.writeValueAsString(geometry));
+    }
+
+    private JsonNode expected(String type, String coordinates) throws Exception {
+        return mapper.createObjectNode()
+            .put("type", type)
+            .set("coordinates", mapper.readTree(coordinates));
+    }
+}
@@ -0,0 +1,50 @@
+package com.kirunaexplorer.app.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixTrieTest {
+
+    private PrefixTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new PrefixTrie();
+        trie.addAll(List.of("Kiruna kommun", "LKAB", "Residents", "Kiruna Church", "White Arkitekter"));
+    }
+
+    @Test
+    void suggest_ShouldMatchStartOfAnyWordIgnoringCase() {
+        assertEquals(List.of("Kiruna Church", "Kiruna kommun"), trie.suggest("KIR", 0, 10));
+        assertEquals(List.of("Kiruna kommun"), trie.suggest("kom", 0, 10));
+        assertEquals(List.of("Kiruna kommun"), trie.suggest("kiruna  ko", 0, 10));
+    }
+
+    @Test
+    void suggest_ShouldTolerateTypos() {
+        assertEquals(List.of("Residents"), trie.suggest("rezid", 1, 10));
+        assertEquals(List.of("White Arkitekter"), trie.suggest("arkiteckter", 2, 10));
+        assertTrue(trie.suggest("rezid", 0, 10).isEmpty());
+    }
+
+    @Test
+    void suggest_ShouldRankExactPrefixesFirst() {
+        trie.add("Kirunavaara");
+
+        // "kiru" is one edit from "kira", but the names starting with it come first
+        trie.add("Kiran");
+        assertEquals(List.of("Kiruna Church", "Kiruna kommun", "Kirunavaara", "Kiran"), trie.suggest("kiru", 1, 10));
+        assertEquals(List.of("Kiruna Church", "Kiruna kommun"), trie.suggest("kiru", 1, 2));
+    }
+
+    @Test
+    void suggest_ShouldReturnNothingForBlankQuery() {
+        assertTrue(trie.suggest(" ", 2, 10).isEmpty());
+        assertTrue(trie.suggest(null, 2, 10).isEmpty());
+    }
+}
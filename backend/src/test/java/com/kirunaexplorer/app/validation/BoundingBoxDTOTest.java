@@ -0,0 +1,38 @@
+package com.kirunaexplorer.app.validation;
+
+import com.kirunaexplorer.app.dto.request.BoundingBoxDTO;
+import com.kirunaexplorer.app.exception.InvalidQueryParameterException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundingBoxDTOTest {
+
+    @Test
+    void testParseValidBoundingBox() {
+        BoundingBoxDTO bbox = BoundingBoxDTO.parse("20.1, 67.8,20.4,67.9");
+
+        assertEquals(new BoundingBoxDTO(20.1, 67.8, 20.4, 67.9), bbox);
+        assertEquals(20.25, bbox.centerLon(), 1e-9);
+        assertEquals(67.85, bbox.centerLat(), 1e-9);
+    }
+
+    @Test
+    void testParseInvalidBoundingBox() {
+        assertThrows(InvalidQueryParameterException.class, () -> BoundingBoxDTO.parse("20.1,67.8,20.4"));
+        assertThrows(InvalidQueryParameterException.class, () -> BoundingBoxDTO.parse("20.1,67.8,east,67.9"));
+        assertThrows(InvalidQueryParameterException.class, () -> BoundingBoxDTO.parse("20.1,67.8,NaN,67.9"));
+        assertThrows(InvalidQueryParameterException.class, () -> BoundingBoxDTO.parse("-181,67.8,20.4,67.9"));
+        assertThrows(InvalidQueryParameterException.class, () -> BoundingBoxDTO.parse("20.4,67.8,20.1,67.9"));
+    }
+
+    @Test
+    void testExpandIsClampedToWorld() {
+        BoundingBoxDTO bbox = new BoundingBoxDTO(-179.9, 10, 179.9, 89.9).expand(256, 0);
+
+        assertEquals(-180, bbox.minLon());
+        assertEquals(-90, bbox.minLat());
+        assertEquals(180, bbox.maxLon());
+        assertEquals(90, bbox.maxLat());
+    }
+}
@@ -4,6 +4,8 @@ import com.kirunaexplorer.app.dto.request.FileUploadRequestDTO;
 import com.kirunaexplorer.app.exception.FileReadException;
 import com.kirunaexplorer.app.model.Document;
 import com.kirunaexplorer.app.model.DocumentFile;
+import com.kirunaexplorer.app.storage.BlobStore;
+import com.kirunaexplorer.app.storage.StoredBlob;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
@@ -12,22 +14,29 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 public class FileUploadRequestDTOTest {
 
+    private static final String HASH = "ed7002b439e9ac845f22357d822bac1444730fbdb6016d3ec9432297b9ec9f73";
+
     private Validator validator;
+    private BlobStore blobStore;
 
     @BeforeEach
     void setUp() {
         ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
         validator = factory.getValidator();
+        blobStore = mock(BlobStore.class);
+        when(blobStore.store(any(InputStream.class))).thenReturn(new StoredBlob(HASH, 7L));
     }
 
     @Test
@@ -36,16 +45,20 @@ public class FileUploadRequestDTOTest {
         MultipartFile mockFile = mock(MultipartFile.class);
         when(mockFile.getOriginalFilename()).thenReturn("test.txt");
         when(mockFile.getSize()).thenReturn(10L);
-        when(mockFile.getBytes()).thenReturn("content".getBytes());
+        InputStream content = new ByteArrayInputStream("content".getBytes());
+        when(mockFile.getInputStream()).thenReturn(content);
 
         FileUploadRequestDTO requestDTO = new FileUploadRequestDTO(List.of(mockFile));
-        List<DocumentFile> documentFiles = requestDTO.toDocumentFiles(document);
+        List<DocumentFile> documentFiles = requestDTO.toDocumentFiles(document, blobStore);
 
         assertEquals(1, documentFiles.size());
         assertEquals("test", documentFiles.get(0).getName());
         assertEquals("txt", documentFiles.get(0).getExtension());
-        assertEquals(10L, documentFiles.get(0).getSize());
-        assertArrayEquals("content".getBytes(), documentFiles.get(0).getContent());
+        assertEquals(7L, documentFiles.get(0).getSize());
+        assertEquals(HASH, documentFiles.get(0).getContentHash());
+        assertNull(documentFiles.get(0).getContent());
+        verify(blobStore).store(content);
+        verify(mockFile, never()).getBytes();
     }
 
     @Test
@@ -54,11 +67,11 @@ public class FileUploadRequestDTOTest {
         MultipartFile mockFile = mock(MultipartFile.class);
         when(mockFile.getOriginalFilename()).thenReturn("test.txt");
         when(mockFile.getSize()).thenReturn(10L);
-        when(mockFile.getBytes()).thenThrow(new IOException("Error reading file"));
+        when(mockFile.getInputStream()).thenThrow(new IOException("Error reading file"));
 
         FileUploadRequestDTO requestDTO = new FileUploadRequestDTO(List.of(mockFile));
 
-        assertThrows(FileReadException.class, () -> requestDTO.toDocumentFiles(document));
+        assertThrows(FileReadException.class, () -> requestDTO.toDocumentFiles(document, blobStore));
     }
 
     @Test
@@ -98,10 +111,10 @@ public class FileUploadRequestDTOTest {
         MultipartFile mockFile = mock(MultipartFile.class);
         when(mockFile.getOriginalFilename()).thenReturn("example.file.txt");
         when(mockFile.getSize()).thenReturn(20L);
-        when(mockFile.getBytes()).thenReturn("filecontent".getBytes());
+        when(mockFile.getInputStream()).thenReturn(new ByteArrayInputStream("filecontent".getBytes()));
 
         FileUploadRequestDTO requestDTO = new FileUploadRequestDTO(List.of(mockFile));
-        List<DocumentFile> documentFiles = requestDTO.toDocumentFiles(document);
+        List<DocumentFile> documentFiles = requestDTO.toDocumentFiles(document, blobStore);
 
         assertEquals("example.file", documentFiles.get(0).getName());
         assertEquals("txt", documentFiles.get(0).getExtension());
@@ -0,0 +1,56 @@
+package com.kirunaexplorer.app.validation;
+
+import com.kirunaexplorer.app.constants.DocumentLinkType;
+import com.kirunaexplorer.app.dto.request.LinkImportRequestDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LinkImportRequestDTOTest {
+
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+
+    @Test
+    void testValidRequest() {
+        LinkImportRequestDTO dto = new LinkImportRequestDTO(List.of(new LinkImportRequestDTO.Link(1L, 2L, DocumentLinkType.UPDATE)));
+
+        assertTrue(validator.validate(dto).isEmpty());
+    }
+
+    @Test
+    void testInvalidRow() {
+        LinkImportRequestDTO dto = new LinkImportRequestDTO(List.of(
+            new LinkImportRequestDTO.Link(1L, 2L, DocumentLinkType.UPDATE),
+            new LinkImportRequestDTO.Link(1L, null, DocumentLinkType.UPDATE)
+        ));
+        Set<ConstraintViolation<LinkImportRequestDTO>> violations = validator.validate(dto);
+
+        assertEquals(1, violations.size());
+        assertEquals("links[1].linkedDocumentId", violations.iterator().next().getPropertyPath().toString());
+    }
+
+    @Test
+    void testEmptyOrTooLargeRequest() {
+        LinkImportRequestDTO empty = new LinkImportRequestDTO(List.of());
+        LinkImportRequestDTO tooLarge = new LinkImportRequestDTO(
+            Collections.nCopies(5001, new LinkImportRequestDTO.Link(1L, 2L, DocumentLinkType.UPDATE))
+        );
+
+        assertEquals(1, validator.validate(empty).size());
+        assertEquals(1, validator.validate(tooLarge).size());
+    }
+}
@@ -0,0 +1,45 @@
+package com.kirunaexplorer.app.validation;
+
+import com.kirunaexplorer.app.dto.request.PageCursorDTO;
+import com.kirunaexplorer.app.exception.InvalidQueryParameterException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageCursorDTOTest {
+
+    @Test
+    void testEncodeAndParse() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 11, 20, 10, 15, 30, 123000000);
+        PageCursorDTO cursor = PageCursorDTO.afterCreatedAt(createdAt, 42L);
+
+        PageCursorDTO parsed = PageCursorDTO.parse(cursor.encode(), PageCursorDTO.Order.CREATED_AT);
+
+        assertEquals(cursor, parsed);
+        assertEquals(createdAt, parsed.createdAt());
+        assertEquals(0.25f, PageCursorDTO.parse(PageCursorDTO.afterRank(0.25f, 7L).encode(), PageCursorDTO.Order.RELEVANCE).rank());
+    }
+
+    @Test
+    void testParseFirstPage() {
+        assertNull(PageCursorDTO.parse("", PageCursorDTO.Order.ID));
+        assertNull(PageCursorDTO.parse(null, PageCursorDTO.Order.ID));
+    }
+
+    @Test
+    void testParseInvalidCursor() {
+        assertThrows(InvalidQueryParameterException.class, () -> PageCursorDTO.parse("not a cursor", PageCursorDTO.Order.ID));
+        assertThrows(InvalidQueryParameterException.class, () -> PageCursorDTO.parse("SUQ", PageCursorDTO.Order.ID));
+        String badDate = new PageCursorDTO(PageCursorDTO.Order.CREATED_AT, "yesterday", 1L).encode();
+        assertThrows(InvalidQueryParameterException.class, () -> PageCursorDTO.parse(badDate, PageCursorDTO.Order.CREATED_AT));
+    }
+
+    @Test
+    void testParseCursorOfAnotherOrder() {
+        String token = PageCursorDTO.afterId(5L).encode();
+
+        assertThrows(InvalidQueryParameterException.class, () -> PageCursorDTO.parse(token, PageCursorDTO.Order.RELEVANCE));
+    }
+}